@@ -0,0 +1,13 @@
+package com.banquito.formalizacion.reactivo;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class FormalizacionReactivoApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(FormalizacionReactivoApplication.class, args);
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.banquito.formalizacion.reactivo.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.banquito.formalizacion.reactivo.controller.dto.ContratoCompraVentaDTO;
+import com.banquito.formalizacion.reactivo.service.LecturaContratoService;
+import com.banquito.formalizacion.reactivo.util.Etags;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas de ContratoCompraVentaController con las mismas rutas y el mismo JSON
+@RestController
+@RequestMapping(path = "/api/contratos-compra-venta", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ContratoCompraVentaLecturaController {
+
+    private static final Logger log = LoggerFactory.getLogger(ContratoCompraVentaLecturaController.class);
+
+    private final LecturaContratoService service;
+
+    public ContratoCompraVentaLecturaController(LecturaContratoService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ContratoCompraVentaDTO>> getById(@PathVariable Long id, ServerWebExchange exchange) {
+        log.debug("Solicitud recibida → Obtener contrato con ID={}", id);
+        return service.getContratoCompraVenta(id)
+            .map(dto -> {
+                String etag = Etags.deVersion(dto.getVersion());
+                if (exchange.checkNotModified(etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<ContratoCompraVentaDTO>build();
+                }
+                return ResponseEntity.ok().eTag(etag).body(dto);
+            })
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Igual que la versión MVC responde 404 si no hay contratos; si hay, el listado se transmite
+    // sin juntarlo en memoria (el primer elemento decide el estado y luego se reemite)
+    @GetMapping(path = "/estado/{estado}",
+                produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<ContratoCompraVentaDTO>>> getByEstado(@PathVariable String estado) {
+        return service.getContratosCompraVentaPorEstado(estado)
+            .switchOnFirst((primero, contratos) -> {
+                if (primero.isOnError()) {
+                    return Mono.error(primero.getThrowable());
+                }
+                return Mono.just(primero.hasValue()
+                    ? ResponseEntity.ok(contratos)
+                    : ResponseEntity.notFound().<Flux<ContratoCompraVentaDTO>>build());
+            })
+            .next();
+    }
+
+    @GetMapping("/existe-solicitud/{idSolicitud}")
+    public Mono<Boolean> existsBySolicitud(@PathVariable Long idSolicitud) {
+        return service.existeContratoCompraVenta(idSolicitud);
+    }
+}
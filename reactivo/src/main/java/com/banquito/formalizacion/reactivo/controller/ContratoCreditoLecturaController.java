@@ -0,0 +1,100 @@
+package com.banquito.formalizacion.reactivo.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.banquito.formalizacion.reactivo.controller.dto.ContratoCreditoDTO;
+import com.banquito.formalizacion.reactivo.controller.dto.PagareDTO;
+import com.banquito.formalizacion.reactivo.service.LecturaContratoService;
+import com.banquito.formalizacion.reactivo.util.Etags;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas de ContratoCreditoController con las mismas rutas y el mismo JSON
+@RestController
+@RequestMapping(path = "/api/contratos-credito", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ContratoCreditoLecturaController {
+
+    private static final Logger log = LoggerFactory.getLogger(ContratoCreditoLecturaController.class);
+
+    private final LecturaContratoService service;
+
+    public ContratoCreditoLecturaController(LecturaContratoService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ContratoCreditoDTO>> getById(@PathVariable Long id, ServerWebExchange exchange) {
+        log.debug("Solicitud recibida → Obtener ContratoCredito con ID={}", id);
+        return service.getContratoCredito(id)
+            .map(dto -> conEtag(dto, dto.getVersion(), exchange))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping
+    public Mono<Page<ContratoCreditoDTO>> listWithFilters(
+        @RequestParam(required = false) String estado,
+        @RequestParam(required = false) String numeroContrato,
+        @RequestParam(required = false) Long idSolicitud,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size) {
+        return service.findContratosConFiltros(estado, numeroContrato, idSolicitud, PageRequest.of(page, size));
+    }
+
+    @GetMapping("/existe/solicitud/{idSolicitud}")
+    public Mono<Boolean> existsBySolicitud(@PathVariable Long idSolicitud) {
+        return service.existeContratoCredito(idSolicitud);
+    }
+
+    // === PAGARE ===
+
+    @GetMapping("/pagares/{id}")
+    public Mono<ResponseEntity<PagareDTO>> getPagareById(@PathVariable Long id, ServerWebExchange exchange) {
+        return service.getPagare(id)
+            .map(dto -> conEtag(dto, dto.getVersion(), exchange))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Con Accept: application/x-ndjson cada cuota se escribe apenas llega de la base.
+    // No lleva ETag: la respuesta empieza antes de conocer todas las versiones.
+    @GetMapping(path = "/pagares/contrato/{idContratoCredito}",
+                produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<PagareDTO> getPagaresByContrato(@PathVariable Long idContratoCredito) {
+        log.debug("Listando pagarés de contrato de crédito ID: {}", idContratoCredito);
+        return service.getPagaresPorContrato(idContratoCredito);
+    }
+
+    @GetMapping("/pagares/contrato/{idContratoCredito}/cuota/{numeroCuota}")
+    public Mono<ResponseEntity<PagareDTO>> getPagareByContratoAndCuota(
+            @PathVariable Long idContratoCredito,
+            @PathVariable Long numeroCuota) {
+        return service.getPagarePorContratoYCuota(idContratoCredito, numeroCuota)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/pagares/contrato/{idContratoCredito}/existen")
+    public Mono<Boolean> existenPagaresPorContrato(@PathVariable Long idContratoCredito) {
+        return service.existenPagaresPorContrato(idContratoCredito);
+    }
+
+    private static <T> ResponseEntity<T> conEtag(T cuerpo, Long version, ServerWebExchange exchange) {
+        String etag = Etags.deVersion(version);
+        if (exchange.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(cuerpo);
+    }
+}
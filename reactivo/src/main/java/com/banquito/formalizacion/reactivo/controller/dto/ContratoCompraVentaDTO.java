@@ -0,0 +1,23 @@
+package com.banquito.formalizacion.reactivo.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Mismo JSON que ContratoCompraVentaDTO de formalizacion
+@Data
+@Builder
+public class ContratoCompraVentaDTO {
+
+    private Long idContratoVenta;
+    private Long idSolicitud;
+    private String numeroContrato;
+    private LocalDateTime fechaGeneracion;
+    private LocalDateTime fechaFirma;
+    private BigDecimal precioFinalVehiculo;
+    private String rutaArchivoFirmado;
+    private String estado;
+    private Long version;
+}
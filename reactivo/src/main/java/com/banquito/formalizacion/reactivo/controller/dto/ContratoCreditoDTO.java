@@ -0,0 +1,25 @@
+package com.banquito.formalizacion.reactivo.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Mismo JSON que ContratoCreditoDTO de formalizacion
+@Data
+@Builder
+public class ContratoCreditoDTO {
+
+    private Long idContratoCredito;
+    private Long idSolicitud;
+    private String numeroContrato;
+    private LocalDateTime fechaGeneracion;
+    private LocalDateTime fechaFirma;
+    private BigDecimal montoAprobado;
+    private Long plazoFinalMeses;
+    private BigDecimal tasaEfectivaAnual;
+    private String rutaArchivoFirmado;
+    private String estado;
+    private Long version;
+}
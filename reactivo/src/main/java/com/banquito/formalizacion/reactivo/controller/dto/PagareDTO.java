@@ -0,0 +1,21 @@
+package com.banquito.formalizacion.reactivo.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Mismo JSON que PagareDTO de formalizacion
+@Data
+@Builder
+public class PagareDTO {
+
+    private Long idPagare;
+    private Long idContratoCredito;
+    private Long numeroCuota;
+    private BigDecimal montoCuota;
+    private LocalDate fechaVencimiento;
+    private String estado;
+    private Long version;
+}
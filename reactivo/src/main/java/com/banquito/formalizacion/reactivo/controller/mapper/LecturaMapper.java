@@ -0,0 +1,20 @@
+package com.banquito.formalizacion.reactivo.controller.mapper;
+
+import org.mapstruct.Mapper;
+
+import com.banquito.formalizacion.reactivo.controller.dto.ContratoCompraVentaDTO;
+import com.banquito.formalizacion.reactivo.controller.dto.ContratoCreditoDTO;
+import com.banquito.formalizacion.reactivo.controller.dto.PagareDTO;
+import com.banquito.formalizacion.reactivo.model.ContratoCompraVenta;
+import com.banquito.formalizacion.reactivo.model.ContratoCredito;
+import com.banquito.formalizacion.reactivo.model.Pagare;
+
+@Mapper(componentModel = "spring")
+public interface LecturaMapper {
+
+    ContratoCreditoDTO toDto(ContratoCredito entity);
+
+    PagareDTO toDto(Pagare entity);
+
+    ContratoCompraVentaDTO toDto(ContratoCompraVenta entity);
+}
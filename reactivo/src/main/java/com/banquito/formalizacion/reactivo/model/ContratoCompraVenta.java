@@ -0,0 +1,77 @@
+package com.banquito.formalizacion.reactivo.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Lectura de formalizacion.contrato_compra_venta
+@Table("contrato_compra_venta")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ContratoCompraVenta {
+
+    @Id
+    @Column("id_contrato_venta")
+    private Long idContratoVenta;
+
+    @Column("id_solicitud")
+    private Long idSolicitud;
+
+    @Column("numero_contrato")
+    private String numeroContrato;
+
+    @Column("fecha_generacion")
+    private LocalDateTime fechaGeneracion;
+
+    @Column("fecha_firma")
+    private LocalDateTime fechaFirma;
+
+    @Column("precio_final_vehiculo")
+    private BigDecimal precioFinalVehiculo;
+
+    @Column("ruta_archivo_firmado")
+    private String rutaArchivoFirmado;
+
+    @Column("estado")
+    private String estado;
+
+    @Column("version")
+    private Long version;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        ContratoCompraVenta that = (ContratoCompraVenta) obj;
+        return Objects.equals(idContratoVenta, that.idContratoVenta);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idContratoVenta);
+    }
+
+    @Override
+    public String toString() {
+        return "ContratoCompraVenta{" +
+                "idContratoVenta=" + idContratoVenta +
+                ", idSolicitud=" + idSolicitud +
+                ", numeroContrato='" + numeroContrato + '\'' +
+                ", fechaGeneracion=" + fechaGeneracion +
+                ", fechaFirma=" + fechaFirma +
+                ", precioFinalVehiculo=" + precioFinalVehiculo +
+                ", rutaArchivoFirmado='" + rutaArchivoFirmado + '\'' +
+                ", estado='" + estado + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
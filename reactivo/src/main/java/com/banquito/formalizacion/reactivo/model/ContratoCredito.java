@@ -0,0 +1,86 @@
+package com.banquito.formalizacion.reactivo.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Lectura de formalizacion.contrato_credito; el estado llega como texto porque las transiciones
+// se validan solo en el servicio principal
+@Table("contrato_credito")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ContratoCredito {
+
+    @Id
+    @Column("id_contrato_credito")
+    private Long idContratoCredito;
+
+    @Column("id_solicitud")
+    private Long idSolicitud;
+
+    @Column("numero_contrato")
+    private String numeroContrato;
+
+    @Column("fecha_generacion")
+    private LocalDateTime fechaGeneracion;
+
+    @Column("fecha_firma")
+    private LocalDateTime fechaFirma;
+
+    @Column("monto_aprobado")
+    private BigDecimal montoAprobado;
+
+    @Column("plazo_final_meses")
+    private Long plazoFinalMeses;
+
+    @Column("tasa_efectiva_anual")
+    private BigDecimal tasaEfectivaAnual;
+
+    @Column("ruta_archivo_firmado")
+    private String rutaArchivoFirmado;
+
+    @Column("estado")
+    private String estado;
+
+    @Column("version")
+    private Long version;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        ContratoCredito that = (ContratoCredito) obj;
+        return Objects.equals(idContratoCredito, that.idContratoCredito);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idContratoCredito);
+    }
+
+    @Override
+    public String toString() {
+        return "ContratoCredito{" +
+                "idContratoCredito=" + idContratoCredito +
+                ", idSolicitud=" + idSolicitud +
+                ", numeroContrato='" + numeroContrato + '\'' +
+                ", fechaGeneracion=" + fechaGeneracion +
+                ", fechaFirma=" + fechaFirma +
+                ", montoAprobado=" + montoAprobado +
+                ", plazoFinalMeses=" + plazoFinalMeses +
+                ", tasaEfectivaAnual=" + tasaEfectivaAnual +
+                ", rutaArchivoFirmado='" + rutaArchivoFirmado + '\'' +
+                ", estado='" + estado + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+package com.banquito.formalizacion.reactivo.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Lectura de formalizacion.pagares (tabla particionada por fecha_vencimiento)
+@Table("pagares")
+@Getter
+@Setter
+@NoArgsConstructor
+public class Pagare {
+
+    @Id
+    @Column("id_pagare")
+    private Long idPagare;
+
+    @Column("id_contrato_credito")
+    private Long idContratoCredito;
+
+    @Column("numero_cuota")
+    private Long numeroCuota;
+
+    @Column("monto_cuota")
+    private BigDecimal montoCuota;
+
+    @Column("fecha_vencimiento")
+    private LocalDate fechaVencimiento;
+
+    @Column("estado")
+    private String estado;
+
+    @Column("version")
+    private Long version;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        Pagare that = (Pagare) obj;
+        return Objects.equals(idPagare, that.idPagare);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idPagare);
+    }
+
+    @Override
+    public String toString() {
+        return "Pagare{" +
+                "idPagare=" + idPagare +
+                ", idContratoCredito=" + idContratoCredito +
+                ", numeroCuota=" + numeroCuota +
+                ", montoCuota=" + montoCuota +
+                ", fechaVencimiento=" + fechaVencimiento +
+                ", estado='" + estado + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
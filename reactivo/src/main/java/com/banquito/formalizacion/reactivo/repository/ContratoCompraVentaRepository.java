@@ -0,0 +1,15 @@
+package com.banquito.formalizacion.reactivo.repository;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import com.banquito.formalizacion.reactivo.model.ContratoCompraVenta;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ContratoCompraVentaRepository extends ReactiveCrudRepository<ContratoCompraVenta, Long> {
+
+    Flux<ContratoCompraVenta> findByEstado(String estado);
+
+    Mono<Boolean> existsByIdSolicitud(Long idSolicitud);
+}
@@ -0,0 +1,30 @@
+package com.banquito.formalizacion.reactivo.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import com.banquito.formalizacion.reactivo.model.ContratoCredito;
+
+import reactor.core.publisher.Mono;
+
+public interface ContratoCreditoRepository extends ReactiveCrudRepository<ContratoCredito, Long> {
+
+    // Si no está en la tabla operativa puede estar archivado
+    @Query("""
+        select id_contrato_credito, id_solicitud, numero_contrato, fecha_generacion, fecha_firma, monto_aprobado,
+               plazo_final_meses, tasa_efectiva_anual, ruta_archivo_firmado, estado, version
+        from contrato_credito where id_contrato_credito = :id
+        union all
+        select id_contrato_credito, id_solicitud, numero_contrato, fecha_generacion, fecha_firma, monto_aprobado,
+               plazo_final_meses, tasa_efectiva_anual, ruta_archivo_firmado, estado, version
+        from contrato_credito_archivo where id_contrato_credito = :id
+        limit 1
+        """)
+    Mono<ContratoCredito> findIncluyendoArchivo(Long id);
+
+    @Query("""
+        select exists(select 1 from contrato_credito where id_solicitud = :idSolicitud)
+            or exists(select 1 from contrato_credito_archivo where id_solicitud = :idSolicitud)
+        """)
+    Mono<Boolean> existsByIdSolicitudIncluyendoArchivo(Long idSolicitud);
+}
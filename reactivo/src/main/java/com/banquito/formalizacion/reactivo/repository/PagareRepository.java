@@ -0,0 +1,42 @@
+package com.banquito.formalizacion.reactivo.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import com.banquito.formalizacion.reactivo.model.Pagare;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface PagareRepository extends ReactiveCrudRepository<Pagare, Long> {
+
+    Flux<Pagare> findByIdContratoCreditoOrderByNumeroCuota(Long idContratoCredito);
+
+    Mono<Boolean> existsByIdContratoCredito(Long idContratoCredito);
+
+    @Query("""
+        select id_pagare, id_contrato_credito, numero_cuota, monto_cuota, fecha_vencimiento, estado, version
+        from pagare_archivo where id_contrato_credito = :idContratoCredito order by numero_cuota
+        """)
+    Flux<Pagare> findArchivadosPorContrato(Long idContratoCredito);
+
+    @Query("""
+        select id_pagare, id_contrato_credito, numero_cuota, monto_cuota, fecha_vencimiento, estado, version
+        from pagares where id_pagare = :id
+        union all
+        select id_pagare, id_contrato_credito, numero_cuota, monto_cuota, fecha_vencimiento, estado, version
+        from pagare_archivo where id_pagare = :id
+        limit 1
+        """)
+    Mono<Pagare> findIncluyendoArchivo(Long id);
+
+    @Query("""
+        select id_pagare, id_contrato_credito, numero_cuota, monto_cuota, fecha_vencimiento, estado, version
+        from pagares where id_contrato_credito = :idContratoCredito and numero_cuota = :numeroCuota
+        union all
+        select id_pagare, id_contrato_credito, numero_cuota, monto_cuota, fecha_vencimiento, estado, version
+        from pagare_archivo where id_contrato_credito = :idContratoCredito and numero_cuota = :numeroCuota
+        limit 1
+        """)
+    Mono<Pagare> findCuotaIncluyendoArchivo(Long idContratoCredito, Long numeroCuota);
+}
@@ -0,0 +1,124 @@
+package com.banquito.formalizacion.reactivo.service;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.banquito.formalizacion.reactivo.controller.dto.ContratoCompraVentaDTO;
+import com.banquito.formalizacion.reactivo.controller.dto.ContratoCreditoDTO;
+import com.banquito.formalizacion.reactivo.controller.dto.PagareDTO;
+import com.banquito.formalizacion.reactivo.controller.mapper.LecturaMapper;
+import com.banquito.formalizacion.reactivo.model.ContratoCredito;
+import com.banquito.formalizacion.reactivo.repository.ContratoCompraVentaRepository;
+import com.banquito.formalizacion.reactivo.repository.ContratoCreditoRepository;
+import com.banquito.formalizacion.reactivo.repository.PagareRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Mismas lecturas que ContratoCreditoService y ContratoCompraVentaService de formalizacion, sin
+// bloquear hilos: cada consulta devuelve un Mono o un Flux sobre el pool R2DBC
+@Service
+public class LecturaContratoService {
+
+    private final ContratoCreditoRepository contratoCreditoRepository;
+    private final PagareRepository pagareRepository;
+    private final ContratoCompraVentaRepository contratoCompraVentaRepository;
+    private final R2dbcEntityTemplate template;
+    private final LecturaMapper mapper;
+
+    public LecturaContratoService(
+        ContratoCreditoRepository contratoCreditoRepository,
+        PagareRepository pagareRepository,
+        ContratoCompraVentaRepository contratoCompraVentaRepository,
+        R2dbcEntityTemplate template,
+        LecturaMapper mapper
+    ) {
+        this.contratoCreditoRepository = contratoCreditoRepository;
+        this.pagareRepository = pagareRepository;
+        this.contratoCompraVentaRepository = contratoCompraVentaRepository;
+        this.template = template;
+        this.mapper = mapper;
+    }
+
+    // -------- CONTRATO CREDITO --------
+
+    public Mono<ContratoCreditoDTO> getContratoCredito(Long id) {
+        return contratoCreditoRepository.findIncluyendoArchivo(id).map(mapper::toDto);
+    }
+
+    // Los filtros presentes se combinan con AND; numeroContrato es búsqueda parcial sin mayúsculas
+    public Mono<Page<ContratoCreditoDTO>> findContratosConFiltros(
+        String estado,
+        String numeroContrato,
+        Long idSolicitud,
+        Pageable pageable
+    ) {
+        Criteria criterio = Criteria.empty();
+        if (estado != null) {
+            criterio = criterio.and("estado").is(estado);
+        }
+        if (numeroContrato != null) {
+            criterio = criterio.and("numeroContrato").like("%" + escaparLike(numeroContrato) + "%").ignoreCase(true);
+        }
+        if (idSolicitud != null) {
+            criterio = criterio.and("idSolicitud").is(idSolicitud);
+        }
+        Mono<List<ContratoCreditoDTO>> contenido = template.select(ContratoCredito.class)
+            .matching(Query.query(criterio).with(pageable))
+            .all()
+            .map(mapper::toDto)
+            .collectList();
+        Mono<Long> total = template.select(ContratoCredito.class).matching(Query.query(criterio)).count();
+        return Mono.zip(contenido, total).map(t -> new PageImpl<>(t.getT1(), pageable, t.getT2()));
+    }
+
+    public Mono<Boolean> existeContratoCredito(Long idSolicitud) {
+        return contratoCreditoRepository.existsByIdSolicitudIncluyendoArchivo(idSolicitud);
+    }
+
+    // -------- PAGARE --------
+
+    public Mono<PagareDTO> getPagare(Long id) {
+        return pagareRepository.findIncluyendoArchivo(id).map(mapper::toDto);
+    }
+
+    // Se emite cuota por cuota a medida que llegan las filas; si el contrato fue archivado se lee el archivo
+    public Flux<PagareDTO> getPagaresPorContrato(Long idContratoCredito) {
+        return pagareRepository.findByIdContratoCreditoOrderByNumeroCuota(idContratoCredito)
+            .switchIfEmpty(Flux.defer(() -> pagareRepository.findArchivadosPorContrato(idContratoCredito)))
+            .map(mapper::toDto);
+    }
+
+    public Mono<PagareDTO> getPagarePorContratoYCuota(Long idContratoCredito, Long numeroCuota) {
+        return pagareRepository.findCuotaIncluyendoArchivo(idContratoCredito, numeroCuota).map(mapper::toDto);
+    }
+
+    public Mono<Boolean> existenPagaresPorContrato(Long idContratoCredito) {
+        return pagareRepository.existsByIdContratoCredito(idContratoCredito);
+    }
+
+    // -------- CONTRATO COMPRA VENTA --------
+
+    public Mono<ContratoCompraVentaDTO> getContratoCompraVenta(Long id) {
+        return contratoCompraVentaRepository.findById(id).map(mapper::toDto);
+    }
+
+    public Flux<ContratoCompraVentaDTO> getContratosCompraVentaPorEstado(String estado) {
+        return contratoCompraVentaRepository.findByEstado(estado).map(mapper::toDto);
+    }
+
+    public Mono<Boolean> existeContratoCompraVenta(Long idSolicitud) {
+        return contratoCompraVentaRepository.existsByIdSolicitud(idSolicitud);
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
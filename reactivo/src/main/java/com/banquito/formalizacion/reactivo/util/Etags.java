@@ -0,0 +1,12 @@
+package com.banquito.formalizacion.reactivo.util;
+
+// ETags fuertes a partir de la columna version, iguales a las de formalizacion
+public final class Etags {
+
+    private Etags() {
+    }
+
+    public static String deVersion(Object version) {
+        return "\"" + version + "\"";
+    }
+}
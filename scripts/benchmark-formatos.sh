@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Compara tamaño y tiempo de respuesta del cronograma de pagarés en JSON, CBOR y columnar,
+# con y sin gzip. Uso: ./scripts/benchmark-formatos.sh <idContratoCredito> [url-base] [repeticiones]
+set -euo pipefail
+
+ID=${1:?indicar idContratoCredito}
+BASE=${2:-http://localhost:8005}
+REPETICIONES=${3:-200}
+API="$BASE/api/contratos-credito/pagares/contrato/$ID"
+
+medir() {
+  local nombre=$1 url=$2 accept=$3 encoding=$4
+  local total=0 bytes=0
+  for _ in $(seq 1 "$REPETICIONES"); do
+    read -r tam tiempo < <(curl -s -o /dev/null -H "Accept: $accept" ${encoding:+-H "Accept-Encoding: $encoding"} \
+      -w "%{size_download} %{time_total}\n" "$url")
+    bytes=$tam
+    total=$(echo "$total + $tiempo" | bc -l)
+  done
+  printf "%-22s %-9s %10s bytes %9.2f ms/petición\n" "$nombre" "${encoding:-identity}" "$bytes" \
+    "$(echo "$total * 1000 / $REPETICIONES" | bc -l)"
+}
+
+for encoding in "" gzip; do
+  medir "json"              "$API"          application/json "$encoding"
+  medir "cbor"              "$API"          application/cbor "$encoding"
+  medir "columnar json"     "$API/columnar" application/json "$encoding"
+  medir "columnar cbor"     "$API/columnar" application/cbor "$encoding"
+done
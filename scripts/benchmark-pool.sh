@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Carga concurrente contra una instancia en ejecución y muestra latencias y métricas del pool Hikari.
+# Uso: ./scripts/benchmark-pool.sh [url-base] [concurrencia] [peticiones]
+# Ejemplo comparando perfiles:
+#   SPRING_PROFILES_ACTIVE=prod ./mvnw spring-boot:run   &&  ./scripts/benchmark-pool.sh
+#   ./mvnw spring-boot:run                               &&  ./scripts/benchmark-pool.sh
+set -euo pipefail
+
+BASE=${1:-http://localhost:8005}
+CONCURRENCIA=${2:-32}
+PETICIONES=${3:-5000}
+RUTAS=(
+  "/api/contratos-credito?page=0&size=20"
+  "/api/contratos-credito/pagares/contrato/1"
+  "/api/cartera/resumen/estados"
+)
+
+metrica() {
+  curl -s "$BASE/actuator/metrics/$1" | grep -o "\"statistic\":\"$2\",\"value\":[0-9.E-]*" | sed 's/.*://'
+}
+
+echo "Calentando..."
+for ruta in "${RUTAS[@]}"; do
+  for _ in $(seq 1 50); do curl -s -o /dev/null "$BASE$ruta"; done
+done
+
+TIEMPOS=$(mktemp)
+trap 'rm -f "$TIEMPOS"' EXIT
+
+echo "Ejecutando $PETICIONES peticiones con concurrencia $CONCURRENCIA contra $BASE"
+inicio=$(date +%s.%N)
+seq 1 "$PETICIONES" | xargs -P "$CONCURRENCIA" -I{} sh -c \
+  'ruta=$(echo "$1" | cut -d" " -f$(( $2 % $3 + 1 ))); curl -s -o /dev/null -w "%{http_code} %{time_total}\n" "$0$ruta"' \
+  "$BASE" "${RUTAS[*]}" {} "${#RUTAS[@]}" >> "$TIEMPOS"
+fin=$(date +%s.%N)
+
+total=$(wc -l < "$TIEMPOS")
+errores=$(awk '$1 >= 500 || $1 == "000"' "$TIEMPOS" | wc -l)
+sort -k2 -n "$TIEMPOS" | awk -v n="$total" -v seg="$(echo "$fin - $inicio" | bc)" '
+  { t[NR] = $2 }
+  END {
+    printf "Peticiones: %d  Duración: %.2fs  Throughput: %.1f req/s\n", n, seg, n / seg
+    printf "Latencia p50: %.1f ms  p95: %.1f ms  p99: %.1f ms  max: %.1f ms\n",
+      t[int(n * 0.50)] * 1000, t[int(n * 0.95)] * 1000, t[int(n * 0.99)] * 1000, t[n] * 1000
+  }'
+echo "Errores 5xx/conexión: $errores"
+
+echo "Pool Hikari:"
+echo "  conexiones máx:          $(metrica hikaricp.connections.max VALUE)"
+echo "  activas ahora:           $(metrica hikaricp.connections.active VALUE)"
+echo "  pendientes ahora:        $(metrica hikaricp.connections.pending VALUE)"
+echo "  timeouts de adquisición: $(metrica hikaricp.connections.timeout COUNT)"
+echo "  espera adquisición máx:  $(metrica hikaricp.connections.acquire MAX) s"
+echo "  uso de conexión máx:     $(metrica hikaricp.connections.usage MAX) s"
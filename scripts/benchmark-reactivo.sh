@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Compara la API de lectura MVC (formalizacion) con la reactiva (reactivo/) bajo muchas conexiones abiertas.
+# Requiere wrk y ambas instancias levantadas contra la misma base:
+#   ./mvnw spring-boot:run                       (puerto 8005)
+#   (cd reactivo && ../mvnw spring-boot:run)     (puerto 8006)
+# Con 10000 conexiones hace falta subir el límite de descriptores (ulimit -n 65536) en el cliente y en
+# ambos servidores. Tomcat acepta 8192 conexiones por defecto (server.tomcat.max-connections): el resto
+# espera en la cola del sistema, y eso es parte de lo que se mide.
+# Uso: ./scripts/benchmark-reactivo.sh [conexiones] [duración] [hilos-wrk] [id-contrato]
+set -euo pipefail
+
+CONEXIONES=${1:-10000}
+DURACION=${2:-60s}
+HILOS=${3:-16}
+CONTRATO=${4:-1}
+MVC=${MVC:-http://localhost:8005}
+REACTIVO=${REACTIVO:-http://localhost:8006}
+RUTAS=(
+  "/api/contratos-credito/$CONTRATO"
+  "/api/contratos-credito/pagares/contrato/$CONTRATO"
+  "/api/contratos-credito?page=0&size=20"
+)
+
+command -v wrk >/dev/null || { echo "Se necesita wrk"; exit 1; }
+
+for ruta in "${RUTAS[@]}"; do
+  for base in "$MVC" "$REACTIVO"; do
+    echo "== $base$ruta ($CONEXIONES conexiones, $DURACION)"
+    # Calentamiento corto para JIT y pools
+    wrk -t4 -c64 -d10s "$base$ruta" > /dev/null
+    wrk -t"$HILOS" -c"$CONEXIONES" -d"$DURACION" --timeout 10s --latency "$base$ruta" \
+      | grep -E "Requests/sec|Latency|50%|99%|Socket errors|Non-2xx"
+  done
+done
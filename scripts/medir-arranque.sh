@@ -0,0 +1,104 @@
+#!/usr/bin/env bash
+# Mide tiempo de arranque (hasta /actuator/health UP), memoria residente y heap vivo tras un GC (jcmd, solo
+# JVM) de cada modo de ejecución.
+# Cada modo necesita su artefacto y una base accesible (el arranque abre el pool y valida Flyway):
+#   jvm, cds:          ./mvnw -DskipTests package
+#   aot, aot-cds:      ./mvnw -Paot -DskipTests package
+#   native:            ./mvnw -Pnative -DskipTests native:compile      (target/formalizacion)
+# cds y aot-cds entrenan el archivo de clases con un arranque previo que termina al refrescar el contexto.
+# Uso: ./scripts/medir-arranque.sh [modo...] ; repeticiones con REPETICIONES (5 por defecto)
+#   ./scripts/medir-arranque.sh jvm cds
+#   SPRING_PROFILES_ACTIVE=prod REPETICIONES=10 ./scripts/medir-arranque.sh aot-cds native
+# Costo de springdoc en prod: comparar SPRING_PROFILES_ACTIVE=prod con prod,docs
+set -euo pipefail
+
+MODOS=("${@:-jvm}")
+REPETICIONES=${REPETICIONES:-5}
+PUERTO=${PUERTO:-8005}
+ESPERA_MAXIMA=${ESPERA_MAXIMA:-120}
+JAR=target/formalizacion-0.0.1-SNAPSHOT.jar
+EXTRAIDO=target/extraido
+ARCHIVO_CDS=$EXTRAIDO/formalizacion.jsa
+NATIVO=target/formalizacion
+
+cd "$(dirname "$0")/.."
+
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+extraer() {
+  [[ -f $JAR ]] || { echo "No existe $JAR"; exit 1; }
+  rm -rf "$EXTRAIDO"
+  java -Djarmode=tools -jar "$JAR" extract --destination "$EXTRAIDO" > /dev/null
+}
+
+# Arranque de entrenamiento: registra las clases cargadas hasta el refresco del contexto
+entrenar_cds() {
+  echo "Generando archivo CDS..."
+  java -XX:ArchiveClassesAtExit="$ARCHIVO_CDS" -Dspring.context.exit=onRefresh "$@" \
+    -jar "$EXTRAIDO/$(basename "$JAR")" > "$LOG" 2>&1 || { cat "$LOG"; exit 1; }
+}
+
+comando() {
+  case $1 in
+    jvm)     echo "java -jar $JAR" ;;
+    cds)     echo "java -XX:SharedArchiveFile=$ARCHIVO_CDS -jar $EXTRAIDO/$(basename "$JAR")" ;;
+    aot)     echo "java -Dspring.aot.enabled=true -jar $JAR" ;;
+    aot-cds) echo "java -XX:SharedArchiveFile=$ARCHIVO_CDS -Dspring.aot.enabled=true -jar $EXTRAIDO/$(basename "$JAR")" ;;
+    native)  [[ -x $NATIVO ]] || { echo "No existe $NATIVO" >&2; exit 1; }; echo "$NATIVO" ;;
+    *)       echo "Modo desconocido: $1 (jvm, cds, aot, aot-cds, native)" >&2; exit 1 ;;
+  esac
+}
+
+# Imprime "milisegundos rss-kb heap-kb" de un arranque (heap 0 si no hay jcmd o es nativo)
+arrancar() {
+  local inicio fin pid rss heap=0
+  inicio=$(date +%s%N)
+  # shellcheck disable=SC2086
+  $1 --server.port="$PUERTO" > "$LOG" 2>&1 &
+  pid=$!
+  until curl -s "http://localhost:$PUERTO/actuator/health" | grep -q '"status":"UP"'; do
+    if ! kill -0 "$pid" 2>/dev/null || (( ($(date +%s%N) - inicio) / 1000000000 > ESPERA_MAXIMA )); then
+      kill "$pid" 2>/dev/null || true
+      tail -50 "$LOG" >&2
+      echo "La instancia no llegó a UP" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  fin=$(date +%s%N)
+  rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+  if [[ $1 == java* ]] && command -v jcmd > /dev/null; then
+    jcmd "$pid" GC.run > /dev/null
+    # Suma de generaciones (Serial/Parallel) o total del heap (G1); no incluye Metaspace
+    heap=$(jcmd "$pid" GC.heap_info | grep -oE 'total [0-9]+K, used [0-9]+K' \
+      | awk -F'used ' '{ s += $2 } END { print s + 0 }')
+  fi
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$(( (fin - inicio) / 1000000 )) $rss $heap"
+}
+
+mediana() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2 ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2)) }'
+}
+
+printf "%-8s %12s %12s %12s %12s\n" modo "arranque-ms" "min-ms" "rss-mb" "heap-mb"
+for modo in "${MODOS[@]}"; do
+  case $modo in
+    cds)     extraer; entrenar_cds ;;
+    aot-cds) extraer; entrenar_cds -Dspring.aot.enabled=true ;;
+  esac
+  cmd=$(comando "$modo") || exit 1
+  arrancar "$cmd" > /dev/null   # descarta el primero: caché de disco del sistema
+  resultados=()
+  for _ in $(seq 1 "$REPETICIONES"); do
+    resultado=$(arrancar "$cmd") || exit 1
+    resultados+=("$resultado")
+  done
+  tiempos=$(printf "%s\n" "${resultados[@]}" | cut -d' ' -f1)
+  rss=$(printf "%s\n" "${resultados[@]}" | cut -d' ' -f2 | mediana)
+  heap=$(printf "%s\n" "${resultados[@]}" | cut -d' ' -f3 | mediana)
+  printf "%-8s %12s %12s %12s %12s\n" "$modo" "$(echo "$tiempos" | mediana)" \
+    "$(echo "$tiempos" | sort -n | head -1)" "$(( rss / 1024 ))" "$(( heap / 1024 ))"
+done
@@ -0,0 +1,82 @@
+package com.banquito.formalizacion.config;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Entity;
+
+// Pistas para la imagen nativa (perfil native) y el arranque con AOT (perfil aot). Solo se evalúan al
+// compilar: en la JVM normal no tienen efecto. Los beans y las condiciones (@ConditionalOnProperty de shards
+// y réplicas) quedan fijados con las propiedades vigentes al procesar AOT.
+@Configuration
+@ImportRuntimeHints(AotConfig.Pistas.class)
+public class AotConfig {
+
+    private static final String PAQUETE = "com.banquito.formalizacion";
+
+    static class Pistas implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar enlaces = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Hibernate crea el generador por reflexión a partir de @IdGeneratorType
+            hints.reflection().registerType(GeneradorIdShard.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(IdShard.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            for (BeanDefinition entidad : escanear(new AnnotationTypeFilter(Entity.class),
+                                                   new AnnotationTypeFilter(Embeddable.class))) {
+                hints.reflection().registerType(TypeReference.of(entidad.getBeanClassName()),
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+
+            // Implementaciones generadas por MapStruct: el nombre no aparece en el código fuente
+            // (@Mapper no se retiene en el bytecode, se filtra por paquete)
+            for (BeanDefinition mapper : escanear(new RegexPatternTypeFilter(
+                    Pattern.compile(Pattern.quote(PAQUETE + ".controller.mapper.") + "\\w+Mapper")))) {
+                hints.reflection().registerType(TypeReference.of(mapper.getBeanClassName() + "Impl"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            // DTOs que Jackson lee o escribe fuera de los controladores: respuestas de Feign, cuerpos
+            // idempotentes guardados en base y auditoría
+            for (BeanDefinition dto : escanear(new RegexPatternTypeFilter(Pattern.compile(".*DTO")))) {
+                enlaces.registerReflectionHints(hints.reflection(),
+                    ClassUtils.resolveClassName(dto.getBeanClassName(), classLoader));
+            }
+
+            hints.resources().registerPattern("templates/contratos/*.html");
+        }
+
+        private static Set<BeanDefinition> escanear(TypeFilter... filtros) {
+            ClassPathScanningCandidateComponentProvider escaner =
+                new ClassPathScanningCandidateComponentProvider(false) {
+                    @Override
+                    protected boolean isCandidateComponent(AnnotatedBeanDefinition definicion) {
+                        return definicion.getMetadata().isIndependent();
+                    }
+                };
+            for (TypeFilter filtro : filtros) {
+                escaner.addIncludeFilter(filtro);
+            }
+            return escaner.findCandidateComponents(PAQUETE);
+        }
+    }
+}
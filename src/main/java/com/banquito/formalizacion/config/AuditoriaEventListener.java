@@ -0,0 +1,184 @@
+package com.banquito.formalizacion.config;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.model.ContratoCompraVenta;
+import com.banquito.formalizacion.model.ContratoCredito;
+import com.banquito.formalizacion.model.DocumentoContrato;
+import com.banquito.formalizacion.model.Pagare;
+import com.banquito.formalizacion.service.AuditoriaService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// Captura los cambios confirmados de contratos, pagarés y documentos y los entrega a AuditoriaService.
+// Corre después del commit en el hilo de la petición, por eso solo arma el diff y encola.
+// Las sentencias masivas por SQL (transiciones, generación masiva) no pasan por aquí.
+@Component
+@ConditionalOnProperty(name = "formalizacion.auditoria.habilitado", havingValue = "true", matchIfMissing = true)
+public class AuditoriaEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+    PostCommitDeleteEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditoriaEventListener.class);
+
+    private static final Set<Class<?>> AUDITADAS = Set.of(
+        ContratoCredito.class, ContratoCompraVenta.class, Pagare.class, DocumentoContrato.class);
+    private static final String USUARIO_SISTEMA = "sistema";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditoriaService auditoriaService;
+    private final String cabeceraUsuario;
+
+    public AuditoriaEventListener(
+        EntityManagerFactory entityManagerFactory,
+        AuditoriaService auditoriaService,
+        @Value("${formalizacion.auditoria.cabecera-usuario:X-Usuario}") String cabeceraUsuario
+    ) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditoriaService = auditoriaService;
+        this.cabeceraUsuario = cabeceraUsuario;
+    }
+
+    @PostConstruct
+    public void registrar() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        log.info("Auditoría de entidades registrada para {}", AUDITADAS.stream().map(Class::getSimpleName).toList());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return AUDITADAS.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        encolar("INSERT", event.getEntity(), event.getId(), event.getPersister(), null, event.getState(), null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        encolar("UPDATE", event.getEntity(), event.getId(), event.getPersister(), event.getOldState(),
+            event.getState(), event.getDirtyProperties());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        encolar("DELETE", event.getEntity(), event.getId(), event.getPersister(), event.getDeletedState(), null,
+            null);
+    }
+
+    // Si la transacción no confirmó no hubo cambio que auditar
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void encolar(String operacion, Object entidad, Object id, EntityPersister persister,
+                         Object[] anterior, Object[] nuevo, int[] modificadas) {
+        try {
+            Map<String, Object[]> cambios = diferencias(persister, anterior, nuevo, modificadas);
+            if (cambios.isEmpty()) {
+                return;
+            }
+            TipoContrato tipoContrato = null;
+            Long idContrato = null;
+            if (entidad instanceof ContratoCredito c) {
+                tipoContrato = TipoContrato.CREDITO;
+                idContrato = c.getIdContratoCredito();
+            } else if (entidad instanceof Pagare p) {
+                tipoContrato = TipoContrato.CREDITO;
+                idContrato = p.getIdContratoCredito();
+            } else if (entidad instanceof ContratoCompraVenta v) {
+                tipoContrato = TipoContrato.COMPRA_VENTA;
+                idContrato = v.getIdContratoVenta();
+            } else if (entidad instanceof DocumentoContrato d) {
+                tipoContrato = d.getTipoContrato();
+                idContrato = d.getIdContrato();
+            }
+            Object version = persister.isVersioned() ? persister.getVersion(entidad) : null;
+            auditoriaService.registrar(new AuditoriaService.Evento(LocalDateTime.now(),
+                persister.getMappedClass().getSimpleName(), ((Number) id).longValue(), tipoContrato, idContrato,
+                operacion, version instanceof Number n ? n.longValue() : null, usuarioActual(), cambios));
+        } catch (RuntimeException e) {
+            // La auditoría nunca debe hacer fallar una operación ya confirmada
+            log.warn("No se pudo auditar {} de {} {}: {}", operacion, persister.getEntityName(), id, e.getMessage());
+        }
+    }
+
+    // campo -> [anterior, nuevo]; omite colecciones, asociaciones y la columna de versión
+    private Map<String, Object[]> diferencias(EntityPersister persister, Object[] anterior, Object[] nuevo,
+                                              int[] modificadas) {
+        String[] nombres = persister.getPropertyNames();
+        Type[] tipos = persister.getPropertyTypes();
+        int propiedadVersion = persister.isVersioned() ? persister.getVersionProperty() : -1;
+        Map<String, Object[]> cambios = new LinkedHashMap<>();
+        for (int i = 0; i < nombres.length; i++) {
+            if (i == propiedadVersion || tipos[i].isCollectionType() || tipos[i].isEntityType()) {
+                continue;
+            }
+            Object antes = anterior != null ? anterior[i] : null;
+            Object despues = nuevo != null ? nuevo[i] : null;
+            boolean modificada = modificadas != null ? contiene(modificadas, i) : !Objects.equals(antes, despues);
+            if (modificada && (antes != null || despues != null)) {
+                cambios.put(nombres[i], new Object[] {antes, despues});
+            }
+        }
+        return cambios;
+    }
+
+    private boolean contiene(int[] indices, int indice) {
+        for (int i : indices) {
+            if (i == indice) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String usuarioActual() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos instanceof ServletRequestAttributes servlet) {
+            String usuario = servlet.getRequest().getHeader(cabeceraUsuario);
+            if (usuario != null && !usuario.isBlank()) {
+                return usuario.length() > 100 ? usuario.substring(0, 100) : usuario;
+            }
+        }
+        return USUARIO_SISTEMA;
+    }
+}
@@ -0,0 +1,52 @@
+package com.banquito.formalizacion.config;
+
+import java.util.function.Supplier;
+
+// Shard de la operación en curso, por hilo. Lo fijan el interceptor web (a partir del ID del contrato o
+// pagaré), la creación de contratos (a partir de la solicitud) y los procesos que recorren los shards.
+// Debe fijarse antes de la primera sentencia de la transacción: la conexión física se pide recién ahí.
+public final class ContextoShard {
+
+    public static final int BITS = 8;
+    public static final int MAXIMO_SHARDS = 1 << BITS;
+    // Los IDs generados antes del particionado (identity) son menores y viven en el shard 0
+    public static final long PRIMER_ID_PARTICIONADO = 1L << 40;
+
+    private static final ThreadLocal<Integer> ACTUAL = new ThreadLocal<>();
+
+    private ContextoShard() {
+    }
+
+    // 0 si no se fijó
+    public static int actual() {
+        Integer shard = ACTUAL.get();
+        return shard != null ? shard : 0;
+    }
+
+    public static void establecer(int shard) {
+        ACTUAL.set(shard);
+    }
+
+    public static void limpiar() {
+        ACTUAL.remove();
+    }
+
+    // Los 8 bits bajos de un ID particionado son el shard donde se creó
+    public static int shardDeId(long id) {
+        return id < PRIMER_ID_PARTICIONADO ? 0 : (int) (id & (MAXIMO_SHARDS - 1));
+    }
+
+    public static <T> T en(int shard, Supplier<T> accion) {
+        Integer anterior = ACTUAL.get();
+        ACTUAL.set(shard);
+        try {
+            return accion.get();
+        } finally {
+            if (anterior != null) {
+                ACTUAL.set(anterior);
+            } else {
+                ACTUAL.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.banquito.formalizacion.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+@Configuration
+public class FormatosConfig {
+
+    // CBOR con la misma configuración de Jackson que JSON (fechas, módulos), para que ambos formatos
+    // representen igual los DTOs. Reemplaza al convertidor CBOR por defecto.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,66 @@
+package com.banquito.formalizacion.config;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+// Reserva bloques de IDs con formalizacion.siguiente_id en la base del shard actual: cada shard tiene su
+// propia secuencia y registra su número en shard_local, así el ID es único entre shards y dice dónde vive.
+// A diferencia de IDENTITY, el ID se conoce antes del INSERT y Hibernate puede agrupar inserciones.
+public class GeneradorIdShard implements BeforeExecutionGenerator {
+
+    private final String sql;
+    private final int bloque;
+    // Bloques reservados por shard; un bloque solo se usa con conexiones de su shard
+    private final ConcurrentHashMap<Integer, ArrayDeque<Long>> reservados = new ConcurrentHashMap<>();
+
+    public GeneradorIdShard(IdShard configuracion) {
+        this.sql = "select formalizacion.siguiente_id('formalizacion." + configuracion.secuencia()
+            + "') from generate_series(1, ?)";
+        this.bloque = configuracion.bloque();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        ArrayDeque<Long> ids = reservados.computeIfAbsent(ContextoShard.actual(), s -> new ArrayDeque<>());
+        synchronized (ids) {
+            if (ids.isEmpty()) {
+                reservar(session, ids);
+            }
+            return ids.poll();
+        }
+    }
+
+    private void reservar(SharedSessionContractImplementor session, ArrayDeque<Long> ids) {
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement ps = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            ps.setInt(1, bloque);
+            ResultSet rs = jdbc.getResultSetReturn().extract(ps, sql);
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                .convert(e, "No se pudieron reservar IDs", sql);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(ps);
+            jdbc.afterStatementExecution();
+        }
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
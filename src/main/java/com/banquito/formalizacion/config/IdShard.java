@@ -0,0 +1,21 @@
+package com.banquito.formalizacion.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+// ID = (secuencia del shard << 8) | shard, generado por GeneradorIdShard
+@IdGeneratorType(GeneradorIdShard.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface IdShard {
+
+    // Secuencia de formalizacion (ver V3__identificadores_shard.sql)
+    String secuencia();
+
+    // IDs reservados por viaje a la base
+    int bloque() default 50;
+}
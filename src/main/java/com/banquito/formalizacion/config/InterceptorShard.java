@@ -0,0 +1,63 @@
+package com.banquito.formalizacion.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.banquito.formalizacion.enums.TipoContrato;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Fija el shard de la petición a partir del ID de contrato de crédito, pagaré o documento de la ruta (o del
+// parámetro idContratoCredito), antes de que el controlador abra la transacción. En las rutas genéricas
+// /{tipoContrato}/{idContrato} solo el crédito está particionado; la compraventa queda en el shard 0.
+public class InterceptorShard implements AsyncHandlerInterceptor {
+
+    private static final List<String> VARIABLES = List.of("idContratoCredito", "idPagare", "idDocumento", "idEntidad", "id");
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(
+            HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String valor = null;
+        if (variables != null) {
+            for (String nombre : VARIABLES) {
+                if (variables.containsKey(nombre)) {
+                    valor = variables.get(nombre);
+                    break;
+                }
+            }
+        }
+        if (valor == null && variables != null && TipoContrato.CREDITO.name().equals(variables.get("tipoContrato"))) {
+            valor = variables.get("idContrato");
+        }
+        if (valor == null) {
+            valor = request.getParameter("idContratoCredito");
+        }
+        if (valor != null) {
+            try {
+                ContextoShard.establecer(ContextoShard.shardDeId(Long.parseLong(valor)));
+            } catch (NumberFormatException e) {
+                // La conversión del controlador responderá 400
+            }
+        }
+        return true;
+    }
+
+    // Respuestas asíncronas (descargas en streaming): el hilo de la petición vuelve al pool aquí
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ContextoShard.limpiar();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ContextoShard.limpiar();
+    }
+}
@@ -0,0 +1,153 @@
+package com.banquito.formalizacion.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// Sigue cuánto del WAL del primario ha reproducido cada réplica. Periódicamente toma una muestra
+// (instante, LSN del primario) y, para cada réplica, el instante de la muestra más reciente cuyo LSN
+// ya reprodujo: todo lo confirmado antes de ese instante es visible en la réplica.
+// Una lectura va a una réplica solo si ésta ya cubre la última escritura de este nodo (leer lo propio
+// escrito) y su atraso no supera el máximo configurado.
+public class MonitorReplicas {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplicas.class);
+
+    private static final String SQL_LSN_PRIMARIO = "select pg_current_wal_lsn() - '0/0'::pg_lsn";
+    // Fuera de recuperación (réplica de prueba apuntando al mismo servidor) se toma el LSN actual
+    private static final String SQL_LSN_REPLICA = "select case when pg_is_in_recovery() "
+        + "then pg_last_wal_replay_lsn() else pg_current_wal_lsn() end - '0/0'::pg_lsn";
+    private static final int MAX_MUESTRAS = 240;
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final long maxRetrasoMs;
+    private final Deque<long[]> muestras = new ArrayDeque<>();
+    private final AtomicLong ultimaEscritura = new AtomicLong();
+    private final AtomicInteger turno = new AtomicInteger();
+
+    public MonitorReplicas(DataSource primario, Map<String, DataSource> replicas, long maxRetrasoMs) {
+        this.primario = primario;
+        this.replicas = replicas.entrySet().stream().map(e -> new Replica(e.getKey(), e.getValue())).toList();
+        this.maxRetrasoMs = maxRetrasoMs;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        Map<String, DataSource> resultado = new LinkedHashMap<>();
+        replicas.forEach(r -> resultado.put(r.clave, r.dataSource));
+        return resultado;
+    }
+
+    public void registrarEscritura() {
+        ultimaEscritura.accumulateAndGet(System.currentTimeMillis(), Math::max);
+    }
+
+    // Devuelve la clave de una réplica apta (rotando entre ellas) o null si hay que leer del primario
+    public String elegirReplica() {
+        int total = replicas.size();
+        if (total == 0) {
+            return null;
+        }
+        long escritura = ultimaEscritura.get();
+        long limite = System.currentTimeMillis() - maxRetrasoMs;
+        int inicio = Math.floorMod(turno.getAndIncrement(), total);
+        for (int i = 0; i < total; i++) {
+            Replica replica = replicas.get((inicio + i) % total);
+            long hasta = replica.sincronizadoHasta;
+            if (replica.disponible && hasta >= escritura && hasta >= limite) {
+                return replica.clave;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(initialDelayString = "${formalizacion.replicas.sondeo-ms:500}",
+               fixedDelayString = "${formalizacion.replicas.sondeo-ms:500}")
+    public synchronized void sondear() {
+        // El instante se toma antes de leer el LSN: lo confirmado antes de él queda incluido
+        long instante = System.currentTimeMillis();
+        Long lsnPrimario = consultarLsn(primario, SQL_LSN_PRIMARIO);
+        if (lsnPrimario != null) {
+            muestras.addLast(new long[] {instante, lsnPrimario});
+            if (muestras.size() > MAX_MUESTRAS) {
+                muestras.removeFirst();
+            }
+        }
+        for (Replica replica : replicas) {
+            Long reproducido = consultarLsn(replica.dataSource, SQL_LSN_REPLICA);
+            if (reproducido == null) {
+                if (replica.disponible) {
+                    log.warn("Réplica {} no disponible, las lecturas van al primario", replica.clave);
+                }
+                replica.disponible = false;
+                continue;
+            }
+            long hasta = replica.sincronizadoHasta;
+            Iterator<long[]> it = muestras.descendingIterator();
+            while (it.hasNext()) {
+                long[] muestra = it.next();
+                if (muestra[1] <= reproducido) {
+                    hasta = Math.max(hasta, muestra[0]);
+                    break;
+                }
+            }
+            replica.sincronizadoHasta = hasta;
+            boolean disponible = System.currentTimeMillis() - hasta <= maxRetrasoMs;
+            if (disponible != replica.disponible) {
+                log.info("Réplica {} {} (retraso {} ms)", replica.clave,
+                    disponible ? "habilitada para lecturas" : "excluida por retraso", System.currentTimeMillis() - hasta);
+            }
+            replica.disponible = disponible;
+        }
+    }
+
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable cerrable) {
+                try {
+                    cerrable.close();
+                } catch (Exception e) {
+                    log.warn("Error al cerrar la réplica {}: {}", replica.clave, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Long consultarLsn(DataSource dataSource, String sql) {
+        try (Connection con = dataSource.getConnection();
+             Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() && rs.getBigDecimal(1) != null ? rs.getBigDecimal(1).longValue() : null;
+        } catch (Exception e) {
+            log.debug("No se pudo consultar el LSN: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class Replica {
+
+        private final String clave;
+        private final DataSource dataSource;
+        private volatile long sincronizadoHasta;
+        private volatile boolean disponible;
+
+        private Replica(String clave, DataSource dataSource) {
+            this.clave = clave;
+            this.dataSource = dataSource;
+        }
+    }
+}
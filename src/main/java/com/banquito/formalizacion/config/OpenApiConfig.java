@@ -1,5 +1,7 @@
 package com.banquito.formalizacion.config;
 
+import java.util.List;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -7,13 +9,16 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
+import io.swagger.v3.oas.models.servers.Server;
 
 @Configuration
 public class OpenApiConfig {
 
+    // Servidor relativo: la especificación pregenerada (perfil openapi) sirve en cualquier entorno
     @Bean
     public OpenAPI formalizacionOpenAPI() {
         return new OpenAPI()
+                .servers(List.of(new Server().url("/")))
                 .info(new Info()
                         .title("API de Formalización - Préstamos Automotrices")
                         .description("Microservicio para la gestión del proceso de formalización de contratos " +
@@ -0,0 +1,76 @@
+package com.banquito.formalizacion.config;
+
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Lecturas readOnly a réplicas, escrituras al primario. Desactivado por defecto; para probar en local
+// basta con una réplica en streaming o, como sustituto, apuntar formalizacion.replicas.urls a la misma base.
+@Configuration
+@ConditionalOnProperty(name = "formalizacion.replicas.habilitado", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public MonitorReplicas monitorReplicas(
+        HikariDataSource dataSourcePrimario,
+        DataSourceProperties properties,
+        @Value("${formalizacion.replicas.urls}") List<String> urls,
+        @Value("${formalizacion.replicas.username:${spring.datasource.username}}") String username,
+        @Value("${formalizacion.replicas.password:${spring.datasource.password}}") String password,
+        @Value("${formalizacion.replicas.pool-size:10}") int poolSize,
+        @Value("${formalizacion.replicas.max-retraso-ms:5000}") long maxRetrasoMs
+    ) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("formalizacion-replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(dataSourcePrimario.getConnectionTimeout());
+            replica.setDataSourceProperties(dataSourcePrimario.getDataSourceProperties());
+            replicas.put("replica-" + i, replica);
+        }
+        return new MonitorReplicas(dataSourcePrimario, replicas, maxRetrasoMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource dataSourcePrimario, MonitorReplicas monitorReplicas) {
+        ReplicaRoutingDataSource ruteo = new ReplicaRoutingDataSource(monitorReplicas);
+        Map<Object, Object> destinos = new HashMap<>(monitorReplicas.getReplicas());
+        destinos.put(ReplicaRoutingDataSource.PRIMARIO, dataSourcePrimario);
+        ruteo.setTargetDataSources(destinos);
+        ruteo.setDefaultTargetDataSource(dataSourcePrimario);
+        ruteo.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(ruteo);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+}
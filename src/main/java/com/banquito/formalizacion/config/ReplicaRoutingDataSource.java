@@ -0,0 +1,38 @@
+package com.banquito.formalizacion.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Enruta las transacciones readOnly a una réplica y todo lo demás al primario.
+// Debe ir detrás de un LazyConnectionDataSourceProxy: la conexión física se pide recién en la primera
+// sentencia, cuando el flag readOnly de la transacción ya está establecido.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARIO = "primario";
+
+    private final MonitorReplicas monitor;
+
+    public ReplicaRoutingDataSource(MonitorReplicas monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            String replica = monitor.elegirReplica();
+            return replica != null ? replica : PRIMARIO;
+        }
+        monitor.registrarEscritura();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Lo que cuenta para leer lo propio escrito es el momento del commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    monitor.registrarEscritura();
+                }
+            });
+        }
+        return PRIMARIO;
+    }
+}
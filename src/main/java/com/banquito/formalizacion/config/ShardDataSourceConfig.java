@@ -0,0 +1,96 @@
+package com.banquito.formalizacion.config;
+
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Contratos de crédito y sus pagarés repartidos en varias bases. El shard 0 es spring.datasource; los
+// demás se listan en formalizacion.shards.urls (shard 1, 2, ...). Cada base debe tener el esquema y
+// shard_local con su número: se prepara arrancando una vez la aplicación contra ella sin particionado y
+// con spring.flyway.placeholders.shard=<n>. No se combina con réplicas de lectura.
+@Configuration
+@ConditionalOnProperty(name = "formalizacion.shards.habilitado", havingValue = "true")
+public class ShardDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourceShard0(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        HikariDataSource dataSourceShard0,
+        DataSourceProperties properties,
+        @Value("${formalizacion.shards.urls}") List<String> urls,
+        @Value("${formalizacion.shards.username:${spring.datasource.username}}") String username,
+        @Value("${formalizacion.shards.password:${spring.datasource.password}}") String password,
+        @Value("${formalizacion.shards.pool-size:10}") int poolSize,
+        @Value("${formalizacion.replicas.habilitado:false}") boolean replicas
+    ) {
+        if (replicas) {
+            throw new IllegalStateException("formalizacion.shards y formalizacion.replicas no pueden habilitarse juntos");
+        }
+        if (urls.size() + 1 > ContextoShard.MAXIMO_SHARDS) {
+            throw new IllegalStateException("Se admiten hasta " + ContextoShard.MAXIMO_SHARDS + " shards");
+        }
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(0, dataSourceShard0);
+        verificarShard(dataSourceShard0, 0);
+        for (int i = 0; i < urls.size(); i++) {
+            int shard = i + 1;
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("formalizacion-shard-" + shard);
+            dataSource.setJdbcUrl(urls.get(i).trim());
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setConnectionTimeout(dataSourceShard0.getConnectionTimeout());
+            dataSource.setDataSourceProperties(dataSourceShard0.getDataSourceProperties());
+            verificarShard(dataSource, shard);
+            destinos.put(shard, dataSource);
+        }
+
+        ShardRoutingDataSource ruteo = new ShardRoutingDataSource();
+        ruteo.setTargetDataSources(destinos);
+        ruteo.setDefaultTargetDataSource(dataSourceShard0);
+        ruteo.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(ruteo);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    // Una URL en el orden equivocado mezclaría IDs de dos shards: se detiene el arranque
+    private void verificarShard(DataSource dataSource, int esperado) {
+        Integer registrado;
+        try {
+            registrado = new JdbcTemplate(dataSource).queryForObject(
+                "select id from formalizacion.shard_local", Integer.class);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("El shard " + esperado + " no tiene formalizacion.shard_local", e);
+        }
+        if (registrado == null || registrado != esperado) {
+            throw new IllegalStateException("La base configurada como shard " + esperado
+                + " está registrada como shard " + registrado);
+        }
+    }
+}
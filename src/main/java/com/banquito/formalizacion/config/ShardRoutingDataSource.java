@@ -0,0 +1,13 @@
+package com.banquito.formalizacion.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Enruta cada conexión al shard fijado en ContextoShard (0 por defecto).
+// Igual que el ruteo a réplicas, debe ir detrás de un LazyConnectionDataSourceProxy.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ContextoShard.actual();
+    }
+}
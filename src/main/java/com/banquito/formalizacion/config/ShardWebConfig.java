@@ -0,0 +1,20 @@
+package com.banquito.formalizacion.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ShardWebConfig implements WebMvcConfigurer {
+
+    // Rutas cuyos IDs son de contratos de crédito, pagarés o documentos (el historial de transiciones
+    // también: los IDs de compraventa son anteriores al particionado y caen en el shard 0); el resto usa
+    // el shard 0. Los documentos de un crédito viven en el shard del contrato.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new InterceptorShard())
+            .addPathPatterns("/api/contratos-credito/**", "/api/prepagos/**", "/api/mora/contratos/**",
+                "/api/pagos/contrato/**", "/api/transiciones/*/*", "/api/contratos/*/*/documentos/**",
+                "/api/contratos/documentos/*/**", "/api/cartera/resumen/vencidos/contrato/*");
+    }
+}
@@ -0,0 +1,46 @@
+package com.banquito.formalizacion.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Swagger UI sin springdoc (perfil docs): los archivos del webjar se sirven tal cual y el inicializador
+// propio apunta a /openapi/formalizacion.json, así no se genera la especificación en ejecución
+@Configuration
+@ConditionalOnProperty(name = "formalizacion.docs.swagger-ui-estatico", havingValue = "true")
+public class SwaggerUiEstaticoConfig implements WebMvcConfigurer {
+
+    private static final String POM_WEBJAR = "META-INF/maven/org.webjars/swagger-ui/pom.properties";
+
+    private final String ubicacionWebjar;
+
+    public SwaggerUiEstaticoConfig() {
+        Properties pom = new Properties();
+        try (InputStream entrada = new ClassPathResource(POM_WEBJAR).getInputStream()) {
+            pom.load(entrada);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se encontró el webjar de Swagger UI", e);
+        }
+        this.ubicacionWebjar = "classpath:/META-INF/resources/webjars/swagger-ui/" + pom.getProperty("version") + "/";
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // El inicializador propio va primero y tapa al del webjar
+        registry.addResourceHandler("/swagger-ui/**")
+            .addResourceLocations("classpath:/swagger-ui-estatico/", ubicacionWebjar);
+    }
+
+    @Override
+    public void addViewControllers(ViewControllerRegistry registry) {
+        registry.addRedirectViewController("/swagger-ui.html", "/swagger-ui/index.html");
+    }
+}
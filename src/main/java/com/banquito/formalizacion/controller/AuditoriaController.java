@@ -0,0 +1,68 @@
+package com.banquito.formalizacion.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.formalizacion.controller.dto.AuditoriaDTO;
+import com.banquito.formalizacion.controller.dto.EstadoAuditoriaDTO;
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.banquito.formalizacion.service.AuditoriaService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping(path = "/api/auditoria", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Auditoría", description = "Historial de cambios de contratos, pagarés y documentos")
+public class AuditoriaController {
+
+    private static final int LIMITE_MAXIMO = 500;
+
+    private final AuditoriaService service;
+
+    public AuditoriaController(AuditoriaService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Cambios de un contrato y de sus pagarés y documentos, del más reciente al más antiguo",
+               description = "Paginación por cursor: para la siguiente página enviar antesDe con el último "
+                   + "idAuditoria recibido. Los cambios aparecen con unos cientos de milisegundos de retraso.")
+    @GetMapping("/contratos/{tipoContrato}/{idContrato}")
+    public ResponseEntity<List<AuditoriaDTO>> consultarPorContrato(
+        @PathVariable TipoContrato tipoContrato,
+        @PathVariable Long idContrato,
+        @Parameter(description = "Desde (inclusive); por defecto un año atrás")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+        @Parameter(description = "Hasta (inclusive); por defecto hoy")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+        @RequestParam(required = false) Long antesDe,
+        @RequestParam(defaultValue = "100") int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new BusinessLogicException("consultar auditoría", "limite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.minusYears(1);
+        if (inicio.isAfter(fin)) {
+            throw new BusinessLogicException("consultar auditoría", "desde no puede ser posterior a hasta");
+        }
+        return ResponseEntity.ok(service.consultarPorContrato(tipoContrato, idContrato,
+            inicio.atStartOfDay(), fin.plusDays(1).atStartOfDay(), antesDe, limite));
+    }
+
+    @Operation(summary = "Estado del buffer de auditoría (pendientes, escritos, descartados)")
+    @GetMapping("/estado")
+    public ResponseEntity<EstadoAuditoriaDTO> getEstado() {
+        return ResponseEntity.ok(service.getEstado());
+    }
+}
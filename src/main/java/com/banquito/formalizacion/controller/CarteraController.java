@@ -0,0 +1,85 @@
+package com.banquito.formalizacion.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.formalizacion.controller.dto.ResumenCarteraEstadoDTO;
+import com.banquito.formalizacion.controller.dto.ResumenCuotasMesDTO;
+import com.banquito.formalizacion.controller.dto.ResumenVencidosContratoDTO;
+import com.banquito.formalizacion.service.CarteraService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping(path = "/api/cartera/resumen", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Resumen de Cartera", description = "Agregados de cartera de crédito precalculados para Riesgos")
+public class CarteraController {
+
+    private static final Logger log = LoggerFactory.getLogger(CarteraController.class);
+    private final CarteraService service;
+
+    public CarteraController(CarteraService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Totales de cartera por estado de contrato",
+               description = "Cantidad de contratos, monto aprobado, monto de cuotas no pagadas (capital más interés) y cuotas vencidas por estado")
+    @GetMapping("/estados")
+    public ResponseEntity<List<ResumenCarteraEstadoDTO>> getResumenPorEstado() {
+        return ResponseEntity.ok(service.getResumenPorEstado());
+    }
+
+    @Operation(summary = "Cuotas por mes de vencimiento y estado")
+    @GetMapping("/cuotas-por-mes")
+    public ResponseEntity<List<ResumenCuotasMesDTO>> getCuotasPorMes(
+        @Parameter(description = "Mes inicial (inclusive)") @RequestParam(required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+        @Parameter(description = "Mes final (inclusive)") @RequestParam(required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(service.getCuotasPorMes(desde, hasta));
+    }
+
+    @Operation(summary = "Contratos con cuotas vencidas, ordenados por monto vencido")
+    @GetMapping("/vencidos")
+    public ResponseEntity<Page<ResumenVencidosContratoDTO>> getVencidos(
+        @Parameter(description = "Página", example = "0") @RequestParam(defaultValue = "0") int page,
+        @Parameter(description = "Tamaño de página", example = "20") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(service.getVencidos(PageRequest.of(page, size)));
+    }
+
+    @Operation(summary = "Cuotas vencidas de un contrato")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resumen de vencidos del contrato"),
+        @ApiResponse(responseCode = "404", description = "El contrato no tiene cuotas vencidas")
+    })
+    @GetMapping("/vencidos/contrato/{idContratoCredito}")
+    public ResponseEntity<ResumenVencidosContratoDTO> getVencidosPorContrato(@PathVariable Long idContratoCredito) {
+        return ResponseEntity.ok(service.getVencidosPorContrato(idContratoCredito));
+    }
+
+    @Operation(summary = "Fuerza el recálculo de los agregados de cartera")
+    @PostMapping("/refrescar")
+    public ResponseEntity<List<ResumenCarteraEstadoDTO>> refrescar() {
+        log.info("Recálculo manual del resumen de cartera solicitado");
+        service.refrescarResumen();
+        return ResponseEntity.ok(service.getResumenPorEstado());
+    }
+}
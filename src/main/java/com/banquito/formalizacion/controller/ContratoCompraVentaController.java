@@ -1,20 +1,25 @@
 package com.banquito.formalizacion.controller;
 
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 
 import com.banquito.formalizacion.controller.dto.ContratoCompraVentaDTO;
 import com.banquito.formalizacion.controller.dto.ContratoCompraVentaCreateDTO;
 import com.banquito.formalizacion.controller.dto.ContratoCompraVentaUpdateDTO;
+import com.banquito.formalizacion.controller.dto.ExistenciaSolicitudesRequestDTO;
 import com.banquito.formalizacion.enums.ContratoVentaEstado;
 import com.banquito.formalizacion.service.ContratoCompraVentaService;
+import com.banquito.formalizacion.util.Etags;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,17 +49,23 @@ public class ContratoCompraVentaController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Contrato encontrado",
                      content = @Content(schema = @Schema(implementation = ContratoCompraVentaDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Sin cambios respecto de la ETag enviada en If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Contrato no encontrado")
     })
     @GetMapping("/{id}")
     public ResponseEntity<ContratoCompraVentaDTO> getById(
         @Parameter(description = "ID del contrato", required = true)
-        @PathVariable Long id) {
+        @PathVariable Long id,
+        WebRequest request) {
 
         log.debug("Solicitud recibida → Obtener contrato con ID={}", id);
+        Long version = service.getVersionContratoCompraVenta(id);
+        if (version != null && request.checkNotModified(Etags.deVersion(version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(Etags.deVersion(version)).build();
+        }
         ContratoCompraVentaDTO dto = service.getContratoCompraVentaById(id);
         log.info("Contrato con ID={} recuperado correctamente", id);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(Etags.deVersion(dto.getVersion())).body(dto);
     }
 
     @Operation(summary = "Lista todos los contratos de compra-venta por estado")
@@ -99,18 +110,22 @@ public class ContratoCompraVentaController {
         @ApiResponse(responseCode = "200", description = "Contrato actualizado",
                      content = @Content(schema = @Schema(implementation = ContratoCompraVentaDTO.class))),
         @ApiResponse(responseCode = "400", description = "ID path/body no coinciden o datos inválidos"),
-        @ApiResponse(responseCode = "404", description = "Contrato no encontrado")
+        @ApiResponse(responseCode = "404", description = "Contrato no encontrado"),
+        @ApiResponse(responseCode = "412", description = "La ETag de If-Match no corresponde a la versión actual")
     })
     @PutMapping("/{id}")
     public ResponseEntity<ContratoCompraVentaDTO> update(
         @Parameter(description = "ID del contrato a actualizar", required = true)
         @PathVariable Long id,
+        @Parameter(description = "ETag leída previamente; si el contrato cambió desde entonces responde 412")
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Parameter(description = "Payload para actualizar el contrato", required = true)
         @Valid @RequestBody ContratoCompraVentaUpdateDTO updateDto) {
 
         log.debug("Solicitud recibida → Actualizar contrato ID={} con estado='{}'", id, updateDto.getEstado());
-        ContratoCompraVentaDTO updated = service.updateContratoCompraVenta(id, updateDto);
-        return ResponseEntity.ok(updated);
+        ContratoCompraVentaDTO updated = service.updateContratoCompraVenta(id, updateDto,
+            Etags.versionEsperada(ifMatch, "ContratoCompraVenta"));
+        return ResponseEntity.ok().eTag(Etags.deVersion(updated.getVersion())).body(updated);
     }
 
     @Operation(summary = "Verifica si existe contrato para una solicitud")
@@ -129,4 +144,20 @@ public class ContratoCompraVentaController {
         return ResponseEntity.ok(existe);
     }
 
+    @Operation(summary = "Verifica en lote si existen contratos para varias solicitudes")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Mapa idSolicitud → existencia de contrato"),
+        @ApiResponse(responseCode = "400", description = "Lista vacía o mayor a 1000 solicitudes")
+    })
+    @PostMapping(path = "/existe-solicitudes", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<Long, Boolean>> existsBySolicitudes(
+        @Parameter(description = "IDs de solicitudes a verificar", required = true)
+        @Valid @RequestBody ExistenciaSolicitudesRequestDTO request) {
+
+        log.debug("ENTER POST /api/contratos-compra-venta/existe-solicitudes → {} solicitudes", request.getIdsSolicitud().size());
+        Map<Long, Boolean> existencia = service.existenPorSolicitudes(request.getIdsSolicitud());
+        log.info("Existencia de contratos verificada para {} solicitudes", existencia.size());
+        return ResponseEntity.ok(existencia);
+    }
+
 }
@@ -3,6 +3,9 @@ package com.banquito.formalizacion.controller;
 import com.banquito.formalizacion.controller.dto.*;
 import com.banquito.formalizacion.enums.ContratoCreditoEstado;
 import com.banquito.formalizacion.service.ContratoCreditoService;
+import com.banquito.formalizacion.service.IdempotenciaService;
+import com.banquito.formalizacion.util.Etags;
+import com.fasterxml.jackson.core.type.TypeReference;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,20 +16,26 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping(path = "/api/contratos-credito", produces = "application/json")
@@ -36,9 +45,11 @@ public class ContratoCreditoController {
 
     private static final Logger log = LoggerFactory.getLogger(ContratoCreditoController.class);
     private final ContratoCreditoService service;
+    private final IdempotenciaService idempotenciaService;
 
-    public ContratoCreditoController(ContratoCreditoService service) {
+    public ContratoCreditoController(ContratoCreditoService service, IdempotenciaService idempotenciaService) {
         this.service = service;
+        this.idempotenciaService = idempotenciaService;
     }
 
     // === CONTRATO CREDITO ===
@@ -47,16 +58,22 @@ public class ContratoCreditoController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Contrato encontrado",
                      content = @Content(schema = @Schema(implementation = ContratoCreditoDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Sin cambios respecto de la ETag enviada en If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Contrato no encontrado")
     })
     @GetMapping("/{id}")
     public ResponseEntity<ContratoCreditoDTO> getById(
         @Parameter(description = "ID del contrato", required = true)
-        @PathVariable Long id) {
+        @PathVariable Long id,
+        WebRequest request) {
         log.debug("Solicitud recibida → Obtener ContratoCredito con ID={}", id);
+        Long version = service.getVersionContratoCredito(id);
+        if (version != null && request.checkNotModified(Etags.deVersion(version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(Etags.deVersion(version)).build();
+        }
         ContratoCreditoDTO dto = service.getContratoCreditoById(id);
         log.info("ContratoCredito ID={} recuperado correctamente.", id);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(Etags.deVersion(dto.getVersion())).body(dto);
     }
 
     @Operation(summary = "Crea un nuevo Contrato de Crédito")
@@ -67,6 +84,8 @@ public class ContratoCreditoController {
     })
     @PostMapping(consumes = "application/json")
     public ResponseEntity<ContratoCreditoDTO> create(
+        @Parameter(description = "Clave única por intento lógico; un reintento con la misma clave devuelve la respuesta original")
+        @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String idempotencyKey,
         @io.swagger.v3.oas.annotations.parameters.RequestBody(
             description = "Payload para crear el Contrato de Crédito",
             required = true,
@@ -74,9 +93,15 @@ public class ContratoCreditoController {
         )
         @Valid @RequestBody ContratoCreditoCreateDTO createDto) {
         log.debug("Solicitud recibida → Crear ContratoCredito para solicitud={}", createDto.getIdSolicitud());
-        ContratoCreditoDTO created = service.createContratoCredito(createDto);
-        log.info("ContratoCredito creado correctamente con ID={}", created.getIdContratoCredito());
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        return idempotenciaService.ejecutar("crear-contrato-credito", idempotencyKey, createDto,
+            new TypeReference<ContratoCreditoDTO>() { }, () -> {
+                ContratoCreditoDTO created = service.createContratoCredito(createDto);
+                log.info("ContratoCredito creado correctamente con ID={}", created.getIdContratoCredito());
+                return ResponseEntity.status(HttpStatus.CREATED).body(created);
+            }, () -> {
+                ContratoCreditoDTO existente = service.findContratoPorSolicitud(createDto.getIdSolicitud());
+                return existente != null ? ResponseEntity.status(HttpStatus.CREATED).body(existente) : null;
+            });
     }
 
     @Operation(summary = "Actualiza un Contrato de Crédito existente")
@@ -84,12 +109,15 @@ public class ContratoCreditoController {
         @ApiResponse(responseCode = "200", description = "Contrato actualizado",
                      content = @Content(schema = @Schema(implementation = ContratoCreditoDTO.class))),
         @ApiResponse(responseCode = "400", description = "ID path/body no coinciden o datos inválidos"),
-        @ApiResponse(responseCode = "404", description = "Contrato no encontrado")
+        @ApiResponse(responseCode = "404", description = "Contrato no encontrado"),
+        @ApiResponse(responseCode = "412", description = "La ETag de If-Match no corresponde a la versión actual")
     })
     @PutMapping(path = "/{id}", consumes = "application/json")
     public ResponseEntity<ContratoCreditoDTO> update(
         @Parameter(description = "ID del contrato a actualizar", required = true)
         @PathVariable Long id,
+        @Parameter(description = "ETag leída previamente; si el contrato cambió desde entonces responde 412")
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @io.swagger.v3.oas.annotations.parameters.RequestBody(
             description = "Payload para actualizar el Contrato de Crédito",
             required = true,
@@ -97,9 +125,10 @@ public class ContratoCreditoController {
         )
         @Valid @RequestBody ContratoCreditoUpdateDTO updateDto) {
         log.debug("Solicitud recibida → Actualizar ContratoCredito ID={}", id);
-        ContratoCreditoDTO updated = service.updateContratoCredito(id, updateDto);
+        ContratoCreditoDTO updated = service.updateContratoCredito(id, updateDto,
+            Etags.versionEsperada(ifMatch, "ContratoCredito"));
         log.info("ContratoCredito ID={} actualizado correctamente.", id);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok().eTag(Etags.deVersion(updated.getVersion())).body(updated);
     }
 
     @Operation(summary = "Elimina lógicamente un Contrato de Crédito (marca como CANCELADO)")
@@ -149,6 +178,21 @@ public class ContratoCreditoController {
         return ResponseEntity.ok(existe);
     }
 
+    @Operation(summary = "Verifica en lote si existen contratos para varias solicitudes",
+               description = "Devuelve un mapa idSolicitud → existe; se resuelve en una sola consulta")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Mapa de existencia por solicitud"),
+        @ApiResponse(responseCode = "400", description = "Lista vacía o mayor a 1000 solicitudes")
+    })
+    @PostMapping(path = "/existe/solicitudes", consumes = "application/json")
+    public ResponseEntity<Map<Long, Boolean>> existsBySolicitudes(
+        @Valid @RequestBody ExistenciaSolicitudesRequestDTO request) {
+        log.debug("Verificando existencia de contratos para {} solicitudes", request.getIdsSolicitud().size());
+        Map<Long, Boolean> existencia = service.existenPorSolicitudes(request.getIdsSolicitud());
+        log.info("Existencia de contratos verificada para {} solicitudes", existencia.size());
+        return ResponseEntity.ok(existencia);
+    }
+
     // === PAGARE (Integrados) ===
 
     @GetMapping("/pagares/{id}")
@@ -158,19 +202,64 @@ public class ContratoCreditoController {
                 content = @Content(mediaType = "application/json", schema = @Schema(implementation = PagareDTO.class))),
         @ApiResponse(responseCode = "404", description = "Pagaré no encontrado")
     })
-    public ResponseEntity<PagareDTO> getPagareById(@PathVariable Long id) {
+    public ResponseEntity<PagareDTO> getPagareById(@PathVariable Long id, WebRequest request) {
         log.info("Solicitando pagaré por ID: {}", id);
+        Long version = service.getVersionPagare(id);
+        if (version != null && request.checkNotModified(Etags.deVersion(version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(Etags.deVersion(version)).build();
+        }
         PagareDTO pagare = service.getPagareById(id);
-        return ResponseEntity.ok(pagare);
+        return ResponseEntity.ok().eTag(Etags.deVersion(pagare.getVersion())).body(pagare);
     }
 
-    @GetMapping("/pagares/contrato/{idContratoCredito}")
-    @Operation(summary = "Obtener todos los pagarés de un contrato", description = "Obtiene la lista ordenada de pagarés de un contrato de crédito")
+    @GetMapping(path = "/pagares/contrato/{idContratoCredito}",
+                produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Obtener todos los pagarés de un contrato",
+               description = "Obtiene la lista ordenada de pagarés de un contrato de crédito (JSON o CBOR según Accept)")
     public ResponseEntity<List<PagareDTO>> getPagaresByContrato(
-            @PathVariable Long idContratoCredito) {
+            @PathVariable Long idContratoCredito,
+            WebRequest request) {
         log.info("Listando pagarés de contrato de crédito ID: {}", idContratoCredito);
+        String huella = service.getVersionPagaresPorContrato(idContratoCredito);
+        String etag = huella != null ? etagPorRepresentacion(huella, request) : null;
+        if (etag != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
         List<PagareDTO> pagares = service.getPagaresByContratoCredito(idContratoCredito);
-        return ResponseEntity.ok(pagares);
+        if (etag == null) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(pagares);
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(pagares);
+    }
+
+    @GetMapping(path = "/pagares/contrato/{idContratoCredito}/columnar",
+                produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Cronograma de un contrato en formato columnar",
+               description = "Un arreglo por campo: montos en centavos, fechas en días epoch y estado como índice")
+    public ResponseEntity<CronogramaColumnarDTO> getCronogramaColumnar(
+            @PathVariable Long idContratoCredito,
+            WebRequest request) {
+        String huella = service.getVersionPagaresPorContrato(idContratoCredito);
+        String etag = huella != null ? etagPorRepresentacion(huella, request) : null;
+        if (etag != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        CronogramaColumnarDTO cronograma = service.getCronogramaColumnar(idContratoCredito);
+        if (etag == null) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(cronograma);
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(cronograma);
+    }
+
+    @GetMapping(path = "/pagares/columnar",
+                produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Cronogramas de varios contratos en formato columnar",
+               description = "Pensado para conciliaciones por lotes; hasta 500 contratos por llamada")
+    public ResponseEntity<List<CronogramaColumnarDTO>> getCronogramasColumnar(
+            @Parameter(description = "IDs de contrato de crédito") @RequestParam @NotEmpty @Size(max = 500)
+            List<Long> idsContrato) {
+        log.debug("Cronogramas columnares solicitados para {} contratos", idsContrato.size());
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(service.getCronogramasColumnar(idsContrato));
     }
 
     @GetMapping("/pagares/contrato/{idContratoCredito}/cuota/{numeroCuota}")
@@ -195,20 +284,38 @@ public class ContratoCreditoController {
     @Operation(summary = "Actualizar pagaré", description = "Actualiza los datos de un pagaré existente")
     public ResponseEntity<PagareDTO> updatePagare(
             @PathVariable Long id,
+            @Parameter(description = "ETag leída previamente; si el pagaré cambió desde entonces responde 412")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody PagareUpdateDTO dto) {
         log.info("Actualizando pagaré ID: {}", id);
-        PagareDTO pagareActualizado = service.updatePagare(id, dto);
-        return ResponseEntity.ok(pagareActualizado);
+        PagareDTO pagareActualizado = service.updatePagare(id, dto, Etags.versionEsperada(ifMatch, "Pagare"));
+        return ResponseEntity.ok().eTag(Etags.deVersion(pagareActualizado.getVersion())).body(pagareActualizado);
     }
 
     @PostMapping("/pagares/generar")
     @Operation(summary = "Generar cronograma completo de pagarés", description = "Genera N pagarés automáticos para un contrato, uno por cada mes")
     public ResponseEntity<List<PagareDTO>> generarPagares(
+            @Parameter(description = "Clave única por intento lógico; un reintento con la misma clave devuelve la respuesta original")
+            @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String idempotencyKey,
             @Parameter(description = "ID del contrato de crédito") @RequestParam Long idContratoCredito) {
-        List<PagareDTO> pagares = service.generarPagaresDesdeContrato(idContratoCredito);
-        return ResponseEntity.status(HttpStatus.CREATED).body(pagares);
+        return idempotenciaService.ejecutar("generar-pagares", idempotencyKey, idContratoCredito,
+            new TypeReference<List<PagareDTO>>() { }, () -> {
+                List<PagareDTO> pagares = service.generarPagaresDesdeContrato(idContratoCredito);
+                return ResponseEntity.status(HttpStatus.CREATED).body(pagares);
+            }, () -> service.existenPagaresPorContrato(idContratoCredito)
+                ? ResponseEntity.status(HttpStatus.CREATED).body(service.getPagaresByContratoCredito(idContratoCredito))
+                : null);
     }
 
+    @PostMapping("/pagares/reamortizar")
+    @Operation(summary = "Reamortizar el cronograma de pagarés",
+               description = "Recalcula el cronograma con las condiciones vigentes del contrato y actualiza solo las cuotas impagas que cambian")
+    public ResponseEntity<List<PagareDTO>> reamortizarPagares(
+            @Parameter(description = "ID del contrato de crédito") @RequestParam Long idContratoCredito) {
+        log.info("Reamortizando pagarés del contrato {}", idContratoCredito);
+        List<PagareDTO> pagares = service.reamortizarPagares(idContratoCredito);
+        return ResponseEntity.ok(pagares);
+    }
 
     @GetMapping("/pagares/contrato/{idContratoCredito}/existen")
     @Operation(summary = "Verificar si existen pagarés para un contrato")
@@ -217,4 +324,10 @@ public class ContratoCreditoController {
         boolean existen = service.existenPagaresPorContrato(idContratoCredito);
         return ResponseEntity.ok(existen);
     }
+
+    // Mismo orden que "produces": JSON salvo que Accept prefiera CBOR
+    private static String etagPorRepresentacion(String huella, WebRequest request) {
+        return Etags.deVersion(huella, Etags.representacion(request.getHeader(HttpHeaders.ACCEPT),
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR));
+    }
 }
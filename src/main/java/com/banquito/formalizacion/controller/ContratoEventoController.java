@@ -0,0 +1,48 @@
+package com.banquito.formalizacion.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.service.ContratoEventoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping(path = "/api/contratos/eventos")
+@Tag(name = "Eventos de Contratos", description = "Stream SSE de cambios de estado de contratos de crédito y compra-venta")
+public class ContratoEventoController {
+
+    private static final Logger log = LoggerFactory.getLogger(ContratoEventoController.class);
+    private final ContratoEventoService service;
+
+    public ContratoEventoController(ContratoEventoService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Suscribe al stream de cambios de estado de contratos",
+               description = "Envía un evento 'estado-contrato' por cada transición confirmada; reemplaza el polling de estado")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stream de eventos abierto")
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribir(
+        @Parameter(description = "Tipo de contrato a observar") @RequestParam(required = false) TipoContrato tipoContrato,
+        @Parameter(description = "Estado destino a observar (p.ej. FIRMADO)") @RequestParam(required = false) String estado,
+        @Parameter(description = "ID de solicitud a observar") @RequestParam(required = false) Long idSolicitud) {
+        log.debug("Nueva suscripción SSE tipo={} estado={} solicitud={}", tipoContrato, estado, idSolicitud);
+        SseEmitter emitter = service.suscribir(tipoContrato, estado, idSolicitud);
+        log.info("Suscriptores SSE activos: {}", service.getSuscriptoresActivos());
+        return emitter;
+    }
+}
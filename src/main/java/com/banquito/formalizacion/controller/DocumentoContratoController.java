@@ -0,0 +1,174 @@
+package com.banquito.formalizacion.controller;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.banquito.formalizacion.config.ContextoShard;
+import com.banquito.formalizacion.controller.dto.CargaDocumentoDTO;
+import com.banquito.formalizacion.controller.dto.DocumentoContratoDTO;
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.service.DocumentoContratoService;
+import com.banquito.formalizacion.util.Etags;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping(path = "/api/contratos", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Documentos de Contrato", description = "Carga y descarga de contratos firmados")
+public class DocumentoContratoController {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentoContratoController.class);
+
+    // Atributos de Tomcat para enviar el archivo con sendfile (sin pasar por el heap de la JVM)
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    private final DocumentoContratoService service;
+
+    public DocumentoContratoController(DocumentoContratoService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Lista los documentos cargados para un contrato")
+    @GetMapping("/{tipoContrato}/{idContrato}/documentos")
+    public ResponseEntity<List<DocumentoContratoDTO>> listar(
+        @PathVariable TipoContrato tipoContrato,
+        @PathVariable Long idContrato) {
+        return ResponseEntity.ok(service.listar(tipoContrato, idContrato));
+    }
+
+    @Operation(summary = "Carga el contrato firmado en una sola petición multipart",
+               description = "Actualiza rutaArchivoFirmado del contrato con la ruta de descarga")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Documento almacenado"),
+        @ApiResponse(responseCode = "404", description = "Contrato no encontrado")
+    })
+    @PostMapping(path = "/{tipoContrato}/{idContrato}/documentos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<DocumentoContratoDTO> cargar(
+        @PathVariable TipoContrato tipoContrato,
+        @PathVariable Long idContrato,
+        @RequestPart("archivo") MultipartFile archivo,
+        @Parameter(description = "SHA-256 esperado (hex); si no coincide se rechaza la carga")
+        @RequestParam(required = false) String sha256) {
+        log.info("Cargando documento para contrato {} {} ({} bytes)", tipoContrato, idContrato, archivo.getSize());
+        DocumentoContratoDTO documento = service.cargar(tipoContrato, idContrato, archivo, sha256);
+        return ResponseEntity.status(HttpStatus.CREATED).body(documento);
+    }
+
+    @Operation(summary = "Inicia una carga por partes para documentos grandes")
+    @PostMapping("/{tipoContrato}/{idContrato}/documentos/cargas")
+    public ResponseEntity<CargaDocumentoDTO> iniciarCarga(
+        @PathVariable TipoContrato tipoContrato,
+        @PathVariable Long idContrato) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.iniciarCarga(tipoContrato, idContrato));
+    }
+
+    @Operation(summary = "Bytes recibidos de una carga por partes, para reanudarla")
+    @GetMapping("/{tipoContrato}/{idContrato}/documentos/cargas/{idCarga}")
+    public ResponseEntity<CargaDocumentoDTO> getCarga(
+        @PathVariable TipoContrato tipoContrato,
+        @PathVariable Long idContrato,
+        @PathVariable String idCarga) {
+        return ResponseEntity.ok(service.getCarga(tipoContrato, idContrato, idCarga));
+    }
+
+    @Operation(summary = "Envía una parte de la carga",
+               description = "El cuerpo (application/octet-stream) se escribe a disco desde offset sin almacenarse en memoria")
+    @PutMapping(path = "/{tipoContrato}/{idContrato}/documentos/cargas/{idCarga}",
+                consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<CargaDocumentoDTO> agregarParte(
+        @PathVariable TipoContrato tipoContrato,
+        @PathVariable Long idContrato,
+        @PathVariable String idCarga,
+        @Parameter(description = "Posición del primer byte de esta parte") @RequestParam long offset,
+        InputStream contenido) {
+        return ResponseEntity.ok(service.agregarParte(tipoContrato, idContrato, idCarga, offset, contenido));
+    }
+
+    @Operation(summary = "Completa una carga por partes y registra el documento")
+    @PostMapping("/{tipoContrato}/{idContrato}/documentos/cargas/{idCarga}/completar")
+    public ResponseEntity<DocumentoContratoDTO> completarCarga(
+        @PathVariable TipoContrato tipoContrato,
+        @PathVariable Long idContrato,
+        @PathVariable String idCarga,
+        @RequestParam String nombreArchivo,
+        @RequestParam(defaultValue = MediaType.APPLICATION_PDF_VALUE) String tipoContenido,
+        @Parameter(description = "SHA-256 esperado (hex) del archivo completo")
+        @RequestParam(required = false) String sha256) {
+        log.info("Completando carga {} para contrato {} {}", idCarga, tipoContrato, idContrato);
+        DocumentoContratoDTO documento = service.completarCarga(tipoContrato, idContrato, idCarga,
+            nombreArchivo, tipoContenido, sha256);
+        return ResponseEntity.status(HttpStatus.CREATED).body(documento);
+    }
+
+    @Operation(summary = "Metadatos de un documento")
+    @GetMapping("/documentos/{idDocumento}")
+    public ResponseEntity<DocumentoContratoDTO> getDocumento(@PathVariable Long idDocumento) {
+        return ResponseEntity.ok(service.getDocumento(idDocumento));
+    }
+
+    @Operation(summary = "Descarga el contenido del documento",
+               description = "Con almacenamiento en disco se envía con sendfile (copia cero); si no, en streaming asíncrono")
+    @GetMapping(path = "/documentos/{idDocumento}/contenido", produces = MediaType.ALL_VALUE)
+    public ResponseEntity<StreamingResponseBody> descargar(
+        @PathVariable Long idDocumento,
+        HttpServletRequest request,
+        WebRequest webRequest) {
+        DocumentoContratoDTO documento = service.getDocumento(idDocumento);
+        String etag = Etags.deVersion(documento.getSha256());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(documento.getTipoContenido()));
+        headers.setContentLength(documento.getTamanioBytes());
+        headers.setContentDisposition(ContentDisposition.attachment().filename(documento.getNombreArchivo()).build());
+        headers.setETag(etag);
+
+        Optional<Path> ruta = service.getRutaLocal(idDocumento);
+        if (ruta.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            request.setAttribute(SENDFILE_ARCHIVO, ruta.get().toString());
+            request.setAttribute(SENDFILE_INICIO, 0L);
+            request.setAttribute(SENDFILE_FIN, documento.getTamanioBytes());
+            return ResponseEntity.ok().headers(headers).build();
+        }
+        // El cuerpo se escribe en otro hilo: lleva el shard del documento
+        int shard = ContextoShard.actual();
+        return ResponseEntity.ok().headers(headers).body(salida -> {
+            ContextoShard.establecer(shard);
+            try {
+                service.copiarContenido(idDocumento, salida);
+            } finally {
+                ContextoShard.limpiar();
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.banquito.formalizacion.controller;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.formalizacion.controller.dto.BenchmarkPdfDTO;
+import com.banquito.formalizacion.controller.dto.DocumentoContratoDTO;
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.banquito.formalizacion.service.GeneracionDocumentoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping(path = "/api", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Generación de Documentos", description = "Renderizado de contratos y pagarés en PDF")
+public class GeneracionDocumentoController {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneracionDocumentoController.class);
+
+    private static final int MAX_DOCUMENTOS_BENCHMARK = 1000;
+    private static final int MAX_CUOTAS_BENCHMARK = 600;
+
+    private final GeneracionDocumentoService service;
+
+    public GeneracionDocumentoController(GeneracionDocumentoService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Genera el PDF del contrato y lo registra como documento",
+               description = "El renderizado corre en el pool de PDF; no modifica rutaArchivoFirmado")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Documento generado"),
+        @ApiResponse(responseCode = "404", description = "Contrato no encontrado")
+    })
+    @PostMapping("/contratos/{tipoContrato}/{idContrato}/documentos/generar")
+    public CompletableFuture<ResponseEntity<DocumentoContratoDTO>> generarContrato(
+        @PathVariable TipoContrato tipoContrato,
+        @PathVariable Long idContrato) {
+        log.info("Generando PDF de contrato {} {}", tipoContrato, idContrato);
+        CompletableFuture<DocumentoContratoDTO> documento = tipoContrato == TipoContrato.CREDITO
+            ? service.generarContratoCredito(idContrato)
+            : service.generarContratoCompraVenta(idContrato);
+        return documento.thenApply(d -> ResponseEntity.status(HttpStatus.CREATED).body(d));
+    }
+
+    @Operation(summary = "Genera el PDF con todos los pagarés de un contrato de crédito")
+    @PostMapping("/contratos/CREDITO/{idContratoCredito}/documentos/generar-pagares")
+    public CompletableFuture<ResponseEntity<DocumentoContratoDTO>> generarPagares(
+        @PathVariable Long idContratoCredito) {
+        log.info("Generando PDF de pagarés del contrato {}", idContratoCredito);
+        return service.generarPagares(idContratoCredito)
+            .thenApply(d -> ResponseEntity.status(HttpStatus.CREATED).body(d));
+    }
+
+    @Operation(summary = "Mide el rendimiento del renderizado con un bloque sintético de pagarés",
+               description = "No accede a base ni almacena archivos; por defecto 120 cuotas por documento")
+    @PostMapping("/admin/pdf/benchmark")
+    public ResponseEntity<BenchmarkPdfDTO> benchmark(
+        @Parameter(description = "Documentos a renderizar") @RequestParam(defaultValue = "50") int documentos,
+        @Parameter(description = "Cuotas por documento") @RequestParam(defaultValue = "120") int cuotas) {
+        if (documentos < 1 || documentos > MAX_DOCUMENTOS_BENCHMARK
+            || cuotas < 1 || cuotas > MAX_CUOTAS_BENCHMARK) {
+            throw new BusinessLogicException("benchmark de PDF", "documentos debe estar entre 1 y "
+                + MAX_DOCUMENTOS_BENCHMARK + " y cuotas entre 1 y " + MAX_CUOTAS_BENCHMARK);
+        }
+        return ResponseEntity.ok(service.benchmarkPagares(documentos, cuotas));
+    }
+}
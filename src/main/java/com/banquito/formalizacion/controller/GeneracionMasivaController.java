@@ -0,0 +1,58 @@
+package com.banquito.formalizacion.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.formalizacion.controller.dto.ProcesoGeneracionMasivaDTO;
+import com.banquito.formalizacion.service.GeneracionMasivaPagaresService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping(path = "/api/contratos-credito/pagares/generacion-masiva", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Generación Masiva de Pagarés", description = "Generación de cronogramas para la migración de cartera")
+public class GeneracionMasivaController {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneracionMasivaController.class);
+    private final GeneracionMasivaPagaresService service;
+
+    public GeneracionMasivaController(GeneracionMasivaPagaresService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Inicia la generación de pagarés para todos los contratos sin cronograma",
+               description = "El proceso corre en segundo plano; consultar su avance con el ID devuelto")
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Proceso iniciado"),
+        @ApiResponse(responseCode = "400", description = "Ya hay un proceso en ejecución")
+    })
+    @PostMapping
+    public ResponseEntity<ProcesoGeneracionMasivaDTO> iniciar() {
+        log.info("Iniciando generación masiva de pagarés");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.iniciar());
+    }
+
+    @Operation(summary = "Avance y rendimiento de un proceso de generación masiva")
+    @GetMapping("/{idProceso}")
+    public ResponseEntity<ProcesoGeneracionMasivaDTO> getProceso(@PathVariable Long idProceso) {
+        return ResponseEntity.ok(service.getProceso(idProceso));
+    }
+
+    @Operation(summary = "Reanuda un proceso fallido o interrumpido desde su último checkpoint")
+    @PostMapping("/{idProceso}/reanudar")
+    public ResponseEntity<ProcesoGeneracionMasivaDTO> reanudar(@PathVariable Long idProceso) {
+        log.info("Reanudando generación masiva {}", idProceso);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.reanudar(idProceso));
+    }
+}
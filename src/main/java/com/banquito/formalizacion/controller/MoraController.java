@@ -0,0 +1,65 @@
+package com.banquito.formalizacion.controller;
+
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.formalizacion.controller.dto.LiquidacionMoraDTO;
+import com.banquito.formalizacion.controller.dto.ResultadoDevengoMoraDTO;
+import com.banquito.formalizacion.service.MoraService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping(path = "/api/mora", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Mora", description = "Interés de mora sobre cuotas vencidas")
+public class MoraController {
+
+    private static final Logger log = LoggerFactory.getLogger(MoraController.class);
+
+    private final MoraService service;
+
+    public MoraController(MoraService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Liquidación de mora de un contrato de crédito",
+               description = "Capital vencido e interés de mora de cada cuota impaga vencida a la fecha de corte")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Liquidación calculada"),
+        @ApiResponse(responseCode = "404", description = "Contrato no encontrado")
+    })
+    @GetMapping("/contratos/{idContratoCredito}/liquidacion")
+    public ResponseEntity<LiquidacionMoraDTO> getLiquidacion(
+        @PathVariable Long idContratoCredito,
+        @Parameter(description = "Fecha de corte; por defecto hoy")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        return ResponseEntity.ok(service.getLiquidacion(idContratoCredito, fecha != null ? fecha : LocalDate.now()));
+    }
+
+    @Operation(summary = "Ejecuta el devengo de mora (normalmente lo hace la tarea diaria)",
+               description = "Marca como VENCIDO las cuotas impagas con vencimiento anterior al corte y guarda el "
+                   + "interés acumulado de cada una. Reejecutarlo para la misma fecha solo procesa lo pendiente.")
+    @PostMapping("/devengo")
+    public ResponseEntity<ResultadoDevengoMoraDTO> devengar(
+        @Parameter(description = "Fecha de corte; por defecto hoy")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        LocalDate fechaCorte = fecha != null ? fecha : LocalDate.now();
+        log.info("Devengo de mora solicitado al {}", fechaCorte);
+        return ResponseEntity.ok(service.devengar(fechaCorte));
+    }
+}
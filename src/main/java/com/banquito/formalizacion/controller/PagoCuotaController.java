@@ -0,0 +1,58 @@
+package com.banquito.formalizacion.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.banquito.formalizacion.controller.dto.PagoCuotaDTO;
+import com.banquito.formalizacion.controller.dto.ResultadoCargaPagosDTO;
+import com.banquito.formalizacion.service.PagoCuotaService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping(path = "/api/pagos", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Pagos de Cuotas", description = "Aplicación de pagos de caja sobre los pagarés")
+public class PagoCuotaController {
+
+    private static final Logger log = LoggerFactory.getLogger(PagoCuotaController.class);
+
+    private final PagoCuotaService service;
+
+    public PagoCuotaController(PagoCuotaService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Aplica un archivo de pagos de caja",
+               description = "Una línea por pago: idContratoCredito;numeroCuota;monto;fechaPago(yyyy-MM-dd);referencia. "
+                   + "Se procesa por lotes; las líneas inválidas se rechazan con su motivo sin detener la carga. "
+                   + "Con simulacion=true se valida todo y no se guarda nada.")
+    @PostMapping(path = "/archivos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResultadoCargaPagosDTO> cargarArchivo(
+        @RequestPart("archivo") MultipartFile archivo,
+        @Parameter(description = "Valida y reporta sin aplicar los pagos")
+        @RequestParam(defaultValue = "false") boolean simulacion) {
+        log.info("Cargando archivo de pagos {} ({} bytes){}", archivo.getOriginalFilename(), archivo.getSize(),
+            simulacion ? " en simulación" : "");
+        return ResponseEntity.ok(service.cargarArchivo(archivo, simulacion));
+    }
+
+    @Operation(summary = "Pagos registrados de un contrato de crédito")
+    @GetMapping("/contrato/{idContratoCredito}")
+    public ResponseEntity<List<PagoCuotaDTO>> getPagosPorContrato(@PathVariable Long idContratoCredito) {
+        return ResponseEntity.ok(service.getPagosPorContrato(idContratoCredito));
+    }
+}
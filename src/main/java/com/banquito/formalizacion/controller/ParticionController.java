@@ -0,0 +1,66 @@
+package com.banquito.formalizacion.controller;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.formalizacion.controller.dto.ParticionDTO;
+import com.banquito.formalizacion.service.ParticionService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping(path = "/api/admin/particiones", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Particiones", description = "Administración de particiones mensuales de tablas de formalización")
+public class ParticionController {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionController.class);
+    private final ParticionService service;
+
+    public ParticionController(ParticionService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Lista las particiones de una tabla")
+    @GetMapping("/{tabla}")
+    public ResponseEntity<List<ParticionDTO>> listar(
+        @Parameter(description = "Tabla particionada", example = "pagares") @PathVariable String tabla) {
+        return ResponseEntity.ok(service.listarParticiones(tabla));
+    }
+
+    @Operation(summary = "Crea las particiones futuras que falten")
+    @PostMapping("/mantenimiento")
+    public ResponseEntity<Void> crearParticionesFuturas() {
+        log.info("Mantenimiento manual de particiones solicitado");
+        service.crearParticionesFuturas();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Desvincula la partición de un mes y la mueve al esquema de archivo")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Partición archivada"),
+        @ApiResponse(responseCode = "404", description = "Partición no encontrada")
+    })
+    @PostMapping("/{tabla}/{periodo}/archivar")
+    public ResponseEntity<ParticionDTO> archivar(
+        @Parameter(description = "Tabla particionada", example = "pagares") @PathVariable String tabla,
+        @Parameter(description = "Mes de la partición", example = "2020-01")
+        @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth periodo) {
+        log.warn("Archivando partición {} de {}", periodo, tabla);
+        return ResponseEntity.ok(service.archivarParticion(tabla, periodo));
+    }
+}
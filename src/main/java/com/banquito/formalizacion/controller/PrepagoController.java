@@ -0,0 +1,62 @@
+package com.banquito.formalizacion.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.formalizacion.controller.dto.LiquidacionPrepagoDTO;
+import com.banquito.formalizacion.controller.dto.SimulacionPrepagoDTO;
+import com.banquito.formalizacion.controller.dto.SolicitudPrepagoDTO;
+import com.banquito.formalizacion.service.PrepagoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping(path = "/api/prepagos", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Prepagos", description = "Cotización de cancelación anticipada y prepago parcial")
+public class PrepagoController {
+
+    private final PrepagoService service;
+
+    public PrepagoController(PrepagoService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Monto para cancelar el crédito a una fecha",
+               description = "Cuotas vencidas con su mora, saldo de capital e interés corrido del período en curso")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Liquidación calculada"),
+        @ApiResponse(responseCode = "404", description = "Contrato no encontrado")
+    })
+    @GetMapping("/contratos/{idContratoCredito}/liquidacion")
+    public ResponseEntity<LiquidacionPrepagoDTO> getLiquidacion(
+        @PathVariable Long idContratoCredito,
+        @Parameter(description = "Fecha de corte; por defecto hoy")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        return ResponseEntity.ok(service.getLiquidacion(idContratoCredito, fecha != null ? fecha : LocalDate.now()));
+    }
+
+    @Operation(summary = "Simula un prepago parcial",
+               description = "REDUCIR_PLAZO mantiene la cuota y acorta el plazo; REDUCIR_CUOTA mantiene el plazo y "
+                   + "recalcula la cuota. No modifica los pagarés.")
+    @PostMapping(path = "/contratos/{idContratoCredito}/simulacion", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SimulacionPrepagoDTO> simular(
+        @PathVariable Long idContratoCredito,
+        @Valid @RequestBody SolicitudPrepagoDTO dto) {
+        return ResponseEntity.ok(service.simular(idContratoCredito, dto));
+    }
+}
@@ -0,0 +1,78 @@
+package com.banquito.formalizacion.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banquito.formalizacion.controller.dto.ResultadoTransicionMasivaDTO;
+import com.banquito.formalizacion.controller.dto.TransicionEstadoDTO;
+import com.banquito.formalizacion.controller.dto.TransicionMasivaDTO;
+import com.banquito.formalizacion.enums.EntidadTransicion;
+import com.banquito.formalizacion.service.TransicionEstadoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping(path = "/api/transiciones", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Transiciones de Estado", description = "Cambios de estado masivos y su auditoría")
+public class TransicionEstadoController {
+
+    private static final Logger log = LoggerFactory.getLogger(TransicionEstadoController.class);
+
+    private final TransicionEstadoService service;
+
+    public TransicionEstadoController(TransicionEstadoService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Cambia de estado un lote de contratos de crédito",
+               description = "Solo se aplican los contratos en un estado de origen válido; el resto se devuelve "
+                   + "en rechazados con su estado actual")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote procesado"),
+        @ApiResponse(responseCode = "400", description = "Solicitud inválida")
+    })
+    @PostMapping("/contratos-credito")
+    public ResponseEntity<ResultadoTransicionMasivaDTO> transicionarContratosCredito(
+        @Valid @RequestBody TransicionMasivaDTO dto) {
+        log.info("Transición masiva de {} contratos de crédito a {}", dto.getIds().size(), dto.getEstadoDestino());
+        return ResponseEntity.ok(service.transicionarContratosCredito(dto));
+    }
+
+    @Operation(summary = "Cambia de estado un lote de contratos de compra-venta")
+    @PostMapping("/contratos-compra-venta")
+    public ResponseEntity<ResultadoTransicionMasivaDTO> transicionarContratosCompraVenta(
+        @Valid @RequestBody TransicionMasivaDTO dto) {
+        log.info("Transición masiva de {} contratos de compra-venta a {}", dto.getIds().size(),
+            dto.getEstadoDestino());
+        return ResponseEntity.ok(service.transicionarContratosCompraVenta(dto));
+    }
+
+    @Operation(summary = "Cambia de estado un lote de pagarés")
+    @PostMapping("/pagares")
+    public ResponseEntity<ResultadoTransicionMasivaDTO> transicionarPagares(@Valid @RequestBody TransicionMasivaDTO dto) {
+        log.info("Transición masiva de {} pagarés a {}", dto.getIds().size(), dto.getEstadoDestino());
+        return ResponseEntity.ok(service.transicionarPagares(dto));
+    }
+
+    @Operation(summary = "Historial de cambios de estado de un contrato o pagaré")
+    @GetMapping("/{entidad}/{idEntidad}")
+    public ResponseEntity<List<TransicionEstadoDTO>> getHistorial(
+        @PathVariable EntidadTransicion entidad,
+        @PathVariable Long idEntidad) {
+        return ResponseEntity.ok(service.getHistorial(entidad, idEntidad));
+    }
+}
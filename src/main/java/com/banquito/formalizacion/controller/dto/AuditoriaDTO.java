@@ -0,0 +1,27 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.banquito.formalizacion.enums.TipoContrato;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AuditoriaDTO {
+
+    private Long idAuditoria;
+    private LocalDateTime fecha;
+    private String entidad;
+    private Long idEntidad;
+    private TipoContrato tipoContrato;
+    private Long idContrato;
+    private String operacion;
+    private Long version;
+    private String usuario;
+    // campo -> {anterior, nuevo}
+    private Map<String, Object> cambios;
+
+}
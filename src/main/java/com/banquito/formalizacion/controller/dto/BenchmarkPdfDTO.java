@@ -0,0 +1,18 @@
+package com.banquito.formalizacion.controller.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BenchmarkPdfDTO {
+
+    private Integer documentos;
+    private Integer cuotasPorDocumento;
+    private Integer hilos;
+    private Long milisTotales;
+    private Double milisPromedioPorDocumento;
+    private Double documentosPorSegundo;
+    private Long bytesPromedio;
+
+}
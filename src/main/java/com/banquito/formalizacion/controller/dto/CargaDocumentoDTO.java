@@ -0,0 +1,14 @@
+package com.banquito.formalizacion.controller.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Estado de una carga por partes: el cliente continúa enviando desde bytesRecibidos
+@Data
+@Builder
+public class CargaDocumentoDTO {
+
+    private String idCarga;
+    private Long bytesRecibidos;
+
+}
@@ -2,7 +2,6 @@ package com.banquito.formalizacion.controller.dto;
 
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -23,7 +22,7 @@ public class ContratoCompraVentaCreateDTO {
     @NotNull(message = "El ID de solicitud no puede ser nulo")
     private Long idSolicitud;
 
-    @NotBlank(message = "El número de contrato no puede estar vacío")
+    // Opcional: si no se envía el servicio asigna el siguiente número de la numeración del tipo
     @Size(max = 50, message = "El número de contrato no debe exceder 50 caracteres")
     private String numeroContrato;
 
@@ -9,7 +9,6 @@ import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -26,7 +25,7 @@ public class ContratoCreditoCreateDTO {
     @NotNull(message = "El ID de solicitud no puede ser nulo")
     private Long idSolicitud;
 
-    @NotBlank(message = "El número de contrato core no puede estar vacío")
+    // Opcional: si no se envía el servicio asigna el siguiente número de la numeración del tipo
     @Size(max = 50, message = "El número de contrato core no debe exceder 50 caracteres")
     private String numeroContrato;
 
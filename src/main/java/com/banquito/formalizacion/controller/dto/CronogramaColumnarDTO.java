@@ -0,0 +1,24 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Cronograma de pagarés en columnas: un arreglo por campo en lugar de un objeto por cuota.
+// Montos en centavos, fechas en días desde 1970-01-01 y estado como índice sobre "estados".
+@Data
+@Builder
+public class CronogramaColumnarDTO {
+
+    private Long idContratoCredito;
+    private int cuotas;
+    private List<String> estados;
+    private long[] idPagare;
+    private long[] numeroCuota;
+    private long[] montoCuotaCentavos;
+    private long[] fechaVencimientoEpochDia;
+    private int[] estado;
+    private long[] version;
+
+}
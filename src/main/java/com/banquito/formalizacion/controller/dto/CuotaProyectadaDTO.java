@@ -0,0 +1,20 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CuotaProyectadaDTO {
+
+    private Integer numero;
+    private LocalDate fechaVencimiento;
+    private BigDecimal cuota;
+    private BigDecimal capital;
+    private BigDecimal interes;
+    private BigDecimal saldo;
+
+}
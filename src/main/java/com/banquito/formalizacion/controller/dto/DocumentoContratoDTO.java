@@ -0,0 +1,23 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.time.LocalDateTime;
+
+import com.banquito.formalizacion.enums.TipoContrato;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class DocumentoContratoDTO {
+
+    private Long idDocumento;
+    private TipoContrato tipoContrato;
+    private Long idContrato;
+    private String nombreArchivo;
+    private String tipoContenido;
+    private Long tamanioBytes;
+    private String sha256;
+    private LocalDateTime fechaCarga;
+
+}
@@ -0,0 +1,18 @@
+package com.banquito.formalizacion.controller.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EstadoAuditoriaDTO {
+
+    private Integer capacidad;
+    private Integer pendientes;
+    private Integer pendientesReintento;
+    private Long escritos;
+    private Long descartados;
+    private Long lotesFallidos;
+    private Long rechazados;
+
+}
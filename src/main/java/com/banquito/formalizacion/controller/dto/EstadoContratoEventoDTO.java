@@ -0,0 +1,28 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.time.LocalDateTime;
+
+import com.banquito.formalizacion.enums.TipoContrato;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Evento publicado cuando un contrato cambia de estado; se difunde por SSE al confirmarse la transacción
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadoContratoEventoDTO {
+
+    private TipoContrato tipoContrato;
+    private Long idContrato;
+    private Long idSolicitud;
+    private String numeroContrato;
+    private String estadoAnterior;
+    private String estadoNuevo;
+    private Long version;
+    private LocalDateTime fecha;
+
+}
@@ -0,0 +1,23 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExistenciaSolicitudesRequestDTO {
+
+    @NotEmpty(message = "La lista de solicitudes no puede estar vacía")
+    @Size(max = 1000, message = "No se pueden consultar más de 1000 solicitudes por petición")
+    private List<@NotNull(message = "El ID de solicitud no puede ser nulo") Long> idsSolicitud;
+
+}
@@ -0,0 +1,25 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LiquidacionMoraDTO {
+
+    private Long idContratoCredito;
+    private LocalDate fechaCorte;
+    private BigDecimal tasaEfectivaAnual;
+    private Integer tasaMoraBps;
+    private Integer cuotasVencidas;
+    private BigDecimal capitalVencido;
+    private BigDecimal interesMora;
+    // Capital vencido más interés de mora: lo que el cliente debe pagar para quedar al día
+    private BigDecimal totalAPagar;
+    private List<MoraCuotaDTO> cuotas;
+
+}
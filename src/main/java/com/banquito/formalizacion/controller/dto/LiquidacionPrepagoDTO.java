@@ -0,0 +1,26 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LiquidacionPrepagoDTO {
+
+    private Long idContratoCredito;
+    private LocalDate fechaCorte;
+    // Cuotas impagas con vencimiento hasta la fecha de corte, con su interés de mora
+    private Integer cuotasVencidas;
+    private BigDecimal montoVencido;
+    private BigDecimal interesMora;
+    // Capital de las cuotas que aún no vencen más el interés corrido del período en curso
+    private Integer cuotasPendientes;
+    private BigDecimal saldoCapital;
+    private BigDecimal interesCorrido;
+    private LocalDate fechaProximoVencimiento;
+    private BigDecimal totalLiquidacion;
+
+}
@@ -0,0 +1,26 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.banquito.formalizacion.enums.PagareEstado;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class MoraCuotaDTO {
+
+    private Long idPagare;
+    private Long numeroCuota;
+    private PagareEstado estado;
+    private LocalDate fechaVencimiento;
+    private BigDecimal montoCuota;
+    private Integer diasMora;
+    private BigDecimal interesMora;
+    // Último valor guardado por el devengo diario y su fecha (null si aún no corrió para esta cuota)
+    private BigDecimal interesDevengado;
+    private LocalDate fechaDevengo;
+
+}
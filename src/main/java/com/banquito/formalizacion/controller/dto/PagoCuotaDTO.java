@@ -0,0 +1,24 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PagoCuotaDTO {
+
+    private Long idPago;
+    private Long idPagare;
+    private Long idContratoCredito;
+    private Long numeroCuota;
+    private BigDecimal monto;
+    private LocalDate fechaPago;
+    private String referencia;
+    private String archivo;
+    private LocalDateTime fechaRegistro;
+
+}
@@ -0,0 +1,15 @@
+package com.banquito.formalizacion.controller.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ParticionDTO {
+
+    private String tabla;
+    private String particion;
+    private String rango;
+    private Long filasEstimadas;
+
+}
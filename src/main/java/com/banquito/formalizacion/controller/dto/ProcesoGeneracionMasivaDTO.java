@@ -0,0 +1,26 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.time.LocalDateTime;
+
+import com.banquito.formalizacion.enums.EstadoProceso;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProcesoGeneracionMasivaDTO {
+
+    private Long idProceso;
+    private EstadoProceso estado;
+    private Long ultimoIdProcesado;
+    private Long contratosProcesados;
+    private Long cuotasGeneradas;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private Long milisEjecucion;
+    private Double contratosPorSegundo;
+    private Double cuotasPorSegundo;
+    private String mensajeError;
+
+}
@@ -0,0 +1,27 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ResultadoCargaPagosDTO {
+
+    private String archivo;
+    private Boolean simulacion;
+    private Long lineas;
+    private Long aplicadas;
+    private Long rechazadas;
+    // motivo -> cantidad de líneas
+    private Map<String, Long> rechazosPorMotivo;
+    // primeras líneas rechazadas, "línea N: motivo"
+    private List<String> detalleRechazos;
+    private Integer contratosPagados;
+    private Integer lotes;
+    private Long milisEjecucion;
+    private Double lineasPorSegundo;
+
+}
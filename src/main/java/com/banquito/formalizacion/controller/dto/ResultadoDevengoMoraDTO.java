@@ -0,0 +1,20 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ResultadoDevengoMoraDTO {
+
+    private LocalDate fechaCorte;
+    private Long cuotasMarcadasVencidas;
+    private Long contratosProcesados;
+    private Long cuotasDevengadas;
+    private BigDecimal interesDevengado;
+    private Long milisEjecucion;
+
+}
@@ -0,0 +1,22 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.util.Map;
+
+import com.banquito.formalizacion.enums.EntidadTransicion;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ResultadoTransicionMasivaDTO {
+
+    private EntidadTransicion entidad;
+    private String estadoDestino;
+    private Integer solicitados;
+    private Integer aplicados;
+    // ID rechazado -> estado actual, o NO_ENCONTRADO
+    private Map<Long, String> rechazados;
+    private Long milisEjecucion;
+
+}
@@ -0,0 +1,23 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.banquito.formalizacion.enums.ContratoCreditoEstado;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ResumenCarteraEstadoDTO {
+
+    private ContratoCreditoEstado estado;
+    private Long cantidadContratos;
+    private BigDecimal montoAprobadoTotal;
+    // Suma de las cuotas no pagadas (capital más interés), no el saldo de capital
+    private BigDecimal montoCuotasPendientes;
+    private Long cuotasVencidas;
+    private LocalDateTime fechaActualizacion;
+
+}
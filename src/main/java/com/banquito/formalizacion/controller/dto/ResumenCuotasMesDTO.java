@@ -0,0 +1,22 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.banquito.formalizacion.enums.PagareEstado;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ResumenCuotasMesDTO {
+
+    private LocalDate periodo;
+    private PagareEstado estado;
+    private Long cantidadCuotas;
+    private BigDecimal montoTotal;
+    private LocalDateTime fechaActualizacion;
+
+}
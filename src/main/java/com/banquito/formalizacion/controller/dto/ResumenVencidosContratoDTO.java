@@ -0,0 +1,20 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ResumenVencidosContratoDTO {
+
+    private Long idContratoCredito;
+    private Long cuotasVencidas;
+    private BigDecimal montoVencido;
+    private LocalDate vencimientoMasAntiguo;
+    private LocalDateTime fechaActualizacion;
+
+}
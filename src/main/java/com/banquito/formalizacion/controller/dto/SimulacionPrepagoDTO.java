@@ -0,0 +1,31 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.banquito.formalizacion.enums.ModalidadPrepago;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SimulacionPrepagoDTO {
+
+    private Long idContratoCredito;
+    private LocalDate fechaPrepago;
+    private ModalidadPrepago modalidad;
+    private BigDecimal montoPrepago;
+    private BigDecimal saldoCapitalAnterior;
+    private BigDecimal saldoCapitalNuevo;
+    private BigDecimal cuotaAnterior;
+    private BigDecimal cuotaNueva;
+    private Integer cuotasRestantesAnteriores;
+    private Integer cuotasRestantesNuevas;
+    private BigDecimal interesesPendientesAnteriores;
+    private BigDecimal interesesPendientesNuevos;
+    private BigDecimal ahorroIntereses;
+    private List<CuotaProyectadaDTO> cuotas;
+
+}
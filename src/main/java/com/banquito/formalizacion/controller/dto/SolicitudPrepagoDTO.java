@@ -0,0 +1,33 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.banquito.formalizacion.enums.ModalidadPrepago;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SolicitudPrepagoDTO {
+
+    @NotNull(message = "El monto del prepago es requerido")
+    @Positive(message = "El monto del prepago debe ser mayor a cero")
+    @Digits(integer = 10, fraction = 2, message = "El monto admite hasta 2 decimales")
+    private BigDecimal monto;
+
+    @NotNull(message = "La modalidad es requerida")
+    private ModalidadPrepago modalidad;
+
+    // Por defecto hoy
+    private LocalDate fecha;
+
+}
@@ -7,6 +7,10 @@ public class SolicitudResumenDTO {
     @JsonProperty("id_solicitud")
     private Long idSolicitud;
 
+    // Clave de reparto entre shards; si originación no la envía se usa la solicitud
+    @JsonProperty("id_concesionario")
+    private Long idConcesionario;
+
     @JsonProperty("precio_final_vehiculo")
     private BigDecimal precioFinalVehiculo;
 
@@ -24,6 +28,9 @@ public class SolicitudResumenDTO {
     public Long getIdSolicitud() { return idSolicitud; }
     public void setIdSolicitud(Long idSolicitud) { this.idSolicitud = idSolicitud; }
 
+    public Long getIdConcesionario() { return idConcesionario; }
+    public void setIdConcesionario(Long idConcesionario) { this.idConcesionario = idConcesionario; }
+
     public BigDecimal getPrecioFinalVehiculo() { return precioFinalVehiculo; }
     public void setPrecioFinalVehiculo(BigDecimal precioFinalVehiculo) { this.precioFinalVehiculo = precioFinalVehiculo; }
 
@@ -0,0 +1,23 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.time.LocalDateTime;
+
+import com.banquito.formalizacion.enums.EntidadTransicion;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TransicionEstadoDTO {
+
+    private Long idTransicion;
+    private EntidadTransicion entidad;
+    private Long idEntidad;
+    private String estadoAnterior;
+    private String estadoNuevo;
+    private String motivo;
+    private Boolean masiva;
+    private LocalDateTime fecha;
+
+}
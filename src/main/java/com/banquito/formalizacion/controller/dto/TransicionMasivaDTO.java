@@ -0,0 +1,30 @@
+package com.banquito.formalizacion.controller.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransicionMasivaDTO {
+
+    @NotEmpty(message = "La lista de IDs no puede estar vacía")
+    @Size(max = 10000, message = "No se pueden cambiar más de 10000 registros por petición")
+    private List<@NotNull(message = "El ID no puede ser nulo") Long> ids;
+
+    @NotBlank(message = "El estado destino es requerido")
+    private String estadoDestino;
+
+    @Size(max = 255, message = "El motivo no puede superar 255 caracteres")
+    private String motivo;
+
+}
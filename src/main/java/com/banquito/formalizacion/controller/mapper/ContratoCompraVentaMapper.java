@@ -28,6 +28,7 @@ public interface ContratoCompraVentaMapper {
     // Mapea de DTO de actualización a modelo, modificando solo los campos necesarios
     @Mapping(target = "idContratoVenta", ignore = true) // La ID no se actualiza
     @Mapping(target = "fechaGeneracion", ignore = true) // La fecha de generación no se actualiza
+    @Mapping(target = "estado", ignore = true) // El estado solo cambia por transiciones validadas
     void updateEntity(@MappingTarget ContratoCompraVenta entity, ContratoCompraVentaUpdateDTO dto);
 
     // Mapea de entidad a DTO de respuesta
@@ -12,6 +12,7 @@ import com.banquito.formalizacion.controller.dto.ContratoCreditoCreateDTO;
 import com.banquito.formalizacion.controller.dto.ContratoCreditoDTO;
 import com.banquito.formalizacion.controller.dto.ContratoCreditoUpdateDTO;
 import com.banquito.formalizacion.model.ContratoCredito;
+import com.banquito.formalizacion.model.ContratoCreditoArchivo;
 
 @Mapper(
         componentModel = "spring", 
@@ -31,6 +32,7 @@ public interface ContratoCreditoMapper {
     @Mapping(target = "idContratoCredito", ignore = true)
     @Mapping(target = "idSolicitud", ignore = true)
     @Mapping(target = "version", ignore = true)
+    @Mapping(target = "estado", ignore = true) // El estado solo cambia por transiciones validadas
     void updateEntity(@MappingTarget ContratoCredito entity, ContratoCreditoUpdateDTO dto);
 
     // Mapea la entidad a DTO de respuesta
@@ -39,4 +41,7 @@ public interface ContratoCreditoMapper {
     // Mapea una lista de entidades a una lista de DTOs
     List<ContratoCreditoDTO> toDtoList(List<ContratoCredito> entities);
 
+    // Mapea un contrato archivado al mismo DTO de respuesta
+    ContratoCreditoDTO toDto(ContratoCreditoArchivo entity);
+
 }
\ No newline at end of file
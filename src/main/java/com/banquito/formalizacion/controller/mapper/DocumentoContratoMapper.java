@@ -0,0 +1,20 @@
+package com.banquito.formalizacion.controller.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import com.banquito.formalizacion.controller.dto.DocumentoContratoDTO;
+import com.banquito.formalizacion.model.DocumentoContrato;
+
+@Mapper(
+        componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface DocumentoContratoMapper {
+
+    DocumentoContratoDTO toDto(DocumentoContrato entity);
+
+    List<DocumentoContratoDTO> toDtoList(List<DocumentoContrato> entities);
+}
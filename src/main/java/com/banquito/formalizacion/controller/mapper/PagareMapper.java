@@ -1,15 +1,20 @@
 package com.banquito.formalizacion.controller.mapper;
 
+import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.List;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
+import com.banquito.formalizacion.controller.dto.CronogramaColumnarDTO;
 import com.banquito.formalizacion.controller.dto.PagareDTO;
 import com.banquito.formalizacion.controller.dto.PagareCreateDTO;
 import com.banquito.formalizacion.controller.dto.PagareUpdateDTO;
+import com.banquito.formalizacion.enums.PagareEstado;
 import com.banquito.formalizacion.model.Pagare;
+import com.banquito.formalizacion.model.PagareArchivo;
 
 @Mapper(
     componentModel = "spring",
@@ -26,6 +31,7 @@ public interface PagareMapper {
     @Mapping(target = "idPagare", ignore = true)
     @Mapping(target = "idContratoCredito", ignore = true)
     @Mapping(target = "version", ignore = true)
+    @Mapping(target = "estado", ignore = true) // El estado solo cambia por transiciones validadas
     void updateEntity(@MappingTarget Pagare entity, PagareUpdateDTO dto);
 
     // Entidad a DTO de respuesta
@@ -33,4 +39,40 @@ public interface PagareMapper {
 
     // Lista de entidades a lista de DTOs
     List<PagareDTO> toDtoList(List<Pagare> entities);
-}
\ No newline at end of file
+
+    // Pagarés archivados al mismo DTO de respuesta
+    PagareDTO toDto(PagareArchivo entity);
+
+    List<PagareDTO> toDtoListArchivo(List<PagareArchivo> entities);
+
+    // Cronograma completo a formato columnar
+    default CronogramaColumnarDTO toColumnar(Long idContratoCredito, List<PagareDTO> pagares) {
+        int n = pagares.size();
+        long[] ids = new long[n];
+        long[] numeros = new long[n];
+        long[] centavos = new long[n];
+        long[] fechas = new long[n];
+        int[] estados = new int[n];
+        long[] versiones = new long[n];
+        for (int i = 0; i < n; i++) {
+            PagareDTO p = pagares.get(i);
+            ids[i] = p.getIdPagare();
+            numeros[i] = p.getNumeroCuota();
+            centavos[i] = p.getMontoCuota().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            fechas[i] = p.getFechaVencimiento().toEpochDay();
+            estados[i] = p.getEstado().ordinal();
+            versiones[i] = p.getVersion() != null ? p.getVersion() : 0L;
+        }
+        return CronogramaColumnarDTO.builder()
+            .idContratoCredito(idContratoCredito)
+            .cuotas(n)
+            .estados(Arrays.stream(PagareEstado.values()).map(Enum::name).toList())
+            .idPagare(ids)
+            .numeroCuota(numeros)
+            .montoCuotaCentavos(centavos)
+            .fechaVencimientoEpochDia(fechas)
+            .estado(estados)
+            .version(versiones)
+            .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.banquito.formalizacion.controller.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import com.banquito.formalizacion.controller.dto.PagoCuotaDTO;
+import com.banquito.formalizacion.model.PagoCuota;
+
+@Mapper(
+        componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface PagoCuotaMapper {
+
+    PagoCuotaDTO toDto(PagoCuota entity);
+
+    List<PagoCuotaDTO> toDtoList(List<PagoCuota> entities);
+}
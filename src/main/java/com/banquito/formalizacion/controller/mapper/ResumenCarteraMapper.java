@@ -0,0 +1,30 @@
+package com.banquito.formalizacion.controller.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import com.banquito.formalizacion.controller.dto.ResumenCarteraEstadoDTO;
+import com.banquito.formalizacion.controller.dto.ResumenCuotasMesDTO;
+import com.banquito.formalizacion.controller.dto.ResumenVencidosContratoDTO;
+import com.banquito.formalizacion.model.ResumenCarteraEstado;
+import com.banquito.formalizacion.model.ResumenCuotasMes;
+import com.banquito.formalizacion.model.ResumenVencidosContrato;
+
+@Mapper(
+        componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface ResumenCarteraMapper {
+
+    ResumenCarteraEstadoDTO toDto(ResumenCarteraEstado entity);
+
+    ResumenCuotasMesDTO toDto(ResumenCuotasMes entity);
+
+    ResumenVencidosContratoDTO toDto(ResumenVencidosContrato entity);
+
+    List<ResumenCarteraEstadoDTO> toEstadoDtoList(List<ResumenCarteraEstado> entities);
+
+    List<ResumenCuotasMesDTO> toCuotasMesDtoList(List<ResumenCuotasMes> entities);
+}
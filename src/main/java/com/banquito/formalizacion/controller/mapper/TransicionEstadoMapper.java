@@ -0,0 +1,20 @@
+package com.banquito.formalizacion.controller.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import com.banquito.formalizacion.controller.dto.TransicionEstadoDTO;
+import com.banquito.formalizacion.model.TransicionEstado;
+
+@Mapper(
+        componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface TransicionEstadoMapper {
+
+    TransicionEstadoDTO toDto(TransicionEstado entity);
+
+    List<TransicionEstadoDTO> toDtoList(List<TransicionEstado> entities);
+}
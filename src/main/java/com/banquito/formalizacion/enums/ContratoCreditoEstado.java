@@ -1,6 +1,9 @@
 package com.banquito.formalizacion.enums;
 
-public enum ContratoCreditoEstado {
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum ContratoCreditoEstado implements EstadoConTransiciones<ContratoCreditoEstado> {
     PENDIENTE_FIRMA("pendiente_firma"),
     ACTIVO("activo"),
     PAGADO("pagado"),
@@ -15,4 +18,14 @@ public enum ContratoCreditoEstado {
     public String getValor() {
         return valor;
     }
-} 
\ No newline at end of file
+
+    // PAGADO y CANCELADO son finales
+    @Override
+    public Set<ContratoCreditoEstado> siguientes() {
+        return switch (this) {
+            case PENDIENTE_FIRMA -> EnumSet.of(ACTIVO, CANCELADO);
+            case ACTIVO -> EnumSet.of(PAGADO, CANCELADO);
+            case PAGADO, CANCELADO -> EnumSet.noneOf(ContratoCreditoEstado.class);
+        };
+    }
+}
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.banquito.formalizacion.enums;
 
-public enum ContratoVentaEstado {
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum ContratoVentaEstado implements EstadoConTransiciones<ContratoVentaEstado> {
     PENDIENTE_FIRMA("pendiente_firma"),
     FIRMADO("firmado");
 
@@ -13,4 +16,12 @@ public enum ContratoVentaEstado {
     public String getValor() {
         return valor;
     }
-} 
+
+    @Override
+    public Set<ContratoVentaEstado> siguientes() {
+        return switch (this) {
+            case PENDIENTE_FIRMA -> EnumSet.of(FIRMADO);
+            case FIRMADO -> EnumSet.noneOf(ContratoVentaEstado.class);
+        };
+    }
+}
\ No newline at end of file
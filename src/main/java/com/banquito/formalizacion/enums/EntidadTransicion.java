@@ -0,0 +1,17 @@
+package com.banquito.formalizacion.enums;
+
+public enum EntidadTransicion {
+    CONTRATO_CREDITO("contrato_credito"),
+    CONTRATO_COMPRA_VENTA("contrato_compra_venta"),
+    PAGARE("pagare");
+
+    private final String valor;
+
+    EntidadTransicion(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+}
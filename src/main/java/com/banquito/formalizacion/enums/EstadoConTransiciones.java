@@ -0,0 +1,14 @@
+package com.banquito.formalizacion.enums;
+
+import java.util.Set;
+
+// Estados con transiciones explícitas: un cambio de estado solo es válido si el destino
+// está entre los siguientes del estado actual.
+public interface EstadoConTransiciones<E extends Enum<E>> {
+
+    Set<E> siguientes();
+
+    default boolean puedeCambiarA(E destino) {
+        return siguientes().contains(destino);
+    }
+}
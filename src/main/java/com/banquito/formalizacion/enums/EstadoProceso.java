@@ -0,0 +1,18 @@
+package com.banquito.formalizacion.enums;
+
+public enum EstadoProceso {
+    EN_EJECUCION("en_ejecucion"),
+    COMPLETADO("completado"),
+    FALLIDO("fallido"),
+    INTERRUMPIDO("interrumpido");
+
+    private final String valor;
+
+    EstadoProceso(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+}
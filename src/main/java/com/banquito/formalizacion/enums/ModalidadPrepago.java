@@ -0,0 +1,16 @@
+package com.banquito.formalizacion.enums;
+
+public enum ModalidadPrepago {
+    REDUCIR_PLAZO("reducir_plazo"),
+    REDUCIR_CUOTA("reducir_cuota");
+
+    private final String valor;
+
+    ModalidadPrepago(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+}
@@ -1,6 +1,9 @@
 package com.banquito.formalizacion.enums;
 
-public enum PagareEstado {
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum PagareEstado implements EstadoConTransiciones<PagareEstado> {
     PENDIENTE("pendiente"),
     PAGADO("pagado"),
     VENCIDO("vencido");
@@ -14,4 +17,13 @@ public enum PagareEstado {
     public String getValor() {
         return valor;
     }
-} 
\ No newline at end of file
+
+    @Override
+    public Set<PagareEstado> siguientes() {
+        return switch (this) {
+            case PENDIENTE -> EnumSet.of(PAGADO, VENCIDO);
+            case VENCIDO -> EnumSet.of(PAGADO);
+            case PAGADO -> EnumSet.noneOf(PagareEstado.class);
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.banquito.formalizacion.enums;
+
+public enum TipoContrato {
+    CREDITO("credito"),
+    COMPRA_VENTA("compra_venta");
+
+    private final String valor;
+
+    TipoContrato(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+}
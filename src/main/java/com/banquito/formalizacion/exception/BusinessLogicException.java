@@ -11,6 +11,12 @@ public class BusinessLogicException extends RuntimeException {
         this.reason = reason;
     }
 
+    public BusinessLogicException(String operation, String reason, Throwable cause) {
+        super(cause);
+        this.operation = operation;
+        this.reason = reason;
+    }
+
     @Override
     public String getMessage() {
         return "Error en la operación: " + this.operation + ". Razón: " + this.reason;
@@ -0,0 +1,25 @@
+package com.banquito.formalizacion.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class VersionNoCoincideException extends RuntimeException {
+
+    private final String entity;
+    private final String esperada;
+    private final String actual;
+
+    public VersionNoCoincideException(String entity, String esperada, String actual) {
+        super();
+        this.entity = entity;
+        this.esperada = esperada;
+        this.actual = actual;
+    }
+
+    @Override
+    public String getMessage() {
+        return "La versión de " + this.entity + " cambió: se esperaba " + this.esperada
+               + " y la actual es " + this.actual;
+    }
+}
@@ -5,14 +5,13 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.List;
 
+import com.banquito.formalizacion.config.IdShard;
 import com.banquito.formalizacion.enums.ContratoCreditoEstado;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
@@ -29,7 +28,7 @@ import lombok.Setter;
 public class ContratoCredito {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdShard(secuencia = "seq_contrato_credito")
     @Column(name = "id_contrato_credito", nullable = false)
     private Long idContratoCredito;
 
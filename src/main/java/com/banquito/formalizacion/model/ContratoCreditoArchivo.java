@@ -0,0 +1,93 @@
+package com.banquito.formalizacion.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import com.banquito.formalizacion.enums.ContratoCreditoEstado;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Contrato totalmente pagado movido fuera de la tabla operativa; solo lectura
+@Entity
+@Table(name = "contrato_credito_archivo", indexes = {
+    @Index(name = "idx_contrato_archivo_solicitud", columnList = "id_solicitud"),
+    @Index(name = "idx_contrato_archivo_numero", columnList = "numero_contrato")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ContratoCreditoArchivo {
+
+    @Id
+    @Column(name = "id_contrato_credito", nullable = false)
+    private Long idContratoCredito;
+
+    @Column(name = "id_solicitud", nullable = false)
+    private Long idSolicitud;
+
+    @Column(name = "numero_contrato", nullable = false, length = 50)
+    private String numeroContrato;
+
+    @Column(name = "fecha_generacion", nullable = false)
+    private LocalDateTime fechaGeneracion;
+
+    @Column(name = "fecha_firma")
+    private LocalDateTime fechaFirma;
+
+    @Column(name = "monto_aprobado", nullable = false, precision = 12, scale = 2)
+    private BigDecimal montoAprobado;
+
+    @Column(name = "plazo_final_meses", nullable = false)
+    private Long plazoFinalMeses;
+
+    @Column(name = "tasa_efectiva_anual", nullable = false, precision = 5, scale = 2)
+    private BigDecimal tasaEfectivaAnual;
+
+    @Column(name = "ruta_archivo_firmado", length = 255)
+    private String rutaArchivoFirmado;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private ContratoCreditoEstado estado;
+
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "fecha_archivo", nullable = false)
+    private LocalDateTime fechaArchivo;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        ContratoCreditoArchivo that = (ContratoCreditoArchivo) obj;
+        return Objects.equals(idContratoCredito, that.idContratoCredito);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idContratoCredito);
+    }
+
+    @Override
+    public String toString() {
+        return "ContratoCreditoArchivo{" +
+                "idContratoCredito=" + idContratoCredito +
+                ", idSolicitud=" + idSolicitud +
+                ", numeroContrato='" + numeroContrato + '\'' +
+                ", estado=" + estado +
+                ", version=" + version +
+                ", fechaArchivo=" + fechaArchivo +
+                '}';
+    }
+}
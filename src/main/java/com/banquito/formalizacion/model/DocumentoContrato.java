@@ -0,0 +1,89 @@
+package com.banquito.formalizacion.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import com.banquito.formalizacion.config.IdShard;
+import com.banquito.formalizacion.enums.TipoContrato;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Archivo firmado de un contrato; el contenido vive en el almacenamiento de documentos bajo "clave"
+@Entity
+@Table(name = "documento_contrato",
+       indexes = @Index(name = "idx_documento_contrato", columnList = "tipo_contrato, id_contrato"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class DocumentoContrato {
+
+    @Id
+    @IdShard(secuencia = "seq_documento_contrato")
+    @Column(name = "id_documento", nullable = false)
+    private Long idDocumento;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_contrato", length = 20, nullable = false)
+    private TipoContrato tipoContrato;
+
+    @Column(name = "id_contrato", nullable = false)
+    private Long idContrato;
+
+    @Column(name = "nombre_archivo", length = 255, nullable = false)
+    private String nombreArchivo;
+
+    @Column(name = "tipo_contenido", length = 100, nullable = false)
+    private String tipoContenido;
+
+    @Column(name = "tamanio_bytes", nullable = false)
+    private Long tamanioBytes;
+
+    @Column(name = "sha256", length = 64, nullable = false)
+    private String sha256;
+
+    @Column(name = "clave", length = 200, nullable = false, unique = true)
+    private String clave;
+
+    @Column(name = "fecha_carga", nullable = false)
+    private LocalDateTime fechaCarga;
+
+    @Version
+    private Long version;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        DocumentoContrato that = (DocumentoContrato) obj;
+        return Objects.equals(idDocumento, that.idDocumento);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idDocumento);
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentoContrato{" +
+                "idDocumento=" + idDocumento +
+                ", tipoContrato=" + tipoContrato +
+                ", idContrato=" + idContrato +
+                ", nombreArchivo='" + nombreArchivo + '\'' +
+                ", tipoContenido='" + tipoContenido + '\'' +
+                ", tamanioBytes=" + tamanioBytes +
+                ", sha256='" + sha256 + '\'' +
+                ", fechaCarga=" + fechaCarga +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.banquito.formalizacion.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Interés de mora acumulado de una cuota vencida a la fecha de cálculo; lo reescribe el devengo diario
+@Entity
+@Table(name = "mora_pagare",
+       indexes = @Index(name = "idx_mora_pagare_contrato", columnList = "id_contrato_credito"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class MoraPagare {
+
+    @Id
+    @Column(name = "id_pagare", nullable = false)
+    private Long idPagare;
+
+    @Column(name = "id_contrato_credito", nullable = false)
+    private Long idContratoCredito;
+
+    @Column(name = "dias_mora", nullable = false)
+    private Integer diasMora;
+
+    @Column(name = "capital_vencido", nullable = false, precision = 10, scale = 2)
+    private BigDecimal capitalVencido;
+
+    // Tasa anual de mora en puntos básicos (1 pb = 0,01 %)
+    @Column(name = "tasa_mora_bps", nullable = false)
+    private Integer tasaMoraBps;
+
+    @Column(name = "interes_mora", nullable = false, precision = 12, scale = 2)
+    private BigDecimal interesMora;
+
+    @Column(name = "fecha_calculo", nullable = false)
+    private LocalDate fechaCalculo;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        MoraPagare that = (MoraPagare) obj;
+        return Objects.equals(idPagare, that.idPagare);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idPagare);
+    }
+
+    @Override
+    public String toString() {
+        return "MoraPagare{" +
+                "idPagare=" + idPagare +
+                ", idContratoCredito=" + idContratoCredito +
+                ", diasMora=" + diasMora +
+                ", capitalVencido=" + capitalVencido +
+                ", tasaMoraBps=" + tasaMoraBps +
+                ", interesMora=" + interesMora +
+                ", fechaCalculo=" + fechaCalculo +
+                '}';
+    }
+}
@@ -4,14 +4,15 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Objects;
 
+import org.hibernate.annotations.PartitionKey;
+
+import com.banquito.formalizacion.config.IdShard;
 import com.banquito.formalizacion.enums.PagareEstado;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
@@ -27,7 +28,7 @@ import lombok.Setter;
 public class Pagare {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdShard(secuencia = "seq_pagares")
     @Column(name = "id_pagare", nullable = false)
     private Long idPagare;
 
@@ -40,6 +41,9 @@ public class Pagare {
     @Column(name = "monto_cuota", nullable = false, precision = 10, scale = 2)
     private BigDecimal montoCuota;
 
+    // Clave de partición (PK id_pagare, fecha_vencimiento): Hibernate la agrega con su valor cargado al WHERE
+    // de UPDATE y DELETE, así la escritura va a una sola partición aunque la cuota cambie de vencimiento
+    @PartitionKey
     @Column(name = "fecha_vencimiento", nullable = false)
     private LocalDate fechaVencimiento;
 
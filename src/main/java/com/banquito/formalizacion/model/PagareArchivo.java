@@ -0,0 +1,77 @@
+package com.banquito.formalizacion.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import com.banquito.formalizacion.enums.PagareEstado;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Pagaré de un contrato archivado; solo lectura
+@Entity
+@Table(name = "pagare_archivo", indexes = {
+    @Index(name = "idx_pagare_archivo_contrato", columnList = "id_contrato_credito, numero_cuota")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class PagareArchivo {
+
+    @Id
+    @Column(name = "id_pagare", nullable = false)
+    private Long idPagare;
+
+    @Column(name = "id_contrato_credito", nullable = false)
+    private Long idContratoCredito;
+
+    @Column(name = "numero_cuota", nullable = false)
+    private Long numeroCuota;
+
+    @Column(name = "monto_cuota", nullable = false, precision = 10, scale = 2)
+    private BigDecimal montoCuota;
+
+    @Column(name = "fecha_vencimiento", nullable = false)
+    private LocalDate fechaVencimiento;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private PagareEstado estado;
+
+    @Column(name = "version")
+    private Long version;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        PagareArchivo that = (PagareArchivo) obj;
+        return Objects.equals(idPagare, that.idPagare);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idPagare);
+    }
+
+    @Override
+    public String toString() {
+        return "PagareArchivo{" +
+                "idPagare=" + idPagare +
+                ", idContratoCredito=" + idContratoCredito +
+                ", numeroCuota=" + numeroCuota +
+                ", montoCuota=" + montoCuota +
+                ", fechaVencimiento=" + fechaVencimiento +
+                ", estado=" + estado +
+                '}';
+    }
+}
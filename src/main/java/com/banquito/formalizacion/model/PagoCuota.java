@@ -0,0 +1,82 @@
+package com.banquito.formalizacion.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Pago aplicado a una cuota; lo escribe la carga de archivos de caja junto con el cambio a PAGADO
+@Entity
+@Table(name = "pago_cuota",
+       indexes = @Index(name = "idx_pago_cuota_contrato", columnList = "id_contrato_credito, numero_cuota"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class PagoCuota {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_pago", nullable = false)
+    private Long idPago;
+
+    @Column(name = "id_pagare", nullable = false)
+    private Long idPagare;
+
+    @Column(name = "id_contrato_credito", nullable = false)
+    private Long idContratoCredito;
+
+    @Column(name = "numero_cuota", nullable = false)
+    private Long numeroCuota;
+
+    @Column(name = "monto", nullable = false, precision = 10, scale = 2)
+    private BigDecimal monto;
+
+    @Column(name = "fecha_pago", nullable = false)
+    private LocalDate fechaPago;
+
+    @Column(name = "referencia", length = 100)
+    private String referencia;
+
+    @Column(name = "archivo", length = 255)
+    private String archivo;
+
+    @Column(name = "fecha_registro", nullable = false)
+    private LocalDateTime fechaRegistro;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        PagoCuota that = (PagoCuota) obj;
+        return Objects.equals(idPago, that.idPago);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idPago);
+    }
+
+    @Override
+    public String toString() {
+        return "PagoCuota{" +
+                "idPago=" + idPago +
+                ", idPagare=" + idPagare +
+                ", idContratoCredito=" + idContratoCredito +
+                ", numeroCuota=" + numeroCuota +
+                ", monto=" + monto +
+                ", fechaPago=" + fechaPago +
+                ", referencia='" + referencia + '\'' +
+                '}';
+    }
+}
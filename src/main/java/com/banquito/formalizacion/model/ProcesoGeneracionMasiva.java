@@ -0,0 +1,92 @@
+package com.banquito.formalizacion.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import com.banquito.formalizacion.enums.EstadoProceso;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Estado y checkpoint de una generación masiva de pagarés
+@Entity
+@Table(name = "proceso_generacion_masiva")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProcesoGeneracionMasiva {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_proceso", nullable = false)
+    private Long idProceso;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private EstadoProceso estado;
+
+    @Column(name = "ultimo_id_procesado", nullable = false)
+    private Long ultimoIdProcesado;
+
+    @Column(name = "contratos_procesados", nullable = false)
+    private Long contratosProcesados;
+
+    @Column(name = "cuotas_generadas", nullable = false)
+    private Long cuotasGeneradas;
+
+    @Column(name = "fecha_inicio", nullable = false)
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+
+    @Column(name = "milis_ejecucion", nullable = false)
+    private Long milisEjecucion;
+
+    @Column(name = "mensaje_error", length = 500)
+    private String mensajeError;
+
+    // Lo renueva el nodo que ejecuta el proceso; vencido, el proceso quedó huérfano
+    @Column(name = "fecha_latido")
+    private LocalDateTime fechaLatido;
+
+    @Version
+    private Long version;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        ProcesoGeneracionMasiva that = (ProcesoGeneracionMasiva) obj;
+        return Objects.equals(idProceso, that.idProceso);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idProceso);
+    }
+
+    @Override
+    public String toString() {
+        return "ProcesoGeneracionMasiva{" +
+                "idProceso=" + idProceso +
+                ", estado=" + estado +
+                ", ultimoIdProcesado=" + ultimoIdProcesado +
+                ", contratosProcesados=" + contratosProcesados +
+                ", cuotasGeneradas=" + cuotasGeneradas +
+                ", fechaInicio=" + fechaInicio +
+                ", fechaFin=" + fechaFin +
+                ", fechaLatido=" + fechaLatido +
+                '}';
+    }
+}
@@ -0,0 +1,67 @@
+package com.banquito.formalizacion.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Respuesta original de una operación con Idempotency-Key; codigoHttp nulo = aún en proceso
+@Entity
+@Table(name = "respuesta_idempotente")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RespuestaIdempotente {
+
+    @Id
+    @Column(name = "clave", length = 160, nullable = false)
+    private String clave;
+
+    @Column(name = "operacion", length = 50, nullable = false)
+    private String operacion;
+
+    @Column(name = "huella", length = 64, nullable = false)
+    private String huella;
+
+    @Column(name = "codigo_http")
+    private Integer codigoHttp;
+
+    @Column(name = "cuerpo", columnDefinition = "text")
+    private String cuerpo;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_finalizacion")
+    private LocalDateTime fechaFinalizacion;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        RespuestaIdempotente that = (RespuestaIdempotente) obj;
+        return Objects.equals(clave, that.clave);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(clave);
+    }
+
+    @Override
+    public String toString() {
+        return "RespuestaIdempotente{" +
+                "clave='" + clave + '\'' +
+                ", operacion='" + operacion + '\'' +
+                ", codigoHttp=" + codigoHttp +
+                ", fechaCreacion=" + fechaCreacion +
+                ", fechaFinalizacion=" + fechaFinalizacion +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.banquito.formalizacion.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import com.banquito.formalizacion.enums.ContratoCreditoEstado;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Agregado materializado por estado de contrato; se reconstruye periódicamente
+@Entity
+@Table(name = "resumen_cartera_estado")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ResumenCarteraEstado {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private ContratoCreditoEstado estado;
+
+    @Column(name = "cantidad_contratos", nullable = false)
+    private Long cantidadContratos;
+
+    @Column(name = "monto_aprobado_total", nullable = false, precision = 18, scale = 2)
+    private BigDecimal montoAprobadoTotal;
+
+    // Cuotas no pagadas completas (capital más interés)
+    @Column(name = "monto_cuotas_pendientes", nullable = false, precision = 18, scale = 2)
+    private BigDecimal montoCuotasPendientes;
+
+    @Column(name = "cuotas_vencidas", nullable = false)
+    private Long cuotasVencidas;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        ResumenCarteraEstado that = (ResumenCarteraEstado) obj;
+        return Objects.equals(estado, that.estado);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(estado);
+    }
+
+    @Override
+    public String toString() {
+        return "ResumenCarteraEstado{" +
+                "estado=" + estado +
+                ", cantidadContratos=" + cantidadContratos +
+                ", montoAprobadoTotal=" + montoAprobadoTotal +
+                ", montoCuotasPendientes=" + montoCuotasPendientes +
+                ", cuotasVencidas=" + cuotasVencidas +
+                ", fechaActualizacion=" + fechaActualizacion +
+                '}';
+    }
+}
@@ -0,0 +1,71 @@
+package com.banquito.formalizacion.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import com.banquito.formalizacion.enums.PagareEstado;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Cuotas agrupadas por mes de vencimiento y estado del pagaré
+@Entity
+@Table(name = "resumen_cuotas_mes")
+@IdClass(ResumenCuotasMesId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class ResumenCuotasMes {
+
+    @Id
+    @Column(name = "periodo", nullable = false)
+    private LocalDate periodo;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private PagareEstado estado;
+
+    @Column(name = "cantidad_cuotas", nullable = false)
+    private Long cantidadCuotas;
+
+    @Column(name = "monto_total", nullable = false, precision = 18, scale = 2)
+    private BigDecimal montoTotal;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        ResumenCuotasMes that = (ResumenCuotasMes) obj;
+        return Objects.equals(periodo, that.periodo) && Objects.equals(estado, that.estado);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(periodo, estado);
+    }
+
+    @Override
+    public String toString() {
+        return "ResumenCuotasMes{" +
+                "periodo=" + periodo +
+                ", estado=" + estado +
+                ", cantidadCuotas=" + cantidadCuotas +
+                ", montoTotal=" + montoTotal +
+                ", fechaActualizacion=" + fechaActualizacion +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+package com.banquito.formalizacion.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import com.banquito.formalizacion.enums.PagareEstado;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenCuotasMesId implements Serializable {
+
+    private LocalDate periodo;
+    private PagareEstado estado;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        ResumenCuotasMesId that = (ResumenCuotasMesId) obj;
+        return Objects.equals(periodo, that.periodo) && Objects.equals(estado, that.estado);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(periodo, estado);
+    }
+}
@@ -0,0 +1,63 @@
+package com.banquito.formalizacion.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Cuotas vencidas (VENCIDO o PENDIENTE con fecha pasada) por contrato
+@Entity
+@Table(name = "resumen_vencidos_contrato")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ResumenVencidosContrato {
+
+    @Id
+    @Column(name = "id_contrato_credito", nullable = false)
+    private Long idContratoCredito;
+
+    @Column(name = "cuotas_vencidas", nullable = false)
+    private Long cuotasVencidas;
+
+    @Column(name = "monto_vencido", nullable = false, precision = 18, scale = 2)
+    private BigDecimal montoVencido;
+
+    @Column(name = "vencimiento_mas_antiguo", nullable = false)
+    private LocalDate vencimientoMasAntiguo;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        ResumenVencidosContrato that = (ResumenVencidosContrato) obj;
+        return Objects.equals(idContratoCredito, that.idContratoCredito);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idContratoCredito);
+    }
+
+    @Override
+    public String toString() {
+        return "ResumenVencidosContrato{" +
+                "idContratoCredito=" + idContratoCredito +
+                ", cuotasVencidas=" + cuotasVencidas +
+                ", montoVencido=" + montoVencido +
+                ", vencimientoMasAntiguo=" + vencimientoMasAntiguo +
+                ", fechaActualizacion=" + fechaActualizacion +
+                '}';
+    }
+}
@@ -0,0 +1,82 @@
+package com.banquito.formalizacion.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import com.banquito.formalizacion.enums.EntidadTransicion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Registro de auditoría de cada cambio de estado de contratos y pagarés
+@Entity
+@Table(name = "transicion_estado",
+       indexes = @Index(name = "idx_transicion_estado_entidad", columnList = "entidad, id_entidad"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class TransicionEstado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_transicion", nullable = false)
+    private Long idTransicion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entidad", length = 30, nullable = false)
+    private EntidadTransicion entidad;
+
+    @Column(name = "id_entidad", nullable = false)
+    private Long idEntidad;
+
+    @Column(name = "estado_anterior", length = 30)
+    private String estadoAnterior;
+
+    @Column(name = "estado_nuevo", length = 30, nullable = false)
+    private String estadoNuevo;
+
+    @Column(name = "motivo", length = 255)
+    private String motivo;
+
+    @Column(name = "masiva", nullable = false)
+    private Boolean masiva;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        TransicionEstado that = (TransicionEstado) obj;
+        return Objects.equals(idTransicion, that.idTransicion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idTransicion);
+    }
+
+    @Override
+    public String toString() {
+        return "TransicionEstado{" +
+                "idTransicion=" + idTransicion +
+                ", entidad=" + entidad +
+                ", idEntidad=" + idEntidad +
+                ", estadoAnterior='" + estadoAnterior + '\'' +
+                ", estadoNuevo='" + estadoNuevo + '\'' +
+                ", masiva=" + masiva +
+                ", fecha=" + fecha +
+                '}';
+    }
+}
@@ -6,6 +6,8 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.banquito.formalizacion.enums.ContratoVentaEstado;
@@ -24,6 +26,9 @@ public interface ContratoCompraVentaRepository extends JpaRepository<ContratoCom
     
     boolean existsByNumeroContrato(String numeroContrato);
 
+    @Query("select c.version from ContratoCompraVenta c where c.idContratoVenta = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
     Page<ContratoCompraVenta> findByEstado(ContratoVentaEstado estado, Pageable pageable);
     
     Page<ContratoCompraVenta> findByIdSolicitud(Long idSolicitud, Pageable pageable);
@@ -41,4 +46,13 @@ public interface ContratoCompraVentaRepository extends JpaRepository<ContratoCom
     
     Page<ContratoCompraVenta> findByEstadoAndNumeroContratoContainingIgnoreCaseAndIdSolicitud(
         ContratoVentaEstado estado, String numeroContrato, Long idSolicitud, Pageable pageable);
-} 
\ No newline at end of file
+
+    @Query("select c.idContratoVenta as id, c.idSolicitud as idSolicitud from ContratoCompraVenta c "
+         + "where c.idContratoVenta > :desde order by c.idContratoVenta")
+    List<IdSolicitudView> findIdSolicitudDesde(@Param("desde") Long desde, Pageable pageable);
+
+    // Una sola consulta para todo el lote de solicitudes
+    @Query(value = "select c.id_solicitud from {h-schema}contrato_compra_venta c where c.id_solicitud = any(:ids)",
+           nativeQuery = true)
+    List<Long> findIdSolicitudExistentes(@Param("ids") Long[] ids);
+}
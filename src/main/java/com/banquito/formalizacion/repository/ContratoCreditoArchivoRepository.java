@@ -0,0 +1,42 @@
+package com.banquito.formalizacion.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.model.ContratoCreditoArchivo;
+
+@Repository
+public interface ContratoCreditoArchivoRepository extends JpaRepository<ContratoCreditoArchivo, Long> {
+
+    boolean existsByIdSolicitud(Long idSolicitud);
+
+    boolean existsByNumeroContrato(String numeroContrato);
+
+    @Query("select c.version from ContratoCreditoArchivo c where c.idContratoCredito = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select c.idContratoCredito as id, c.idSolicitud as idSolicitud from ContratoCreditoArchivo c "
+         + "where c.idContratoCredito > :desde order by c.idContratoCredito")
+    List<IdSolicitudView> findIdSolicitudDesde(@Param("desde") Long desde, Pageable pageable);
+
+    @Query(value = "select c.id_solicitud from {h-schema}contrato_credito_archivo c where c.id_solicitud = any(:ids)",
+           nativeQuery = true)
+    List<Long> findIdSolicitudExistentes(@Param("ids") Long[] ids);
+
+    // Copia los contratos del lote a la tabla de archivo (misma PK)
+    @Modifying
+    @Query(value = "insert into {h-schema}contrato_credito_archivo "
+        + "(id_contrato_credito, id_solicitud, numero_contrato, fecha_generacion, fecha_firma, monto_aprobado, "
+        + " plazo_final_meses, tasa_efectiva_anual, ruta_archivo_firmado, estado, version, fecha_archivo) "
+        + "select id_contrato_credito, id_solicitud, numero_contrato, fecha_generacion, fecha_firma, monto_aprobado, "
+        + " plazo_final_meses, tasa_efectiva_anual, ruta_archivo_firmado, estado, version, now() "
+        + "from {h-schema}contrato_credito where id_contrato_credito = any(:ids)", nativeQuery = true)
+    int copiarContratos(@Param("ids") Long[] ids);
+}
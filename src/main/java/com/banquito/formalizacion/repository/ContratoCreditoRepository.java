@@ -6,6 +6,9 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.banquito.formalizacion.enums.ContratoCreditoEstado;
@@ -41,4 +44,35 @@ public interface ContratoCreditoRepository extends JpaRepository<ContratoCredito
     
     Page<ContratoCredito> findByEstadoAndNumeroContratoContainingIgnoreCaseAndIdSolicitud(
         ContratoCreditoEstado estado, String numeroContrato, Long idSolicitud, Pageable pageable);
-} 
\ No newline at end of file
+
+    @Query("select c.idContratoCredito as id, c.idSolicitud as idSolicitud from ContratoCredito c "
+         + "where c.idContratoCredito > :desde order by c.idContratoCredito")
+    List<IdSolicitudView> findIdSolicitudDesde(@Param("desde") Long desde, Pageable pageable);
+
+    // Una sola consulta para todo el lote de solicitudes
+    @Query(value = "select c.id_solicitud from {h-schema}contrato_credito c where c.id_solicitud = any(:ids)",
+           nativeQuery = true)
+    List<Long> findIdSolicitudExistentes(@Param("ids") Long[] ids);
+
+    // Contratos PAGADO sin cuotas pendientes; SKIP LOCKED permite archivar desde varias réplicas
+    @Query(value = "select c.id_contrato_credito from {h-schema}contrato_credito c "
+        + "where c.estado = 'PAGADO' and not exists (select 1 from {h-schema}pagares p "
+        + "  where p.id_contrato_credito = c.id_contrato_credito and p.estado <> 'PAGADO') "
+        + "order by c.id_contrato_credito limit :lote for update skip locked", nativeQuery = true)
+    List<Long> findIdsArchivables(@Param("lote") int lote);
+
+    @Modifying
+    @Query(value = "delete from {h-schema}contrato_credito where id_contrato_credito = any(:ids)", nativeQuery = true)
+    int eliminarPorIds(@Param("ids") Long[] ids);
+
+    @Query("select c.idContratoCredito as id, c.montoAprobado as montoAprobado, "
+         + "c.tasaEfectivaAnual as tasaEfectivaAnual, c.plazoFinalMeses as plazoFinalMeses, "
+         + "c.fechaGeneracion as fechaGeneracion from ContratoCredito c "
+         + "where c.idContratoCredito > :desde "
+         + "and not exists (select 1 from Pagare p where p.idContratoCredito = c.idContratoCredito) "
+         + "order by c.idContratoCredito")
+    List<ContratoCronogramaView> findSinPagaresDesde(@Param("desde") Long desde, Pageable pageable);
+
+    @Query("select c.version from ContratoCredito c where c.idContratoCredito = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
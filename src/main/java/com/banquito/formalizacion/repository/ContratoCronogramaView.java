@@ -0,0 +1,18 @@
+package com.banquito.formalizacion.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Condiciones mínimas de un contrato para calcular su cronograma
+public interface ContratoCronogramaView {
+
+    Long getId();
+
+    BigDecimal getMontoAprobado();
+
+    BigDecimal getTasaEfectivaAnual();
+
+    Long getPlazoFinalMeses();
+
+    LocalDateTime getFechaGeneracion();
+}
@@ -0,0 +1,15 @@
+package com.banquito.formalizacion.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.model.DocumentoContrato;
+
+@Repository
+public interface DocumentoContratoRepository extends JpaRepository<DocumentoContrato, Long> {
+
+    List<DocumentoContrato> findByTipoContratoAndIdContratoOrderByFechaCargaDesc(TipoContrato tipoContrato, Long idContrato);
+}
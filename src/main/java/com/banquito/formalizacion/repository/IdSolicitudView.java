@@ -0,0 +1,9 @@
+package com.banquito.formalizacion.repository;
+
+// Proyección mínima (id del contrato, id de solicitud) para cargar índices en memoria
+public interface IdSolicitudView {
+
+    Long getId();
+
+    Long getIdSolicitud();
+}
@@ -0,0 +1,14 @@
+package com.banquito.formalizacion.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.model.MoraPagare;
+
+@Repository
+public interface MoraPagareRepository extends JpaRepository<MoraPagare, Long> {
+
+    List<MoraPagare> findByIdContratoCredito(Long idContratoCredito);
+}
@@ -0,0 +1,36 @@
+package com.banquito.formalizacion.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.model.PagareArchivo;
+
+@Repository
+public interface PagareArchivoRepository extends JpaRepository<PagareArchivo, Long> {
+
+    List<PagareArchivo> findByIdContratoCreditoOrderByNumeroCuota(Long idContratoCredito);
+
+    List<PagareArchivo> findByIdContratoCreditoInOrderByIdContratoCreditoAscNumeroCuotaAsc(List<Long> idsContratoCredito);
+
+    Optional<PagareArchivo> findByIdContratoCreditoAndNumeroCuota(Long idContratoCredito, Long numeroCuota);
+
+    @Query("select p.version from PagareArchivo p where p.idPagare = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(value = "select md5(string_agg(id_pagare || ':' || coalesce(version, 0), ',' order by id_pagare)) "
+        + "from {h-schema}pagare_archivo where id_contrato_credito = :id", nativeQuery = true)
+    String findHuellaVersiones(@Param("id") Long idContratoCredito);
+
+    @Modifying
+    @Query(value = "insert into {h-schema}pagare_archivo "
+        + "(id_pagare, id_contrato_credito, numero_cuota, monto_cuota, fecha_vencimiento, estado, version) "
+        + "select id_pagare, id_contrato_credito, numero_cuota, monto_cuota, fecha_vencimiento, estado, version "
+        + "from {h-schema}pagares where id_contrato_credito = any(:ids)", nativeQuery = true)
+    int copiarPagares(@Param("ids") Long[] ids);
+}
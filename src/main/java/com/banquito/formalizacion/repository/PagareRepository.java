@@ -6,6 +6,9 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.banquito.formalizacion.enums.PagareEstado;
@@ -17,6 +20,8 @@ public interface PagareRepository extends JpaRepository<Pagare, Long> {
     List<Pagare> findByIdContratoCredito(Long idContratoCredito);
     
     List<Pagare> findByIdContratoCreditoOrderByNumeroCuota(Long idContratoCredito);
+
+    List<Pagare> findByIdContratoCreditoInOrderByIdContratoCreditoAscNumeroCuotaAsc(List<Long> idsContratoCredito);
     
     List<Pagare> findByEstado(PagareEstado estado);
     
@@ -26,6 +31,8 @@ public interface PagareRepository extends JpaRepository<Pagare, Long> {
     
     long countByIdContratoCreditoAndEstado(Long idContratoCredito, PagareEstado estado);
 
+    long countByIdContratoCreditoAndEstadoNot(Long idContratoCredito, PagareEstado estado);
+
     Page<Pagare> findByIdContratoCreditoOrderByNumeroCuota(Long idContratoCredito, Pageable pageable);
     
     Page<Pagare> findByEstado(PagareEstado estado, Pageable pageable);
@@ -39,4 +46,18 @@ public interface PagareRepository extends JpaRepository<Pagare, Long> {
     boolean existsByIdContratoCredito(Long idContratoCredito);
 
     java.util.Optional<Pagare> findByIdContratoCreditoAndNumeroCuota(Long idContratoCredito, Long numeroCuota);
-}
\ No newline at end of file
+
+    // La API identifica el pagaré solo por ID: la consulta recorre el índice de la PK en cada partición.
+    // Las escrituras sí llevan la fecha de vencimiento (@PartitionKey en Pagare) y tocan una sola partición.
+    @Query("select p.version from Pagare p where p.idPagare = :id")
+    java.util.Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Huella de (id, versión) de todo el cronograma; null si el contrato no tiene pagarés
+    @Query(value = "select md5(string_agg(id_pagare || ':' || coalesce(version, 0), ',' order by id_pagare)) "
+        + "from {h-schema}pagares where id_contrato_credito = :id", nativeQuery = true)
+    String findHuellaVersiones(@Param("id") Long idContratoCredito);
+
+    @Modifying
+    @Query(value = "delete from {h-schema}pagares where id_contrato_credito = any(:ids)", nativeQuery = true)
+    int eliminarPorContratos(@Param("ids") Long[] ids);
+}
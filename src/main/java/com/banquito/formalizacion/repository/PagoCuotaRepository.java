@@ -0,0 +1,14 @@
+package com.banquito.formalizacion.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.model.PagoCuota;
+
+@Repository
+public interface PagoCuotaRepository extends JpaRepository<PagoCuota, Long> {
+
+    List<PagoCuota> findByIdContratoCreditoOrderByNumeroCuotaAscIdPagoAsc(Long idContratoCredito);
+}
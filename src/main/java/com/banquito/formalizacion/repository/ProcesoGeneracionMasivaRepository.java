@@ -0,0 +1,30 @@
+package com.banquito.formalizacion.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.enums.EstadoProceso;
+import com.banquito.formalizacion.model.ProcesoGeneracionMasiva;
+
+@Repository
+public interface ProcesoGeneracionMasivaRepository extends JpaRepository<ProcesoGeneracionMasiva, Long> {
+
+    List<ProcesoGeneracionMasiva> findByEstado(EstadoProceso estado);
+
+    // Procesos EN_EJECUCION cuyo nodo dejó de renovar el latido (o anteriores al latido)
+    @Query("select p from ProcesoGeneracionMasiva p where p.estado = :estado "
+        + "and (p.fechaLatido is null or p.fechaLatido < :limite)")
+    List<ProcesoGeneracionMasiva> findByEstadoSinLatidoDesde(@Param("estado") EstadoProceso estado,
+                                                            @Param("limite") LocalDateTime limite);
+
+    // Sin incrementar la versión: no compite con los checkpoints del propio proceso
+    @Modifying
+    @Query("update ProcesoGeneracionMasiva p set p.fechaLatido = :ahora where p.idProceso = :id")
+    int renovarLatido(@Param("id") Long idProceso, @Param("ahora") LocalDateTime ahora);
+}
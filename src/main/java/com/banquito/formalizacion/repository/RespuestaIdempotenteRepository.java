@@ -0,0 +1,44 @@
+package com.banquito.formalizacion.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.model.RespuestaIdempotente;
+
+@Repository
+public interface RespuestaIdempotenteRepository extends JpaRepository<RespuestaIdempotente, String> {
+
+    // 1 si la clave quedó reservada para esta ejecución, 0 si ya existía
+    @Modifying
+    @Query(value = "insert into {h-schema}respuesta_idempotente (clave, operacion, huella, fecha_creacion) "
+        + "values (:clave, :operacion, :huella, :fecha) on conflict (clave) do nothing", nativeQuery = true)
+    int reservar(@Param("clave") String clave, @Param("operacion") String operacion,
+                 @Param("huella") String huella, @Param("fecha") LocalDateTime fecha);
+
+    // Retoma una reserva abandonada (p. ej. el nodo que la tomó se cayó)
+    @Modifying
+    @Query(value = "update {h-schema}respuesta_idempotente set huella = :huella, fecha_creacion = :fecha "
+        + "where clave = :clave and codigo_http is null and fecha_creacion < :limite", nativeQuery = true)
+    int retomarAbandonada(@Param("clave") String clave, @Param("huella") String huella,
+                          @Param("fecha") LocalDateTime fecha, @Param("limite") LocalDateTime limite);
+
+    @Modifying
+    @Query(value = "update {h-schema}respuesta_idempotente set codigo_http = :codigo, cuerpo = :cuerpo, "
+        + "fecha_finalizacion = :fecha where clave = :clave", nativeQuery = true)
+    int completar(@Param("clave") String clave, @Param("codigo") int codigo,
+                  @Param("cuerpo") String cuerpo, @Param("fecha") LocalDateTime fecha);
+
+    @Modifying
+    @Query(value = "delete from {h-schema}respuesta_idempotente where clave = :clave and codigo_http is null",
+           nativeQuery = true)
+    int liberar(@Param("clave") String clave);
+
+    @Modifying
+    @Query(value = "delete from {h-schema}respuesta_idempotente where fecha_creacion < :limite", nativeQuery = true)
+    int eliminarAnteriores(@Param("limite") LocalDateTime limite);
+}
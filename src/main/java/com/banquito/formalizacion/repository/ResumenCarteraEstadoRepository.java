@@ -0,0 +1,37 @@
+package com.banquito.formalizacion.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.enums.ContratoCreditoEstado;
+import com.banquito.formalizacion.model.ResumenCarteraEstado;
+
+@Repository
+public interface ResumenCarteraEstadoRepository extends JpaRepository<ResumenCarteraEstado, ContratoCreditoEstado> {
+
+    // Todas las réplicas programan el recálculo: solo lo hace quien obtiene la llave, que se libera con la
+    // transacción
+    @Query(value = "select pg_try_advisory_xact_lock(hashtext('formalizacion.resumen_cartera'))", nativeQuery = true)
+    boolean bloquearRecalculo();
+
+    @Modifying
+    @Query(value = "delete from {h-schema}resumen_cartera_estado", nativeQuery = true)
+    int vaciar();
+
+    @Modifying
+    @Query(value = "insert into {h-schema}resumen_cartera_estado "
+        + "(estado, cantidad_contratos, monto_aprobado_total, monto_cuotas_pendientes, cuotas_vencidas, fecha_actualizacion) "
+        + "select c.estado, count(*), coalesce(sum(c.monto_aprobado), 0), coalesce(sum(p.pendiente), 0), "
+        + "coalesce(sum(p.vencidas), 0), now() "
+        + "from {h-schema}contrato_credito c "
+        + "left join (select id_contrato_credito, "
+        + "  sum(case when estado <> 'PAGADO' then monto_cuota else 0 end) as pendiente, "
+        + "  sum(case when estado = 'VENCIDO' or (estado = 'PENDIENTE' and fecha_vencimiento < current_date) "
+        + "      then 1 else 0 end) as vencidas "
+        + "  from {h-schema}pagares group by id_contrato_credito) p "
+        + "on p.id_contrato_credito = c.id_contrato_credito "
+        + "group by c.estado", nativeQuery = true)
+    int recalcular();
+}
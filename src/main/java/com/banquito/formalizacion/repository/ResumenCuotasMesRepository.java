@@ -0,0 +1,28 @@
+package com.banquito.formalizacion.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.model.ResumenCuotasMes;
+import com.banquito.formalizacion.model.ResumenCuotasMesId;
+
+@Repository
+public interface ResumenCuotasMesRepository extends JpaRepository<ResumenCuotasMes, ResumenCuotasMesId> {
+
+    List<ResumenCuotasMes> findAllByOrderByPeriodoAscEstadoAsc();
+
+    @Modifying
+    @Query(value = "delete from {h-schema}resumen_cuotas_mes", nativeQuery = true)
+    int vaciar();
+
+    @Modifying
+    @Query(value = "insert into {h-schema}resumen_cuotas_mes "
+        + "(periodo, estado, cantidad_cuotas, monto_total, fecha_actualizacion) "
+        + "select cast(date_trunc('month', fecha_vencimiento) as date), estado, count(*), sum(monto_cuota), now() "
+        + "from {h-schema}pagares group by 1, 2", nativeQuery = true)
+    int recalcular();
+}
@@ -0,0 +1,29 @@
+package com.banquito.formalizacion.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.model.ResumenVencidosContrato;
+
+@Repository
+public interface ResumenVencidosContratoRepository extends JpaRepository<ResumenVencidosContrato, Long> {
+
+    Page<ResumenVencidosContrato> findAllByOrderByMontoVencidoDesc(Pageable pageable);
+
+    @Modifying
+    @Query(value = "delete from {h-schema}resumen_vencidos_contrato", nativeQuery = true)
+    int vaciar();
+
+    @Modifying
+    @Query(value = "insert into {h-schema}resumen_vencidos_contrato "
+        + "(id_contrato_credito, cuotas_vencidas, monto_vencido, vencimiento_mas_antiguo, fecha_actualizacion) "
+        + "select id_contrato_credito, count(*), sum(monto_cuota), min(fecha_vencimiento), now() "
+        + "from {h-schema}pagares "
+        + "where estado = 'VENCIDO' or (estado = 'PENDIENTE' and fecha_vencimiento < current_date) "
+        + "group by id_contrato_credito", nativeQuery = true)
+    int recalcular();
+}
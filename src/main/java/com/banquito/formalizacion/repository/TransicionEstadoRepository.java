@@ -0,0 +1,15 @@
+package com.banquito.formalizacion.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.formalizacion.enums.EntidadTransicion;
+import com.banquito.formalizacion.model.TransicionEstado;
+
+@Repository
+public interface TransicionEstadoRepository extends JpaRepository<TransicionEstado, Long> {
+
+    List<TransicionEstado> findByEntidadAndIdEntidadOrderByIdTransicion(EntidadTransicion entidad, Long idEntidad);
+}
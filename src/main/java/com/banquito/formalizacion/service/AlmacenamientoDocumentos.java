@@ -0,0 +1,24 @@
+package com.banquito.formalizacion.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Backend de almacenamiento de documentos firmados. El sistema de archivos es la implementación
+// incluida; un almacén de objetos (S3, MinIO, ...) solo necesita otra implementación de esta interfaz
+// activada con formalizacion.documentos.backend.
+public interface AlmacenamientoDocumentos {
+
+    // Mueve un archivo ya completo y verificado al almacenamiento bajo la clave indicada
+    void guardar(String clave, Path archivo) throws IOException;
+
+    InputStream abrir(String clave) throws IOException;
+
+    long tamanio(String clave) throws IOException;
+
+    void eliminar(String clave) throws IOException;
+
+    // Ruta local si el backend la tiene; habilita sendfile / FileChannel.transferTo en las descargas
+    Optional<Path> rutaLocal(String clave);
+}
@@ -0,0 +1,66 @@
+package com.banquito.formalizacion.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnProperty(name = "formalizacion.documentos.backend", havingValue = "filesystem", matchIfMissing = true)
+public class AlmacenamientoSistemaArchivos implements AlmacenamientoDocumentos {
+
+    private final Path raiz;
+
+    public AlmacenamientoSistemaArchivos(
+        @Value("${formalizacion.documentos.directorio:./documentos}") String directorio
+    ) throws IOException {
+        this.raiz = Files.createDirectories(Paths.get(directorio, "almacen")).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void guardar(String clave, Path archivo) throws IOException {
+        Path destino = resolver(clave);
+        Files.createDirectories(destino.getParent());
+        try {
+            Files.move(archivo, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Distinto sistema de archivos: copia y borra
+            Files.move(archivo, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public InputStream abrir(String clave) throws IOException {
+        return Files.newInputStream(resolver(clave));
+    }
+
+    @Override
+    public long tamanio(String clave) throws IOException {
+        return Files.size(resolver(clave));
+    }
+
+    @Override
+    public void eliminar(String clave) throws IOException {
+        Files.deleteIfExists(resolver(clave));
+    }
+
+    @Override
+    public Optional<Path> rutaLocal(String clave) {
+        return Optional.of(resolver(clave));
+    }
+
+    private Path resolver(String clave) {
+        Path ruta = raiz.resolve(clave).normalize();
+        if (!ruta.startsWith(raiz)) {
+            throw new IllegalArgumentException("Clave de documento inválida: " + clave);
+        }
+        return ruta;
+    }
+}
@@ -0,0 +1,92 @@
+package com.banquito.formalizacion.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.formalizacion.repository.ContratoCreditoArchivoRepository;
+import com.banquito.formalizacion.repository.ContratoCreditoRepository;
+import com.banquito.formalizacion.repository.PagareArchivoRepository;
+import com.banquito.formalizacion.repository.PagareRepository;
+
+// Mueve contratos totalmente pagados (y sus pagarés) a las tablas de archivo en lotes pequeños,
+// cada uno en su propia transacción, para mantener chicas las tablas e índices operativos.
+@Service
+public class ArchivoContratoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivoContratoService.class);
+
+    private final ContratoCreditoRepository contratoCreditoRepository;
+    private final PagareRepository pagareRepository;
+    private final ContratoCreditoArchivoRepository contratoArchivoRepository;
+    private final PagareArchivoRepository pagareArchivoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardService shardService;
+    private final int tamanioLote;
+    private final int maxLotesPorEjecucion;
+
+    public ArchivoContratoService(
+        ContratoCreditoRepository contratoCreditoRepository,
+        PagareRepository pagareRepository,
+        ContratoCreditoArchivoRepository contratoArchivoRepository,
+        PagareArchivoRepository pagareArchivoRepository,
+        TransactionTemplate transactionTemplate,
+        ShardService shardService,
+        @Value("${formalizacion.archivo.tamanio-lote:200}") int tamanioLote,
+        @Value("${formalizacion.archivo.max-lotes:50}") int maxLotesPorEjecucion
+    ) {
+        this.contratoCreditoRepository = contratoCreditoRepository;
+        this.pagareRepository = pagareRepository;
+        this.contratoArchivoRepository = contratoArchivoRepository;
+        this.pagareArchivoRepository = pagareArchivoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.shardService = shardService;
+        this.tamanioLote = tamanioLote;
+        this.maxLotesPorEjecucion = maxLotesPorEjecucion;
+    }
+
+    @Scheduled(cron = "${formalizacion.archivo.cron:0 0 3 * * *}")
+    public int archivarContratosPagados() {
+        int[] total = new int[1];
+        shardService.enCadaShard(shard -> total[0] += archivarContratosPagados(shard));
+        return total[0];
+    }
+
+    // Cada shard tiene sus propias tablas de archivo; el tope de lotes es por shard
+    private int archivarContratosPagados(int shard) {
+        int total = 0;
+        for (int lote = 0; lote < maxLotesPorEjecucion; lote++) {
+            Integer archivados = transactionTemplate.execute(status -> archivarLote());
+            if (archivados == null || archivados == 0) {
+                break;
+            }
+            total += archivados;
+            if (archivados < tamanioLote) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archivados {} contratos pagados en el shard {}", total, shard);
+        }
+        return total;
+    }
+
+    private int archivarLote() {
+        List<Long> ids = contratoCreditoRepository.findIdsArchivables(tamanioLote);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Long[] lote = ids.toArray(new Long[0]);
+        int pagares = pagareArchivoRepository.copiarPagares(lote);
+        contratoArchivoRepository.copiarContratos(lote);
+        pagareRepository.eliminarPorContratos(lote);
+        contratoCreditoRepository.eliminarPorIds(lote);
+        log.debug("Lote archivado: {} contratos, {} pagarés", ids.size(), pagares);
+        return ids.size();
+    }
+}
@@ -0,0 +1,317 @@
+package com.banquito.formalizacion.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banquito.formalizacion.controller.dto.AuditoriaDTO;
+import com.banquito.formalizacion.controller.dto.EstadoAuditoriaDTO;
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.util.BufferCircular;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Auditoría asíncrona: los cambios confirmados se encolan en un buffer circular acotado sin bloqueos
+// y un único hilo los escribe en lotes en formalizacion.auditoria (particionada, solo inserción).
+// Pérdida acotada: con el buffer lleno se descartan eventos (y se cuentan); en un cierre ordenado se
+// vacía lo pendiente hasta espera-cierre-ms; ante una caída se pierde a lo sumo el contenido del buffer.
+// Un lote que falla intentos-lote veces se escribe fila por fila y las filas que la base rechaza por su
+// contenido se descartan con un log de error (métrica formalizacion.auditoria.rechazados).
+@Service
+public class AuditoriaService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditoriaService.class);
+
+    private static final String INSERT_AUDITORIA = "insert into formalizacion.auditoria "
+        + "(fecha, entidad, id_entidad, tipo_contrato, id_contrato, operacion, version, usuario, cambios) "
+        + "values (?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb)";
+
+    private static final String CONSULTA_POR_CONTRATO = "select id_auditoria, fecha, entidad, id_entidad, "
+        + "tipo_contrato, id_contrato, operacion, version, usuario, cambios::text "
+        + "from formalizacion.auditoria "
+        + "where tipo_contrato = ? and id_contrato = ? and fecha >= ? and fecha < ? and id_auditoria < ? "
+        + "order by id_auditoria desc limit ?";
+
+    private static final TypeReference<LinkedHashMap<String, Object>> TIPO_CAMBIOS = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BufferCircular<Evento> buffer;
+    private final int lote;
+    private final long intervaloMs;
+    private final long esperaCierreMs;
+
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong lotesFallidos = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+    private final AtomicLong ultimoAvisoDescarte = new AtomicLong();
+    private final AtomicBoolean vaciadoSolicitado = new AtomicBoolean();
+    // Lote que falló al escribirse; se reintenta antes de tomar más eventos del buffer
+    private volatile List<Evento> reintento = new ArrayList<>();
+    private int intentosReintento;
+    private final int intentosLote;
+
+    private volatile ScheduledExecutorService escritor;
+    private volatile boolean corriendo;
+
+    public AuditoriaService(
+        JdbcTemplate jdbcTemplate,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${formalizacion.auditoria.capacidad:65536}") int capacidad,
+        @Value("${formalizacion.auditoria.lote:500}") int lote,
+        @Value("${formalizacion.auditoria.intervalo-ms:200}") long intervaloMs,
+        @Value("${formalizacion.auditoria.espera-cierre-ms:10000}") long esperaCierreMs,
+        @Value("${formalizacion.auditoria.intentos-lote:5}") int intentosLote
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.buffer = new BufferCircular<>(capacidad);
+        this.lote = lote;
+        this.intervaloMs = intervaloMs;
+        this.esperaCierreMs = esperaCierreMs;
+        this.intentosLote = intentosLote;
+        Gauge.builder("formalizacion.auditoria.pendientes", buffer, BufferCircular::tamanio).register(meterRegistry);
+        Gauge.builder("formalizacion.auditoria.descartados", descartados, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("formalizacion.auditoria.escritos", escritos, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("formalizacion.auditoria.rechazados", rechazados, AtomicLong::get)
+            .register(meterRegistry);
+    }
+
+    // Nunca bloquea ni lanza: lo llaman los listeners de Hibernate después del commit
+    public void registrar(Evento evento) {
+        if (!buffer.ofrecer(evento)) {
+            long total = descartados.incrementAndGet();
+            long ahora = System.currentTimeMillis();
+            long ultimo = ultimoAvisoDescarte.get();
+            if (ahora - ultimo > 10_000 && ultimoAvisoDescarte.compareAndSet(ultimo, ahora)) {
+                log.warn("Buffer de auditoría lleno ({} eventos); descartados en total: {}", buffer.capacidad(), total);
+            }
+            return;
+        }
+        ScheduledExecutorService actual = escritor;
+        if (buffer.tamanio() >= lote && actual != null && vaciadoSolicitado.compareAndSet(false, true)) {
+            actual.execute(this::vaciar);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<AuditoriaDTO> consultarPorContrato(TipoContrato tipoContrato, Long idContrato,
+                                                   LocalDateTime desde, LocalDateTime hasta,
+                                                   Long antesDe, int limite) {
+        return jdbcTemplate.query(CONSULTA_POR_CONTRATO, (rs, n) -> AuditoriaDTO.builder()
+                .idAuditoria(rs.getLong(1))
+                .fecha(rs.getTimestamp(2).toLocalDateTime())
+                .entidad(rs.getString(3))
+                .idEntidad(rs.getLong(4))
+                .tipoContrato(TipoContrato.valueOf(rs.getString(5)))
+                .idContrato(rs.getLong(6))
+                .operacion(rs.getString(7))
+                .version(rs.getObject(8, Long.class))
+                .usuario(rs.getString(9))
+                .cambios(leerCambios(rs.getString(10)))
+                .build(),
+            tipoContrato.name(), idContrato, Timestamp.valueOf(desde), Timestamp.valueOf(hasta),
+            antesDe != null ? antesDe : Long.MAX_VALUE, limite);
+    }
+
+    public EstadoAuditoriaDTO getEstado() {
+        return EstadoAuditoriaDTO.builder()
+            .capacidad(buffer.capacidad())
+            .pendientes(buffer.tamanio())
+            .pendientesReintento(reintento.size())
+            .escritos(escritos.get())
+            .descartados(descartados.get())
+            .lotesFallidos(lotesFallidos.get())
+            .rechazados(rechazados.get())
+            .build();
+    }
+
+    // Escribe lotes hasta vaciar el buffer; si uno falla queda para el próximo ciclo
+    synchronized void vaciar() {
+        vaciadoSolicitado.set(false);
+        if (!reintento.isEmpty()) {
+            if (!escribir(reintento) && (++intentosReintento < intentosLote || !escribirPorFila())) {
+                return;
+            }
+            reintento = new ArrayList<>();
+            intentosReintento = 0;
+        }
+        List<Evento> eventos = new ArrayList<>(lote);
+        while (buffer.drenar(eventos, lote) > 0) {
+            if (!escribir(eventos)) {
+                reintento = eventos;
+                return;
+            }
+            eventos = new ArrayList<>(lote);
+        }
+    }
+
+    private boolean escribir(List<Evento> eventos) {
+        try {
+            insertar(eventos);
+            return true;
+        } catch (RuntimeException ex) {
+            lotesFallidos.incrementAndGet();
+            log.warn("No se pudo escribir un lote de {} eventos de auditoría: {}", eventos.size(), ex.getMessage());
+            return false;
+        }
+    }
+
+    // Aísla las filas que hacen fallar el lote de reintento. Un error de conexión no es culpa de la fila:
+    // se detiene y lo que falta sigue en reintento.
+    private boolean escribirPorFila() {
+        List<Evento> eventos = reintento;
+        for (int i = 0; i < eventos.size(); i++) {
+            Evento evento = eventos.get(i);
+            try {
+                insertar(List.of(evento));
+            } catch (TransientDataAccessException | RecoverableDataAccessException
+                     | DataAccessResourceFailureException ex) {
+                reintento = new ArrayList<>(eventos.subList(i, eventos.size()));
+                return false;
+            } catch (RuntimeException ex) {
+                rechazados.incrementAndGet();
+                log.error("Evento de auditoría descartado tras {} intentos: {} {} id={} contrato={} {} "
+                    + "versión={} usuario={} fecha={} cambios={}: {}", intentosReintento, evento.operacion(),
+                    evento.entidad(), evento.idEntidad(), evento.tipoContrato(), evento.idContrato(),
+                    evento.version(), evento.usuario(), evento.fecha(), cambiosParaLog(evento), ex.getMessage());
+            }
+        }
+        return true;
+    }
+
+    // El JSON que se habría guardado, para poder reinsertarlo a mano; si no se puede serializar, los campos
+    private String cambiosParaLog(Evento evento) {
+        try {
+            return escribirCambios(evento.cambios());
+        } catch (RuntimeException e) {
+            return String.valueOf(evento.cambios().keySet());
+        }
+    }
+
+    private void insertar(List<Evento> eventos) {
+        jdbcTemplate.batchUpdate(INSERT_AUDITORIA, eventos, eventos.size(), (ps, e) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(e.fecha()));
+            ps.setString(2, e.entidad());
+            ps.setLong(3, e.idEntidad());
+            ps.setString(4, e.tipoContrato() != null ? e.tipoContrato().name() : null);
+            ps.setObject(5, e.idContrato());
+            ps.setString(6, e.operacion());
+            ps.setObject(7, e.version());
+            ps.setString(8, e.usuario());
+            ps.setString(9, escribirCambios(e.cambios()));
+        });
+        escritos.addAndGet(eventos.size());
+    }
+
+    private String escribirCambios(Map<String, Object[]> cambios) {
+        Map<String, Map<String, Object>> json = new LinkedHashMap<>();
+        cambios.forEach((campo, valores) -> {
+            Map<String, Object> par = new LinkedHashMap<>();
+            par.put("anterior", valores[0]);
+            par.put("nuevo", valores[1]);
+            json.put(campo, par);
+        });
+        try {
+            return objectMapper.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el cambio auditado", e);
+        }
+    }
+
+    private Map<String, Object> leerCambios(String json) {
+        try {
+            return objectMapper.readValue(json, TIPO_CAMBIOS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Registro de auditoría ilegible", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        escritor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "auditoria-escritor");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        escritor.scheduleWithFixedDelay(this::vaciar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        corriendo = true;
+    }
+
+    // Se detiene después del servidor web (fase menor) y antes de cerrar el pool de conexiones
+    @Override
+    public void stop() {
+        corriendo = false;
+        ScheduledExecutorService actual = escritor;
+        escritor = null;
+        long limite = System.currentTimeMillis() + esperaCierreMs;
+        if (actual != null) {
+            actual.shutdown();
+            try {
+                actual.awaitTermination(esperaCierreMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        while (System.currentTimeMillis() < limite && (buffer.tamanio() > 0 || !reintento.isEmpty())) {
+            vaciar();
+            if (!reintento.isEmpty()) {
+                try {
+                    Thread.sleep(intervaloMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        int perdidos = buffer.tamanio() + reintento.size();
+        if (perdidos > 0) {
+            log.warn("Cierre con {} eventos de auditoría sin escribir", perdidos);
+        } else {
+            log.info("Auditoría vaciada al cerrar; {} eventos escritos en total", escritos.get());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return corriendo;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    // cambios: campo -> [anterior, nuevo]
+    public record Evento(LocalDateTime fecha, String entidad, Long idEntidad, TipoContrato tipoContrato,
+                         Long idContrato, String operacion, Long version, String usuario,
+                         Map<String, Object[]> cambios) {
+    }
+}
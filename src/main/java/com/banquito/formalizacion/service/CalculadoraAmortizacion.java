@@ -0,0 +1,39 @@
+package com.banquito.formalizacion.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+// Cálculos del sistema francés (cuota fija) compartidos por generación y reamortización de pagarés
+public final class CalculadoraAmortizacion {
+
+    private CalculadoraAmortizacion() {
+    }
+
+    public static BigDecimal calcularCuotaMensual(BigDecimal monto, BigDecimal tasaAnual, int plazoMeses) {
+        if (tasaAnual == null || tasaAnual.compareTo(BigDecimal.ZERO) <= 0) {
+            return monto.divide(BigDecimal.valueOf(plazoMeses), 2, RoundingMode.HALF_UP);
+        }
+        BigDecimal tasaMensual = tasaMensual(tasaAnual);
+        BigDecimal factor = BigDecimal.ONE.add(tasaMensual).pow(plazoMeses);
+        BigDecimal numerador = monto.multiply(tasaMensual).multiply(factor);
+        BigDecimal denominador = factor.subtract(BigDecimal.ONE);
+        return numerador.divide(denominador, 2, RoundingMode.HALF_UP);
+    }
+
+    // Saldo de capital tras pagar una cuota: devenga el interés del mes y descuenta la cuota
+    public static BigDecimal saldoTrasCuota(BigDecimal saldo, BigDecimal tasaAnual, BigDecimal cuota) {
+        BigDecimal interes = tasaAnual == null || tasaAnual.compareTo(BigDecimal.ZERO) <= 0
+            ? BigDecimal.ZERO
+            : saldo.multiply(tasaMensual(tasaAnual)).setScale(2, RoundingMode.HALF_UP);
+        return saldo.add(interes).subtract(cuota).max(BigDecimal.ZERO);
+    }
+
+    public static BigDecimal tasaMensual(BigDecimal tasaAnual) {
+        return tasaAnual.divide(BigDecimal.valueOf(100 * 12), 10, RoundingMode.HALF_UP);
+    }
+
+    public static LocalDate fechaVencimiento(LocalDate fechaInicio, long numeroCuota) {
+        return fechaInicio.plusMonths(numeroCuota - 1);
+    }
+}
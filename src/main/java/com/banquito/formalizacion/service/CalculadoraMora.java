@@ -0,0 +1,36 @@
+package com.banquito.formalizacion.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Interés simple de mora en aritmética entera: montos en centavos y tasas anuales en puntos básicos.
+// La usan el devengo diario (bucle sobre miles de cuotas) y la liquidación por contrato, así ambos
+// obtienen exactamente el mismo valor.
+public final class CalculadoraMora {
+
+    private CalculadoraMora() {
+    }
+
+    public static long centavos(BigDecimal monto) {
+        return monto.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Tasa de mora = tasa del contrato por el recargo (110 = 1,1 veces), en puntos básicos
+    public static int tasaMoraBps(BigDecimal tasaEfectivaAnual, int recargoPorcentaje) {
+        long bps = tasaEfectivaAnual.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        return (int) ((bps * recargoPorcentaje + 50) / 100);
+    }
+
+    // capital * tasa * días / base, redondeado al centavo (mitad hacia arriba). Se divide antes de
+    // multiplicar por los días para que el producto no desborde un long.
+    public static long interesCentavos(long capitalCentavos, int tasaBps, int dias, int baseDias) {
+        if (capitalCentavos <= 0 || tasaBps <= 0 || dias <= 0) {
+            return 0;
+        }
+        long divisor = 10_000L * baseDias;
+        long porDia = capitalCentavos * tasaBps;
+        long cociente = porDia / divisor;
+        long resto = porDia % divisor;
+        return cociente * dias + (resto * dias + divisor / 2) / divisor;
+    }
+}
@@ -0,0 +1,176 @@
+package com.banquito.formalizacion.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.formalizacion.controller.dto.ResumenCarteraEstadoDTO;
+import com.banquito.formalizacion.controller.dto.ResumenCuotasMesDTO;
+import com.banquito.formalizacion.controller.dto.ResumenVencidosContratoDTO;
+import com.banquito.formalizacion.controller.mapper.ResumenCarteraMapper;
+import com.banquito.formalizacion.enums.ContratoCreditoEstado;
+import com.banquito.formalizacion.exception.NotFoundException;
+import com.banquito.formalizacion.model.ResumenCuotasMesId;
+import com.banquito.formalizacion.model.ResumenVencidosContrato;
+import com.banquito.formalizacion.repository.ResumenCarteraEstadoRepository;
+import com.banquito.formalizacion.repository.ResumenCuotasMesRepository;
+import com.banquito.formalizacion.repository.ResumenVencidosContratoRepository;
+
+// Resumen de cartera sobre tablas agregadas que se reconstruyen de forma programada.
+// Cada shard agrega sus propios contratos y pagarés; los totales por estado y por mes se suman al cargar la
+// instantánea (son pequeños y se sirven desde memoria) y los vencidos por contrato viven en el shard del
+// contrato.
+@Service
+public class CarteraService {
+
+    private static final Logger log = LoggerFactory.getLogger(CarteraService.class);
+
+    private final ResumenCarteraEstadoRepository resumenEstadoRepository;
+    private final ResumenCuotasMesRepository resumenCuotasMesRepository;
+    private final ResumenVencidosContratoRepository resumenVencidosRepository;
+    private final ResumenCarteraMapper mapper;
+    private final ShardService shardService;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile List<ResumenCarteraEstadoDTO> estados = List.of();
+    private volatile List<ResumenCuotasMesDTO> cuotasPorMes = List.of();
+
+    public CarteraService(
+        ResumenCarteraEstadoRepository resumenEstadoRepository,
+        ResumenCuotasMesRepository resumenCuotasMesRepository,
+        ResumenVencidosContratoRepository resumenVencidosRepository,
+        ResumenCarteraMapper mapper,
+        ShardService shardService,
+        TransactionTemplate transactionTemplate
+    ) {
+        this.resumenEstadoRepository = resumenEstadoRepository;
+        this.resumenCuotasMesRepository = resumenCuotasMesRepository;
+        this.resumenVencidosRepository = resumenVencidosRepository;
+        this.mapper = mapper;
+        this.shardService = shardService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Reconstruye los agregados de cada shard en una transacción por shard; los lectores de ese shard ven
+    // la versión anterior hasta su commit. Si otra réplica está recalculando un shard, este lo omite.
+    // La instantánea en memoria se carga después de los commits.
+    @Scheduled(initialDelayString = "${formalizacion.cartera.refresco-ms:300000}",
+               fixedDelayString = "${formalizacion.cartera.refresco-ms:300000}")
+    public void refrescarResumen() {
+        long inicio = System.currentTimeMillis();
+        int[] filas = new int[3];
+        shardService.enCadaShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            if (!resumenEstadoRepository.bloquearRecalculo()) {
+                log.info("Resumen de cartera del shard {} en recálculo por otra réplica; se omite", shard);
+                return;
+            }
+            resumenEstadoRepository.vaciar();
+            filas[0] += resumenEstadoRepository.recalcular();
+            resumenCuotasMesRepository.vaciar();
+            filas[1] += resumenCuotasMesRepository.recalcular();
+            resumenVencidosRepository.vaciar();
+            filas[2] += resumenVencidosRepository.recalcular();
+        }));
+        cargarInstantanea();
+        log.info("Resumen de cartera recalculado en {} ms ({} estados, {} meses, {} contratos con vencidos)",
+            System.currentTimeMillis() - inicio, filas[0], filas[1], filas[2]);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarInstantanea() {
+        try {
+            List<List<ResumenCarteraEstadoDTO>> estadosPorShard = shardService.consultarEnTodos(
+                shard -> mapper.toEstadoDtoList(resumenEstadoRepository.findAll()));
+            List<List<ResumenCuotasMesDTO>> cuotasPorShard = shardService.consultarEnTodos(
+                shard -> mapper.toCuotasMesDtoList(resumenCuotasMesRepository.findAllByOrderByPeriodoAscEstadoAsc()));
+            estados = sumarEstados(estadosPorShard);
+            cuotasPorMes = sumarCuotasPorMes(cuotasPorShard);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo cargar el resumen de cartera: {}", e.getMessage());
+        }
+    }
+
+    public List<ResumenCarteraEstadoDTO> getResumenPorEstado() {
+        return estados;
+    }
+
+    public List<ResumenCuotasMesDTO> getCuotasPorMes(LocalDate desde, LocalDate hasta) {
+        return cuotasPorMes.stream()
+            .filter(r -> desde == null || !r.getPeriodo().isBefore(desde.withDayOfMonth(1)))
+            .filter(r -> hasta == null || !r.getPeriodo().isAfter(hasta))
+            .toList();
+    }
+
+    // Cada shard aporta sus primeros offset + size contratos; la página sale de la mezcla ordenada
+    public Page<ResumenVencidosContratoDTO> getVencidos(Pageable pageable) {
+        Pageable primeros = PageRequest.of(0, (int) (pageable.getOffset() + pageable.getPageSize()));
+        List<Page<ResumenVencidosContrato>> paginas = shardService.consultarEnTodos(
+            shard -> resumenVencidosRepository.findAllByOrderByMontoVencidoDesc(primeros));
+        List<ResumenVencidosContratoDTO> contenido = paginas.stream()
+            .flatMap(Page::stream)
+            .sorted(Comparator.comparing(ResumenVencidosContrato::getMontoVencido).reversed())
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .map(mapper::toDto)
+            .toList();
+        long total = paginas.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(contenido, pageable, total);
+    }
+
+    @Transactional(readOnly = true)
+    public ResumenVencidosContratoDTO getVencidosPorContrato(Long idContratoCredito) {
+        return resumenVencidosRepository.findById(idContratoCredito)
+            .map(mapper::toDto)
+            .orElseThrow(() -> new NotFoundException(idContratoCredito.toString(), "ResumenVencidosContrato"));
+    }
+
+    // La fecha de actualización de un total combinado es la del shard que se refrescó primero
+    private static List<ResumenCarteraEstadoDTO> sumarEstados(List<List<ResumenCarteraEstadoDTO>> porShard) {
+        Map<ContratoCreditoEstado, ResumenCarteraEstadoDTO> totales = new TreeMap<>();
+        porShard.stream().flatMap(List::stream).forEach(r -> totales.merge(r.getEstado(), r, (a, b) ->
+            ResumenCarteraEstadoDTO.builder()
+                .estado(a.getEstado())
+                .cantidadContratos(a.getCantidadContratos() + b.getCantidadContratos())
+                .montoAprobadoTotal(a.getMontoAprobadoTotal().add(b.getMontoAprobadoTotal()))
+                .montoCuotasPendientes(a.getMontoCuotasPendientes().add(b.getMontoCuotasPendientes()))
+                .cuotasVencidas(a.getCuotasVencidas() + b.getCuotasVencidas())
+                .fechaActualizacion(menor(a.getFechaActualizacion(), b.getFechaActualizacion()))
+                .build()));
+        return List.copyOf(totales.values());
+    }
+
+    private static List<ResumenCuotasMesDTO> sumarCuotasPorMes(List<List<ResumenCuotasMesDTO>> porShard) {
+        Map<ResumenCuotasMesId, ResumenCuotasMesDTO> totales = new TreeMap<>(
+            Comparator.comparing(ResumenCuotasMesId::getPeriodo).thenComparing(ResumenCuotasMesId::getEstado));
+        porShard.stream().flatMap(List::stream).forEach(r -> totales.merge(
+            new ResumenCuotasMesId(r.getPeriodo(), r.getEstado()), r, (a, b) ->
+                ResumenCuotasMesDTO.builder()
+                    .periodo(a.getPeriodo())
+                    .estado(a.getEstado())
+                    .cantidadCuotas(a.getCantidadCuotas() + b.getCantidadCuotas())
+                    .montoTotal(a.getMontoTotal().add(b.getMontoTotal()))
+                    .fechaActualizacion(menor(a.getFechaActualizacion(), b.getFechaActualizacion()))
+                    .build()));
+        return List.copyOf(totales.values());
+    }
+
+    private static LocalDateTime menor(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -2,23 +2,32 @@ package com.banquito.formalizacion.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import com.banquito.formalizacion.client.SolicitudCreditoClient;
 import com.banquito.formalizacion.controller.dto.ContratoCompraVentaDTO;
 import com.banquito.formalizacion.controller.dto.ContratoCompraVentaCreateDTO;
 import com.banquito.formalizacion.controller.dto.ContratoCompraVentaUpdateDTO;
+import com.banquito.formalizacion.controller.dto.EstadoContratoEventoDTO;
 import com.banquito.formalizacion.controller.dto.SolicitudResumenDTO;
 import com.banquito.formalizacion.controller.mapper.ContratoCompraVentaMapper;
 import com.banquito.formalizacion.enums.ContratoVentaEstado;
+import com.banquito.formalizacion.enums.EntidadTransicion;
+import com.banquito.formalizacion.enums.TipoContrato;
 import com.banquito.formalizacion.exception.ContratoCompraVentaGenerationException;
 import com.banquito.formalizacion.exception.ContratoYaExisteException;
+import com.banquito.formalizacion.exception.InvalidStateException;
 import com.banquito.formalizacion.exception.NotFoundException;
 import com.banquito.formalizacion.exception.NumeroContratoYaExisteException;
+import com.banquito.formalizacion.exception.VersionNoCoincideException;
 import com.banquito.formalizacion.model.ContratoCompraVenta;
 import com.banquito.formalizacion.repository.ContratoCompraVentaRepository;
+import com.banquito.formalizacion.util.Etags;
 
 @Service
 public class ContratoCompraVentaService {
@@ -26,17 +35,29 @@ public class ContratoCompraVentaService {
     private final ContratoCompraVentaRepository contratoCompraVentaRepository;
     private final ContratoCompraVentaMapper contratoCompraVentaMapper;
     private final SolicitudCreditoClient solicitudCreditoClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExistenciaSolicitudService existenciaSolicitudService;
+    private final TransicionEstadoService transicionEstadoService;
+    private final NumeracionContratoService numeracionContratoService;
 
     public ContratoCompraVentaService(ContratoCompraVentaRepository contratoCompraVentaRepository,
                                       ContratoCompraVentaMapper contratoCompraVentaMapper,
-                                      SolicitudCreditoClient solicitudCreditoClient) {
+                                      SolicitudCreditoClient solicitudCreditoClient,
+                                      ApplicationEventPublisher eventPublisher,
+                                      ExistenciaSolicitudService existenciaSolicitudService,
+                                      TransicionEstadoService transicionEstadoService,
+                                      NumeracionContratoService numeracionContratoService) {
         this.contratoCompraVentaRepository = contratoCompraVentaRepository;
         this.contratoCompraVentaMapper = contratoCompraVentaMapper;
         this.solicitudCreditoClient = solicitudCreditoClient;
+        this.eventPublisher = eventPublisher;
+        this.existenciaSolicitudService = existenciaSolicitudService;
+        this.transicionEstadoService = transicionEstadoService;
+        this.numeracionContratoService = numeracionContratoService;
     }
 
     // Obtiene un contrato de compra-venta por su ID.
-    @Transactional
+    @Transactional(readOnly = true)
     public ContratoCompraVentaDTO getContratoCompraVentaById(Long id) {
         try {
             ContratoCompraVenta contrato = contratoCompraVentaRepository.findById(id)
@@ -60,7 +81,9 @@ public class ContratoCompraVentaService {
             if (contratoCompraVentaRepository.existsByIdSolicitud(resumen.getIdSolicitud())) {
                 throw new ContratoYaExisteException(resumen.getIdSolicitud(), "ContratoCompraVenta");
             }
-            if (contratoCompraVentaRepository.existsByNumeroContrato(dto.getNumeroContrato())) {
+            // El número emitido por la numeración no necesita verificarse; uno enviado por el cliente sí
+            boolean numeroPropio = StringUtils.hasText(dto.getNumeroContrato());
+            if (numeroPropio && contratoCompraVentaRepository.existsByNumeroContrato(dto.getNumeroContrato())) {
                 throw new NumeroContratoYaExisteException(dto.getNumeroContrato(), "ContratoCompraVenta");
             }
 
@@ -69,6 +92,8 @@ public class ContratoCompraVentaService {
 
             // 5. SOBRESCRIBE los valores sensibles con lo que trae originación
             contrato.setIdSolicitud(resumen.getIdSolicitud());
+            contrato.setNumeroContrato(numeroPropio
+                ? dto.getNumeroContrato() : numeracionContratoService.siguiente(TipoContrato.COMPRA_VENTA));
             contrato.setPrecioFinalVehiculo(resumen.getPrecioFinalVehiculo());// Siempre lo del MS originación
             contrato.setFechaGeneracion(LocalDateTime.now());
             contrato.setEstado(ContratoVentaEstado.PENDIENTE_FIRMA);
@@ -76,6 +101,7 @@ public class ContratoCompraVentaService {
 
             // 6. Guarda y retorna el DTO
             ContratoCompraVenta saved = contratoCompraVentaRepository.save(contrato);
+            publicarCambioEstado(saved, null);
             return contratoCompraVentaMapper.toDTO(saved);
         } catch (ContratoYaExisteException | NumeroContratoYaExisteException e) {
             throw e;
@@ -84,20 +110,47 @@ public class ContratoCompraVentaService {
         }
     }
 
+    // Versión vigente del contrato para las cabeceras condicionales; null si no existe
+    @Transactional(readOnly = true)
+    public Long getVersionContratoCompraVenta(Long id) {
+        return contratoCompraVentaRepository.findVersionById(id).orElse(null);
+    }
+
     // Actualiza un contrato existente por su ID
     @Transactional
     public ContratoCompraVentaDTO updateContratoCompraVenta(Long id, ContratoCompraVentaUpdateDTO dto) {
+        return updateContratoCompraVenta(id, dto, null);
+    }
+
+    // versionEsperada viene de If-Match; null = sin control de concurrencia
+    @Transactional
+    public ContratoCompraVentaDTO updateContratoCompraVenta(Long id, ContratoCompraVentaUpdateDTO dto,
+                                                            Long versionEsperada) {
         try {
             if (!id.equals(dto.getIdContratoVenta())) {
                 throw new ContratoCompraVentaGenerationException("El ID del path no coincide con el del body");
             }
             ContratoCompraVenta existing = contratoCompraVentaRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(id.toString(), "ContratoCompraVenta"));
+            Etags.verificar(versionEsperada, existing.getVersion(), "ContratoCompraVenta");
+            ContratoVentaEstado estadoAnterior = existing.getEstado();
             contratoCompraVentaMapper.updateEntity(existing, dto);
+            if (dto.getEstado() != null && dto.getEstado() != estadoAnterior) {
+                transicionEstadoService.validar(estadoAnterior, dto.getEstado(), "ContratoCompraVenta");
+                if (dto.getEstado() == ContratoVentaEstado.FIRMADO && existing.getFechaFirma() == null) {
+                    existing.setFechaFirma(LocalDateTime.now());
+                }
+                existing.setEstado(dto.getEstado());
+                transicionEstadoService.registrar(EntidadTransicion.CONTRATO_COMPRA_VENTA, id,
+                    estadoAnterior, dto.getEstado(), null);
+            }
             existing.setVersion(existing.getVersion() + 1);
             ContratoCompraVenta updated = contratoCompraVentaRepository.save(existing);
+            if (estadoAnterior != updated.getEstado()) {
+                publicarCambioEstado(updated, estadoAnterior);
+            }
             return contratoCompraVentaMapper.toDTO(updated);
-        } catch (NotFoundException e) {
+        } catch (NotFoundException | VersionNoCoincideException | InvalidStateException e) {
             throw e;
         } catch (Exception e) {
             throw new ContratoCompraVentaGenerationException("Error al actualizar el contrato de compra-venta: " + id);
@@ -105,7 +158,7 @@ public class ContratoCompraVentaService {
     }
 
     // Listar todos los contratos por estado
-    @Transactional
+    @Transactional(readOnly = true)
     public List<ContratoCompraVentaDTO> getContratosByEstado(ContratoVentaEstado estado) {
         try {
             var contratos = contratoCompraVentaRepository.findByEstado(estado);
@@ -119,9 +172,33 @@ public class ContratoCompraVentaService {
     @Transactional(readOnly = true)
     public boolean existePorSolicitud(Long idSolicitud) {
         try {
-            return contratoCompraVentaRepository.existsByIdSolicitud(idSolicitud);
+            return existenciaSolicitudService.existeContratoCompraVenta(idSolicitud);
         } catch (Exception e) {
             throw new ContratoCompraVentaGenerationException("Error al verificar existencia de contrato de compra-venta para la solicitud: " + idSolicitud);
         }
     }
+
+    // Verificar existencia de contratos para un lote de solicitudes
+    @Transactional(readOnly = true)
+    public Map<Long, Boolean> existenPorSolicitudes(List<Long> idsSolicitud) {
+        try {
+            return existenciaSolicitudService.existenContratosCompraVenta(idsSolicitud);
+        } catch (Exception e) {
+            throw new ContratoCompraVentaGenerationException("Error al verificar existencia de contratos de compra-venta para el lote de solicitudes", e);
+        }
+    }
+
+    // Se difunde a los suscriptores SSE cuando la transacción confirma
+    private void publicarCambioEstado(ContratoCompraVenta contrato, ContratoVentaEstado estadoAnterior) {
+        eventPublisher.publishEvent(EstadoContratoEventoDTO.builder()
+            .tipoContrato(TipoContrato.COMPRA_VENTA)
+            .idContrato(contrato.getIdContratoVenta())
+            .idSolicitud(contrato.getIdSolicitud())
+            .numeroContrato(contrato.getNumeroContrato())
+            .estadoAnterior(estadoAnterior != null ? estadoAnterior.name() : null)
+            .estadoNuevo(contrato.getEstado().name())
+            .version(contrato.getVersion())
+            .fecha(LocalDateTime.now())
+            .build());
+    }
 }
@@ -1,60 +1,121 @@
 package com.banquito.formalizacion.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import com.banquito.formalizacion.client.SolicitudCreditoClient;
+import com.banquito.formalizacion.config.ContextoShard;
 import com.banquito.formalizacion.controller.dto.*;
 import com.banquito.formalizacion.controller.mapper.ContratoCreditoMapper;
 import com.banquito.formalizacion.controller.mapper.PagareMapper;
 import com.banquito.formalizacion.enums.ContratoCreditoEstado;
+import com.banquito.formalizacion.enums.EntidadTransicion;
 import com.banquito.formalizacion.enums.PagareEstado;
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.exception.BusinessLogicException;
 import com.banquito.formalizacion.exception.ContratoCreditoGenerationException;
 import com.banquito.formalizacion.exception.NumeroContratoYaExisteException;
 import com.banquito.formalizacion.exception.PagareGenerationException;
+import com.banquito.formalizacion.exception.PagaresPendientesException;
 import com.banquito.formalizacion.model.ContratoCredito;
 import com.banquito.formalizacion.model.Pagare;
+import com.banquito.formalizacion.repository.ContratoCreditoArchivoRepository;
 import com.banquito.formalizacion.repository.ContratoCreditoRepository;
+import com.banquito.formalizacion.repository.PagareArchivoRepository;
 import com.banquito.formalizacion.repository.PagareRepository;
+import com.banquito.formalizacion.util.Etags;
 
 @Service
 public class ContratoCreditoService {
 
+    private static final Logger log = LoggerFactory.getLogger(ContratoCreditoService.class);
+
     private final ContratoCreditoRepository contratoCreditoRepository;
     private final PagareRepository pagareRepository;
     private final ContratoCreditoMapper contratoCreditoMapper;
     private final PagareMapper pagareMapper;
     private final SolicitudCreditoClient solicitudCreditoClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExistenciaSolicitudService existenciaSolicitudService;
+    private final ContratoCreditoArchivoRepository contratoArchivoRepository;
+    private final PagareArchivoRepository pagareArchivoRepository;
+    private final TransicionEstadoService transicionEstadoService;
+    private final ShardService shardService;
+    private final NumeracionContratoService numeracionContratoService;
+    private final int maxFilasDispersion;
 
     public ContratoCreditoService(
         ContratoCreditoRepository contratoCreditoRepository,
         PagareRepository pagareRepository,
         ContratoCreditoMapper contratoCreditoMapper,
         PagareMapper pagareMapper,
-        SolicitudCreditoClient solicitudCreditoClient
+        SolicitudCreditoClient solicitudCreditoClient,
+        ApplicationEventPublisher eventPublisher,
+        ExistenciaSolicitudService existenciaSolicitudService,
+        ContratoCreditoArchivoRepository contratoArchivoRepository,
+        PagareArchivoRepository pagareArchivoRepository,
+        TransicionEstadoService transicionEstadoService,
+        ShardService shardService,
+        NumeracionContratoService numeracionContratoService,
+        @Value("${formalizacion.shards.max-filas-dispersion:10000}") int maxFilasDispersion
     ) {
         this.contratoCreditoRepository = contratoCreditoRepository;
         this.pagareRepository = pagareRepository;
         this.contratoCreditoMapper = contratoCreditoMapper;
         this.pagareMapper = pagareMapper;
         this.solicitudCreditoClient = solicitudCreditoClient;
+        this.eventPublisher = eventPublisher;
+        this.existenciaSolicitudService = existenciaSolicitudService;
+        this.contratoArchivoRepository = contratoArchivoRepository;
+        this.pagareArchivoRepository = pagareArchivoRepository;
+        this.transicionEstadoService = transicionEstadoService;
+        this.shardService = shardService;
+        this.numeracionContratoService = numeracionContratoService;
+        this.maxFilasDispersion = maxFilasDispersion;
     }
 
     // -------- CONTRATO CREDITO --------
 
-    @Transactional
+    @Transactional(readOnly = true)
     public ContratoCreditoDTO getContratoCreditoById(Long id) {
-        ContratoCredito contrato = contratoCreditoRepository.findById(id)
+        // Si no está en la tabla operativa puede estar archivado
+        return contratoCreditoRepository.findById(id)
+            .map(contratoCreditoMapper::toDto)
+            .or(() -> contratoArchivoRepository.findById(id).map(contratoCreditoMapper::toDto))
             .orElseThrow(() -> new ContratoCreditoGenerationException("Contrato no encontrado: " + id));
-        return contratoCreditoMapper.toDto(contrato);
+    }
+
+    // Solo la versión, para evaluar If-None-Match sin cargar el contrato; null si no existe
+    @Transactional(readOnly = true)
+    public Long getVersionContratoCredito(Long id) {
+        return contratoCreditoRepository.findVersionById(id)
+            .or(() -> contratoArchivoRepository.findVersionById(id))
+            .orElse(null);
     }
 
     @Transactional
@@ -62,38 +123,73 @@ public class ContratoCreditoService {
         // 1. Consumir el MS de originación para obtener la solicitud real
         SolicitudResumenDTO solicitud = solicitudCreditoClient.obtenerSolicitudPorId(dto.getIdSolicitud());
 
-        // 3. Validaciones de unicidad
-        if (contratoCreditoRepository.existsByIdSolicitud(solicitud.getIdSolicitud())) {
+        // 2. El contrato (y luego sus pagarés) va al shard del concesionario. La transacción todavía no
+        //    pidió conexión física, así que las consultas siguientes ya van a ese shard.
+        Long claveShard = solicitud.getIdConcesionario() != null ? solicitud.getIdConcesionario() : solicitud.getIdSolicitud();
+
+        // 3. Validaciones de unicidad en todos los shards: si se agregaron shards, un contrato anterior de la
+        //    misma solicitud puede vivir en otro que el que le toca ahora
+        if (existeEnAlgunShard(() -> contratoCreditoRepository.existsByIdSolicitud(solicitud.getIdSolicitud())
+            || contratoArchivoRepository.existsByIdSolicitud(solicitud.getIdSolicitud()))) {
             throw new ContratoCreditoGenerationException("Ya existe un contrato para solicitud " + solicitud.getIdSolicitud());
         }
-        if (contratoCreditoRepository.existsByNumeroContrato(dto.getNumeroContrato())) {
+        // El número emitido por la numeración no necesita verificarse; uno enviado por el cliente sí
+        boolean numeroPropio = StringUtils.hasText(dto.getNumeroContrato());
+        if (numeroPropio && existeEnAlgunShard(() -> contratoCreditoRepository.existsByNumeroContrato(dto.getNumeroContrato())
+            || contratoArchivoRepository.existsByNumeroContrato(dto.getNumeroContrato()))) {
             throw new NumeroContratoYaExisteException(dto.getNumeroContrato(), "ContratoCredito");
         }
 
-        // 4. Construir la entidad, pero SOBRESCRIBE los campos con los valores del MS originación
-        ContratoCredito contrato = contratoCreditoMapper.toEntity(dto);
-        contrato.setIdSolicitud(solicitud.getIdSolicitud());
-        contrato.setMontoAprobado(solicitud.getMontoAprobado());
-        contrato.setPlazoFinalMeses(solicitud.getPlazoFinalMeses() != null ? solicitud.getPlazoFinalMeses().longValue() : null);
-        contrato.setTasaEfectivaAnual(solicitud.getTasaEfectivaAnual());
-        contrato.setEstado(ContratoCreditoEstado.PENDIENTE_FIRMA);
-        contrato.setVersion(1L);
-
-        // 5. Guardar y retornar el DTO
-        ContratoCredito saved = contratoCreditoRepository.save(contrato);
-        return contratoCreditoMapper.toDto(saved);
+        return ContextoShard.en(shardService.shardPara(claveShard), () -> {
+
+            // 4. Construir la entidad, pero SOBRESCRIBE los campos con los valores del MS originación
+            ContratoCredito contrato = contratoCreditoMapper.toEntity(dto);
+            contrato.setIdSolicitud(solicitud.getIdSolicitud());
+            contrato.setNumeroContrato(numeroPropio
+                ? dto.getNumeroContrato() : numeracionContratoService.siguiente(TipoContrato.CREDITO));
+            contrato.setMontoAprobado(solicitud.getMontoAprobado());
+            contrato.setPlazoFinalMeses(solicitud.getPlazoFinalMeses() != null ? solicitud.getPlazoFinalMeses().longValue() : null);
+            contrato.setTasaEfectivaAnual(solicitud.getTasaEfectivaAnual());
+            contrato.setEstado(ContratoCreditoEstado.PENDIENTE_FIRMA);
+            contrato.setVersion(1L);
+
+            // 5. Guardar y retornar el DTO
+            ContratoCredito saved = contratoCreditoRepository.save(contrato);
+            publicarCambioEstado(saved, null);
+            return contratoCreditoMapper.toDto(saved);
+        });
     }
 
     @Transactional
     public ContratoCreditoDTO updateContratoCredito(Long id, ContratoCreditoUpdateDTO dto) {
+        return updateContratoCredito(id, dto, null);
+    }
+
+    // versionEsperada viene de If-Match; null = sin control de concurrencia
+    @Transactional
+    public ContratoCreditoDTO updateContratoCredito(Long id, ContratoCreditoUpdateDTO dto, Long versionEsperada) {
         if (!id.equals(dto.getIdContratoCredito())) {
             throw new ContratoCreditoGenerationException("El ID del path no coincide con el del body");
         }
         ContratoCredito existing = contratoCreditoRepository.findById(id)
             .orElseThrow(() -> new ContratoCreditoGenerationException("Contrato no encontrado: " + id));
+        Etags.verificar(versionEsperada, existing.getVersion(), "ContratoCredito");
 
+        ContratoCreditoEstado estadoAnterior = existing.getEstado();
+        boolean cambianCondiciones = cambianCondiciones(existing, dto);
+        Condiciones anteriores = Condiciones.de(existing);
         contratoCreditoMapper.updateEntity(existing, dto);
-        ContratoCredito updated = contratoCreditoRepository.save(existing);
+        if (dto.getEstado() != null && dto.getEstado() != estadoAnterior) {
+            cambiarEstado(existing, dto.getEstado(), null);
+        }
+        // flush para devolver la versión (y la ETag) ya incrementada
+        ContratoCredito updated = contratoCreditoRepository.saveAndFlush(existing);
+        if (cambianCondiciones && pagareRepository.existsByIdContratoCredito(id)) {
+            reamortizar(updated, anteriores);
+        }
+        if (estadoAnterior != updated.getEstado()) {
+            publicarCambioEstado(updated, estadoAnterior);
+        }
         return contratoCreditoMapper.toDto(updated);
     }
 
@@ -102,20 +198,54 @@ public class ContratoCreditoService {
         ContratoCredito existing = contratoCreditoRepository.findById(id)
             .orElseThrow(() -> new ContratoCreditoGenerationException("Contrato no encontrado: " + id));
 
-        if (ContratoCreditoEstado.ACTIVO.equals(existing.getEstado())) {
-            throw new ContratoCreditoGenerationException("El contrato ya está cancelado: " + id);
-        }
-        existing.setEstado(ContratoCreditoEstado.ACTIVO);
+        ContratoCreditoEstado estadoAnterior = existing.getEstado();
+        cambiarEstado(existing, ContratoCreditoEstado.CANCELADO, "Eliminación lógica");
         ContratoCredito saved = contratoCreditoRepository.save(existing);
+        publicarCambioEstado(saved, estadoAnterior);
         return contratoCreditoMapper.toDto(saved);
     }
 
-    @Transactional(readOnly = true)
+    // Con varios shards cada uno devuelve sus primeras offset + size filas en el mismo orden y se
+    // mezclan aquí; la profundidad se acota porque el costo crece con el número de página
     public Page<ContratoCreditoDTO> findContratosConFiltros(
         ContratoCreditoEstado estado,
         String numeroContrato,
         Long idSolicitud,
         Pageable pageable
+    ) {
+        if (shardService.getNumeroShards() == 1) {
+            return shardService.leerEn(0, () -> buscarContratos(estado, numeroContrato, idSolicitud, pageable)
+                .map(contratoCreditoMapper::toDto));
+        }
+        long profundidad = pageable.getOffset() + pageable.getPageSize();
+        if (profundidad > maxFilasDispersion) {
+            throw new BusinessLogicException("buscar contratos de crédito", "la página pedida supera las "
+                + maxFilasDispersion + " filas que se pueden combinar entre shards; refine los filtros");
+        }
+        Sort orden = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("idContratoCredito");
+        Pageable porShard = PageRequest.of(0, (int) profundidad, orden);
+        List<Page<ContratoCreditoDTO>> paginas = shardService.consultarEnTodos(shard ->
+            buscarContratos(estado, numeroContrato, idSolicitud, porShard).map(contratoCreditoMapper::toDto));
+
+        long total = 0;
+        List<ContratoCreditoDTO> filas = new ArrayList<>();
+        for (Page<ContratoCreditoDTO> pagina : paginas) {
+            total += pagina.getTotalElements();
+            filas.addAll(pagina.getContent());
+        }
+        List<ContratoCreditoDTO> contenido = filas.stream()
+            .sorted(comparador(orden))
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .toList();
+        return new PageImpl<>(contenido, pageable, total);
+    }
+
+    private Page<ContratoCredito> buscarContratos(
+        ContratoCreditoEstado estado,
+        String numeroContrato,
+        Long idSolicitud,
+        Pageable pageable
     ) {
         Page<ContratoCredito> contratos;
         if (estado != null && numeroContrato != null && idSolicitud != null) {
@@ -138,41 +268,134 @@ public class ContratoCreditoService {
         } else {
             contratos = contratoCreditoRepository.findAll(pageable);
         }
-        return contratos.map(contratoCreditoMapper::toDto);
+        return contratos;
+    }
+
+    // Mismo orden que el ORDER BY de cada shard, sobre las propiedades homónimas del DTO
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<ContratoCreditoDTO> comparador(Sort orden) {
+        Comparator<ContratoCreditoDTO> comparador = (a, b) -> 0;
+        for (Sort.Order criterio : orden) {
+            Comparator<Comparable> valores = Comparator.nullsLast(Comparator.naturalOrder());
+            Comparator<ContratoCreditoDTO> porPropiedad = Comparator.comparing(
+                dto -> (Comparable) new BeanWrapperImpl(dto).getPropertyValue(criterio.getProperty()), valores);
+            comparador = comparador.thenComparing(criterio.isAscending() ? porPropiedad : porPropiedad.reversed());
+        }
+        return comparador;
     }
 
     @Transactional(readOnly = true)
     public boolean existePorSolicitud(Long idSolicitud) {
-        return contratoCreditoRepository.existsByIdSolicitud(idSolicitud);
+        return existenciaSolicitudService.existeContratoCredito(idSolicitud);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Boolean> existenPorSolicitudes(List<Long> idsSolicitud) {
+        return existenciaSolicitudService.existenContratosCredito(idsSolicitud);
+    }
+
+    // Contrato operativo de la solicitud en cualquier shard, o null (retomar una creación idempotente)
+    public ContratoCreditoDTO findContratoPorSolicitud(Long idSolicitud) {
+        return shardService.consultarEnTodos(shard -> contratoCreditoRepository.findByIdSolicitud(idSolicitud)
+                .map(contratoCreditoMapper::toDto)
+                .orElse(null))
+            .stream()
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(null);
+    }
+
+    // Cada shard consulta en su propia transacción de solo lectura, antes de que la del llamador pida conexión
+    private boolean existeEnAlgunShard(Supplier<Boolean> consulta) {
+        return shardService.consultarEnTodos(shard -> consulta.get()).contains(Boolean.TRUE);
     }
 
     // -------- PAGARE (Integrado) --------
 
-    @Transactional
+    @Transactional(readOnly = true)
     public PagareDTO getPagareById(Long id) {
-        Pagare pagare = pagareRepository.findById(id)
+        return pagareRepository.findById(id)
+            .map(pagareMapper::toDto)
+            .or(() -> pagareArchivoRepository.findById(id).map(pagareMapper::toDto))
             .orElseThrow(() -> new PagareGenerationException("Pagaré no encontrado: " + id));
-        return pagareMapper.toDto(pagare);
+    }
+
+    @Transactional(readOnly = true)
+    public Long getVersionPagare(Long id) {
+        return pagareRepository.findVersionById(id)
+            .or(() -> pagareArchivoRepository.findVersionById(id))
+            .orElse(null);
+    }
+
+    // Huella de versiones de todo el cronograma: cambia si se edita, agrega o elimina cualquier cuota
+    @Transactional(readOnly = true)
+    public String getVersionPagaresPorContrato(Long idContratoCredito) {
+        String huella = pagareRepository.findHuellaVersiones(idContratoCredito);
+        return huella != null ? huella : pagareArchivoRepository.findHuellaVersiones(idContratoCredito);
     }
 
     @Transactional
     public PagareDTO createPagare(PagareCreateDTO dto) {
-        Pagare pagare = pagareMapper.toEntity(dto);
-        Pagare saved = pagareRepository.save(pagare);
-        return pagareMapper.toDto(saved);
+        // El contrato viene en el cuerpo, fuera del alcance del interceptor: el pagaré va a su shard
+        return ContextoShard.en(ContextoShard.shardDeId(dto.getIdContratoCredito()), () -> {
+            Pagare pagare = pagareMapper.toEntity(dto);
+            pagare.setVersion(1L);
+            Pagare saved = pagareRepository.save(pagare);
+            publicarCambioCronograma(saved.getIdContratoCredito());
+            return pagareMapper.toDto(saved);
+        });
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<PagareDTO> getPagaresByContratoCredito(Long idContratoCredito) {
         var pagares = pagareRepository.findByIdContratoCreditoOrderByNumeroCuota(idContratoCredito);
+        if (pagares.isEmpty()) {
+            return pagareMapper.toDtoListArchivo(
+                pagareArchivoRepository.findByIdContratoCreditoOrderByNumeroCuota(idContratoCredito));
+        }
         return pagareMapper.toDtoList(pagares);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    public CronogramaColumnarDTO getCronogramaColumnar(Long idContratoCredito) {
+        return pagareMapper.toColumnar(idContratoCredito, getPagaresByContratoCredito(idContratoCredito));
+    }
+
+    // Varios cronogramas con una consulta por shard; los contratos sin pagarés vuelven con cero cuotas
+    public List<CronogramaColumnarDTO> getCronogramasColumnar(List<Long> idsContratoCredito) {
+        Map<Long, List<PagareDTO>> porContrato = new LinkedHashMap<>();
+        idsContratoCredito.forEach(id -> porContrato.put(id, new ArrayList<>()));
+        idsContratoCredito.stream()
+            .collect(Collectors.groupingBy(ContextoShard::shardDeId))
+            .forEach((shard, ids) -> shardService.leerEn(shard, () -> {
+                cargarPagares(ids, porContrato);
+                return null;
+            }));
+        return porContrato.entrySet().stream()
+            .map(e -> pagareMapper.toColumnar(e.getKey(), e.getValue()))
+            .toList();
+    }
+
+    private void cargarPagares(List<Long> idsContratoCredito, Map<Long, List<PagareDTO>> porContrato) {
+        pagareMapper.toDtoList(pagareRepository.findByIdContratoCreditoInOrderByIdContratoCreditoAscNumeroCuotaAsc(
+            idsContratoCredito)).forEach(p -> porContrato.get(p.getIdContratoCredito()).add(p));
+
+        List<Long> sinPagares = idsContratoCredito.stream()
+            .filter(id -> porContrato.get(id).isEmpty()).toList();
+        if (!sinPagares.isEmpty()) {
+            pagareMapper.toDtoListArchivo(pagareArchivoRepository
+                .findByIdContratoCreditoInOrderByIdContratoCreditoAscNumeroCuotaAsc(sinPagares))
+                .forEach(p -> porContrato.get(p.getIdContratoCredito()).add(p));
+        }
+    }
+
+    @Transactional(readOnly = true)
     public PagareDTO getPagareByContratoAndCuota(Long idContratoCredito, Long numeroCuota) {
         return pagareRepository
             .findByIdContratoCreditoAndNumeroCuota(idContratoCredito, numeroCuota)
             .map(pagareMapper::toDto)
+            .or(() -> pagareArchivoRepository.findByIdContratoCreditoAndNumeroCuota(idContratoCredito, numeroCuota)
+                .map(pagareMapper::toDto))
             .orElseThrow(() ->
                 new PagareGenerationException(
                     "No se encontró el pagaré para contrato "
@@ -183,13 +406,26 @@ public class ContratoCreditoService {
 
     @Transactional
     public PagareDTO updatePagare(Long id, PagareUpdateDTO dto) {
+        return updatePagare(id, dto, null);
+    }
+
+    @Transactional
+    public PagareDTO updatePagare(Long id, PagareUpdateDTO dto, Long versionEsperada) {
         if (!id.equals(dto.getIdPagare())) {
             throw new PagareGenerationException("El ID del path no coincide con el del body");
         }
         Pagare existing = pagareRepository.findById(id)
             .orElseThrow(() -> new PagareGenerationException("Pagaré no encontrado: " + id));
+        Etags.verificar(versionEsperada, existing.getVersion(), "Pagare");
+        PagareEstado estadoAnterior = existing.getEstado();
+        if (dto.getEstado() != null && dto.getEstado() != estadoAnterior) {
+            transicionEstadoService.validar(estadoAnterior, dto.getEstado(), "Pagare");
+            existing.setEstado(dto.getEstado());
+            transicionEstadoService.registrar(EntidadTransicion.PAGARE, id, estadoAnterior, dto.getEstado(), null);
+        }
         pagareMapper.updateEntity(existing, dto);
-        Pagare updated = pagareRepository.save(existing);
+        Pagare updated = pagareRepository.saveAndFlush(existing);
+        publicarCambioCronograma(updated.getIdContratoCredito());
         return pagareMapper.toDto(updated);
     }
 
@@ -205,14 +441,14 @@ public class ContratoCreditoService {
             throw new PagareGenerationException("Ya existen pagarés para contrato " + idContratoCredito);
         }
         List<Pagare> pagares = new ArrayList<>();
-        BigDecimal cuotaMensual = calcularCuotaMensual(montoSolicitado, tasaAnual, plazoMeses);
+        BigDecimal cuotaMensual = CalculadoraAmortizacion.calcularCuotaMensual(montoSolicitado, tasaAnual, plazoMeses);
 
         for (int i = 1; i <= plazoMeses; i++) {
             Pagare p = new Pagare();
             p.setIdContratoCredito(idContratoCredito);
             p.setNumeroCuota((long) i);
             p.setMontoCuota(cuotaMensual);
-            p.setFechaVencimiento(fechaInicio.plusMonths(i - 1));
+            p.setFechaVencimiento(CalculadoraAmortizacion.fechaVencimiento(fechaInicio, i));
             p.setEstado(PagareEstado.PENDIENTE);
             p.setVersion(1L);
             pagares.add(pagareRepository.save(p));
@@ -233,19 +469,145 @@ public class ContratoCreditoService {
         return this.generarPagaresDesdeParams(idContratoCredito, montoSolicitado, tasaAnual, plazoMeses, fechaInicio);
     }
 
+    @Transactional
+    public List<PagareDTO> reamortizarPagares(Long idContratoCredito) {
+        ContratoCredito contrato = contratoCreditoRepository.findById(idContratoCredito)
+            .orElseThrow(() -> new PagareGenerationException("Contrato de crédito no encontrado: " + idContratoCredito));
+        reamortizar(contrato, Condiciones.de(contrato));
+        return pagareMapper.toDtoList(pagareRepository.findByIdContratoCreditoOrderByNumeroCuota(idContratoCredito));
+    }
+
+    // Compara el cronograma calculado con las condiciones vigentes contra el almacenado y
+    // solo escribe la diferencia: cuotas impagas modificadas, cola nueva o cola sobrante.
+    // Las cuotas PAGADO nunca se tocan. Si ya hay cuotas pagadas, solo se reamortiza el saldo que queda
+    // después de la última pagada sobre las cuotas siguientes; las impagas anteriores conservan su monto.
+    // El saldo a esa fecha se calcula con las condiciones con que se pagaron esas cuotas (anteriores).
+    private void reamortizar(ContratoCredito contrato, Condiciones anteriores) {
+        Long idContratoCredito = contrato.getIdContratoCredito();
+        int plazoMeses = contrato.getPlazoFinalMeses().intValue();
+        LocalDate fechaInicio = contrato.getFechaGeneracion().toLocalDate();
+        BigDecimal tasaAnual = contrato.getTasaEfectivaAnual();
+
+        Map<Long, Pagare> actuales = pagareRepository.findByIdContratoCreditoOrderByNumeroCuota(idContratoCredito)
+            .stream()
+            .collect(Collectors.toMap(Pagare::getNumeroCuota, Function.identity(), (a, b) -> a, TreeMap::new));
+
+        long ultimaPagada = actuales.values().stream()
+            .filter(p -> p.getEstado() == PagareEstado.PAGADO)
+            .mapToLong(Pagare::getNumeroCuota)
+            .max()
+            .orElse(0);
+        BigDecimal cuotaPlazoCompleto = CalculadoraAmortizacion.calcularCuotaMensual(
+            anteriores.montoAprobado(), anteriores.tasaEfectivaAnual(), anteriores.plazoMeses());
+        BigDecimal saldo = anteriores.montoAprobado();
+        for (long cuota = 1; cuota <= ultimaPagada; cuota++) {
+            Pagare anterior = actuales.get(cuota);
+            BigDecimal monto = anterior != null ? anterior.getMontoCuota() : cuotaPlazoCompleto;
+            saldo = CalculadoraAmortizacion.saldoTrasCuota(saldo, anteriores.tasaEfectivaAnual(), monto);
+        }
+        BigDecimal cuotaMensual = ultimaPagada < plazoMeses
+            ? CalculadoraAmortizacion.calcularCuotaMensual(saldo, tasaAnual, plazoMeses - (int) ultimaPagada)
+            : BigDecimal.ZERO;
+
+        List<Pagare> nuevos = new ArrayList<>();
+        int modificados = 0;
+        for (long cuota = 1; cuota <= plazoMeses; cuota++) {
+            LocalDate fechaVencimiento = CalculadoraAmortizacion.fechaVencimiento(fechaInicio, cuota);
+            Pagare existente = actuales.remove(cuota);
+            if (existente == null) {
+                Pagare p = new Pagare();
+                p.setIdContratoCredito(idContratoCredito);
+                p.setNumeroCuota(cuota);
+                p.setMontoCuota(cuota > ultimaPagada ? cuotaMensual : cuotaPlazoCompleto);
+                p.setFechaVencimiento(fechaVencimiento);
+                p.setEstado(PagareEstado.PENDIENTE);
+                p.setVersion(1L);
+                nuevos.add(p);
+            } else if (existente.getEstado() != PagareEstado.PAGADO) {
+                BigDecimal monto = cuota > ultimaPagada ? cuotaMensual : existente.getMontoCuota();
+                if (existente.getMontoCuota().compareTo(monto) != 0
+                    || !existente.getFechaVencimiento().equals(fechaVencimiento)) {
+                    // Entidad administrada: el dirty checking emite el UPDATE con control de versión
+                    existente.setMontoCuota(monto);
+                    existente.setFechaVencimiento(fechaVencimiento);
+                    modificados++;
+                }
+            }
+        }
+
+        // Lo que queda en el mapa son cuotas por encima del nuevo plazo
+        List<Pagare> sobrantes = new ArrayList<>(actuales.values());
+        for (Pagare sobrante : sobrantes) {
+            if (sobrante.getEstado() == PagareEstado.PAGADO) {
+                throw new PagareGenerationException("No se puede reducir el plazo del contrato " + idContratoCredito
+                    + ": la cuota " + sobrante.getNumeroCuota() + " ya está pagada");
+            }
+        }
+
+        pagareRepository.saveAll(nuevos);
+        // Borrado por entidad y no por lote de IDs: el DELETE lleva la fecha de vencimiento (clave de
+        // partición) y la versión, y se agrupa igual en el batch JDBC
+        pagareRepository.deleteAll(sobrantes);
+        publicarCambioCronograma(idContratoCredito);
+        log.info("Reamortización contrato {}: {} cuotas actualizadas, {} insertadas, {} eliminadas",
+            idContratoCredito, modificados, nuevos.size(), sobrantes.size());
+    }
 
-    private BigDecimal calcularCuotaMensual(BigDecimal monto, BigDecimal tasaAnual, int plazoMeses) {
-        if (tasaAnual == null || tasaAnual.compareTo(BigDecimal.ZERO) <= 0) {
-            return monto.divide(BigDecimal.valueOf(plazoMeses), 2, RoundingMode.HALF_UP);
+    // Aplica una transición validada: ACTIVO registra la firma y PAGADO exige todas las cuotas pagadas
+    private void cambiarEstado(ContratoCredito contrato, ContratoCreditoEstado destino, String motivo) {
+        ContratoCreditoEstado actual = contrato.getEstado();
+        transicionEstadoService.validar(actual, destino, "ContratoCredito");
+        if (destino == ContratoCreditoEstado.PAGADO) {
+            long pendientes = pagareRepository.countByIdContratoCreditoAndEstadoNot(
+                contrato.getIdContratoCredito(), PagareEstado.PAGADO);
+            if (pendientes > 0) {
+                throw new PagaresPendientesException(contrato.getIdContratoCredito(), pendientes);
+            }
+        }
+        if (destino == ContratoCreditoEstado.ACTIVO && contrato.getFechaFirma() == null) {
+            contrato.setFechaFirma(LocalDateTime.now());
+        }
+        contrato.setEstado(destino);
+        transicionEstadoService.registrar(EntidadTransicion.CONTRATO_CREDITO, contrato.getIdContratoCredito(),
+            actual, destino, motivo);
+    }
+
+    // Monto, tasa y plazo de un contrato en un momento dado
+    private record Condiciones(BigDecimal montoAprobado, BigDecimal tasaEfectivaAnual, int plazoMeses) {
+
+        static Condiciones de(ContratoCredito contrato) {
+            return new Condiciones(contrato.getMontoAprobado(), contrato.getTasaEfectivaAnual(),
+                contrato.getPlazoFinalMeses().intValue());
         }
-        BigDecimal tasaMensual = tasaAnual.divide(BigDecimal.valueOf(100 * 12), 10, RoundingMode.HALF_UP);
-        BigDecimal factor = BigDecimal.ONE.add(tasaMensual).pow(plazoMeses);
-        BigDecimal numerador = monto.multiply(tasaMensual).multiply(factor);
-        BigDecimal denominador = factor.subtract(BigDecimal.ONE);
-        return numerador.divide(denominador, 2, RoundingMode.HALF_UP);
+    }
+
+    private boolean cambianCondiciones(ContratoCredito contrato, ContratoCreditoUpdateDTO dto) {
+        return (dto.getMontoAprobado() != null && contrato.getMontoAprobado().compareTo(dto.getMontoAprobado()) != 0)
+            || (dto.getPlazoFinalMeses() != null && !Objects.equals(contrato.getPlazoFinalMeses(), dto.getPlazoFinalMeses()))
+            || (dto.getTasaEfectivaAnual() != null
+                && contrato.getTasaEfectivaAnual().compareTo(dto.getTasaEfectivaAnual()) != 0);
     }
 
     public boolean existenPagaresPorContrato(Long idContratoCredito) {
         return pagareRepository.existsByIdContratoCredito(idContratoCredito);
     }
+
+    // Invalida el cronograma en caché de las cotizaciones cuando la transacción confirma
+    private void publicarCambioCronograma(Long idContratoCredito) {
+        eventPublisher.publishEvent(CronogramaCache.Modificado.de(idContratoCredito));
+    }
+
+    // Se difunde a los suscriptores SSE cuando la transacción confirma
+    private void publicarCambioEstado(ContratoCredito contrato, ContratoCreditoEstado estadoAnterior) {
+        eventPublisher.publishEvent(EstadoContratoEventoDTO.builder()
+            .tipoContrato(TipoContrato.CREDITO)
+            .idContrato(contrato.getIdContratoCredito())
+            .idSolicitud(contrato.getIdSolicitud())
+            .numeroContrato(contrato.getNumeroContrato())
+            .estadoAnterior(estadoAnterior != null ? estadoAnterior.name() : null)
+            .estadoNuevo(contrato.getEstado().name())
+            .version(contrato.getVersion())
+            .fecha(LocalDateTime.now())
+            .build());
+    }
 }
@@ -0,0 +1,184 @@
+package com.banquito.formalizacion.service;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.banquito.formalizacion.controller.dto.EstadoContratoEventoDTO;
+import com.banquito.formalizacion.enums.TipoContrato;
+
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class ContratoEventoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContratoEventoService.class);
+
+    private final ConcurrentHashMap<Long, Suscriptor> suscriptores = new ConcurrentHashMap<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final AtomicLong secuenciaEventos = new AtomicLong();
+    private final ExecutorService despachador;
+    private final ScheduledExecutorService latidos;
+    private final int capacidadCola;
+    private final long timeoutMs;
+
+    public ContratoEventoService(
+        @Value("${formalizacion.eventos.capacidad-cola:256}") int capacidadCola,
+        @Value("${formalizacion.eventos.hilos-despacho:2}") int hilosDespacho,
+        @Value("${formalizacion.eventos.timeout-ms:1800000}") long timeoutMs,
+        @Value("${formalizacion.eventos.latido-ms:15000}") long latidoMs
+    ) {
+        this.capacidadCola = capacidadCola;
+        this.timeoutMs = timeoutMs;
+        this.despachador = Executors.newFixedThreadPool(hilosDespacho, r -> {
+            Thread t = new Thread(r, "sse-despacho");
+            t.setDaemon(true);
+            return t;
+        });
+        this.latidos = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sse-latido");
+            t.setDaemon(true);
+            return t;
+        });
+        this.latidos.scheduleAtFixedRate(this::enviarLatidos, latidoMs, latidoMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Registra un nuevo cliente SSE con sus filtros (todos opcionales)
+    public SseEmitter suscribir(TipoContrato tipoContrato, String estado, Long idSolicitud) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        long id = secuencia.incrementAndGet();
+        Suscriptor suscriptor = new Suscriptor(id, emitter, tipoContrato, estado, idSolicitud, capacidadCola);
+        suscriptores.put(id, suscriptor);
+
+        emitter.onCompletion(() -> suscriptores.remove(id));
+        emitter.onTimeout(() -> suscriptores.remove(id));
+        emitter.onError(e -> suscriptores.remove(id));
+
+        log.debug("Suscriptor SSE {} registrado (tipo={}, estado={}, solicitud={})", id, tipoContrato, estado, idSolicitud);
+        return emitter;
+    }
+
+    // Solo se difunden cambios confirmados; sin transacción activa se publica de inmediato
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEstadoContratoCambiado(EstadoContratoEventoDTO evento) {
+        for (Suscriptor suscriptor : suscriptores.values()) {
+            if (!suscriptor.acepta(evento)) {
+                continue;
+            }
+            if (!suscriptor.cola.offer(evento)) {
+                // Cliente lento: se desconecta para no acumular memoria; debe reconectarse y reconsultar el estado
+                log.warn("Suscriptor SSE {} desbordó su cola ({} eventos), se cierra la conexión", suscriptor.id, capacidadCola);
+                suscriptores.remove(suscriptor.id);
+                suscriptor.emitter.complete();
+                continue;
+            }
+            programar(suscriptor);
+        }
+    }
+
+    public int getSuscriptoresActivos() {
+        return suscriptores.size();
+    }
+
+    private void programar(Suscriptor suscriptor) {
+        if (suscriptor.programado.compareAndSet(false, true)) {
+            despachador.execute(() -> drenar(suscriptor));
+        }
+    }
+
+    private void drenar(Suscriptor suscriptor) {
+        try {
+            EstadoContratoEventoDTO evento;
+            while ((evento = suscriptor.cola.poll()) != null) {
+                suscriptor.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(secuenciaEventos.incrementAndGet()))
+                    .name("estado-contrato")
+                    .data(evento));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Suscriptor SSE {} desconectado: {}", suscriptor.id, e.getMessage());
+            descartar(suscriptor, e);
+            suscriptor.cola.clear();
+        } finally {
+            suscriptor.programado.set(false);
+            // Un evento pudo llegar entre el último poll y la liberación del flag
+            if (!suscriptor.cola.isEmpty() && suscriptores.containsKey(suscriptor.id)) {
+                programar(suscriptor);
+            }
+        }
+    }
+
+    private void enviarLatidos() {
+        for (Suscriptor suscriptor : suscriptores.values()) {
+            if (suscriptor.programado.get()) {
+                continue;
+            }
+            try {
+                suscriptor.emitter.send(SseEmitter.event().comment("latido"));
+            } catch (IOException | IllegalStateException e) {
+                descartar(suscriptor, e);
+            }
+        }
+    }
+
+    // Cierra el emitter además de quitarlo: sin completeWithError la respuesta asíncrona queda abierta
+    // hasta su timeout y el contenedor no libera la conexión
+    private void descartar(Suscriptor suscriptor, Exception causa) {
+        suscriptores.remove(suscriptor.id);
+        suscriptor.emitter.completeWithError(causa);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        latidos.shutdownNow();
+        despachador.shutdownNow();
+        suscriptores.values().forEach(s -> s.emitter.complete());
+        suscriptores.clear();
+    }
+
+    private static final class Suscriptor {
+
+        private final long id;
+        private final SseEmitter emitter;
+        private final TipoContrato tipoContrato;
+        private final String estado;
+        private final Long idSolicitud;
+        private final BlockingQueue<EstadoContratoEventoDTO> cola;
+        private final AtomicBoolean programado = new AtomicBoolean(false);
+
+        private Suscriptor(long id, SseEmitter emitter, TipoContrato tipoContrato, String estado,
+                           Long idSolicitud, int capacidadCola) {
+            this.id = id;
+            this.emitter = emitter;
+            this.tipoContrato = tipoContrato;
+            this.estado = estado;
+            this.idSolicitud = idSolicitud;
+            this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        }
+
+        private boolean acepta(EstadoContratoEventoDTO evento) {
+            if (tipoContrato != null && tipoContrato != evento.getTipoContrato()) {
+                return false;
+            }
+            if (estado != null && !estado.equalsIgnoreCase(evento.getEstadoNuevo())) {
+                return false;
+            }
+            return idSolicitud == null || idSolicitud.equals(evento.getIdSolicitud());
+        }
+    }
+}
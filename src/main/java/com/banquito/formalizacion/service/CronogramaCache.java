@@ -0,0 +1,245 @@
+package com.banquito.formalizacion.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.formalizacion.controller.dto.EstadoContratoEventoDTO;
+import com.banquito.formalizacion.enums.ContratoCreditoEstado;
+import com.banquito.formalizacion.enums.PagareEstado;
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.exception.NotFoundException;
+import com.banquito.formalizacion.model.ContratoCredito;
+import com.banquito.formalizacion.model.Pagare;
+import com.banquito.formalizacion.repository.ContratoCreditoRepository;
+import com.banquito.formalizacion.repository.PagareRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Cronogramas por contrato en memoria, ya desglosados en capital e interés y en centavos, para que las
+// cotizaciones de prepago no toquen la base. Se invalidan después del commit de cualquier cambio local
+// de pagarés o del contrato (evento Modificado); el TTL cubre los cambios hechos por otros nodos o por
+// procesos SQL que no publican evento.
+@Service
+public class CronogramaCache {
+
+    private static final int BITS_FRANJAS = 12;
+
+    private final ContratoCreditoRepository contratoCreditoRepository;
+    private final PagareRepository pagareRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Long, Cronograma> entradas = new ConcurrentHashMap<>();
+    // Una carga que se cruzó con una invalidación de su contrato no se guarda. El contador es por franja de
+    // contratos (memoria acotada): invalidar un contrato solo afecta las cargas en vuelo de su franja.
+    // La generación global cambia al invalidar todo.
+    private final AtomicLongArray generaciones = new AtomicLongArray(1 << BITS_FRANJAS);
+    private final AtomicLong generacionGlobal = new AtomicLong();
+    private final long ttlNanos;
+    private final int maximo;
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public CronogramaCache(
+        ContratoCreditoRepository contratoCreditoRepository,
+        PagareRepository pagareRepository,
+        TransactionTemplate transactionTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${formalizacion.prepago.cache-ttl-segundos:300}") long ttlSegundos,
+        @Value("${formalizacion.prepago.cache-maximo:50000}") int maximo
+    ) {
+        this.contratoCreditoRepository = contratoCreditoRepository;
+        this.pagareRepository = pagareRepository;
+        // Se lee del primario: justo después de un pago la réplica podría devolver el cronograma anterior
+        this.transactionTemplate = transactionTemplate;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+        this.maximo = maximo;
+        this.aciertos = Counter.builder("formalizacion.prepago.cache").tag("resultado", "acierto").register(meterRegistry);
+        this.fallos = Counter.builder("formalizacion.prepago.cache").tag("resultado", "fallo").register(meterRegistry);
+        Gauge.builder("formalizacion.prepago.cache.tamanio", entradas, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    public Cronograma obtener(Long idContratoCredito) {
+        long ahora = System.nanoTime();
+        Cronograma cronograma = entradas.get(idContratoCredito);
+        if (cronograma != null && ahora - cronograma.cargado < ttlNanos) {
+            aciertos.increment();
+            return cronograma;
+        }
+        fallos.increment();
+        int franja = franja(idContratoCredito);
+        long globalInicial = generacionGlobal.get();
+        long franjaInicial = generaciones.get(franja);
+        cronograma = transactionTemplate.execute(status -> cargar(idContratoCredito));
+        // Sin cuotas no se guarda: la generación masiva las inserta por SQL sin avisar
+        if (cronograma.cuotas() > 0 && generacionGlobal.get() == globalInicial
+            && generaciones.get(franja) == franjaInicial) {
+            if (entradas.size() >= maximo) {
+                podar(ahora);
+            }
+            entradas.put(idContratoCredito, cronograma);
+        }
+        return cronograma;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCronogramaModificado(Modificado evento) {
+        if (evento.idsContratoCredito() == null) {
+            generacionGlobal.incrementAndGet();
+            entradas.clear();
+        } else {
+            evento.idsContratoCredito().forEach(this::invalidar);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEstadoContratoCambiado(EstadoContratoEventoDTO evento) {
+        if (evento.getTipoContrato() == TipoContrato.CREDITO) {
+            invalidar(evento.getIdContrato());
+        }
+    }
+
+    private void invalidar(Long idContratoCredito) {
+        generaciones.incrementAndGet(franja(idContratoCredito));
+        entradas.remove(idContratoCredito);
+    }
+
+    // Los 8 bits bajos del ID son el shard: se mezcla todo el ID y se toman los bits altos
+    private static int franja(long idContratoCredito) {
+        return (int) ((idContratoCredito * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - BITS_FRANJAS));
+    }
+
+    private Cronograma cargar(Long idContratoCredito) {
+        ContratoCredito contrato = contratoCreditoRepository.findById(idContratoCredito)
+            .orElseThrow(() -> new NotFoundException(idContratoCredito.toString(), "ContratoCredito"));
+        List<Pagare> pagares = pagareRepository.findByIdContratoCreditoOrderByNumeroCuota(idContratoCredito);
+        return new Cronograma(contrato, pagares, System.nanoTime());
+    }
+
+    // Primero las vencidas por TTL; si no alcanza se vacía (las cotizaciones recargan bajo demanda)
+    private void podar(long ahora) {
+        entradas.values().removeIf(c -> ahora - c.cargado >= ttlNanos);
+        if (entradas.size() >= maximo) {
+            entradas.clear();
+        }
+    }
+
+    // idsContratoCredito null = todos los contratos
+    public record Modificado(Collection<Long> idsContratoCredito) {
+
+        public static Modificado de(Long idContratoCredito) {
+            return new Modificado(List.of(idContratoCredito));
+        }
+
+        public static Modificado todos() {
+            return new Modificado(null);
+        }
+    }
+
+    // Instantánea inmutable. Montos en centavos; la tasa mensual en partes por mil millones.
+    // El capital de cada cuota sale de recorrer el cronograma guardado con el saldo del sistema francés.
+    public static final class Cronograma {
+
+        private final long idContratoCredito;
+        private final ContratoCreditoEstado estado;
+        private final BigDecimal tasaEfectivaAnual;
+        private final long tasaMensualPpb;
+        private final long[] vencimiento;
+        private final long[] cuota;
+        private final long[] capital;
+        private final long[] interes;
+        private final boolean[] pagada;
+        private final long cargado;
+
+        private Cronograma(ContratoCredito contrato, List<Pagare> pagares, long cargado) {
+            this.idContratoCredito = contrato.getIdContratoCredito();
+            this.estado = contrato.getEstado();
+            this.tasaEfectivaAnual = contrato.getTasaEfectivaAnual();
+            this.tasaMensualPpb = CalculadoraAmortizacion.tasaMensual(tasaEfectivaAnual)
+                .movePointRight(9).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            this.cargado = cargado;
+            int n = pagares.size();
+            vencimiento = new long[n];
+            cuota = new long[n];
+            capital = new long[n];
+            interes = new long[n];
+            pagada = new boolean[n];
+            long saldo = CalculadoraMora.centavos(contrato.getMontoAprobado());
+            for (int i = 0; i < n; i++) {
+                Pagare pagare = pagares.get(i);
+                vencimiento[i] = pagare.getFechaVencimiento().toEpochDay();
+                cuota[i] = CalculadoraMora.centavos(pagare.getMontoCuota());
+                pagada[i] = pagare.getEstado() == PagareEstado.PAGADO;
+                interes[i] = Math.min(cuota[i], interesMensual(saldo));
+                // La última cuota absorbe el redondeo acumulado
+                capital[i] = i == n - 1 ? saldo : Math.max(0, Math.min(saldo, cuota[i] - interes[i]));
+                saldo -= capital[i];
+            }
+        }
+
+        // saldo * tasa mensual redondeado al centavo; se parte el saldo para que el producto no desborde
+        public long interesMensual(long saldoCentavos) {
+            long alto = saldoCentavos / 1_000_000_000L;
+            long bajo = saldoCentavos % 1_000_000_000L;
+            return alto * tasaMensualPpb + (bajo * tasaMensualPpb + 500_000_000L) / 1_000_000_000L;
+        }
+
+        public int cuotas() {
+            return cuota.length;
+        }
+
+        public long idContratoCredito() {
+            return idContratoCredito;
+        }
+
+        public ContratoCreditoEstado estado() {
+            return estado;
+        }
+
+        public BigDecimal tasaEfectivaAnual() {
+            return tasaEfectivaAnual;
+        }
+
+        public LocalDate vencimiento(int i) {
+            return LocalDate.ofEpochDay(vencimiento[i]);
+        }
+
+        public long vencimientoEpochDay(int i) {
+            return vencimiento[i];
+        }
+
+        // Inicio del período que cubre la cuota i: vencimiento anterior, o un mes antes para la primera
+        public long inicioPeriodoEpochDay(int i) {
+            return i > 0 ? vencimiento[i - 1] : LocalDate.ofEpochDay(vencimiento[0]).minusMonths(1).toEpochDay();
+        }
+
+        public long cuota(int i) {
+            return cuota[i];
+        }
+
+        public long capital(int i) {
+            return capital[i];
+        }
+
+        public long interes(int i) {
+            return interes[i];
+        }
+
+        public boolean pagada(int i) {
+            return pagada[i];
+        }
+    }
+}
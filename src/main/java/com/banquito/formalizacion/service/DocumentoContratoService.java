@@ -0,0 +1,364 @@
+package com.banquito.formalizacion.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.banquito.formalizacion.controller.dto.CargaDocumentoDTO;
+import com.banquito.formalizacion.controller.dto.DocumentoContratoDTO;
+import com.banquito.formalizacion.controller.mapper.DocumentoContratoMapper;
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.banquito.formalizacion.exception.NotFoundException;
+import com.banquito.formalizacion.model.DocumentoContrato;
+import com.banquito.formalizacion.repository.ContratoCompraVentaRepository;
+import com.banquito.formalizacion.repository.ContratoCreditoRepository;
+import com.banquito.formalizacion.repository.DocumentoContratoRepository;
+
+// Carga y descarga de contratos firmados. Los archivos nunca se cargan completos en memoria: las cargas
+// se escriben a disco (directo o por partes con offset) y el hash se calcula leyendo el archivo por bloques;
+// las descargas usan sendfile/FileChannel.transferTo cuando el backend tiene ruta local.
+// Una carga por partes pertenece al contrato con que se inició: el archivo parcial lleva tipo e ID en el
+// nombre y cada operación lo busca con el contrato de la ruta.
+@Service
+public class DocumentoContratoService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentoContratoService.class);
+
+    private static final int TAMANIO_BLOQUE = 64 * 1024;
+    private static final String RUTA_DESCARGA = "/api/contratos/documentos/%d/contenido";
+
+    private final DocumentoContratoRepository documentoRepository;
+    private final ContratoCreditoRepository contratoCreditoRepository;
+    private final ContratoCompraVentaRepository contratoCompraVentaRepository;
+    private final AlmacenamientoDocumentos almacenamiento;
+    private final DocumentoContratoMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directorioCargas;
+    private final long tamanioMaximo;
+    private final Duration vigenciaCargas;
+
+    public DocumentoContratoService(
+        DocumentoContratoRepository documentoRepository,
+        ContratoCreditoRepository contratoCreditoRepository,
+        ContratoCompraVentaRepository contratoCompraVentaRepository,
+        AlmacenamientoDocumentos almacenamiento,
+        DocumentoContratoMapper mapper,
+        TransactionTemplate transactionTemplate,
+        @Value("${formalizacion.documentos.directorio:./documentos}") String directorio,
+        @Value("${formalizacion.documentos.tamanio-maximo-mb:200}") long tamanioMaximoMb,
+        @Value("${formalizacion.documentos.vigencia-cargas-horas:24}") long vigenciaCargasHoras
+    ) throws IOException {
+        this.documentoRepository = documentoRepository;
+        this.contratoCreditoRepository = contratoCreditoRepository;
+        this.contratoCompraVentaRepository = contratoCompraVentaRepository;
+        this.almacenamiento = almacenamiento;
+        this.mapper = mapper;
+        this.transactionTemplate = transactionTemplate;
+        this.directorioCargas = Files.createDirectories(Paths.get(directorio, "cargas")).toAbsolutePath();
+        this.tamanioMaximo = tamanioMaximoMb * 1024 * 1024;
+        this.vigenciaCargas = Duration.ofHours(vigenciaCargasHoras);
+    }
+
+    public List<DocumentoContratoDTO> listar(TipoContrato tipo, Long idContrato) {
+        return mapper.toDtoList(documentoRepository.findByTipoContratoAndIdContratoOrderByFechaCargaDesc(tipo, idContrato));
+    }
+
+    public DocumentoContratoDTO getDocumento(Long idDocumento) {
+        return mapper.toDto(buscar(idDocumento));
+    }
+
+    public Optional<Path> getRutaLocal(Long idDocumento) {
+        return almacenamiento.rutaLocal(buscar(idDocumento).getClave()).filter(Files::isRegularFile);
+    }
+
+    // Carga en una sola petición multipart; el contenedor ya dejó el archivo en disco y se mueve sin copiar
+    public DocumentoContratoDTO cargar(TipoContrato tipo, Long idContrato, MultipartFile archivo, String sha256) {
+        verificarContrato(tipo, idContrato);
+        if (archivo.isEmpty()) {
+            throw new BusinessLogicException("cargar documento", "el archivo está vacío");
+        }
+        if (archivo.getSize() > tamanioMaximo) {
+            throw new BusinessLogicException("cargar documento", "el archivo supera el tamaño máximo permitido");
+        }
+        Path temporal = directorioCargas.resolve(UUID.randomUUID() + ".part");
+        try {
+            archivo.transferTo(temporal);
+        } catch (IOException e) {
+            eliminarSilencioso(temporal);
+            throw new UncheckedIOException("No se pudo recibir el archivo", e);
+        }
+        return registrar(tipo, idContrato, temporal, archivo.getOriginalFilename(), archivo.getContentType(), sha256, true);
+    }
+
+    public CargaDocumentoDTO iniciarCarga(TipoContrato tipo, Long idContrato) {
+        verificarContrato(tipo, idContrato);
+        String idCarga = UUID.randomUUID().toString();
+        try {
+            Files.createFile(directorioCargas.resolve(nombreCarga(tipo, idContrato, idCarga)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo iniciar la carga", e);
+        }
+        return CargaDocumentoDTO.builder().idCarga(idCarga).bytesRecibidos(0L).build();
+    }
+
+    public CargaDocumentoDTO getCarga(TipoContrato tipo, Long idContrato, String idCarga) {
+        Path ruta = rutaCarga(tipo, idContrato, idCarga);
+        try {
+            return CargaDocumentoDTO.builder().idCarga(idCarga).bytesRecibidos(Files.size(ruta)).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Escribe una parte desde "offset"; reenviar una parte (offset menor al recibido) descarta lo posterior
+    public CargaDocumentoDTO agregarParte(TipoContrato tipo, Long idContrato, String idCarga, long offset,
+                                          InputStream contenido) {
+        Path ruta = rutaCarga(tipo, idContrato, idCarga);
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE);
+             FileLock bloqueo = canal.tryLock()) {
+            if (bloqueo == null) {
+                throw new BusinessLogicException("cargar parte " + idCarga, "hay otra parte de esta carga en curso");
+            }
+            long recibidos = canal.size();
+            if (offset < 0 || offset > recibidos) {
+                throw new BusinessLogicException("cargar parte " + idCarga,
+                    "offset inválido, se han recibido " + recibidos + " bytes");
+            }
+            canal.truncate(offset);
+            long escritos = canal.transferFrom(Channels.newChannel(contenido), offset, tamanioMaximo - offset + 1);
+            long total = offset + escritos;
+            if (total > tamanioMaximo) {
+                canal.truncate(offset);
+                throw new BusinessLogicException("cargar parte " + idCarga, "el archivo supera el tamaño máximo permitido");
+            }
+            return CargaDocumentoDTO.builder().idCarga(idCarga).bytesRecibidos(total).build();
+        } catch (OverlappingFileLockException e) {
+            throw new BusinessLogicException("cargar parte " + idCarga, "hay otra parte de esta carga en curso");
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir la parte de la carga " + idCarga, e);
+        }
+    }
+
+    public DocumentoContratoDTO completarCarga(TipoContrato tipo, Long idContrato, String idCarga,
+                                               String nombreArchivo, String tipoContenido, String sha256) {
+        verificarContrato(tipo, idContrato);
+        Path ruta = rutaCarga(tipo, idContrato, idCarga);
+        // Con el bloqueo tomado ninguna parte está en curso; al renombrar, las siguientes ya no la encuentran
+        Path completa = ruta.resolveSibling(ruta.getFileName().toString().replace(".part", ".completa"));
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE);
+             FileLock bloqueo = canal.tryLock()) {
+            if (bloqueo == null) {
+                throw new BusinessLogicException("completar carga " + idCarga, "hay una parte de esta carga en curso");
+            }
+            Files.move(ruta, completa, StandardCopyOption.ATOMIC_MOVE);
+        } catch (OverlappingFileLockException e) {
+            throw new BusinessLogicException("completar carga " + idCarga, "hay una parte de esta carga en curso");
+        } catch (NoSuchFileException e) {
+            throw new NotFoundException(idCarga, "CargaDocumento");
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo completar la carga " + idCarga, e);
+        }
+        return registrar(tipo, idContrato, completa, nombreArchivo, tipoContenido, sha256, true);
+    }
+
+    // Archivo temporal en el área de cargas para documentos que genera este servicio
+    public Path nuevoArchivoTemporal() throws IOException {
+        return Files.createTempFile(directorioCargas, "gen-", ".part");
+    }
+
+    // Registra un documento generado (sin firmar); no cambia rutaArchivoFirmado del contrato
+    public DocumentoContratoDTO registrarGenerado(TipoContrato tipo, Long idContrato, Path archivo,
+                                                  String nombreArchivo, String tipoContenido) {
+        return registrar(tipo, idContrato, archivo, nombreArchivo, tipoContenido, null, false);
+    }
+
+    public void copiarContenido(Long idDocumento, OutputStream salida) throws IOException {
+        DocumentoContrato documento = buscar(idDocumento);
+        Optional<Path> ruta = almacenamiento.rutaLocal(documento.getClave());
+        if (ruta.isPresent()) {
+            WritableByteChannel destino = Channels.newChannel(salida);
+            try (FileChannel origen = FileChannel.open(ruta.get(), StandardOpenOption.READ)) {
+                long posicion = 0;
+                long tamanio = origen.size();
+                while (posicion < tamanio) {
+                    posicion += origen.transferTo(posicion, tamanio - posicion, destino);
+                }
+            }
+            return;
+        }
+        try (InputStream origen = almacenamiento.abrir(documento.getClave())) {
+            origen.transferTo(salida);
+        }
+    }
+
+    @Scheduled(cron = "${formalizacion.documentos.limpieza-cron:0 45 * * * *}")
+    public void limpiarCargasVencidas() {
+        Instant limite = Instant.now().minus(vigenciaCargas);
+        try (Stream<Path> cargas = Files.list(directorioCargas)) {
+            cargas.filter(p -> {
+                try {
+                    return Files.getLastModifiedTime(p).toInstant().isBefore(limite);
+                } catch (IOException e) {
+                    return false;
+                }
+            }).forEach(this::eliminarSilencioso);
+        } catch (IOException e) {
+            log.warn("No se pudieron limpiar las cargas vencidas: {}", e.getMessage());
+        }
+    }
+
+    private DocumentoContratoDTO registrar(TipoContrato tipo, Long idContrato, Path archivo, String nombreArchivo,
+                                           String tipoContenido, String sha256Esperado, boolean firmado) {
+        String clave = tipo.getValor() + "/" + idContrato + "/" + UUID.randomUUID();
+        long tamanio;
+        String sha256;
+        try {
+            tamanio = Files.size(archivo);
+            if (tamanio == 0) {
+                throw new BusinessLogicException("cargar documento", "el archivo está vacío");
+            }
+            sha256 = calcularSha256(archivo);
+            if (sha256Esperado != null && !sha256Esperado.isBlank() && !sha256Esperado.equalsIgnoreCase(sha256)) {
+                throw new BusinessLogicException("cargar documento",
+                    "el hash SHA-256 no coincide, se calculó " + sha256);
+            }
+            almacenamiento.guardar(clave, archivo);
+        } catch (IOException e) {
+            eliminarSilencioso(archivo);
+            throw new UncheckedIOException("No se pudo almacenar el documento", e);
+        } catch (RuntimeException e) {
+            eliminarSilencioso(archivo);
+            throw e;
+        }
+
+        try {
+            DocumentoContrato guardado = transactionTemplate.execute(status -> {
+                DocumentoContrato documento = new DocumentoContrato();
+                documento.setTipoContrato(tipo);
+                documento.setIdContrato(idContrato);
+                documento.setNombreArchivo(nombreArchivo != null && !nombreArchivo.isBlank()
+                    ? Paths.get(nombreArchivo).getFileName().toString() : "contrato-firmado.pdf");
+                documento.setTipoContenido(tipoContenido != null && !tipoContenido.isBlank()
+                    ? tipoContenido : "application/pdf");
+                documento.setTamanioBytes(tamanio);
+                documento.setSha256(sha256);
+                documento.setClave(clave);
+                documento.setFechaCarga(LocalDateTime.now());
+                DocumentoContrato nuevo = documentoRepository.save(documento);
+                if (firmado) {
+                    actualizarRutaArchivoFirmado(tipo, idContrato, String.format(RUTA_DESCARGA, nuevo.getIdDocumento()));
+                }
+                return nuevo;
+            });
+            log.info("Documento {} cargado para contrato {} {} ({} bytes)", guardado.getIdDocumento(), tipo, idContrato, tamanio);
+            return mapper.toDto(guardado);
+        } catch (RuntimeException e) {
+            try {
+                almacenamiento.eliminar(clave);
+            } catch (IOException ex) {
+                log.warn("No se pudo eliminar el documento huérfano {}: {}", clave, ex.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    private void actualizarRutaArchivoFirmado(TipoContrato tipo, Long idContrato, String ruta) {
+        if (tipo == TipoContrato.CREDITO) {
+            contratoCreditoRepository.findById(idContrato).ifPresent(c -> c.setRutaArchivoFirmado(ruta));
+        } else {
+            contratoCompraVentaRepository.findById(idContrato).ifPresent(c -> c.setRutaArchivoFirmado(ruta));
+        }
+    }
+
+    private void verificarContrato(TipoContrato tipo, Long idContrato) {
+        boolean existe = tipo == TipoContrato.CREDITO
+            ? contratoCreditoRepository.existsById(idContrato)
+            : contratoCompraVentaRepository.existsById(idContrato);
+        if (!existe) {
+            throw new NotFoundException(idContrato.toString(),
+                tipo == TipoContrato.CREDITO ? "ContratoCredito" : "ContratoCompraVenta");
+        }
+    }
+
+    private DocumentoContrato buscar(Long idDocumento) {
+        return documentoRepository.findById(idDocumento)
+            .orElseThrow(() -> new NotFoundException(idDocumento.toString(), "DocumentoContrato"));
+    }
+
+    private static String nombreCarga(TipoContrato tipo, Long idContrato, String idCarga) {
+        return tipo.name() + "-" + idContrato + "-" + idCarga + ".part";
+    }
+
+    // Una carga iniciada para otro contrato no se encuentra
+    private Path rutaCarga(TipoContrato tipo, Long idContrato, String idCarga) {
+        String id;
+        try {
+            id = UUID.fromString(idCarga).toString();
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException(idCarga, "CargaDocumento");
+        }
+        Path ruta = directorioCargas.resolve(nombreCarga(tipo, idContrato, id));
+        if (!Files.isRegularFile(ruta)) {
+            throw new NotFoundException(idCarga, "CargaDocumento");
+        }
+        return ruta;
+    }
+
+    private String calcularSha256(Path archivo) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer bloque = ByteBuffer.allocateDirect(TAMANIO_BLOQUE);
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            while (canal.read(bloque) != -1) {
+                bloque.flip();
+                digest.update(bloque);
+                bloque.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void eliminarSilencioso(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}: {}", archivo, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.banquito.formalizacion.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.banquito.formalizacion.config.ContextoShard;
+import com.banquito.formalizacion.controller.dto.EstadoContratoEventoDTO;
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.repository.ContratoCompraVentaRepository;
+import com.banquito.formalizacion.repository.ContratoCreditoArchivoRepository;
+import com.banquito.formalizacion.repository.ContratoCreditoRepository;
+import com.banquito.formalizacion.repository.IdSolicitudView;
+import com.banquito.formalizacion.util.BloomFilterLong;
+import com.banquito.formalizacion.util.LongHashSet;
+
+// Índice en memoria de solicitudes que ya tienen contrato (incluidos los archivados).
+// Bloom para negativos rápidos y conjunto de long para confirmar positivos; hasta que termina
+// la carga inicial (o si falla) las consultas van a la base de datos. Los contratos de crédito se leen
+// de todos los shards; los de compraventa viven solo en el shard 0.
+// Una vez cargado el índice es la respuesta: un contrato creado en otra réplica figura como inexistente
+// hasta el siguiente refresco (formalizacion.existencia.refresco-ms). La creación de contratos no usa
+// este índice; valida contra la base y la restricción única de id_solicitud.
+@Service
+public class ExistenciaSolicitudService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExistenciaSolicitudService.class);
+
+    private final ContratoCreditoRepository contratoCreditoRepository;
+    private final ContratoCompraVentaRepository contratoCompraVentaRepository;
+    private final ContratoCreditoArchivoRepository contratoArchivoRepository;
+    private final ShardService shardService;
+    private final Indice indiceCredito;
+    private final Indice indiceCompraVenta;
+    private final int tamanioLote;
+    private final long ventanaRelectura;
+
+    public ExistenciaSolicitudService(
+        ContratoCreditoRepository contratoCreditoRepository,
+        ContratoCompraVentaRepository contratoCompraVentaRepository,
+        ContratoCreditoArchivoRepository contratoArchivoRepository,
+        ShardService shardService,
+        @Value("${formalizacion.existencia.capacidad-esperada:1000000}") long capacidadEsperada,
+        @Value("${formalizacion.existencia.falsos-positivos:0.01}") double falsosPositivos,
+        @Value("${formalizacion.existencia.tamanio-lote:5000}") int tamanioLote,
+        @Value("${formalizacion.existencia.ventana-relectura:500}") long ventanaRelectura
+    ) {
+        this.contratoCreditoRepository = contratoCreditoRepository;
+        this.contratoCompraVentaRepository = contratoCompraVentaRepository;
+        this.contratoArchivoRepository = contratoArchivoRepository;
+        this.shardService = shardService;
+        this.tamanioLote = tamanioLote;
+        this.ventanaRelectura = ventanaRelectura;
+        // Una fuente por tabla y shard: cada una lleva su propio último ID leído
+        List<BiFunction<Long, Pageable, List<IdSolicitudView>>> fuentesCredito = new ArrayList<>();
+        for (int shard = 0; shard < shardService.getNumeroShards(); shard++) {
+            int destino = shard;
+            fuentesCredito.add((desde, pagina) -> ContextoShard.en(destino,
+                () -> contratoCreditoRepository.findIdSolicitudDesde(desde, pagina)));
+            fuentesCredito.add((desde, pagina) -> ContextoShard.en(destino,
+                () -> contratoArchivoRepository.findIdSolicitudDesde(desde, pagina)));
+        }
+        this.indiceCredito = new Indice("ContratoCredito", capacidadEsperada, falsosPositivos, fuentesCredito);
+        this.indiceCompraVenta = new Indice("ContratoCompraVenta", capacidadEsperada, falsosPositivos, List.of(
+            contratoCompraVentaRepository::findIdSolicitudDesde));
+    }
+
+    public boolean existeContratoCredito(Long idSolicitud) {
+        return indiceCredito.existe(idSolicitud, id -> shardService.consultarEnTodos(
+            shard -> contratoCreditoRepository.existsByIdSolicitud(id)
+                || contratoArchivoRepository.existsByIdSolicitud(id)).contains(true));
+    }
+
+    public boolean existeContratoCompraVenta(Long idSolicitud) {
+        return indiceCompraVenta.existe(idSolicitud, contratoCompraVentaRepository::existsByIdSolicitud);
+    }
+
+    public Map<Long, Boolean> existenContratosCredito(Collection<Long> idsSolicitud) {
+        return indiceCredito.existen(idsSolicitud, ids -> {
+            List<Long> existentes = new ArrayList<>();
+            shardService.consultarEnTodos(shard -> {
+                List<Long> delShard = new ArrayList<>(contratoCreditoRepository.findIdSolicitudExistentes(ids));
+                delShard.addAll(contratoArchivoRepository.findIdSolicitudExistentes(ids));
+                return delShard;
+            }).forEach(existentes::addAll);
+            return existentes;
+        });
+    }
+
+    public Map<Long, Boolean> existenContratosCompraVenta(Collection<Long> idsSolicitud) {
+        return indiceCompraVenta.existen(idsSolicitud, contratoCompraVentaRepository::findIdSolicitudExistentes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        indiceCredito.sincronizar();
+        indiceCompraVenta.sincronizar();
+    }
+
+    // Recoge contratos creados por otras réplicas; relee una ventana por si hubo commits fuera de orden
+    @Scheduled(initialDelayString = "${formalizacion.existencia.refresco-ms:30000}",
+               fixedDelayString = "${formalizacion.existencia.refresco-ms:30000}")
+    public void refrescar() {
+        indiceCredito.sincronizar();
+        indiceCompraVenta.sincronizar();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onContratoCreado(EstadoContratoEventoDTO evento) {
+        if (evento.getEstadoAnterior() != null || evento.getIdSolicitud() == null) {
+            return;
+        }
+        Indice indice = evento.getTipoContrato() == TipoContrato.CREDITO ? indiceCredito : indiceCompraVenta;
+        indice.agregar(evento.getIdSolicitud());
+    }
+
+    private final class Indice {
+
+        private final String entidad;
+        private final BloomFilterLong bloom;
+        private final LongHashSet solicitudes;
+        private final List<BiFunction<Long, Pageable, List<IdSolicitudView>>> fuentes;
+        private final long[] ultimoId;
+        private volatile boolean listo;
+
+        private Indice(String entidad, long capacidadEsperada, double falsosPositivos,
+                       List<BiFunction<Long, Pageable, List<IdSolicitudView>>> fuentes) {
+            this.entidad = entidad;
+            this.bloom = new BloomFilterLong(capacidadEsperada, falsosPositivos);
+            this.solicitudes = new LongHashSet((int) Math.min(capacidadEsperada, 1 << 20));
+            this.fuentes = fuentes;
+            this.ultimoId = new long[fuentes.size()];
+        }
+
+        private boolean existe(Long idSolicitud, LongPredicate consultaBase) {
+            if (idSolicitud == null) {
+                return false;
+            }
+            if (!listo) {
+                return consultaBase.test(idSolicitud);
+            }
+            return bloom.puedeContener(idSolicitud) && solicitudes.contiene(idSolicitud);
+        }
+
+        private Map<Long, Boolean> existen(Collection<Long> idsSolicitud,
+                                           Function<Long[], List<Long>> consultaBase) {
+            Map<Long, Boolean> resultado = new LinkedHashMap<>();
+            if (listo) {
+                for (Long idSolicitud : idsSolicitud) {
+                    resultado.put(idSolicitud, bloom.puedeContener(idSolicitud) && solicitudes.contiene(idSolicitud));
+                }
+                return resultado;
+            }
+            Set<Long> existentes = new HashSet<>(consultaBase.apply(idsSolicitud.toArray(new Long[0])));
+            for (Long idSolicitud : idsSolicitud) {
+                resultado.put(idSolicitud, existentes.contains(idSolicitud));
+            }
+            return resultado;
+        }
+
+        private void agregar(long idSolicitud) {
+            solicitudes.agregar(idSolicitud);
+            bloom.agregar(idSolicitud);
+        }
+
+        private synchronized void sincronizar() {
+            try {
+                long cargados = 0;
+                for (int i = 0; i < fuentes.size(); i++) {
+                    cargados += cargar(i);
+                }
+                if (!listo) {
+                    listo = true;
+                    log.info("Índice de existencia {} cargado: {} solicitudes", entidad, solicitudes.tamanio());
+                } else if (cargados > 0) {
+                    log.debug("Índice de existencia {} refrescado: {} filas leídas", entidad, cargados);
+                }
+            } catch (RuntimeException e) {
+                log.warn("No se pudo sincronizar el índice de existencia {}: {}", entidad, e.getMessage());
+            }
+        }
+
+        private long cargar(int fuente) {
+            // Los IDs particionados avanzan de a MAXIMO_SHARDS por fila: la ventana se mide en filas
+            long ventana = ultimoId[fuente] >= ContextoShard.PRIMER_ID_PARTICIONADO
+                ? ventanaRelectura * ContextoShard.MAXIMO_SHARDS : ventanaRelectura;
+            long desde = listo ? Math.max(0, ultimoId[fuente] - ventana) : 0;
+            List<IdSolicitudView> lote;
+            long cargados = 0;
+            do {
+                lote = fuentes.get(fuente).apply(desde, PageRequest.of(0, tamanioLote));
+                for (IdSolicitudView fila : lote) {
+                    agregar(fila.getIdSolicitud());
+                    desde = fila.getId();
+                }
+                cargados += lote.size();
+            } while (lote.size() == tamanioLote);
+            ultimoId[fuente] = Math.max(ultimoId[fuente], desde);
+            return cargados;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.banquito.formalizacion.service;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import com.banquito.formalizacion.config.ContextoShard;
+import com.banquito.formalizacion.controller.dto.BenchmarkPdfDTO;
+import com.banquito.formalizacion.controller.dto.ContratoCompraVentaDTO;
+import com.banquito.formalizacion.controller.dto.ContratoCreditoDTO;
+import com.banquito.formalizacion.controller.dto.DocumentoContratoDTO;
+import com.banquito.formalizacion.controller.dto.PagareDTO;
+import com.banquito.formalizacion.enums.ContratoCreditoEstado;
+import com.banquito.formalizacion.enums.PagareEstado;
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+
+import jakarta.annotation.PreDestroy;
+
+// Genera los PDF de contratos y pagarés a partir de plantillas Thymeleaf (compiladas y cacheadas por el
+// motor) con openhtmltopdf. El renderizado corre en un pool acotado propio con cola limitada: si está
+// lleno se rechaza en lugar de acumular trabajo. El PDF se escribe directo al archivo temporal y luego
+// se registra en el almacenamiento de documentos.
+@Service
+public class GeneracionDocumentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneracionDocumentoService.class);
+
+    private static final Locale LOCALE = Locale.forLanguageTag("es-EC");
+    private static final String PDF = "application/pdf";
+
+    private final ITemplateEngine templateEngine;
+    private final ContratoCreditoService contratoCreditoService;
+    private final ContratoCompraVentaService contratoCompraVentaService;
+    private final DocumentoContratoService documentoService;
+    private final ThreadPoolExecutor renderizadores;
+
+    public GeneracionDocumentoService(
+        ITemplateEngine templateEngine,
+        ContratoCreditoService contratoCreditoService,
+        ContratoCompraVentaService contratoCompraVentaService,
+        DocumentoContratoService documentoService,
+        @Value("${formalizacion.pdf.hilos:0}") int hilos,
+        @Value("${formalizacion.pdf.cola:50}") int cola
+    ) {
+        this.templateEngine = templateEngine;
+        this.contratoCreditoService = contratoCreditoService;
+        this.contratoCompraVentaService = contratoCompraVentaService;
+        this.documentoService = documentoService;
+        int total = hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger contador = new AtomicInteger();
+        this.renderizadores = new ThreadPoolExecutor(total, total, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(cola), r -> new Thread(r, "pdf-render-" + contador.incrementAndGet()),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<DocumentoContratoDTO> generarContratoCredito(Long idContratoCredito) {
+        ContratoCreditoDTO contrato = contratoCreditoService.getContratoCreditoById(idContratoCredito);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("contrato", contrato);
+        if (contrato.getMontoAprobado() != null && contrato.getTasaEfectivaAnual() != null
+            && contrato.getPlazoFinalMeses() != null) {
+            variables.put("cuotaMensual", CalculadoraAmortizacion.calcularCuotaMensual(
+                contrato.getMontoAprobado(), contrato.getTasaEfectivaAnual(), contrato.getPlazoFinalMeses().intValue()));
+        }
+        return generar(TipoContrato.CREDITO, idContratoCredito, "contrato-credito", variables,
+            "contrato-credito-" + contrato.getNumeroContrato() + ".pdf");
+    }
+
+    public CompletableFuture<DocumentoContratoDTO> generarContratoCompraVenta(Long idContratoVenta) {
+        ContratoCompraVentaDTO contrato = contratoCompraVentaService.getContratoCompraVentaById(idContratoVenta);
+        return generar(TipoContrato.COMPRA_VENTA, idContratoVenta, "contrato-compra-venta",
+            Map.of("contrato", contrato), "contrato-compra-venta-" + contrato.getNumeroContrato() + ".pdf");
+    }
+
+    public CompletableFuture<DocumentoContratoDTO> generarPagares(Long idContratoCredito) {
+        ContratoCreditoDTO contrato = contratoCreditoService.getContratoCreditoById(idContratoCredito);
+        List<PagareDTO> pagares = contratoCreditoService.getPagaresByContratoCredito(idContratoCredito);
+        if (pagares.isEmpty()) {
+            throw new BusinessLogicException("generar PDF de pagarés", "el contrato no tiene pagarés generados");
+        }
+        return generar(TipoContrato.CREDITO, idContratoCredito, "pagares", variablesPagares(contrato, pagares),
+            "pagares-" + contrato.getNumeroContrato() + ".pdf");
+    }
+
+    // Renderiza "documentos" veces un bloque sintético de pagarés en el pool, descartando la salida
+    public BenchmarkPdfDTO benchmarkPagares(int documentos, int cuotas) {
+        ContratoCreditoDTO contrato = ContratoCreditoDTO.builder()
+            .idContratoCredito(0L).idSolicitud(0L).numeroContrato("BENCH-0001")
+            .fechaGeneracion(LocalDateTime.now()).montoAprobado(new BigDecimal("25000.00"))
+            .plazoFinalMeses((long) cuotas).tasaEfectivaAnual(new BigDecimal("15.60"))
+            .estado(ContratoCreditoEstado.ACTIVO).version(1L).build();
+        BigDecimal cuota = CalculadoraAmortizacion.calcularCuotaMensual(
+            contrato.getMontoAprobado(), contrato.getTasaEfectivaAnual(), cuotas);
+        List<PagareDTO> pagares = new ArrayList<>(cuotas);
+        for (long i = 1; i <= cuotas; i++) {
+            pagares.add(PagareDTO.builder().idPagare(i).idContratoCredito(0L).numeroCuota(i).montoCuota(cuota)
+                .fechaVencimiento(CalculadoraAmortizacion.fechaVencimiento(LocalDate.now(), i))
+                .estado(PagareEstado.PENDIENTE).version(1L).build());
+        }
+        Map<String, Object> variables = variablesPagares(contrato, pagares);
+
+        // Calentamiento: compila y cachea la plantilla y carga fuentes
+        renderizar("pagares", variables, OutputStream.nullOutputStream());
+
+        // Se envían como máximo tantas tareas como hilos para no llenar la cola del tráfico real
+        Semaphore enVuelo = new Semaphore(renderizadores.getMaximumPoolSize());
+        AtomicLong bytes = new AtomicLong();
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Void>> tareas = new ArrayList<>(documentos);
+        for (int i = 0; i < documentos; i++) {
+            enVuelo.acquireUninterruptibly();
+            tareas.add(enviar(() -> {
+                try {
+                    ContadorBytes salida = new ContadorBytes();
+                    renderizar("pagares", variables, salida);
+                    bytes.addAndGet(salida.total);
+                    return null;
+                } finally {
+                    enVuelo.release();
+                }
+            }));
+        }
+        CompletableFuture.allOf(tareas.toArray(new CompletableFuture[0])).join();
+        long milis = (System.nanoTime() - inicio) / 1_000_000;
+        return BenchmarkPdfDTO.builder()
+            .documentos(documentos)
+            .cuotasPorDocumento(cuotas)
+            .hilos(renderizadores.getMaximumPoolSize())
+            .milisTotales(milis)
+            .milisPromedioPorDocumento((double) milis * renderizadores.getMaximumPoolSize() / documentos)
+            .documentosPorSegundo(documentos * 1000.0 / Math.max(1, milis))
+            .bytesPromedio(bytes.get() / documentos)
+            .build();
+    }
+
+    private Map<String, Object> variablesPagares(ContratoCreditoDTO contrato, List<PagareDTO> pagares) {
+        BigDecimal total = pagares.stream().map(PagareDTO::getMontoCuota).reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("contrato", contrato);
+        variables.put("pagares", pagares);
+        variables.put("total", total);
+        return variables;
+    }
+
+    private CompletableFuture<DocumentoContratoDTO> generar(TipoContrato tipo, Long idContrato, String plantilla,
+                                                            Map<String, Object> variables, String nombreArchivo) {
+        // El registro corre en el hilo de render: lleva el shard que fijó el interceptor
+        int shard = ContextoShard.actual();
+        return enviar(() -> {
+            long inicio = System.nanoTime();
+            Path temporal;
+            try {
+                temporal = documentoService.nuevoArchivoTemporal();
+                try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(temporal), 64 * 1024)) {
+                    renderizar(plantilla, variables, salida);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo generar el PDF " + nombreArchivo, e);
+            }
+            DocumentoContratoDTO documento = ContextoShard.en(shard, () -> documentoService.registrarGenerado(
+                tipo, idContrato, temporal, nombreArchivo, PDF));
+            log.info("PDF {} generado para contrato {} {} en {} ms", plantilla, tipo, idContrato,
+                (System.nanoTime() - inicio) / 1_000_000);
+            return documento;
+        });
+    }
+
+    private void renderizar(String plantilla, Map<String, Object> variables, OutputStream salida) {
+        String html = templateEngine.process("contratos/" + plantilla, new Context(LOCALE, variables));
+        try {
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.useFastMode();
+            builder.withHtmlContent(html, null);
+            builder.toStream(salida);
+            builder.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al renderizar la plantilla " + plantilla, e);
+        }
+    }
+
+    private <T> CompletableFuture<T> enviar(Supplier<T> tarea) {
+        try {
+            return CompletableFuture.supplyAsync(tarea, renderizadores);
+        } catch (RejectedExecutionException e) {
+            throw new BusinessLogicException("generar PDF", "la cola de renderizado está llena, reintente más tarde");
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        renderizadores.shutdown();
+    }
+
+    private static final class ContadorBytes extends FilterOutputStream {
+
+        private long total;
+
+        private ContadorBytes() {
+            super(OutputStream.nullOutputStream());
+        }
+
+        @Override
+        public void write(int b) {
+            total++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            total += len;
+        }
+    }
+}
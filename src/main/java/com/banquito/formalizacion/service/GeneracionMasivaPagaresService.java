@@ -0,0 +1,311 @@
+package com.banquito.formalizacion.service;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.formalizacion.controller.dto.ProcesoGeneracionMasivaDTO;
+import com.banquito.formalizacion.enums.EstadoProceso;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.banquito.formalizacion.exception.NotFoundException;
+import com.banquito.formalizacion.model.ProcesoGeneracionMasiva;
+import com.banquito.formalizacion.repository.ContratoCreditoRepository;
+import com.banquito.formalizacion.repository.ContratoCronogramaView;
+import com.banquito.formalizacion.repository.ProcesoGeneracionMasivaRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Generación de cronogramas para todos los contratos sin pagarés (migración de cartera).
+// Lee contratos por keyset, calcula en paralelo en un ForkJoinPool y escribe con inserts por lotes
+// desde un número acotado de hilos para no agotar el pool de conexiones. Tras cada lote confirmado
+// guarda un checkpoint que permite reanudar el proceso. Mientras corre, el nodo renueva un latido en la fila
+// del proceso; con varias réplicas solo se da por interrumpido un proceso cuyo latido venció.
+@Service
+public class GeneracionMasivaPagaresService {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneracionMasivaPagaresService.class);
+
+    // El ID sale de la misma función que usa @IdShard para que lleve el número de shard
+    private static final String INSERT_PAGARE = "insert into formalizacion.pagares "
+        + "(id_pagare, id_contrato_credito, numero_cuota, monto_cuota, fecha_vencimiento, estado, version) "
+        + "values (formalizacion.siguiente_id('formalizacion.seq_pagares'), ?, ?, ?, ?, 'PENDIENTE', 1)";
+
+    private final ContratoCreditoRepository contratoCreditoRepository;
+    private final ProcesoGeneracionMasivaRepository procesoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool poolCalculo;
+    private final ExecutorService poolEscritura;
+    private final ExecutorService ejecutor;
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+    private final int tamanioLote;
+    private final int contratosPorEscritura;
+    private final Duration vigenciaLatido;
+    // Proceso que corre en este nodo, para el latido
+    private volatile Long idProcesoEnCurso;
+
+    public GeneracionMasivaPagaresService(
+        ContratoCreditoRepository contratoCreditoRepository,
+        ProcesoGeneracionMasivaRepository procesoRepository,
+        JdbcTemplate jdbcTemplate,
+        TransactionTemplate transactionTemplate,
+        @Value("${formalizacion.generacion-masiva.tamanio-lote:2000}") int tamanioLote,
+        @Value("${formalizacion.generacion-masiva.contratos-por-escritura:100}") int contratosPorEscritura,
+        @Value("${formalizacion.generacion-masiva.escritores:4}") int escritores,
+        @Value("${formalizacion.generacion-masiva.hilos-calculo:0}") int hilosCalculo,
+        @Value("${formalizacion.generacion-masiva.vigencia-latido-ms:120000}") long vigenciaLatidoMs
+    ) {
+        this.contratoCreditoRepository = contratoCreditoRepository;
+        this.procesoRepository = procesoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanioLote = tamanioLote;
+        this.contratosPorEscritura = contratosPorEscritura;
+        this.vigenciaLatido = Duration.ofMillis(vigenciaLatidoMs);
+        this.poolCalculo = new ForkJoinPool(hilosCalculo > 0 ? hilosCalculo : Runtime.getRuntime().availableProcessors());
+        AtomicInteger numeroEscritor = new AtomicInteger();
+        this.poolEscritura = Executors.newFixedThreadPool(escritores, r -> {
+            Thread hilo = new Thread(r, "generacion-masiva-escritura-" + numeroEscritor.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.ejecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread hilo = new Thread(r, "generacion-masiva");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    // Un proceso que quedó EN_EJECUCION tras una caída se marca INTERRUMPIDO para poder reanudarlo. Los
+    // que otra réplica sigue ejecutando tienen el latido vigente y no se tocan.
+    @EventListener(ApplicationReadyEvent.class)
+    public void marcarInterrumpidos() {
+        try {
+            for (ProcesoGeneracionMasiva proceso : procesoRepository.findByEstadoSinLatidoDesde(
+                    EstadoProceso.EN_EJECUCION, LocalDateTime.now().minus(vigenciaLatido))) {
+                proceso.setEstado(EstadoProceso.INTERRUMPIDO);
+                procesoRepository.save(proceso);
+                log.warn("Generación masiva {} sin latido desde {}: marcada INTERRUMPIDO", proceso.getIdProceso(),
+                    proceso.getFechaLatido());
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron revisar procesos de generación masiva: {}", e.getMessage());
+        }
+    }
+
+    // Un tercio de la vigencia por defecto: tolera perder dos latidos seguidos
+    @Scheduled(fixedDelayString = "${formalizacion.generacion-masiva.latido-ms:40000}")
+    public void latir() {
+        Long idProceso = idProcesoEnCurso;
+        if (idProceso == null) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                procesoRepository.renovarLatido(idProceso, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo renovar el latido de la generación masiva {}: {}", idProceso, e.getMessage());
+        }
+    }
+
+    public ProcesoGeneracionMasivaDTO iniciar() {
+        ProcesoGeneracionMasiva proceso = new ProcesoGeneracionMasiva();
+        proceso.setUltimoIdProcesado(0L);
+        proceso.setContratosProcesados(0L);
+        proceso.setCuotasGeneradas(0L);
+        proceso.setMilisEjecucion(0L);
+        return lanzar(proceso);
+    }
+
+    public ProcesoGeneracionMasivaDTO reanudar(Long idProceso) {
+        ProcesoGeneracionMasiva proceso = procesoRepository.findById(idProceso)
+            .orElseThrow(() -> new NotFoundException(idProceso.toString(), "ProcesoGeneracionMasiva"));
+        // EN_EJECUCION con el latido vencido: el nodo que lo corría cayó y no volvió a arrancar
+        boolean huerfano = proceso.getEstado() == EstadoProceso.EN_EJECUCION && (proceso.getFechaLatido() == null
+            || proceso.getFechaLatido().isBefore(LocalDateTime.now().minus(vigenciaLatido)));
+        if (proceso.getEstado() == EstadoProceso.COMPLETADO
+            || (proceso.getEstado() == EstadoProceso.EN_EJECUCION && !huerfano)) {
+            throw new BusinessLogicException("reanudar generación masiva " + idProceso,
+                "el proceso está " + proceso.getEstado());
+        }
+        proceso.setMensajeError(null);
+        proceso.setFechaFin(null);
+        return lanzar(proceso);
+    }
+
+    public ProcesoGeneracionMasivaDTO getProceso(Long idProceso) {
+        return procesoRepository.findById(idProceso)
+            .map(this::toDto)
+            .orElseThrow(() -> new NotFoundException(idProceso.toString(), "ProcesoGeneracionMasiva"));
+    }
+
+    private ProcesoGeneracionMasivaDTO lanzar(ProcesoGeneracionMasiva proceso) {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new BusinessLogicException("generación masiva de pagarés", "ya hay un proceso en ejecución en este nodo");
+        }
+        try {
+            proceso.setEstado(EstadoProceso.EN_EJECUCION);
+            proceso.setFechaInicio(LocalDateTime.now());
+            proceso.setFechaLatido(proceso.getFechaInicio());
+            ProcesoGeneracionMasiva guardado = procesoRepository.save(proceso);
+            idProcesoEnCurso = guardado.getIdProceso();
+            ejecutor.execute(() -> ejecutar(guardado.getIdProceso()));
+            return toDto(guardado);
+        } catch (RuntimeException e) {
+            idProcesoEnCurso = null;
+            enEjecucion.set(false);
+            throw e;
+        }
+    }
+
+    private void ejecutar(Long idProceso) {
+        ProcesoGeneracionMasiva proceso = procesoRepository.findById(idProceso).orElseThrow();
+        long inicioTramo = System.currentTimeMillis();
+        long milisPrevios = proceso.getMilisEjecucion();
+        try {
+            List<ContratoCronogramaView> lote;
+            do {
+                lote = contratoCreditoRepository.findSinPagaresDesde(proceso.getUltimoIdProcesado(),
+                    PageRequest.of(0, tamanioLote));
+                if (lote.isEmpty()) {
+                    break;
+                }
+                long cuotas = procesarLote(lote);
+
+                proceso.setUltimoIdProcesado(lote.get(lote.size() - 1).getId());
+                proceso.setContratosProcesados(proceso.getContratosProcesados() + lote.size());
+                proceso.setCuotasGeneradas(proceso.getCuotasGeneradas() + cuotas);
+                proceso.setMilisEjecucion(milisPrevios + System.currentTimeMillis() - inicioTramo);
+                proceso.setFechaLatido(LocalDateTime.now());
+                proceso = procesoRepository.save(proceso);
+                log.info("Generación masiva {}: {} contratos, {} cuotas, checkpoint id={}", idProceso,
+                    proceso.getContratosProcesados(), proceso.getCuotasGeneradas(), proceso.getUltimoIdProcesado());
+            } while (lote.size() == tamanioLote);
+            proceso.setEstado(EstadoProceso.COMPLETADO);
+        } catch (Exception e) {
+            log.error("Generación masiva {} falló en checkpoint id={}", idProceso, proceso.getUltimoIdProcesado(), e);
+            proceso.setEstado(EstadoProceso.FALLIDO);
+            String mensaje = String.valueOf(e.getMessage());
+            proceso.setMensajeError(mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje);
+        } finally {
+            proceso.setFechaFin(LocalDateTime.now());
+            proceso.setMilisEjecucion(milisPrevios + System.currentTimeMillis() - inicioTramo);
+            idProcesoEnCurso = null;
+            procesoRepository.save(proceso);
+            enEjecucion.set(false);
+        }
+    }
+
+    private long procesarLote(List<ContratoCronogramaView> lote) throws InterruptedException, ExecutionException {
+        // Cálculo en paralelo (CPU)
+        List<List<Object[]>> cronogramas = poolCalculo.submit(() ->
+            lote.parallelStream().map(this::calcularCronograma).toList()).get();
+
+        // Escritura acotada: cada tarea agrupa varios contratos completos en una transacción
+        List<CompletableFuture<Integer>> escrituras = new ArrayList<>();
+        for (int i = 0; i < cronogramas.size(); i += contratosPorEscritura) {
+            List<ContratoCronogramaView> contratos = lote.subList(i, Math.min(i + contratosPorEscritura, lote.size()));
+            List<List<Object[]>> filas = cronogramas.subList(i, Math.min(i + contratosPorEscritura, cronogramas.size()));
+            escrituras.add(CompletableFuture.supplyAsync(() -> escribir(contratos, filas), poolEscritura));
+        }
+        CompletableFuture.allOf(escrituras.toArray(new CompletableFuture[0])).get();
+        long cuotas = 0;
+        for (CompletableFuture<Integer> escritura : escrituras) {
+            cuotas += escritura.get();
+        }
+        return cuotas;
+    }
+
+    private List<Object[]> calcularCronograma(ContratoCronogramaView contrato) {
+        int plazo = contrato.getPlazoFinalMeses().intValue();
+        BigDecimal cuota = CalculadoraAmortizacion.calcularCuotaMensual(
+            contrato.getMontoAprobado(), contrato.getTasaEfectivaAnual(), plazo);
+        LocalDate inicio = contrato.getFechaGeneracion().toLocalDate();
+        List<Object[]> filas = new ArrayList<>(plazo);
+        for (long numero = 1; numero <= plazo; numero++) {
+            filas.add(new Object[] {
+                contrato.getId(), numero, cuota, Date.valueOf(CalculadoraAmortizacion.fechaVencimiento(inicio, numero))
+            });
+        }
+        return filas;
+    }
+
+    private Integer escribir(List<ContratoCronogramaView> contratos, List<List<Object[]>> cronogramas) {
+        return transactionTemplate.execute(status -> {
+            Long[] ids = contratos.stream().map(ContratoCronogramaView::getId).toArray(Long[]::new);
+            // Bloquea los contratos y descarta los que recibieron pagarés desde que se leyó el lote
+            consultarIds("select id_contrato_credito from formalizacion.contrato_credito "
+                + "where id_contrato_credito = any(?) for update", ids);
+            Set<Long> conPagares = new HashSet<>(consultarIds("select distinct id_contrato_credito "
+                + "from formalizacion.pagares where id_contrato_credito = any(?)", ids));
+
+            List<Object[]> filas = new ArrayList<>();
+            for (List<Object[]> cronograma : cronogramas) {
+                if (!cronograma.isEmpty() && !conPagares.contains((Long) cronograma.get(0)[0])) {
+                    filas.addAll(cronograma);
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_PAGARE, filas);
+            return filas.size();
+        });
+    }
+
+    private List<Long> consultarIds(String sql, Long[] ids) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            Array arreglo = con.createArrayOf("bigint", ids);
+            ps.setArray(1, arreglo);
+            return ps;
+        }, (rs, n) -> rs.getLong(1));
+    }
+
+    private ProcesoGeneracionMasivaDTO toDto(ProcesoGeneracionMasiva proceso) {
+        double segundos = Math.max(1L, proceso.getMilisEjecucion()) / 1000.0;
+        return ProcesoGeneracionMasivaDTO.builder()
+            .idProceso(proceso.getIdProceso())
+            .estado(proceso.getEstado())
+            .ultimoIdProcesado(proceso.getUltimoIdProcesado())
+            .contratosProcesados(proceso.getContratosProcesados())
+            .cuotasGeneradas(proceso.getCuotasGeneradas())
+            .fechaInicio(proceso.getFechaInicio())
+            .fechaFin(proceso.getFechaFin())
+            .milisEjecucion(proceso.getMilisEjecucion())
+            .contratosPorSegundo(proceso.getContratosProcesados() / segundos)
+            .cuotasPorSegundo(proceso.getCuotasGeneradas() / segundos)
+            .mensajeError(proceso.getMensajeError())
+            .build();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+        poolEscritura.shutdown();
+        poolCalculo.shutdown();
+    }
+}
@@ -0,0 +1,245 @@
+package com.banquito.formalizacion.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.formalizacion.config.ContextoShard;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.banquito.formalizacion.model.RespuestaIdempotente;
+import com.banquito.formalizacion.repository.RespuestaIdempotenteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Soporte de Idempotency-Key: la primera ejecución reserva la clave en base, ejecuta y guarda la
+// respuesta; los reintentos la reciben desde una caché LRU acotada o desde la tabla. Duplicados
+// concurrentes en el mismo nodo esperan a la primera ejecución en lugar de repetirla.
+// Solo se guardan respuestas 2xx: si la operación falla la clave se libera y el cliente puede reintentar.
+// La respuesta se guarda después de confirmar la operación: si el nodo cae en medio, quien retome la clave
+// consulta primero si el efecto ya existe (recuperar) en lugar de repetirla. Las claves viven en el shard 0.
+@Service
+public class IdempotenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    public static final String CABECERA = "Idempotency-Key";
+    public static final String CABECERA_REPETIDA = "Idempotent-Replayed";
+    private static final int LONGITUD_MAXIMA_CLAVE = 100;
+
+    private final RespuestaIdempotenteRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Registro> cache;
+    private final Map<String, CompletableFuture<Registro>> enCurso = new ConcurrentHashMap<>();
+    private final Duration retencion;
+    private final long esperaMs;
+
+    public IdempotenciaService(
+        RespuestaIdempotenteRepository repository,
+        TransactionTemplate transactionTemplate,
+        ObjectMapper objectMapper,
+        @Value("${formalizacion.idempotencia.cache-max:10000}") int cacheMax,
+        @Value("${formalizacion.idempotencia.retencion-horas:24}") long retencionHoras,
+        @Value("${formalizacion.idempotencia.espera-ms:30000}") long esperaMs
+    ) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.retencion = Duration.ofHours(retencionHoras);
+        this.esperaMs = esperaMs;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Registro> eldest) {
+                return size() > cacheMax;
+            }
+        });
+    }
+
+    public <T> ResponseEntity<T> ejecutar(String operacion, String idempotencyKey, Object solicitud,
+                                          TypeReference<T> tipo, Supplier<ResponseEntity<T>> accion) {
+        return ejecutar(operacion, idempotencyKey, solicitud, tipo, accion, () -> null);
+    }
+
+    // recuperar devuelve la respuesta si la operación ya se aplicó, o null si no
+    public <T> ResponseEntity<T> ejecutar(String operacion, String idempotencyKey, Object solicitud,
+                                          TypeReference<T> tipo, Supplier<ResponseEntity<T>> accion,
+                                          Supplier<ResponseEntity<T>> recuperar) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return accion.get();
+        }
+        if (idempotencyKey.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new BusinessLogicException(operacion,
+                CABECERA + " no puede superar " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
+        String clave = operacion + ":" + idempotencyKey;
+        String huella = huella(operacion, solicitud);
+
+        Registro guardado = cache.get(clave);
+        if (guardado != null && vigente(guardado)) {
+            return repetir(operacion, guardado, huella, tipo);
+        }
+
+        CompletableFuture<Registro> propio = new CompletableFuture<>();
+        CompletableFuture<Registro> otro = enCurso.putIfAbsent(clave, propio);
+        if (otro != null) {
+            return repetir(operacion, esperar(operacion, otro), huella, tipo);
+        }
+        try {
+            Reserva reserva = reservar(clave, operacion, huella);
+            if (reserva.previo() != null) {
+                propio.complete(reserva.previo());
+                return repetir(operacion, reserva.previo(), huella, tipo);
+            }
+            ResponseEntity<T> respuesta = null;
+            try {
+                if (reserva.retomada()) {
+                    respuesta = recuperar.get();
+                    if (respuesta != null) {
+                        log.info("Clave idempotente {} retomada: la operación ya estaba aplicada", clave);
+                    }
+                }
+                if (respuesta == null) {
+                    respuesta = accion.get();
+                }
+            } catch (RuntimeException e) {
+                enShardPrincipal(status -> repository.liberar(clave));
+                throw e;
+            }
+            Registro registro = new Registro(huella, respuesta.getStatusCode().value(),
+                serializar(respuesta.getBody()), LocalDateTime.now());
+            if (respuesta.getStatusCode().is2xxSuccessful()) {
+                enShardPrincipal(status ->
+                    repository.completar(clave, registro.codigoHttp(), registro.cuerpo(), registro.fecha()));
+                cache.put(clave, registro);
+            } else {
+                enShardPrincipal(status -> repository.liberar(clave));
+            }
+            propio.complete(registro);
+            return respuesta;
+        } catch (RuntimeException e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propio);
+        }
+    }
+
+    @Scheduled(cron = "${formalizacion.idempotencia.limpieza-cron:0 15 * * * *}")
+    public void limpiarVencidas() {
+        Integer eliminadas = enShardPrincipal(status ->
+            repository.eliminarAnteriores(LocalDateTime.now().minus(retencion)));
+        if (eliminadas != null && eliminadas > 0) {
+            log.info("Eliminadas {} respuestas idempotentes vencidas", eliminadas);
+        }
+    }
+
+    // Respuesta ya guardada para la clave, o ninguna si esta ejecución quedó como dueña (nueva o retomada)
+    private Reserva reservar(String clave, String operacion, String huella) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer reservada = enShardPrincipal(status ->
+            repository.reservar(clave, operacion, huella, ahora));
+        if (reservada != null && reservada > 0) {
+            return new Reserva(null, false);
+        }
+        RespuestaIdempotente existente = enShardPrincipal(status -> repository.findById(clave).orElse(null));
+        if (existente != null && existente.getCodigoHttp() != null) {
+            Registro registro = new Registro(existente.getHuella(), existente.getCodigoHttp(),
+                existente.getCuerpo(), existente.getFechaFinalizacion());
+            cache.put(clave, registro);
+            return new Reserva(registro, false);
+        }
+        Integer retomada = enShardPrincipal(status -> repository.retomarAbandonada(
+            clave, huella, ahora, ahora.minus(Duration.ofMillis(esperaMs))));
+        if (retomada == null || retomada == 0) {
+            throw new BusinessLogicException(operacion,
+                "hay una solicitud con la misma " + CABECERA + " en proceso, reintente más tarde");
+        }
+        return new Reserva(null, true);
+    }
+
+    // La petición puede estar fijada a otro shard (p. ej. el del contrato); la tabla de claves no
+    private <R> R enShardPrincipal(TransactionCallback<R> accion) {
+        return ContextoShard.en(0, () -> transactionTemplate.execute(accion));
+    }
+
+    private Registro esperar(String operacion, CompletableFuture<Registro> enCurso) {
+        try {
+            return enCurso.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new BusinessLogicException(operacion, e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new BusinessLogicException(operacion,
+                "hay una solicitud con la misma " + CABECERA + " en proceso, reintente más tarde");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessLogicException(operacion, "espera interrumpida");
+        }
+    }
+
+    private <T> ResponseEntity<T> repetir(String operacion, Registro registro, String huella, TypeReference<T> tipo) {
+        if (!registro.huella().equals(huella)) {
+            throw new BusinessLogicException(operacion,
+                CABECERA + " ya fue usada con un contenido de solicitud distinto");
+        }
+        try {
+            T cuerpo = registro.cuerpo() == null ? null : objectMapper.readValue(registro.cuerpo(), tipo);
+            return ResponseEntity.status(registro.codigoHttp()).header(CABECERA_REPETIDA, "true").body(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new BusinessLogicException(operacion, "no se pudo leer la respuesta guardada: " + e.getMessage());
+        }
+    }
+
+    private boolean vigente(Registro registro) {
+        return registro.fecha() == null || registro.fecha().isAfter(LocalDateTime.now().minus(retencion));
+    }
+
+    private String serializar(Object cuerpo) {
+        try {
+            return cuerpo == null ? null : objectMapper.writeValueAsString(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    private String huella(String operacion, Object solicitud) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operacion.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(solicitud));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud", e);
+        }
+    }
+
+    private record Registro(String huella, int codigoHttp, String cuerpo, LocalDateTime fecha) {
+    }
+
+    private record Reserva(Registro previo, boolean retomada) {
+    }
+}
@@ -0,0 +1,396 @@
+package com.banquito.formalizacion.service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.formalizacion.config.ContextoShard;
+import com.banquito.formalizacion.controller.dto.LiquidacionMoraDTO;
+import com.banquito.formalizacion.controller.dto.MoraCuotaDTO;
+import com.banquito.formalizacion.controller.dto.ResultadoDevengoMoraDTO;
+import com.banquito.formalizacion.enums.PagareEstado;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.banquito.formalizacion.exception.NotFoundException;
+import com.banquito.formalizacion.model.ContratoCredito;
+import com.banquito.formalizacion.model.MoraPagare;
+import com.banquito.formalizacion.model.Pagare;
+import com.banquito.formalizacion.repository.ContratoCreditoRepository;
+import com.banquito.formalizacion.repository.MoraPagareRepository;
+import com.banquito.formalizacion.repository.PagareRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Devengo diario de interés de mora sobre cuotas vencidas.
+// 1. Marca VENCIDO las cuotas PENDIENTE con vencimiento anterior al corte (por lotes, auditando la transición).
+// 2. Recorre por keyset los contratos con cuotas vencidas aún no devengadas al corte y reparte grupos de
+//    contratos entre un pool acotado; cada grupo lee sus cuotas, calcula con CalculadoraMora en arreglos
+//    primitivos y guarda el acumulado en mora_pagare con un solo upsert. Reejecutar el mismo día retoma
+//    donde quedó: solo toma cuotas con fecha_calculo anterior al corte.
+@Service
+public class MoraService {
+
+    private static final Logger log = LoggerFactory.getLogger(MoraService.class);
+
+    private static final String MARCAR_VENCIDOS = """
+        with candidatos as (
+            select id_pagare, fecha_vencimiento from formalizacion.pagares
+            where estado = 'PENDIENTE' and fecha_vencimiento < ?
+            limit ? for update skip locked
+        ), marcados as (
+            update formalizacion.pagares p set estado = 'VENCIDO', version = p.version + 1
+            from candidatos c
+            where p.id_pagare = c.id_pagare and p.fecha_vencimiento = c.fecha_vencimiento
+            returning p.id_pagare
+        ), auditoria as (
+            insert into formalizacion.transicion_estado
+                (entidad, id_entidad, estado_anterior, estado_nuevo, motivo, masiva, fecha)
+            select 'PAGARE', id_pagare, 'PENDIENTE', 'VENCIDO', ?, true, ? from marcados
+        )
+        select count(*) from marcados
+        """;
+
+    private static final String CONTRATOS_PENDIENTES = """
+        select distinct p.id_contrato_credito from formalizacion.pagares p
+        where p.estado = 'VENCIDO' and p.fecha_vencimiento < ? and p.id_contrato_credito > ?
+          and not exists (select 1 from formalizacion.mora_pagare m
+                          where m.id_pagare = p.id_pagare and m.fecha_calculo >= ?)
+        order by p.id_contrato_credito
+        limit ?
+        """;
+
+    private static final String CUOTAS_VENCIDAS = """
+        select p.id_pagare, p.id_contrato_credito, p.monto_cuota, p.fecha_vencimiento, c.tasa_efectiva_anual
+        from formalizacion.pagares p
+        join formalizacion.contrato_credito c on c.id_contrato_credito = p.id_contrato_credito
+        where p.id_contrato_credito = any(?) and p.estado = 'VENCIDO' and p.fecha_vencimiento < ?
+        """;
+
+    private static final String GUARDAR_MORA = """
+        insert into formalizacion.mora_pagare
+            (id_pagare, id_contrato_credito, dias_mora, capital_vencido, tasa_mora_bps, interes_mora,
+             fecha_calculo, fecha_actualizacion)
+        select m.*, ?, ?
+        from unnest(?::bigint[], ?::bigint[], ?::integer[], ?::numeric[], ?::integer[], ?::numeric[])
+            as m(id_pagare, id_contrato_credito, dias_mora, capital_vencido, tasa_mora_bps, interes_mora)
+        on conflict (id_pagare) do update set
+            dias_mora = excluded.dias_mora, capital_vencido = excluded.capital_vencido,
+            tasa_mora_bps = excluded.tasa_mora_bps, interes_mora = excluded.interes_mora,
+            fecha_calculo = excluded.fecha_calculo, fecha_actualizacion = excluded.fecha_actualizacion
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContratoCreditoRepository contratoCreditoRepository;
+    private final PagareRepository pagareRepository;
+    private final MoraPagareRepository moraPagareRepository;
+    private final ShardService shardService;
+    private final ExecutorService pool;
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+    private final int recargoPorcentaje;
+    private final int baseDias;
+    private final int contratosPorPagina;
+    private final int contratosPorTarea;
+    private final int loteVencidos;
+
+    public MoraService(
+        JdbcTemplate jdbcTemplate,
+        TransactionTemplate transactionTemplate,
+        ContratoCreditoRepository contratoCreditoRepository,
+        PagareRepository pagareRepository,
+        MoraPagareRepository moraPagareRepository,
+        ShardService shardService,
+        @Value("${formalizacion.mora.recargo-porcentaje:110}") int recargoPorcentaje,
+        @Value("${formalizacion.mora.base-dias:360}") int baseDias,
+        @Value("${formalizacion.mora.contratos-por-pagina:5000}") int contratosPorPagina,
+        @Value("${formalizacion.mora.contratos-por-tarea:250}") int contratosPorTarea,
+        @Value("${formalizacion.mora.lote-vencidos:5000}") int loteVencidos,
+        @Value("${formalizacion.mora.hilos:4}") int hilos
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.contratoCreditoRepository = contratoCreditoRepository;
+        this.pagareRepository = pagareRepository;
+        this.moraPagareRepository = moraPagareRepository;
+        this.shardService = shardService;
+        this.recargoPorcentaje = recargoPorcentaje;
+        this.baseDias = baseDias;
+        this.contratosPorPagina = contratosPorPagina;
+        this.contratosPorTarea = contratosPorTarea;
+        this.loteVencidos = loteVencidos;
+        AtomicInteger numeroHilo = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "mora-devengo-" + numeroHilo.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    @Scheduled(cron = "${formalizacion.mora.cron:0 30 1 * * *}")
+    public void devengoProgramado() {
+        try {
+            devengar(LocalDate.now());
+        } catch (BusinessLogicException e) {
+            log.warn("Devengo de mora programado omitido: {}", e.getMessage());
+        }
+    }
+
+    public ResultadoDevengoMoraDTO devengar(LocalDate fechaCorte) {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new BusinessLogicException("devengo de mora", "ya hay un devengo en ejecución en este nodo");
+        }
+        long inicio = System.currentTimeMillis();
+        try {
+            long marcadas = 0;
+            long contratos = 0;
+            long cuotas = 0;
+            long interes = 0;
+            // Cada shard tiene sus propios contratos y pagarés: se recorren uno tras otro
+            for (int shard = 0; shard < shardService.getNumeroShards(); shard++) {
+                ContextoShard.establecer(shard);
+                try {
+                    marcadas += marcarVencidos(fechaCorte);
+                    long[] totales = devengarShard(shard, fechaCorte);
+                    contratos += totales[0];
+                    cuotas += totales[1];
+                    interes += totales[2];
+                } finally {
+                    ContextoShard.limpiar();
+                }
+            }
+
+            long milis = System.currentTimeMillis() - inicio;
+            log.info("Devengo de mora al {}: {} cuotas pasaron a VENCIDO, {} contratos, {} cuotas, {} devengado en {} ms",
+                fechaCorte, marcadas, contratos, cuotas, BigDecimal.valueOf(interes, 2), milis);
+            return ResultadoDevengoMoraDTO.builder()
+                .fechaCorte(fechaCorte)
+                .cuotasMarcadasVencidas(marcadas)
+                .contratosProcesados(contratos)
+                .cuotasDevengadas(cuotas)
+                .interesDevengado(BigDecimal.valueOf(interes, 2))
+                .milisEjecucion(milis)
+                .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessLogicException("devengo de mora al " + fechaCorte, "interrumpido");
+        } catch (ExecutionException e) {
+            // Los grupos ya confirmados quedan; una nueva ejecución solo toma lo pendiente
+            throw new BusinessLogicException("devengo de mora al " + fechaCorte, e.getCause().getMessage());
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    // Devuelve {contratos, cuotas devengadas, interés total en centavos} del shard
+    private long[] devengarShard(int shard, LocalDate fechaCorte) throws InterruptedException, ExecutionException {
+        long contratos = 0;
+        long cuotas = 0;
+        long interes = 0;
+        long ultimoId = 0;
+        List<Long> pagina;
+        do {
+            pagina = jdbcTemplate.queryForList(CONTRATOS_PENDIENTES, Long.class,
+                Date.valueOf(fechaCorte), ultimoId, Date.valueOf(fechaCorte), contratosPorPagina);
+            if (pagina.isEmpty()) {
+                break;
+            }
+            List<CompletableFuture<long[]>> tareas = new ArrayList<>();
+            for (int i = 0; i < pagina.size(); i += contratosPorTarea) {
+                Long[] grupo = pagina.subList(i, Math.min(i + contratosPorTarea, pagina.size())).toArray(new Long[0]);
+                tareas.add(CompletableFuture.supplyAsync(
+                    () -> ContextoShard.en(shard, () -> devengarGrupo(grupo, fechaCorte)), pool));
+            }
+            CompletableFuture.allOf(tareas.toArray(new CompletableFuture[0])).get();
+            for (CompletableFuture<long[]> tarea : tareas) {
+                cuotas += tarea.get()[0];
+                interes += tarea.get()[1];
+            }
+            contratos += pagina.size();
+            ultimoId = pagina.get(pagina.size() - 1);
+        } while (pagina.size() == contratosPorPagina);
+        return new long[] {contratos, cuotas, interes};
+    }
+
+    @Transactional(readOnly = true)
+    public LiquidacionMoraDTO getLiquidacion(Long idContratoCredito, LocalDate fechaCorte) {
+        ContratoCredito contrato = contratoCreditoRepository.findById(idContratoCredito)
+            .orElseThrow(() -> new NotFoundException(idContratoCredito.toString(), "ContratoCredito"));
+        int tasaBps = CalculadoraMora.tasaMoraBps(contrato.getTasaEfectivaAnual(), recargoPorcentaje);
+        Map<Long, MoraPagare> devengados = moraPagareRepository.findByIdContratoCredito(idContratoCredito).stream()
+            .collect(Collectors.toMap(MoraPagare::getIdPagare, Function.identity()));
+
+        List<MoraCuotaDTO> cuotas = new ArrayList<>();
+        long capital = 0;
+        long interes = 0;
+        for (Pagare pagare : pagareRepository.findByIdContratoCreditoOrderByNumeroCuota(idContratoCredito)) {
+            // Una cuota PENDIENTE ya vencida cuenta aunque el devengo aún no la haya marcado
+            if (pagare.getEstado() == PagareEstado.PAGADO || !pagare.getFechaVencimiento().isBefore(fechaCorte)) {
+                continue;
+            }
+            long montoCuota = CalculadoraMora.centavos(pagare.getMontoCuota());
+            int dias = (int) ChronoUnit.DAYS.between(pagare.getFechaVencimiento(), fechaCorte);
+            long interesCuota = CalculadoraMora.interesCentavos(montoCuota, tasaBps, dias, baseDias);
+            capital += montoCuota;
+            interes += interesCuota;
+            MoraPagare devengado = devengados.get(pagare.getIdPagare());
+            cuotas.add(MoraCuotaDTO.builder()
+                .idPagare(pagare.getIdPagare())
+                .numeroCuota(pagare.getNumeroCuota())
+                .estado(pagare.getEstado())
+                .fechaVencimiento(pagare.getFechaVencimiento())
+                .montoCuota(pagare.getMontoCuota())
+                .diasMora(dias)
+                .interesMora(BigDecimal.valueOf(interesCuota, 2))
+                .interesDevengado(devengado != null ? devengado.getInteresMora() : null)
+                .fechaDevengo(devengado != null ? devengado.getFechaCalculo() : null)
+                .build());
+        }
+        return LiquidacionMoraDTO.builder()
+            .idContratoCredito(idContratoCredito)
+            .fechaCorte(fechaCorte)
+            .tasaEfectivaAnual(contrato.getTasaEfectivaAnual())
+            .tasaMoraBps(tasaBps)
+            .cuotasVencidas(cuotas.size())
+            .capitalVencido(BigDecimal.valueOf(capital, 2))
+            .interesMora(BigDecimal.valueOf(interes, 2))
+            .totalAPagar(BigDecimal.valueOf(capital + interes, 2))
+            .cuotas(cuotas)
+            .build();
+    }
+
+    private long marcarVencidos(LocalDate fechaCorte) {
+        long total = 0;
+        Long marcadas;
+        do {
+            Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+            marcadas = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(MARCAR_VENCIDOS, Long.class,
+                Date.valueOf(fechaCorte), loteVencidos, "Vencimiento al " + fechaCorte, ahora));
+            total += marcadas != null ? marcadas : 0;
+        } while (marcadas != null && marcadas == loteVencidos);
+        return total;
+    }
+
+    // Devuelve {cuotas devengadas, interés total en centavos}
+    private long[] devengarGrupo(Long[] contratos, LocalDate fechaCorte) {
+        return transactionTemplate.execute(status -> {
+            Cuotas cuotas = new Cuotas(contratos.length * 4);
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(CUOTAS_VENCIDAS);
+                ps.setArray(1, con.createArrayOf("bigint", contratos));
+                ps.setDate(2, Date.valueOf(fechaCorte));
+                return ps;
+            }, (ResultSet rs) -> cuotas.agregar(rs.getLong(1), rs.getLong(2),
+                CalculadoraMora.centavos(rs.getBigDecimal(3)),
+                (int) ChronoUnit.DAYS.between(rs.getDate(4).toLocalDate(), fechaCorte),
+                CalculadoraMora.tasaMoraBps(rs.getBigDecimal(5), recargoPorcentaje)));
+            if (cuotas.tamanio == 0) {
+                return new long[] {0, 0};
+            }
+
+            int n = cuotas.tamanio;
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                cuotas.interes[i] = CalculadoraMora.interesCentavos(cuotas.capital[i], cuotas.tasaBps[i],
+                    cuotas.dias[i], baseDias);
+                total += cuotas.interes[i];
+            }
+
+            Long[] ids = new Long[n];
+            Long[] idsContrato = new Long[n];
+            Integer[] dias = new Integer[n];
+            BigDecimal[] capital = new BigDecimal[n];
+            Integer[] tasas = new Integer[n];
+            BigDecimal[] interes = new BigDecimal[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = cuotas.idPagare[i];
+                idsContrato[i] = cuotas.idContrato[i];
+                dias[i] = cuotas.dias[i];
+                capital[i] = BigDecimal.valueOf(cuotas.capital[i], 2);
+                tasas[i] = cuotas.tasaBps[i];
+                interes[i] = BigDecimal.valueOf(cuotas.interes[i], 2);
+            }
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(GUARDAR_MORA);
+                ps.setDate(1, Date.valueOf(fechaCorte));
+                ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                ps.setArray(3, con.createArrayOf("bigint", ids));
+                ps.setArray(4, con.createArrayOf("bigint", idsContrato));
+                ps.setArray(5, con.createArrayOf("integer", dias));
+                ps.setArray(6, con.createArrayOf("numeric", capital));
+                ps.setArray(7, con.createArrayOf("integer", tasas));
+                ps.setArray(8, con.createArrayOf("numeric", interes));
+                return ps;
+            });
+            return new long[] {n, total};
+        });
+    }
+
+    // Columnas de las cuotas de un grupo en arreglos primitivos
+    private static final class Cuotas {
+
+        private long[] idPagare;
+        private long[] idContrato;
+        private long[] capital;
+        private int[] dias;
+        private int[] tasaBps;
+        private long[] interes;
+        private int tamanio;
+
+        private Cuotas(int capacidad) {
+            idPagare = new long[capacidad];
+            idContrato = new long[capacidad];
+            capital = new long[capacidad];
+            dias = new int[capacidad];
+            tasaBps = new int[capacidad];
+            interes = new long[capacidad];
+        }
+
+        private void agregar(long id, long contrato, long capitalCentavos, int diasMora, int tasa) {
+            if (tamanio == idPagare.length) {
+                int capacidad = tamanio * 2;
+                idPagare = Arrays.copyOf(idPagare, capacidad);
+                idContrato = Arrays.copyOf(idContrato, capacidad);
+                capital = Arrays.copyOf(capital, capacidad);
+                dias = Arrays.copyOf(dias, capacidad);
+                tasaBps = Arrays.copyOf(tasaBps, capacidad);
+                interes = Arrays.copyOf(interes, capacidad);
+            }
+            idPagare[tamanio] = id;
+            idContrato[tamanio] = contrato;
+            capital[tamanio] = capitalCentavos;
+            dias[tamanio] = diasMora;
+            tasaBps[tamanio] = tasa;
+            tamanio++;
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,124 @@
+package com.banquito.formalizacion.service;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.formalizacion.config.ContextoShard;
+import com.banquito.formalizacion.enums.TipoContrato;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Emite números de contrato únicos entre nodos sin consultar la base en cada creación: cada nodo arrienda
+// bloques de una secuencia (V4__numeracion_contratos) y los reparte desde memoria con un contador atómico.
+// Los números que quedan sin usar al reiniciar se pierden; la numeración admite huecos, no repeticiones.
+@Service
+public class NumeracionContratoService {
+
+    private static final Logger log = LoggerFactory.getLogger(NumeracionContratoService.class);
+    private static final int LONGITUD_MAXIMA = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaccionPropia;
+    private final Map<TipoContrato, Numerador> numeradores = new EnumMap<>(TipoContrato.class);
+
+    public NumeracionContratoService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Value("${formalizacion.numeracion.formato.credito:CC-%1$tY-%2$09d}") String formatoCredito,
+        @Value("${formalizacion.numeracion.formato.compra-venta:CV-%1$tY-%2$09d}") String formatoCompraVenta
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        // nextval no se admite en transacciones de solo lectura y el arriendo no debe revertirse con la
+        // transacción que pidió el número: va en una transacción propia
+        this.transaccionPropia = new TransactionTemplate(transactionManager);
+        this.transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        numeradores.put(TipoContrato.CREDITO, new Numerador(TipoContrato.CREDITO,
+            "formalizacion.seq_numero_contrato_credito", formatoCredito, meterRegistry));
+        numeradores.put(TipoContrato.COMPRA_VENTA, new Numerador(TipoContrato.COMPRA_VENTA,
+            "formalizacion.seq_numero_contrato_compra_venta", formatoCompraVenta, meterRegistry));
+    }
+
+    public String siguiente(TipoContrato tipo) {
+        return numeradores.get(tipo).siguiente();
+    }
+
+    private final class Numerador {
+
+        private final TipoContrato tipo;
+        private final String sql;
+        private final String formato;
+        private final AtomicReference<Bloque> actual = new AtomicReference<>(new Bloque(0, 0));
+        private final Object arriendo = new Object();
+        private final Counter bloquesArrendados;
+
+        private Numerador(TipoContrato tipo, String secuencia, String formato, MeterRegistry meterRegistry) {
+            this.tipo = tipo;
+            this.sql = "select nextval('" + secuencia + "'), (select increment_by from pg_sequences "
+                + "where schemaname || '.' || sequencename = '" + secuencia + "')";
+            this.formato = formato;
+            // Falla al arrancar si el formato no es válido o puede exceder la columna
+            String muestra = String.format(formato, LocalDate.now(), 999_999_999_999L);
+            if (muestra.length() > LONGITUD_MAXIMA) {
+                throw new IllegalStateException("El formato de número de contrato " + tipo.getValor()
+                    + " puede exceder " + LONGITUD_MAXIMA + " caracteres: " + muestra);
+            }
+            this.bloquesArrendados = Counter.builder("formalizacion.numeracion.bloques")
+                .tag("tipo", tipo.getValor()).register(meterRegistry);
+        }
+
+        private String siguiente() {
+            return String.format(formato, LocalDate.now(), tomar());
+        }
+
+        // Camino rápido sin bloqueo; solo el hilo que agota el bloque arrienda el siguiente
+        private long tomar() {
+            while (true) {
+                Bloque bloque = actual.get();
+                long numero = bloque.siguiente.getAndIncrement();
+                if (numero < bloque.fin) {
+                    return numero;
+                }
+                synchronized (arriendo) {
+                    if (actual.get() == bloque) {
+                        actual.set(arrendar());
+                    }
+                }
+            }
+        }
+
+        // Las secuencias viven en el shard 0 para que los números no se repitan entre shards
+        private Bloque arrendar() {
+            long[] fila = ContextoShard.en(0, () -> transaccionPropia.execute(status -> jdbcTemplate.queryForObject(
+                sql, (rs, n) -> new long[] {rs.getLong(1), rs.getLong(2)})));
+            bloquesArrendados.increment();
+            log.debug("Bloque de números de contrato {} arrendado: {} a {}", tipo.getValor(), fila[0],
+                fila[0] + fila[1] - 1);
+            return new Bloque(fila[0], fila[0] + fila[1]);
+        }
+    }
+
+    private static final class Bloque {
+
+        private final AtomicLong siguiente;
+        private final long fin;
+
+        private Bloque(long inicio, long fin) {
+            this.siguiente = new AtomicLong(inicio);
+            this.fin = fin;
+        }
+    }
+}
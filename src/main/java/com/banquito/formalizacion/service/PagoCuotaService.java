@@ -0,0 +1,534 @@
+package com.banquito.formalizacion.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.banquito.formalizacion.config.ContextoShard;
+import com.banquito.formalizacion.controller.dto.PagoCuotaDTO;
+import com.banquito.formalizacion.controller.dto.ResultadoCargaPagosDTO;
+import com.banquito.formalizacion.controller.mapper.PagoCuotaMapper;
+import com.banquito.formalizacion.enums.PagareEstado;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.banquito.formalizacion.repository.PagoCuotaRepository;
+import com.banquito.formalizacion.util.LongHashSet;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Aplica los archivos diarios de pagos de caja. El archivo se mapea en memoria y se recorre byte a byte
+// sin crear un String por línea. Formato (separador ';' o ','; la primera línea puede ser cabecera):
+//   idContratoCredito;numeroCuota;monto;fechaPago(yyyy-MM-dd);referencia
+// Cada lote es una transacción: se leen las cuotas por (contrato, cuota), se validan y se pagan con una
+// sola sentencia que exige la versión leída (bloqueo optimista), registra el pago y audita la transición.
+// Los contratos sin cuotas impagas pasan a PAGADO. En simulación cada lote se revierte al terminar.
+@Service
+public class PagoCuotaService {
+
+    private static final Logger log = LoggerFactory.getLogger(PagoCuotaService.class);
+
+    private static final String BUSCAR_CUOTAS = """
+        select p.id_pagare, p.id_contrato_credito, p.numero_cuota, p.monto_cuota, p.fecha_vencimiento,
+               p.estado, p.version
+        from formalizacion.pagares p
+        join unnest(?::bigint[], ?::bigint[]) as l(id_contrato_credito, numero_cuota)
+          on p.id_contrato_credito = l.id_contrato_credito and p.numero_cuota = l.numero_cuota
+        """;
+
+    private static final String APLICAR_PAGOS = """
+        with pagos as (
+            select * from unnest(?::bigint[], ?::date[], ?::bigint[], ?::varchar[], ?::bigint[], ?::bigint[],
+                                 ?::numeric[], ?::date[], ?::varchar[])
+                as p(id_pagare, fecha_vencimiento, version, estado_anterior, id_contrato_credito, numero_cuota,
+                     monto, fecha_pago, referencia)
+        ), aplicados as (
+            update formalizacion.pagares t set estado = 'PAGADO', version = t.version + 1
+            from pagos p
+            where t.id_pagare = p.id_pagare and t.fecha_vencimiento = p.fecha_vencimiento
+              and t.version = p.version and t.estado = p.estado_anterior
+            returning t.id_pagare
+        ), registrados as (
+            insert into formalizacion.pago_cuota
+                (id_pagare, id_contrato_credito, numero_cuota, monto, fecha_pago, referencia, archivo, fecha_registro)
+            select p.id_pagare, p.id_contrato_credito, p.numero_cuota, p.monto, p.fecha_pago, p.referencia, ?, ?
+            from pagos p join aplicados a on a.id_pagare = p.id_pagare
+        ), auditoria as (
+            insert into formalizacion.transicion_estado
+                (entidad, id_entidad, estado_anterior, estado_nuevo, motivo, masiva, fecha)
+            select 'PAGARE', p.id_pagare, p.estado_anterior, 'PAGADO', ?, true, ?
+            from pagos p join aplicados a on a.id_pagare = p.id_pagare
+        )
+        select id_pagare from aplicados
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransicionEstadoService transicionEstadoService;
+    private final PagoCuotaRepository pagoCuotaRepository;
+    private final PagoCuotaMapper pagoCuotaMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Timer tiempoLote;
+    private final int tamanioLote;
+    private final int maxDetalle;
+
+    public PagoCuotaService(
+        JdbcTemplate jdbcTemplate,
+        TransactionTemplate transactionTemplate,
+        TransicionEstadoService transicionEstadoService,
+        PagoCuotaRepository pagoCuotaRepository,
+        PagoCuotaMapper pagoCuotaMapper,
+        ApplicationEventPublisher eventPublisher,
+        MeterRegistry meterRegistry,
+        @Value("${formalizacion.pagos.lote:2000}") int tamanioLote,
+        @Value("${formalizacion.pagos.max-detalle-rechazos:1000}") int maxDetalle
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.transicionEstadoService = transicionEstadoService;
+        this.pagoCuotaRepository = pagoCuotaRepository;
+        this.pagoCuotaMapper = pagoCuotaMapper;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.tiempoLote = Timer.builder("formalizacion.pagos.lote").register(meterRegistry);
+        this.tamanioLote = tamanioLote;
+        this.maxDetalle = maxDetalle;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PagoCuotaDTO> getPagosPorContrato(Long idContratoCredito) {
+        return pagoCuotaMapper.toDtoList(
+            pagoCuotaRepository.findByIdContratoCreditoOrderByNumeroCuotaAscIdPagoAsc(idContratoCredito));
+    }
+
+    public ResultadoCargaPagosDTO cargarArchivo(MultipartFile archivo, boolean simulacion) {
+        String nombre = archivo.getOriginalFilename() != null ? archivo.getOriginalFilename() : "pagos";
+        Path temporal = null;
+        try {
+            temporal = Files.createTempFile("pagos-", ".txt");
+            // Si el contenedor ya lo guardó en disco solo se mueve
+            archivo.transferTo(temporal);
+            return procesar(temporal, nombre, simulacion);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el archivo de pagos " + nombre, e);
+        } finally {
+            if (temporal != null) {
+                try {
+                    Files.deleteIfExists(temporal);
+                } catch (IOException e) {
+                    log.warn("No se pudo eliminar el temporal {}", temporal);
+                }
+            }
+        }
+    }
+
+    public ResultadoCargaPagosDTO procesar(Path ruta, String nombre, boolean simulacion) throws IOException {
+        long inicio = System.nanoTime();
+        Acumulado acumulado = new Acumulado(simulacion);
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio > Integer.MAX_VALUE) {
+                throw new BusinessLogicException("cargar pagos", "el archivo supera 2 GB; divídalo en partes");
+            }
+            MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanio);
+            int limite = (int) tamanio;
+            List<Linea> lote = new ArrayList<>(tamanioLote);
+            int posicion = 0;
+            long numeroLinea = 0;
+            while (posicion < limite) {
+                int fin = posicion;
+                while (fin < limite && datos.get(fin) != '\n') {
+                    fin++;
+                }
+                numeroLinea++;
+                int finContenido = fin > posicion && datos.get(fin - 1) == '\r' ? fin - 1 : fin;
+                boolean cabecera = numeroLinea == 1 && finContenido > posicion && !esDigito(datos.get(posicion));
+                if (finContenido > posicion && !cabecera) {
+                    acumulado.lineas++;
+                    Linea linea = Linea.parsear(datos, posicion, finContenido, numeroLinea);
+                    if (linea == null) {
+                        acumulado.rechazar(numeroLinea, Rechazo.FORMATO_INVALIDO);
+                    } else {
+                        lote.add(linea);
+                        if (lote.size() == tamanioLote) {
+                            aplicarLote(lote, nombre, acumulado);
+                            lote = new ArrayList<>(tamanioLote);
+                        }
+                    }
+                }
+                posicion = fin + 1;
+            }
+            if (!lote.isEmpty()) {
+                aplicarLote(lote, nombre, acumulado);
+            }
+        }
+        long milis = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Archivo de pagos {}{}: {} líneas, {} aplicadas, {} rechazadas, {} contratos pagados en {} ms",
+            nombre, simulacion ? " (simulación)" : "", acumulado.lineas, acumulado.aplicadas,
+            acumulado.lineas - acumulado.aplicadas, acumulado.contratosPagados, milis);
+        return acumulado.resultado(nombre, milis);
+    }
+
+    // Un archivo de caja mezcla contratos de todos los shards: cada parte del lote se confirma en el suyo
+    private void aplicarLote(List<Linea> lote, String archivo, Acumulado acumulado) {
+        Map<Integer, List<Linea>> porShard = lote.stream()
+            .collect(Collectors.groupingBy(linea -> ContextoShard.shardDeId(linea.idContratoCredito()),
+                TreeMap::new, Collectors.toList()));
+        porShard.forEach((shard, lineas) -> ContextoShard.en(shard, () -> {
+            aplicarLoteShard(lineas, archivo, acumulado);
+            return null;
+        }));
+    }
+
+    private void aplicarLoteShard(List<Linea> lote, String archivo, Acumulado acumulado) {
+        long aplicadasAntes = acumulado.aplicadas;
+        try {
+            tiempoLote.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                Resultado resultado = aplicar(lote, archivo, acumulado);
+                if (acumulado.simulacion) {
+                    status.setRollbackOnly();
+                }
+                acumulado.aplicadas += resultado.aplicadas();
+                acumulado.contratosPagados += resultado.contratosPagados();
+            }));
+            acumulado.lotes++;
+        } catch (RuntimeException e) {
+            // Los lotes anteriores quedan confirmados; reprocesar el archivo es seguro (las cuotas ya
+            // pagadas se rechazan como CUOTA_YA_PAGADA)
+            throw new BusinessLogicException("cargar pagos de " + archivo, "falló el lote que inicia en la línea "
+                + lote.get(0).numero() + " después de aplicar " + aplicadasAntes + " pagos: " + e.getMessage(), e);
+        }
+    }
+
+    private Resultado aplicar(List<Linea> lote, String archivo, Acumulado acumulado) {
+        Map<ClaveCuota, Cuota> cuotas = buscarCuotas(lote);
+        List<Linea> lineasValidas = new ArrayList<>(lote.size());
+        List<Cuota> cuotasValidas = new ArrayList<>(lote.size());
+        for (Linea linea : lote) {
+            Cuota cuota = cuotas.get(new ClaveCuota(linea.idContratoCredito(), linea.numeroCuota()));
+            Rechazo rechazo = null;
+            if (cuota == null) {
+                rechazo = Rechazo.CUOTA_NO_ENCONTRADA;
+            } else if (!acumulado.procesadas.agregar(cuota.idPagare())) {
+                rechazo = Rechazo.DUPLICADA_EN_ARCHIVO;
+            } else if (cuota.estado() == PagareEstado.PAGADO) {
+                rechazo = Rechazo.CUOTA_YA_PAGADA;
+            } else if (!cuota.estado().puedeCambiarA(PagareEstado.PAGADO)) {
+                rechazo = Rechazo.ESTADO_NO_PERMITE_PAGO;
+            } else if (cuota.montoCentavos() != linea.montoCentavos()) {
+                rechazo = Rechazo.MONTO_NO_COINCIDE;
+            }
+            if (rechazo != null) {
+                acumulado.rechazar(linea.numero(), rechazo);
+            } else {
+                lineasValidas.add(linea);
+                cuotasValidas.add(cuota);
+            }
+        }
+        if (lineasValidas.isEmpty()) {
+            return new Resultado(0, 0);
+        }
+
+        Set<Long> aplicados = new HashSet<>(pagar(lineasValidas, cuotasValidas, archivo));
+        Set<Long> contratos = new LinkedHashSet<>();
+        for (int i = 0; i < lineasValidas.size(); i++) {
+            if (aplicados.contains(cuotasValidas.get(i).idPagare())) {
+                contratos.add(lineasValidas.get(i).idContratoCredito());
+            } else {
+                // Otra operación cambió la cuota entre la lectura y la actualización
+                acumulado.rechazar(lineasValidas.get(i).numero(), Rechazo.CONFLICTO_VERSION);
+            }
+        }
+        if (!contratos.isEmpty()) {
+            // En simulación el lote se revierte y el evento no llega a publicarse
+            eventPublisher.publishEvent(new CronogramaCache.Modificado(contratos));
+        }
+        int pagados = transicionEstadoService.cerrarContratosPagados(contratos, "Pago de la última cuota (" + archivo + ")");
+        return new Resultado(aplicados.size(), pagados);
+    }
+
+    private Map<ClaveCuota, Cuota> buscarCuotas(List<Linea> lote) {
+        Long[] contratos = new Long[lote.size()];
+        Long[] numeros = new Long[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            contratos[i] = lote.get(i).idContratoCredito();
+            numeros[i] = lote.get(i).numeroCuota();
+        }
+        Map<ClaveCuota, Cuota> cuotas = new HashMap<>(lote.size() * 2);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(BUSCAR_CUOTAS);
+            ps.setArray(1, con.createArrayOf("bigint", contratos));
+            ps.setArray(2, con.createArrayOf("bigint", numeros));
+            return ps;
+        }, (ResultSet rs) -> {
+            Cuota cuota = new Cuota(rs.getLong(1), rs.getDate(5).toLocalDate(),
+                rs.getBigDecimal(4).setScale(2).unscaledValue().longValueExact(),
+                PagareEstado.valueOf(rs.getString(6)), rs.getLong(7));
+            cuotas.put(new ClaveCuota(rs.getLong(2), rs.getLong(3)), cuota);
+        });
+        return cuotas;
+    }
+
+    private List<Long> pagar(List<Linea> lineas, List<Cuota> cuotas, String archivo) {
+        int n = lineas.size();
+        Long[] idsPagare = new Long[n];
+        Date[] vencimientos = new Date[n];
+        Long[] versiones = new Long[n];
+        String[] estados = new String[n];
+        Long[] contratos = new Long[n];
+        Long[] numeros = new Long[n];
+        BigDecimal[] montos = new BigDecimal[n];
+        Date[] fechasPago = new Date[n];
+        String[] referencias = new String[n];
+        for (int i = 0; i < n; i++) {
+            Linea linea = lineas.get(i);
+            Cuota cuota = cuotas.get(i);
+            idsPagare[i] = cuota.idPagare();
+            vencimientos[i] = Date.valueOf(cuota.fechaVencimiento());
+            versiones[i] = cuota.version();
+            estados[i] = cuota.estado().name();
+            contratos[i] = linea.idContratoCredito();
+            numeros[i] = linea.numeroCuota();
+            montos[i] = BigDecimal.valueOf(linea.montoCentavos(), 2);
+            fechasPago[i] = Date.valueOf(linea.fechaPago());
+            referencias[i] = linea.referencia();
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        String motivo = "Pago " + archivo;
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(APLICAR_PAGOS);
+            ps.setArray(1, con.createArrayOf("bigint", idsPagare));
+            ps.setArray(2, con.createArrayOf("date", vencimientos));
+            ps.setArray(3, con.createArrayOf("bigint", versiones));
+            ps.setArray(4, con.createArrayOf("varchar", estados));
+            ps.setArray(5, con.createArrayOf("bigint", contratos));
+            ps.setArray(6, con.createArrayOf("bigint", numeros));
+            ps.setArray(7, con.createArrayOf("numeric", montos));
+            ps.setArray(8, con.createArrayOf("date", fechasPago));
+            ps.setArray(9, con.createArrayOf("varchar", referencias));
+            ps.setString(10, archivo.length() > 255 ? archivo.substring(0, 255) : archivo);
+            ps.setTimestamp(11, ahora);
+            ps.setString(12, motivo.length() > 255 ? motivo.substring(0, 255) : motivo);
+            ps.setTimestamp(13, ahora);
+            return ps;
+        }, (rs, i) -> rs.getLong(1));
+    }
+
+    private static boolean esDigito(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private enum Rechazo {
+        FORMATO_INVALIDO,
+        CUOTA_NO_ENCONTRADA,
+        DUPLICADA_EN_ARCHIVO,
+        CUOTA_YA_PAGADA,
+        ESTADO_NO_PERMITE_PAGO,
+        MONTO_NO_COINCIDE,
+        CONFLICTO_VERSION
+    }
+
+    private record ClaveCuota(long idContratoCredito, long numeroCuota) {
+    }
+
+    private record Cuota(long idPagare, LocalDate fechaVencimiento, long montoCentavos, PagareEstado estado,
+                         long version) {
+    }
+
+    private record Resultado(int aplicadas, int contratosPagados) {
+    }
+
+    record Linea(long numero, long idContratoCredito, long numeroCuota, long montoCentavos,
+                         LocalDate fechaPago, String referencia) {
+
+        // null si la línea no tiene el formato esperado
+        static Linea parsear(ByteBuffer datos, int inicio, int fin, long numero) {
+            int[] posicion = {inicio};
+            long contrato = entero(datos, posicion, fin);
+            long cuota = entero(datos, posicion, fin);
+            long centavos = centavos(datos, posicion, fin);
+            LocalDate fecha = fecha(datos, posicion, fin);
+            if (contrato <= 0 || cuota <= 0 || centavos <= 0 || fecha == null) {
+                return null;
+            }
+            String referencia = null;
+            if (posicion[0] < fin) {
+                int largo = Math.min(fin - posicion[0], 100);
+                byte[] bytes = new byte[largo];
+                datos.get(posicion[0], bytes);
+                referencia = new String(bytes, StandardCharsets.UTF_8).trim();
+            }
+            return new Linea(numero, contrato, cuota, centavos, fecha, referencia);
+        }
+
+        // Entero positivo hasta el separador; -1 si no es válido
+        private static long entero(ByteBuffer datos, int[] posicion, int fin) {
+            long valor = 0;
+            int digitos = 0;
+            int i = posicion[0];
+            for (; i < fin && !esSeparador(datos.get(i)); i++) {
+                byte b = datos.get(i);
+                if (!esDigito(b) || ++digitos > 18) {
+                    return -1;
+                }
+                valor = valor * 10 + (b - '0');
+            }
+            posicion[0] = i + 1;
+            return digitos == 0 ? -1 : valor;
+        }
+
+        // Monto con hasta dos decimales separados por '.', en centavos; -1 si no es válido
+        private static long centavos(ByteBuffer datos, int[] posicion, int fin) {
+            long valor = 0;
+            int enteros = 0;
+            int decimales = -1;
+            int i = posicion[0];
+            for (; i < fin && !esSeparador(datos.get(i)); i++) {
+                byte b = datos.get(i);
+                if (b == '.' && decimales < 0) {
+                    decimales = 0;
+                } else if (esDigito(b) && (decimales >= 0 ? decimales < 2 : enteros < 13)) {
+                    valor = valor * 10 + (b - '0');
+                    if (decimales >= 0) {
+                        decimales++;
+                    } else {
+                        enteros++;
+                    }
+                } else {
+                    return -1;
+                }
+            }
+            posicion[0] = i + 1;
+            if (enteros == 0) {
+                return -1;
+            }
+            for (int d = Math.max(decimales, 0); d < 2; d++) {
+                valor *= 10;
+            }
+            return valor;
+        }
+
+        // yyyy-MM-dd
+        private static LocalDate fecha(ByteBuffer datos, int[] posicion, int fin) {
+            int i = posicion[0];
+            int finCampo = i;
+            while (finCampo < fin && !esSeparador(datos.get(finCampo))) {
+                finCampo++;
+            }
+            posicion[0] = finCampo + 1;
+            if (finCampo - i != 10 || datos.get(i + 4) != '-' || datos.get(i + 7) != '-') {
+                return null;
+            }
+            int anio = digitos(datos, i, 4);
+            int mes = digitos(datos, i + 5, 2);
+            int dia = digitos(datos, i + 8, 2);
+            if (anio < 0 || mes < 0 || dia < 0) {
+                return null;
+            }
+            try {
+                return LocalDate.of(anio, mes, dia);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+
+        private static int digitos(ByteBuffer datos, int desde, int cantidad) {
+            int valor = 0;
+            for (int i = desde; i < desde + cantidad; i++) {
+                byte b = datos.get(i);
+                if (!esDigito(b)) {
+                    return -1;
+                }
+                valor = valor * 10 + (b - '0');
+            }
+            return valor;
+        }
+
+        private static boolean esSeparador(byte b) {
+            return b == ';' || b == ',';
+        }
+    }
+
+    private final class Acumulado {
+
+        private final boolean simulacion;
+        // Cuotas ya vistas en el archivo: detecta líneas repetidas aunque la simulación revierta cada lote
+        private final LongHashSet procesadas = new LongHashSet(1024);
+        private final Map<Rechazo, Long> rechazos = new EnumMap<>(Rechazo.class);
+        private final List<String> detalle = new ArrayList<>();
+        private long lineas;
+        private long aplicadas;
+        private int contratosPagados;
+        private int lotes;
+
+        private Acumulado(boolean simulacion) {
+            this.simulacion = simulacion;
+        }
+
+        private void rechazar(long numeroLinea, Rechazo motivo) {
+            rechazos.merge(motivo, 1L, Long::sum);
+            if (detalle.size() < maxDetalle) {
+                detalle.add("línea " + numeroLinea + ": " + motivo.name());
+            }
+        }
+
+        private ResultadoCargaPagosDTO resultado(String archivo, long milis) {
+            Map<String, Long> porMotivo = new LinkedHashMap<>();
+            rechazos.forEach((motivo, cantidad) -> {
+                porMotivo.put(motivo.name(), cantidad);
+                meterRegistry.counter("formalizacion.pagos.lineas", "resultado", motivo.name(),
+                    "simulacion", String.valueOf(simulacion)).increment(cantidad);
+            });
+            meterRegistry.counter("formalizacion.pagos.lineas", "resultado", "APLICADA",
+                "simulacion", String.valueOf(simulacion)).increment(aplicadas);
+            return ResultadoCargaPagosDTO.builder()
+                .archivo(archivo)
+                .simulacion(simulacion)
+                .lineas(lineas)
+                .aplicadas(aplicadas)
+                .rechazadas(lineas - aplicadas)
+                .rechazosPorMotivo(porMotivo)
+                .detalleRechazos(detalle)
+                .contratosPagados(contratosPagados)
+                .lotes(lotes)
+                .milisEjecucion(milis)
+                .lineasPorSegundo(lineas * 1000.0 / Math.max(1, milis))
+                .build();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.banquito.formalizacion.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banquito.formalizacion.controller.dto.ParticionDTO;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.banquito.formalizacion.exception.NotFoundException;
+
+// Mantenimiento de las tablas particionadas por mes (creación anticipada y archivo de particiones viejas)
+@Service
+public class ParticionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionService.class);
+    private static final DateTimeFormatter SUFIJO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    // tabla particionada → columna de partición
+    private static final Map<String, String> TABLAS = Map.of(
+        "pagares", "fecha_vencimiento",
+        "auditoria", "fecha");
+    // La auditoría se escribe con la fecha actual: basta con pocos meses de margen
+    private static final int MESES_ADELANTE_AUDITORIA = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardService shardService;
+    private final int mesesAdelante;
+
+    public ParticionService(
+        JdbcTemplate jdbcTemplate,
+        ShardService shardService,
+        @Value("${formalizacion.particiones.meses-adelante:132}") int mesesAdelante
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardService = shardService;
+        this.mesesAdelante = mesesAdelante;
+    }
+
+    // Los cronogramas llegan hasta 120 meses adelante; las particiones se crean con margen en cada shard
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${formalizacion.particiones.cron:0 30 2 * * *}")
+    public void crearParticionesFuturas() {
+        shardService.enCadaShard(this::crearParticionesFuturas);
+    }
+
+    private void crearParticionesFuturas(int shard) {
+        for (String tabla : TABLAS.keySet()) {
+            try {
+                if (!estaParticionada(tabla)) {
+                    log.warn("La tabla {} no está particionada; se omite el mantenimiento", tabla);
+                    continue;
+                }
+                YearMonth mes = YearMonth.now();
+                int meses = "auditoria".equals(tabla) ? MESES_ADELANTE_AUDITORIA : mesesAdelante;
+                for (int i = 0; i <= meses; i++) {
+                    crearParticion(tabla, mes.plusMonths(i));
+                }
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron crear particiones de {} en el shard {}: {}", tabla, shard, e.getMessage());
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<ParticionDTO> listarParticiones(String tabla) {
+        validarTabla(tabla);
+        return jdbcTemplate.query(
+            "select c.relname, pg_get_expr(c.relpartbound, c.oid), c.reltuples::bigint "
+                + "from pg_inherits i "
+                + "join pg_class c on c.oid = i.inhrelid "
+                + "join pg_class p on p.oid = i.inhparent "
+                + "join pg_namespace n on n.oid = p.relnamespace "
+                + "where n.nspname = 'formalizacion' and p.relname = ? order by c.relname",
+            (rs, n) -> ParticionDTO.builder()
+                .tabla(tabla)
+                .particion(rs.getString(1))
+                .rango(rs.getString(2))
+                .filasEstimadas(Math.max(0L, rs.getLong(3)))
+                .build(),
+            tabla);
+    }
+
+    // Desvincula la partición del mes y la mueve al esquema de archivo; deja de participar en las consultas.
+    // Solo pagarés: la auditoría es de solo inserción y sus filas no pueden salir de la tabla. Ningún
+    // cronograma lee formalizacion_archivo, así que cada contrato con cuotas en la partición debe haberse
+    // archivado antes (ArchivoContratoService copia sus pagarés desde la tabla operativa a pagare_archivo).
+    @Transactional
+    public ParticionDTO archivarParticion(String tabla, YearMonth periodo) {
+        validarTabla(tabla);
+        if (!"pagares".equals(tabla)) {
+            throw new BusinessLogicException("archivar partición de " + tabla,
+                "solo se pueden archivar particiones de pagares");
+        }
+        String particion = tabla + "_" + periodo.format(SUFIJO);
+        if (jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class,
+                "formalizacion." + particion) != Boolean.TRUE) {
+            throw new NotFoundException(particion, "Partición");
+        }
+        if (!periodo.isBefore(YearMonth.now())) {
+            throw new BusinessLogicException("archivar partición " + particion,
+                "solo se pueden archivar meses ya cerrados");
+        }
+        Long pendientes = jdbcTemplate.queryForObject(
+            "select count(*) from formalizacion." + particion + " where estado <> 'PAGADO'", Long.class);
+        if (pendientes != null && pendientes > 0) {
+            throw new BusinessLogicException("archivar partición " + particion,
+                "existen " + pendientes + " pagarés no pagados");
+        }
+        Long vigentes = jdbcTemplate.queryForObject(
+            "select count(distinct p.id_contrato_credito) from formalizacion." + particion + " p "
+                + "where exists (select 1 from formalizacion.contrato_credito c "
+                + "where c.id_contrato_credito = p.id_contrato_credito)", Long.class);
+        if (vigentes != null && vigentes > 0) {
+            throw new BusinessLogicException("archivar partición " + particion,
+                vigentes + " contratos con cuotas en la partición no están archivados");
+        }
+        jdbcTemplate.execute("alter table formalizacion." + tabla + " detach partition formalizacion." + particion);
+        jdbcTemplate.execute("alter table formalizacion." + particion + " set schema formalizacion_archivo");
+        log.info("Partición {} desvinculada y movida a formalizacion_archivo", particion);
+        return ParticionDTO.builder().tabla(tabla).particion("formalizacion_archivo." + particion).build();
+    }
+
+    private void crearParticion(String tabla, YearMonth mes) {
+        LocalDate inicio = mes.atDay(1);
+        jdbcTemplate.queryForObject("select formalizacion.crear_particion_mensual(?, ?, ?)", String.class,
+            tabla, TABLAS.get(tabla), inicio);
+    }
+
+    private boolean estaParticionada(String tabla) {
+        Boolean particionada = jdbcTemplate.queryForObject(
+            "select exists (select 1 from pg_partitioned_table pt "
+                + "join pg_class c on c.oid = pt.partrelid "
+                + "join pg_namespace n on n.oid = c.relnamespace "
+                + "where n.nspname = 'formalizacion' and c.relname = ?)",
+            Boolean.class, tabla);
+        return Boolean.TRUE.equals(particionada);
+    }
+
+    private void validarTabla(String tabla) {
+        if (!TABLAS.containsKey(tabla)) {
+            throw new NotFoundException(tabla, "Tabla particionada");
+        }
+    }
+}
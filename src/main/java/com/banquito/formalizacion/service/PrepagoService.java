@@ -0,0 +1,190 @@
+package com.banquito.formalizacion.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.banquito.formalizacion.controller.dto.CuotaProyectadaDTO;
+import com.banquito.formalizacion.controller.dto.LiquidacionPrepagoDTO;
+import com.banquito.formalizacion.controller.dto.SimulacionPrepagoDTO;
+import com.banquito.formalizacion.controller.dto.SolicitudPrepagoDTO;
+import com.banquito.formalizacion.enums.ContratoCreditoEstado;
+import com.banquito.formalizacion.enums.ModalidadPrepago;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.banquito.formalizacion.service.CronogramaCache.Cronograma;
+
+// Cotizaciones de cancelación anticipada y de prepago parcial sobre el cronograma en caché.
+// Todo el cálculo es aritmética entera en centavos; solo la nueva cuota de REDUCIR_CUOTA usa
+// CalculadoraAmortizacion.calcularCuotaMensual. Son simulaciones: no modifican los pagarés.
+@Service
+public class PrepagoService {
+
+    private final CronogramaCache cronogramaCache;
+    private final int recargoMora;
+    private final int baseDiasMora;
+
+    public PrepagoService(
+        CronogramaCache cronogramaCache,
+        @Value("${formalizacion.mora.recargo-porcentaje:110}") int recargoMora,
+        @Value("${formalizacion.mora.base-dias:360}") int baseDiasMora
+    ) {
+        this.cronogramaCache = cronogramaCache;
+        this.recargoMora = recargoMora;
+        this.baseDiasMora = baseDiasMora;
+    }
+
+    public LiquidacionPrepagoDTO getLiquidacion(Long idContratoCredito, LocalDate fechaCorte) {
+        Cronograma cronograma = cronogramaCache.obtener(idContratoCredito);
+        Posicion posicion = posicion(cronograma, fechaCorte);
+        return LiquidacionPrepagoDTO.builder()
+            .idContratoCredito(idContratoCredito)
+            .fechaCorte(fechaCorte)
+            .cuotasVencidas(posicion.vencidas)
+            .montoVencido(BigDecimal.valueOf(posicion.montoVencido, 2))
+            .interesMora(BigDecimal.valueOf(posicion.interesMora, 2))
+            .cuotasPendientes(posicion.pendientes.size())
+            .saldoCapital(BigDecimal.valueOf(posicion.saldoCapital, 2))
+            .interesCorrido(BigDecimal.valueOf(posicion.interesCorrido, 2))
+            .fechaProximoVencimiento(posicion.pendientes.isEmpty()
+                ? null : cronograma.vencimiento(posicion.pendientes.get(0)))
+            .totalLiquidacion(BigDecimal.valueOf(posicion.montoVencido + posicion.interesMora
+                + posicion.saldoCapital + posicion.interesCorrido, 2))
+            .build();
+    }
+
+    // El prepago se abona al capital en la fecha indicada; la primera cuota nueva cobra interés sobre el
+    // saldo anterior hasta esa fecha y sobre el nuevo saldo desde ahí
+    public SimulacionPrepagoDTO simular(Long idContratoCredito, SolicitudPrepagoDTO dto) {
+        String operacion = "simular prepago del contrato " + idContratoCredito;
+        LocalDate fecha = dto.getFecha() != null ? dto.getFecha() : LocalDate.now();
+        Cronograma cronograma = cronogramaCache.obtener(idContratoCredito);
+        if (cronograma.estado() != ContratoCreditoEstado.ACTIVO) {
+            throw new BusinessLogicException(operacion, "el contrato está " + cronograma.estado());
+        }
+        Posicion posicion = posicion(cronograma, fecha);
+        if (posicion.vencidas > 0) {
+            throw new BusinessLogicException(operacion, "tiene " + posicion.vencidas
+                + " cuotas vencidas; deben pagarse antes del prepago");
+        }
+        List<Integer> pendientes = posicion.pendientes;
+        if (pendientes.isEmpty()) {
+            throw new BusinessLogicException(operacion, "no tiene cuotas pendientes");
+        }
+        long saldoAnterior = posicion.saldoCapital;
+        long monto = CalculadoraMora.centavos(dto.getMonto());
+        if (monto >= saldoAnterior) {
+            throw new BusinessLogicException(operacion, "el monto cubre el saldo de capital ("
+                + BigDecimal.valueOf(saldoAnterior, 2) + "); corresponde una cancelación total");
+        }
+        long saldoNuevo = saldoAnterior - monto;
+        int restantes = pendientes.size();
+        long cuotaAnterior = cronograma.cuota(pendientes.get(0));
+        long cuotaNueva = dto.getModalidad() == ModalidadPrepago.REDUCIR_CUOTA
+            ? CalculadoraMora.centavos(CalculadoraAmortizacion.calcularCuotaMensual(
+                BigDecimal.valueOf(saldoNuevo, 2), cronograma.tasaEfectivaAnual(), restantes))
+            : cuotaAnterior;
+
+        long interesesAnteriores = 0;
+        for (int i : pendientes) {
+            interesesAnteriores += cronograma.interes(i);
+        }
+
+        int primera = pendientes.get(0);
+        long inicio = cronograma.inicioPeriodoEpochDay(primera);
+        long dias = cronograma.vencimientoEpochDay(primera) - inicio;
+        long diasAntes = Math.max(0, Math.min(dias, fecha.toEpochDay() - inicio));
+        long primerInteres = prorratear(cronograma.interesMensual(saldoAnterior), diasAntes, dias)
+            + prorratear(cronograma.interesMensual(saldoNuevo), dias - diasAntes, dias);
+
+        List<CuotaProyectadaDTO> cuotas = new ArrayList<>(restantes);
+        long saldo = saldoNuevo;
+        long interesesNuevos = 0;
+        for (int j = 0; j < restantes && saldo > 0; j++) {
+            long interes = j == 0 ? primerInteres : cronograma.interesMensual(saldo);
+            long capital = j == restantes - 1 ? saldo : Math.min(saldo, cuotaNueva - interes);
+            if (capital <= 0) {
+                throw new BusinessLogicException(operacion, "la cuota no alcanza a cubrir el interés del período");
+            }
+            saldo -= capital;
+            interesesNuevos += interes;
+            cuotas.add(CuotaProyectadaDTO.builder()
+                .numero(j + 1)
+                .fechaVencimiento(cronograma.vencimiento(pendientes.get(j)))
+                .cuota(BigDecimal.valueOf(capital + interes, 2))
+                .capital(BigDecimal.valueOf(capital, 2))
+                .interes(BigDecimal.valueOf(interes, 2))
+                .saldo(BigDecimal.valueOf(saldo, 2))
+                .build());
+        }
+
+        return SimulacionPrepagoDTO.builder()
+            .idContratoCredito(idContratoCredito)
+            .fechaPrepago(fecha)
+            .modalidad(dto.getModalidad())
+            .montoPrepago(BigDecimal.valueOf(monto, 2))
+            .saldoCapitalAnterior(BigDecimal.valueOf(saldoAnterior, 2))
+            .saldoCapitalNuevo(BigDecimal.valueOf(saldoNuevo, 2))
+            .cuotaAnterior(BigDecimal.valueOf(cuotaAnterior, 2))
+            .cuotaNueva(BigDecimal.valueOf(cuotaNueva, 2))
+            .cuotasRestantesAnteriores(restantes)
+            .cuotasRestantesNuevas(cuotas.size())
+            .interesesPendientesAnteriores(BigDecimal.valueOf(interesesAnteriores, 2))
+            .interesesPendientesNuevos(BigDecimal.valueOf(interesesNuevos, 2))
+            .ahorroIntereses(BigDecimal.valueOf(interesesAnteriores - interesesNuevos, 2))
+            .cuotas(cuotas)
+            .build();
+    }
+
+    // Cuotas impagas vencidas (con su mora) y pendientes (su capital más el interés corrido de la próxima).
+    // Vencida es la que vence antes del corte, igual que en MoraService: la que vence hoy sigue pendiente.
+    private Posicion posicion(Cronograma cronograma, LocalDate fechaCorte) {
+        long corte = fechaCorte.toEpochDay();
+        int tasaMoraBps = CalculadoraMora.tasaMoraBps(cronograma.tasaEfectivaAnual(), recargoMora);
+        Posicion posicion = new Posicion();
+        for (int i = 0; i < cronograma.cuotas(); i++) {
+            if (cronograma.pagada(i)) {
+                continue;
+            }
+            long vencimiento = cronograma.vencimientoEpochDay(i);
+            if (vencimiento < corte) {
+                posicion.vencidas++;
+                posicion.montoVencido += cronograma.cuota(i);
+                posicion.interesMora += CalculadoraMora.interesCentavos(cronograma.cuota(i), tasaMoraBps,
+                    (int) (corte - vencimiento), baseDiasMora);
+            } else {
+                posicion.pendientes.add(i);
+                posicion.saldoCapital += cronograma.capital(i);
+            }
+        }
+        if (!posicion.pendientes.isEmpty()) {
+            int proxima = posicion.pendientes.get(0);
+            long inicio = cronograma.inicioPeriodoEpochDay(proxima);
+            long dias = cronograma.vencimientoEpochDay(proxima) - inicio;
+            posicion.interesCorrido = prorratear(cronograma.interes(proxima),
+                Math.max(0, Math.min(dias, corte - inicio)), dias);
+        }
+        return posicion;
+    }
+
+    // monto * parte / total redondeado, dividiendo antes para no desbordar
+    static long prorratear(long monto, long parte, long total) {
+        if (total <= 0 || parte <= 0) {
+            return 0;
+        }
+        return (monto / total) * parte + ((monto % total) * parte + total / 2) / total;
+    }
+
+    private static final class Posicion {
+
+        private int vencidas;
+        private long montoVencido;
+        private long interesMora;
+        private final List<Integer> pendientes = new ArrayList<>();
+        private long saldoCapital;
+        private long interesCorrido;
+    }
+}
@@ -0,0 +1,107 @@
+package com.banquito.formalizacion.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.formalizacion.config.ContextoShard;
+
+import jakarta.annotation.PreDestroy;
+
+// Reparto de contratos de crédito entre shards y ejecución de una misma operación en todos ellos.
+// Sin particionado hay un único shard (0) y todo corre en el hilo del llamador.
+@Service
+public class ShardService {
+
+    private final int numeroShards;
+    private final TransactionTemplate lectura;
+    private final ExecutorService pool;
+
+    public ShardService(
+        PlatformTransactionManager transactionManager,
+        @Value("${formalizacion.shards.habilitado:false}") boolean habilitado,
+        @Value("${formalizacion.shards.urls:}") List<String> urls
+    ) {
+        this.numeroShards = habilitado ? urls.size() + 1 : 1;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.pool = numeroShards > 1
+            ? Executors.newFixedThreadPool(numeroShards, r -> {
+                Thread hilo = new Thread(r, "shards-consulta");
+                hilo.setDaemon(true);
+                return hilo;
+            })
+            : null;
+    }
+
+    public int getNumeroShards() {
+        return numeroShards;
+    }
+
+    // Concesionario (o, si la solicitud no lo trae, la propia solicitud) → shard. Agregar shards cambia
+    // el destino de los contratos nuevos; los existentes siguen donde están porque su ID lo indica.
+    public int shardPara(long claveShard) {
+        return (int) Math.floorMod(claveShard, (long) numeroShards);
+    }
+
+    // Misma consulta en todos los shards en paralelo, cada una en su transacción de solo lectura.
+    // Devuelve los resultados en orden de shard.
+    public <T> List<T> consultarEnTodos(IntFunction<T> consulta) {
+        if (numeroShards == 1) {
+            T resultado = ContextoShard.en(0, () -> lectura.execute(status -> consulta.apply(0)));
+            return Collections.singletonList(resultado);
+        }
+        List<CompletableFuture<T>> tareas = IntStream.range(0, numeroShards)
+            .mapToObj(shard -> CompletableFuture.supplyAsync(
+                () -> ContextoShard.en(shard, () -> lectura.execute(status -> consulta.apply(shard))), pool))
+            .toList();
+        List<T> resultados = new ArrayList<>(numeroShards);
+        try {
+            for (CompletableFuture<T> tarea : tareas) {
+                resultados.add(tarea.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+        return resultados;
+    }
+
+    // Lectura en un shard concreto, en su propia transacción de solo lectura
+    public <T> T leerEn(int shard, Supplier<T> consulta) {
+        return ContextoShard.en(shard, () -> lectura.execute(status -> consulta.get()));
+    }
+
+    // Recorre los shards uno tras otro (procesos programados, mantenimiento)
+    public void enCadaShard(IntConsumer accion) {
+        for (int shard = 0; shard < numeroShards; shard++) {
+            int actual = shard;
+            ContextoShard.en(actual, () -> {
+                accion.accept(actual);
+                return null;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
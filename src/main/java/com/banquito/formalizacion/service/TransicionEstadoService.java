@@ -0,0 +1,266 @@
+package com.banquito.formalizacion.service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banquito.formalizacion.controller.dto.EstadoContratoEventoDTO;
+import com.banquito.formalizacion.controller.dto.ResultadoTransicionMasivaDTO;
+import com.banquito.formalizacion.controller.dto.TransicionEstadoDTO;
+import com.banquito.formalizacion.controller.dto.TransicionMasivaDTO;
+import com.banquito.formalizacion.controller.mapper.TransicionEstadoMapper;
+import com.banquito.formalizacion.enums.ContratoCreditoEstado;
+import com.banquito.formalizacion.enums.ContratoVentaEstado;
+import com.banquito.formalizacion.enums.EntidadTransicion;
+import com.banquito.formalizacion.enums.EstadoConTransiciones;
+import com.banquito.formalizacion.enums.PagareEstado;
+import com.banquito.formalizacion.enums.TipoContrato;
+import com.banquito.formalizacion.exception.BusinessLogicException;
+import com.banquito.formalizacion.exception.InvalidStateException;
+import com.banquito.formalizacion.model.TransicionEstado;
+import com.banquito.formalizacion.repository.TransicionEstadoRepository;
+
+// Máquina de estados de contratos y pagarés. Los cambios individuales se validan con
+// EstadoConTransiciones y se auditan con registrar(); los masivos se aplican con una sola
+// sentencia por lote que bloquea, actualiza y audita solo las filas en un estado de origen válido.
+@Service
+public class TransicionEstadoService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransicionEstadoService.class);
+
+    public static final String NO_ENCONTRADO = "NO_ENCONTRADO";
+
+    // %1$s tabla, %2$s columna ID, %3$s asignaciones adicionales, %4$s condición adicional,
+    // %5$s columnas para el evento de cambio de estado
+    private static final String TRANSICION_MASIVA = """
+        with objetivo as (
+            select t.%2$s as id, t.estado from formalizacion.%1$s t
+            where t.%2$s = any(?) and t.estado = any(?) %4$s
+            order by t.%2$s
+            for update
+        ), cambiados as (
+            update formalizacion.%1$s t set estado = ?, version = t.version + 1 %3$s
+            from objetivo o where t.%2$s = o.id
+            returning t.%2$s as id, o.estado as estado_anterior, t.version, %5$s
+        ), auditoria as (
+            insert into formalizacion.transicion_estado
+                (entidad, id_entidad, estado_anterior, estado_nuevo, motivo, masiva, fecha)
+            select ?, id, estado_anterior, ?, ?, true, ? from cambiados
+        )
+        select * from cambiados
+        """;
+
+    private static final String ESTADOS_ACTUALES = "select %2$s, estado from formalizacion.%1$s where %2$s = any(?)";
+
+    private static final String SIN_PAGARES_PENDIENTES = "and not exists (select 1 from formalizacion.pagares p "
+        + "where p.id_contrato_credito = t.id_contrato_credito and p.estado <> 'PAGADO')";
+    private static final String MARCAR_FIRMA = ", fecha_firma = coalesce(t.fecha_firma, localtimestamp)";
+    private static final String COLUMNAS_CONTRATO = "t.id_solicitud, t.numero_contrato";
+    private static final String COLUMNAS_PAGARE = "null::bigint as id_solicitud, null::varchar as numero_contrato";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransicionEstadoRepository repository;
+    private final TransicionEstadoMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TransicionEstadoService(
+        JdbcTemplate jdbcTemplate,
+        TransicionEstadoRepository repository,
+        TransicionEstadoMapper mapper,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.repository = repository;
+        this.mapper = mapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public <E extends Enum<E> & EstadoConTransiciones<E>> void validar(E actual, E destino, String entidad) {
+        if (actual == null || !actual.puedeCambiarA(destino)) {
+            throw new InvalidStateException(actual != null ? actual.name() : null, destino.name(), entidad);
+        }
+    }
+
+    // Debe llamarse dentro de la transacción que aplica el cambio
+    public void registrar(EntidadTransicion entidad, Long idEntidad, Enum<?> anterior, Enum<?> nuevo, String motivo) {
+        TransicionEstado transicion = new TransicionEstado();
+        transicion.setEntidad(entidad);
+        transicion.setIdEntidad(idEntidad);
+        transicion.setEstadoAnterior(anterior != null ? anterior.name() : null);
+        transicion.setEstadoNuevo(nuevo.name());
+        transicion.setMotivo(motivo);
+        transicion.setMasiva(false);
+        transicion.setFecha(LocalDateTime.now());
+        repository.save(transicion);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransicionEstadoDTO> getHistorial(EntidadTransicion entidad, Long idEntidad) {
+        return mapper.toDtoList(repository.findByEntidadAndIdEntidadOrderByIdTransicion(entidad, idEntidad));
+    }
+
+    // Pasar a ACTIVO registra la fecha de firma; pasar a PAGADO exige todos los pagarés pagados
+    @Transactional
+    public ResultadoTransicionMasivaDTO transicionarContratosCredito(TransicionMasivaDTO dto) {
+        ContratoCreditoEstado destino = parsear(ContratoCreditoEstado.class, dto.getEstadoDestino());
+        String asignaciones = destino == ContratoCreditoEstado.ACTIVO ? MARCAR_FIRMA : "";
+        String condicion = destino == ContratoCreditoEstado.PAGADO ? SIN_PAGARES_PENDIENTES : "";
+        return transicionar(EntidadTransicion.CONTRATO_CREDITO, TipoContrato.CREDITO, "contrato_credito",
+            "id_contrato_credito", asignaciones, condicion, COLUMNAS_CONTRATO, destino, dto, true);
+    }
+
+    // Pasa a PAGADO los contratos ACTIVO que ya no tienen cuotas impagas; devuelve cuántos cambiaron.
+    // Participa en la transacción del llamador (p. ej. un lote de pagos).
+    @Transactional
+    public int cerrarContratosPagados(Collection<Long> idsContratoCredito, String motivo) {
+        if (idsContratoCredito.isEmpty()) {
+            return 0;
+        }
+        TransicionMasivaDTO dto = TransicionMasivaDTO.builder()
+            .ids(new ArrayList<>(idsContratoCredito))
+            .estadoDestino(ContratoCreditoEstado.PAGADO.name())
+            .motivo(motivo)
+            .build();
+        return transicionar(EntidadTransicion.CONTRATO_CREDITO, TipoContrato.CREDITO, "contrato_credito",
+            "id_contrato_credito", "", SIN_PAGARES_PENDIENTES, COLUMNAS_CONTRATO, ContratoCreditoEstado.PAGADO,
+            dto, false).getAplicados();
+    }
+
+    @Transactional
+    public ResultadoTransicionMasivaDTO transicionarContratosCompraVenta(TransicionMasivaDTO dto) {
+        ContratoVentaEstado destino = parsear(ContratoVentaEstado.class, dto.getEstadoDestino());
+        String asignaciones = destino == ContratoVentaEstado.FIRMADO ? MARCAR_FIRMA : "";
+        return transicionar(EntidadTransicion.CONTRATO_COMPRA_VENTA, TipoContrato.COMPRA_VENTA,
+            "contrato_compra_venta", "id_contrato_venta", asignaciones, "", COLUMNAS_CONTRATO, destino, dto, true);
+    }
+
+    @Transactional
+    public ResultadoTransicionMasivaDTO transicionarPagares(TransicionMasivaDTO dto) {
+        PagareEstado destino = parsear(PagareEstado.class, dto.getEstadoDestino());
+        ResultadoTransicionMasivaDTO resultado = transicionar(EntidadTransicion.PAGARE, null, "pagares",
+            "id_pagare", "", "", COLUMNAS_PAGARE, destino, dto, true);
+        if (resultado.getAplicados() > 0) {
+            // Operación administrativa poco frecuente: se descartan todos los cronogramas en caché
+            eventPublisher.publishEvent(CronogramaCache.Modificado.todos());
+        }
+        return resultado;
+    }
+
+    private <E extends Enum<E> & EstadoConTransiciones<E>> ResultadoTransicionMasivaDTO transicionar(
+        EntidadTransicion entidad, TipoContrato tipoContrato, String tabla, String columnaId,
+        String asignaciones, String condicion, String columnasEvento, E destino, TransicionMasivaDTO dto,
+        boolean informarRechazados) {
+        long inicio = System.nanoTime();
+        String[] origenes = Arrays.stream(destino.getDeclaringClass().getEnumConstants())
+            .filter(e -> e.puedeCambiarA(destino))
+            .map(Enum::name)
+            .toArray(String[]::new);
+        if (origenes.length == 0) {
+            throw new BusinessLogicException("transición masiva de " + entidad.getValor(),
+                "ningún estado puede pasar a " + destino.name());
+        }
+        Set<Long> solicitados = new LinkedHashSet<>(dto.getIds());
+        Long[] ids = solicitados.toArray(Long[]::new);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        String sql = String.format(TRANSICION_MASIVA, tabla, columnaId, asignaciones, condicion, columnasEvento);
+        List<Cambio> cambiados = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            Array arregloIds = con.createArrayOf("bigint", ids);
+            Array arregloOrigenes = con.createArrayOf("varchar", origenes);
+            ps.setArray(1, arregloIds);
+            ps.setArray(2, arregloOrigenes);
+            ps.setString(3, destino.name());
+            ps.setString(4, entidad.name());
+            ps.setString(5, destino.name());
+            ps.setString(6, dto.getMotivo());
+            ps.setTimestamp(7, Timestamp.valueOf(ahora));
+            return ps;
+        }, (rs, n) -> new Cambio(rs.getLong("id"), rs.getString("estado_anterior"), rs.getLong("version"),
+            rs.getObject("id_solicitud", Long.class), rs.getString("numero_contrato")));
+
+        if (tipoContrato != null) {
+            // Se difunden a los suscriptores SSE cuando la transacción confirma
+            cambiados.forEach(c -> eventPublisher.publishEvent(EstadoContratoEventoDTO.builder()
+                .tipoContrato(tipoContrato)
+                .idContrato(c.id())
+                .idSolicitud(c.idSolicitud())
+                .numeroContrato(c.numeroContrato())
+                .estadoAnterior(c.estadoAnterior())
+                .estadoNuevo(destino.name())
+                .version(c.version())
+                .fecha(ahora)
+                .build()));
+        }
+
+        Map<Long, String> rechazados = informarRechazados
+            ? rechazados(tabla, columnaId, solicitados, cambiados)
+            : Map.of();
+        long milis = (System.nanoTime() - inicio) / 1_000_000;
+        if (informarRechazados) {
+            log.info("Transición masiva de {} a {}: {} solicitados, {} aplicados, {} rechazados en {} ms",
+                entidad, destino, solicitados.size(), cambiados.size(), rechazados.size(), milis);
+        }
+        return ResultadoTransicionMasivaDTO.builder()
+            .entidad(entidad)
+            .estadoDestino(destino.name())
+            .solicitados(solicitados.size())
+            .aplicados(cambiados.size())
+            .rechazados(rechazados)
+            .milisEjecucion(milis)
+            .build();
+    }
+
+    // Los no aplicados se informan con su estado actual (o NO_ENCONTRADO) para que el cliente sepa por qué
+    private Map<Long, String> rechazados(String tabla, String columnaId, Set<Long> solicitados,
+                                         List<Cambio> cambiados) {
+        Set<Long> pendientes = new LinkedHashSet<>(solicitados);
+        cambiados.forEach(c -> pendientes.remove(c.id()));
+        if (pendientes.isEmpty()) {
+            return Map.of();
+        }
+        Long[] ids = pendientes.toArray(Long[]::new);
+        Map<Long, String> actuales = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(String.format(ESTADOS_ACTUALES, tabla, columnaId));
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            return ps;
+        }, (RowCallbackHandler) rs -> actuales.put(rs.getLong(1), rs.getString(2)));
+        Map<Long, String> rechazados = new LinkedHashMap<>();
+        for (Long id : pendientes) {
+            rechazados.put(id, actuales.getOrDefault(id, NO_ENCONTRADO));
+        }
+        return rechazados;
+    }
+
+    private <E extends Enum<E>> E parsear(Class<E> tipo, String estado) {
+        try {
+            return Enum.valueOf(tipo, estado.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessLogicException("transición de estado",
+                "estado '" + estado + "' no válido, se esperaba uno de " + Arrays.toString(tipo.getEnumConstants()));
+        }
+    }
+
+    private record Cambio(Long id, String estadoAnterior, Long version, Long idSolicitud, String numeroContrato) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.banquito.formalizacion.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom para claves long; seguro para escrituras y lecturas concurrentes
+public class BloomFilterLong {
+
+    private final AtomicLongArray bits;
+    private final int numBits;
+    private final int numHashes;
+
+    public BloomFilterLong(long elementosEsperados, double probabilidadFalsoPositivo) {
+        long n = Math.max(1, elementosEsperados);
+        long m = (long) Math.ceil(-n * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((numBits + 63) >>> 6);
+    }
+
+    public void agregar(long valor) {
+        long hash = mezclar(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int indice = indice(h1 + i * h2);
+            int palabra = indice >>> 6;
+            long mascara = 1L << indice;
+            long actual;
+            do {
+                actual = bits.get(palabra);
+                if ((actual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    // false es definitivo; true significa "posiblemente presente"
+    public boolean puedeContener(long valor) {
+        long hash = mezclar(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int indice = indice(h1 + i * h2);
+            if ((bits.get(indice >>> 6) & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indice(int hashCombinado) {
+        return (hashCombinado & Integer.MAX_VALUE) % numBits;
+    }
+
+    // Finalizador de SplitMix64: dispersa bien identificadores secuenciales
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
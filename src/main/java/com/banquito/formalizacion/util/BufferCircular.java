@@ -0,0 +1,87 @@
+package com.banquito.formalizacion.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Cola circular acotada sin bloqueos (esquema de Vyukov): cada celda lleva una secuencia que indica
+// si está libre para el productor o lista para el consumidor. Varios productores, varios consumidores.
+// Cuando está llena ofrecer() devuelve false en lugar de esperar.
+public class BufferCircular<T> {
+
+    private final int mascara;
+    private final AtomicReferenceArray<T> elementos;
+    private final AtomicLongArray secuencias;
+    private final AtomicLong cola = new AtomicLong();
+    private final AtomicLong cabeza = new AtomicLong();
+
+    public BufferCircular(int capacidadMinima) {
+        int capacidad = Integer.highestOneBit(Math.max(2, capacidadMinima) - 1) << 1;
+        this.mascara = capacidad - 1;
+        this.elementos = new AtomicReferenceArray<>(capacidad);
+        this.secuencias = new AtomicLongArray(capacidad);
+        for (int i = 0; i < capacidad; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    public boolean ofrecer(T elemento) {
+        long posicion = cola.get();
+        while (true) {
+            int indice = (int) (posicion & mascara);
+            long diferencia = secuencias.get(indice) - posicion;
+            if (diferencia == 0) {
+                if (cola.compareAndSet(posicion, posicion + 1)) {
+                    elementos.set(indice, elemento);
+                    secuencias.set(indice, posicion + 1);
+                    return true;
+                }
+                posicion = cola.get();
+            } else if (diferencia < 0) {
+                return false;
+            } else {
+                posicion = cola.get();
+            }
+        }
+    }
+
+    // null si está vacía
+    public T tomar() {
+        long posicion = cabeza.get();
+        while (true) {
+            int indice = (int) (posicion & mascara);
+            long diferencia = secuencias.get(indice) - (posicion + 1);
+            if (diferencia == 0) {
+                if (cabeza.compareAndSet(posicion, posicion + 1)) {
+                    T elemento = elementos.getAndSet(indice, null);
+                    secuencias.set(indice, posicion + mascara + 1);
+                    return elemento;
+                }
+                posicion = cabeza.get();
+            } else if (diferencia < 0) {
+                return null;
+            } else {
+                posicion = cabeza.get();
+            }
+        }
+    }
+
+    public int drenar(List<T> destino, int maximo) {
+        int tomados = 0;
+        T elemento;
+        while (tomados < maximo && (elemento = tomar()) != null) {
+            destino.add(elemento);
+            tomados++;
+        }
+        return tomados;
+    }
+
+    public int tamanio() {
+        return (int) Math.max(0, cola.get() - cabeza.get());
+    }
+
+    public int capacidad() {
+        return mascara + 1;
+    }
+}
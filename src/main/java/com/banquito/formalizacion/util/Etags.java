@@ -0,0 +1,73 @@
+package com.banquito.formalizacion.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import com.banquito.formalizacion.exception.VersionNoCoincideException;
+
+// ETags fuertes a partir del @Version de las entidades
+public final class Etags {
+
+    private Etags() {
+    }
+
+    public static String deVersion(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    // Las rutas que responden JSON o CBOR envían cuerpos distintos para la misma versión: la ETag lleva el
+    // subtipo y la respuesta debe variar por Accept
+    public static String deVersion(Object version, MediaType tipo) {
+        return "\"" + version + "-" + tipo.getSubtype() + "\"";
+    }
+
+    // Tipo que elegirá la negociación de contenido entre los producibles (en orden de preferencia del
+    // controlador): el primero que acepte Accept por calidad y luego por especificidad
+    public static MediaType representacion(String accept, MediaType... producibles) {
+        List<MediaType> aceptados;
+        try {
+            aceptados = accept == null || accept.isBlank()
+                ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return producibles[0];
+        }
+        aceptados = new ArrayList<>(aceptados);
+        aceptados.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+            .thenComparing(MediaType::isWildcardType)
+            .thenComparing(MediaType::isWildcardSubtype));
+        for (MediaType aceptado : aceptados) {
+            for (MediaType producible : producibles) {
+                if (aceptado.includes(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return producibles[0];
+    }
+
+    // Versión exigida por If-Match; null si no hay cabecera o es "*". Las ETags débiles nunca coinciden.
+    public static Long versionEsperada(String ifMatch, String entity) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/") || valor.contains(",")) {
+            throw new VersionNoCoincideException(entity, valor, "una única ETag fuerte");
+        }
+        try {
+            return Long.valueOf(valor.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new VersionNoCoincideException(entity, valor, "una ETag numérica");
+        }
+    }
+
+    public static void verificar(Long versionEsperada, Long versionActual, String entity) {
+        if (versionEsperada != null && !versionEsperada.equals(versionActual)) {
+            throw new VersionNoCoincideException(entity, deVersion(versionEsperada), deVersion(versionActual));
+        }
+    }
+}
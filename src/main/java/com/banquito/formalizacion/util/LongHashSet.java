@@ -0,0 +1,86 @@
+package com.banquito.formalizacion.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Conjunto de long con direccionamiento abierto, sin boxing.
+// Las escrituras se serializan; las lecturas no bloquean. Cada celda se escribe y se lee con semántica
+// volátil, así un valor agregado es visible para cualquier lectura que empiece después.
+public class LongHashSet {
+
+    private static final long VACIO = 0L;
+    private static final float FACTOR_CARGA = 0.5f;
+
+    private volatile AtomicLongArray tabla;
+    private volatile boolean contieneCero;
+    private int tamanio;
+
+    public LongHashSet(int capacidadInicial) {
+        int capacidad = Integer.highestOneBit(Math.max(16, (int) (capacidadInicial / FACTOR_CARGA)) - 1) << 1;
+        this.tabla = new AtomicLongArray(capacidad);
+    }
+
+    public synchronized boolean agregar(long valor) {
+        if (valor == VACIO) {
+            boolean nuevo = !contieneCero;
+            contieneCero = true;
+            return nuevo;
+        }
+        AtomicLongArray actual = tabla;
+        if (tamanio + 1 > actual.length() * FACTOR_CARGA) {
+            // Se construye una tabla nueva y se publica; los lectores concurrentes siguen con la anterior
+            AtomicLongArray nueva = new AtomicLongArray(actual.length() << 1);
+            for (int i = 0; i < actual.length(); i++) {
+                long v = actual.get(i);
+                if (v != VACIO) {
+                    insertar(nueva, v);
+                }
+            }
+            tabla = nueva;
+        }
+        if (insertar(tabla, valor)) {
+            tamanio++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean contiene(long valor) {
+        if (valor == VACIO) {
+            return contieneCero;
+        }
+        AtomicLongArray t = tabla;
+        int mascara = t.length() - 1;
+        int i = indice(valor, mascara);
+        long actual;
+        while ((actual = t.get(i)) != VACIO) {
+            if (actual == valor) {
+                return true;
+            }
+            i = (i + 1) & mascara;
+        }
+        return false;
+    }
+
+    public synchronized int tamanio() {
+        return tamanio + (contieneCero ? 1 : 0);
+    }
+
+    private static boolean insertar(AtomicLongArray t, long valor) {
+        int mascara = t.length() - 1;
+        int i = indice(valor, mascara);
+        long actual;
+        while ((actual = t.get(i)) != VACIO) {
+            if (actual == valor) {
+                return false;
+            }
+            i = (i + 1) & mascara;
+        }
+        t.set(i, valor);
+        return true;
+    }
+
+    private static int indice(long valor, int mascara) {
+        long h = valor * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
@@ -0,0 +1,95 @@
+-- Particionamiento por rango mensual de formalizacion.pagares sobre fecha_vencimiento.
+-- Idempotente: si la tabla ya está particionada no hace nada; si existe sin particionar
+-- la reemplaza conservando los datos y los IDs.
+
+CREATE SCHEMA IF NOT EXISTS formalizacion_archivo;
+
+-- Crea (si falta) la partición mensual que contiene "mes". Si la partición DEFAULT ya tiene
+-- filas de ese rango se mueven antes de adjuntar, de lo contrario ATTACH fallaría.
+CREATE OR REPLACE FUNCTION formalizacion.crear_particion_mensual(tabla text, columna text, mes date)
+RETURNS text AS $$
+DECLARE
+    inicio date := date_trunc('month', mes)::date;
+    fin date := (date_trunc('month', mes) + interval '1 month')::date;
+    nombre text := tabla || '_' || to_char(inicio, 'YYYY_MM');
+BEGIN
+    IF to_regclass('formalizacion.' || nombre) IS NOT NULL THEN
+        RETURN nombre;
+    END IF;
+    EXECUTE format('CREATE TABLE formalizacion.%I (LIKE formalizacion.%I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   nombre, tabla);
+    IF to_regclass('formalizacion.' || tabla || '_default') IS NOT NULL THEN
+        EXECUTE format('WITH movidos AS (DELETE FROM formalizacion.%I WHERE %I >= %L AND %I < %L RETURNING *) '
+                       || 'INSERT INTO formalizacion.%I SELECT * FROM movidos',
+                       tabla || '_default', columna, inicio, columna, fin, nombre);
+    END IF;
+    EXECUTE format('ALTER TABLE formalizacion.%I ATTACH PARTITION formalizacion.%I FOR VALUES FROM (%L) TO (%L)',
+                   tabla, nombre, inicio, fin);
+    RETURN nombre;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    existe boolean;
+    particionada boolean;
+    mes date;
+    hasta date;
+BEGIN
+    SELECT to_regclass('formalizacion.pagares') IS NOT NULL INTO existe;
+    SELECT EXISTS (
+        SELECT 1 FROM pg_partitioned_table pt
+        JOIN pg_class c ON c.oid = pt.partrelid
+        JOIN pg_namespace n ON n.oid = c.relnamespace
+        WHERE n.nspname = 'formalizacion' AND c.relname = 'pagares'
+    ) INTO particionada;
+
+    IF particionada THEN
+        RETURN;
+    END IF;
+
+    IF existe THEN
+        ALTER TABLE formalizacion.pagares RENAME TO pagares_sin_particion;
+    END IF;
+
+    -- La clave primaria debe incluir la columna de partición
+    CREATE TABLE formalizacion.pagares (
+        id_pagare bigint GENERATED BY DEFAULT AS IDENTITY,
+        id_contrato_credito bigint NOT NULL,
+        numero_cuota bigint NOT NULL,
+        monto_cuota numeric(10, 2) NOT NULL,
+        fecha_vencimiento date NOT NULL,
+        estado varchar(255) NOT NULL,
+        version bigint,
+        PRIMARY KEY (id_pagare, fecha_vencimiento)
+    ) PARTITION BY RANGE (fecha_vencimiento);
+
+    CREATE TABLE formalizacion.pagares_default PARTITION OF formalizacion.pagares DEFAULT;
+
+    CREATE INDEX idx_pagares_contrato_cuota ON formalizacion.pagares (id_contrato_credito, numero_cuota);
+    CREATE INDEX idx_pagares_estado_vencimiento ON formalizacion.pagares (estado, fecha_vencimiento);
+
+    mes := date_trunc('month', current_date)::date;
+    IF existe THEN
+        SELECT coalesce(least(min(date_trunc('month', fecha_vencimiento))::date, mes), mes)
+          INTO mes FROM formalizacion.pagares_sin_particion;
+    END IF;
+    hasta := (date_trunc('month', current_date) + interval '132 months')::date;
+    WHILE mes <= hasta LOOP
+        PERFORM formalizacion.crear_particion_mensual('pagares', 'fecha_vencimiento', mes);
+        mes := (mes + interval '1 month')::date;
+    END LOOP;
+
+    IF existe THEN
+        INSERT INTO formalizacion.pagares
+            (id_pagare, id_contrato_credito, numero_cuota, monto_cuota, fecha_vencimiento, estado, version)
+        SELECT id_pagare, id_contrato_credito, numero_cuota, monto_cuota, fecha_vencimiento, estado, version
+        FROM formalizacion.pagares_sin_particion;
+
+        PERFORM setval(pg_get_serial_sequence('formalizacion.pagares', 'id_pagare'),
+                       (SELECT coalesce(max(id_pagare), 0) + 1 FROM formalizacion.pagares), false);
+
+        DROP TABLE formalizacion.pagares_sin_particion;
+    END IF;
+END;
+$$;
@@ -0,0 +1,67 @@
+-- Registro de auditoría de solo inserción, particionado por rango mensual sobre fecha.
+-- Lo escribe AuditoriaService en lotes; UPDATE y DELETE se rechazan con un trigger.
+
+CREATE TABLE IF NOT EXISTS formalizacion.auditoria (
+    id_auditoria bigint GENERATED BY DEFAULT AS IDENTITY,
+    fecha timestamp NOT NULL,
+    entidad varchar(40) NOT NULL,
+    id_entidad bigint NOT NULL,
+    tipo_contrato varchar(20),
+    id_contrato bigint,
+    operacion varchar(10) NOT NULL,
+    version bigint,
+    usuario varchar(100),
+    cambios jsonb NOT NULL,
+    PRIMARY KEY (id_auditoria, fecha)
+) PARTITION BY RANGE (fecha);
+
+CREATE TABLE IF NOT EXISTS formalizacion.auditoria_default PARTITION OF formalizacion.auditoria DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_auditoria_contrato ON formalizacion.auditoria (tipo_contrato, id_contrato, id_auditoria);
+CREATE INDEX IF NOT EXISTS idx_auditoria_entidad ON formalizacion.auditoria (entidad, id_entidad, id_auditoria);
+
+-- Solo crear_particion_mensual puede borrar filas (al moverlas desde la partición DEFAULT)
+CREATE OR REPLACE FUNCTION formalizacion.rechazar_modificacion_auditoria()
+RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' AND current_setting('formalizacion.moviendo_particion', true) = 'on' THEN
+        RETURN OLD;
+    END IF;
+    RAISE EXCEPTION 'formalizacion.auditoria es de solo inserción (% rechazado)', TG_OP;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_auditoria_solo_insercion ON formalizacion.auditoria;
+CREATE TRIGGER trg_auditoria_solo_insercion
+    BEFORE UPDATE OR DELETE ON formalizacion.auditoria
+    FOR EACH ROW EXECUTE FUNCTION formalizacion.rechazar_modificacion_auditoria();
+
+-- Igual que en V1, marcando el movimiento desde DEFAULT para que el trigger lo permita
+CREATE OR REPLACE FUNCTION formalizacion.crear_particion_mensual(tabla text, columna text, mes date)
+RETURNS text AS $$
+DECLARE
+    inicio date := date_trunc('month', mes)::date;
+    fin date := (date_trunc('month', mes) + interval '1 month')::date;
+    nombre text := tabla || '_' || to_char(inicio, 'YYYY_MM');
+BEGIN
+    IF to_regclass('formalizacion.' || nombre) IS NOT NULL THEN
+        RETURN nombre;
+    END IF;
+    EXECUTE format('CREATE TABLE formalizacion.%I (LIKE formalizacion.%I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   nombre, tabla);
+    IF to_regclass('formalizacion.' || tabla || '_default') IS NOT NULL THEN
+        PERFORM set_config('formalizacion.moviendo_particion', 'on', true);
+        EXECUTE format('WITH movidos AS (DELETE FROM formalizacion.%I WHERE %I >= %L AND %I < %L RETURNING *) '
+                       || 'INSERT INTO formalizacion.%I SELECT * FROM movidos',
+                       tabla || '_default', columna, inicio, columna, fin, nombre);
+        PERFORM set_config('formalizacion.moviendo_particion', 'off', true);
+    END IF;
+    EXECUTE format('ALTER TABLE formalizacion.%I ATTACH PARTITION formalizacion.%I FOR VALUES FROM (%L) TO (%L)',
+                   tabla, nombre, inicio, fin);
+    RETURN nombre;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT formalizacion.crear_particion_mensual('auditoria', 'fecha',
+                                             (date_trunc('month', current_date) + make_interval(months => m))::date)
+FROM generate_series(0, 3) AS m;
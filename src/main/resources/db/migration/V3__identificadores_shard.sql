@@ -0,0 +1,19 @@
+-- Identificadores únicos entre shards para contratos de crédito y pagarés: (secuencia << 8) | shard.
+-- Cada base registra su número de shard en shard_local (placeholder ${shard}, 0 sin particionado).
+-- Las secuencias arrancan en 2^32 para que los IDs nuevos (>= 2^40) no choquen con los de IDENTITY,
+-- que siguen siendo válidos y se consideran del shard 0.
+
+CREATE TABLE IF NOT EXISTS formalizacion.shard_local (
+    unico boolean PRIMARY KEY DEFAULT true CHECK (unico),
+    id smallint NOT NULL CHECK (id BETWEEN 0 AND 255)
+);
+
+INSERT INTO formalizacion.shard_local (id) VALUES (${shard}) ON CONFLICT (unico) DO NOTHING;
+
+CREATE SEQUENCE IF NOT EXISTS formalizacion.seq_contrato_credito START WITH 4294967296;
+CREATE SEQUENCE IF NOT EXISTS formalizacion.seq_pagares START WITH 4294967296;
+
+CREATE OR REPLACE FUNCTION formalizacion.siguiente_id(secuencia regclass)
+RETURNS bigint AS $$
+    SELECT (nextval(secuencia) << 8) | (SELECT id FROM formalizacion.shard_local)
+$$ LANGUAGE sql;
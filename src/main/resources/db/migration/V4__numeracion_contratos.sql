@@ -0,0 +1,6 @@
+-- Numeración de contratos emitida por el servicio. Cada nextval arrienda un bloque de números: el valor
+-- devuelto es el primero y el incremento es el tamaño del bloque. Con shards solo se usan las del shard 0.
+-- Cambiar el tamaño: ALTER SEQUENCE ... INCREMENT BY n (los bloques ya arrendados siguen válidos).
+
+CREATE SEQUENCE IF NOT EXISTS formalizacion.seq_numero_contrato_credito START WITH 1 INCREMENT BY 100;
+CREATE SEQUENCE IF NOT EXISTS formalizacion.seq_numero_contrato_compra_venta START WITH 1 INCREMENT BY 100;
@@ -0,0 +1,54 @@
+-- La auditoría rechaza UPDATE y DELETE sin excepciones. La excepción de V2 dependía de una variable de
+-- sesión que cualquier conexión podía fijar. crear_particion_mensual ya no borra filas de DEFAULT: si
+-- tiene filas del mes nuevo, reemplaza la partición DEFAULT por una copia sin ellas y elimina la anterior.
+
+CREATE OR REPLACE FUNCTION formalizacion.rechazar_modificacion_auditoria()
+RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'formalizacion.auditoria es de solo inserción (% rechazado)', TG_OP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- El reemplazo de DEFAULT bloquea la tabla padre durante la copia; con las particiones creadas por
+-- adelantado (ParticionService) DEFAULT no tiene filas del mes y se adjunta directamente.
+CREATE OR REPLACE FUNCTION formalizacion.crear_particion_mensual(tabla text, columna text, mes date)
+RETURNS text AS $$
+DECLARE
+    inicio date := date_trunc('month', mes)::date;
+    fin date := (date_trunc('month', mes) + interval '1 month')::date;
+    nombre text := tabla || '_' || to_char(inicio, 'YYYY_MM');
+    predeterminada text := tabla || '_default';
+    anterior text := tabla || '_default_reemplazada';
+    hay_filas boolean := false;
+BEGIN
+    IF to_regclass('formalizacion.' || nombre) IS NOT NULL THEN
+        RETURN nombre;
+    END IF;
+    EXECUTE format('CREATE TABLE formalizacion.%I (LIKE formalizacion.%I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   nombre, tabla);
+    IF to_regclass('formalizacion.' || predeterminada) IS NOT NULL THEN
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM formalizacion.%I WHERE %I >= %L AND %I < %L)',
+                       predeterminada, columna, inicio, columna, fin)
+            INTO hay_filas;
+    END IF;
+    IF hay_filas THEN
+        EXECUTE format('ALTER TABLE formalizacion.%I DETACH PARTITION formalizacion.%I', tabla, predeterminada);
+        EXECUTE format('ALTER TABLE formalizacion.%I RENAME TO %I', predeterminada, anterior);
+        EXECUTE format('INSERT INTO formalizacion.%I SELECT * FROM formalizacion.%I WHERE %I >= %L AND %I < %L',
+                       nombre, anterior, columna, inicio, columna, fin);
+        EXECUTE format('CREATE TABLE formalizacion.%I (LIKE formalizacion.%I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                       predeterminada, tabla);
+        EXECUTE format('INSERT INTO formalizacion.%I SELECT * FROM formalizacion.%I '
+                       || 'WHERE (%I >= %L AND %I < %L) IS NOT TRUE',
+                       predeterminada, anterior, columna, inicio, columna, fin);
+    END IF;
+    EXECUTE format('ALTER TABLE formalizacion.%I ATTACH PARTITION formalizacion.%I FOR VALUES FROM (%L) TO (%L)',
+                   tabla, nombre, inicio, fin);
+    IF hay_filas THEN
+        EXECUTE format('ALTER TABLE formalizacion.%I ATTACH PARTITION formalizacion.%I DEFAULT',
+                       tabla, predeterminada);
+        EXECUTE format('DROP TABLE formalizacion.%I', anterior);
+    END IF;
+    RETURN nombre;
+END;
+$$ LANGUAGE plpgsql;
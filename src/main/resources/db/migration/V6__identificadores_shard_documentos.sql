@@ -0,0 +1,4 @@
+-- Los documentos de un contrato de crédito viven en el shard del contrato: su ID también lleva el shard
+-- (ver V3__identificadores_shard.sql) para que las descargas por ID lleguen a la base correcta.
+
+CREATE SEQUENCE IF NOT EXISTS formalizacion.seq_documento_contrato START WITH 4294967296;
@@ -0,0 +1,12 @@
+-- saldo_pendiente sumaba las cuotas no pagadas completas (capital más interés), no el saldo de capital:
+-- se renombra a lo que es. La tabla la crea Hibernate, puede no existir todavía.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = 'formalizacion' AND table_name = 'resumen_cartera_estado'
+                 AND column_name = 'saldo_pendiente') THEN
+        ALTER TABLE formalizacion.resumen_cartera_estado RENAME COLUMN saldo_pendiente TO monto_cuotas_pendientes;
+    END IF;
+END
+$$;
@@ -0,0 +1,16 @@
+// Reemplaza al inicializador del webjar: muestra la especificación pregenerada (perfil docs)
+window.onload = function() {
+  window.ui = SwaggerUIBundle({
+    url: "/openapi/formalizacion.json",
+    dom_id: '#swagger-ui',
+    deepLinking: true,
+    presets: [
+      SwaggerUIBundle.presets.apis,
+      SwaggerUIStandalonePreset
+    ],
+    plugins: [
+      SwaggerUIBundle.plugins.DownloadUrl
+    ],
+    layout: "StandaloneLayout"
+  });
+};
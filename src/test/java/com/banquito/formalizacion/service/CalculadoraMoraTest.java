@@ -0,0 +1,82 @@
+package com.banquito.formalizacion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CalculadoraMoraTest {
+
+    // capital * tasa * días / (10000 * base) redondeado mitad hacia arriba, sin riesgo de desborde
+    private static long esperado(long capital, int tasaBps, int dias, int baseDias) {
+        return BigDecimal.valueOf(capital).multiply(BigDecimal.valueOf(tasaBps)).multiply(BigDecimal.valueOf(dias))
+            .divide(BigDecimal.valueOf(10_000L * baseDias), 0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    @Test
+    void calculaInteresSimple() {
+        // 1000,00 al 12 % durante 30 días en base 360 = 10,00
+        assertThat(CalculadoraMora.interesCentavos(100_000, 1200, 30, 360)).isEqualTo(1000);
+        assertThat(CalculadoraMora.interesCentavos(100_000, 1200, 365, 365)).isEqualTo(12_000);
+    }
+
+    @Test
+    void redondeaMitadHaciaArriba() {
+        // 0,5 centavos exactos sube; apenas por debajo baja
+        assertThat(CalculadoraMora.interesCentavos(1, 10_000, 180, 360)).isEqualTo(1);
+        assertThat(CalculadoraMora.interesCentavos(1, 10_000, 179, 360)).isZero();
+        // 12345 * 0,0999 * 7 / 365 = 23,65... centavos
+        assertThat(CalculadoraMora.interesCentavos(12_345, 999, 7, 365)).isEqualTo(24);
+    }
+
+    @Test
+    void acumulaElRestoDeCadaDia() {
+        // 0,0274 centavos diarios durante 100 días = 2,74; redondear cada día y multiplicar daría 0
+        assertThat(CalculadoraMora.interesCentavos(100, 1000, 100, 365)).isEqualTo(3);
+    }
+
+    @Test
+    void noDesbordaConCapitalesGrandes() {
+        // capital * tasa * días no cabe en un long; capital * tasa sí
+        long capital = 1_000_000_000_000_000L;
+        assertThat(CalculadoraMora.interesCentavos(capital, 5000, 365, 365)).isEqualTo(500_000_000_000_000L);
+        assertThat(CalculadoraMora.interesCentavos(capital, 3333, 1000, 360)).isEqualTo(esperado(capital, 3333, 1000, 360));
+    }
+
+    @Test
+    void coincideConElCalculoDecimal() {
+        Random aleatorio = new Random(44);
+        for (int i = 0; i < 100_000; i++) {
+            long capital = 1 + aleatorio.nextInt(100_000_000);
+            int tasa = 1 + aleatorio.nextInt(10_000);
+            int dias = 1 + aleatorio.nextInt(3650);
+            int base = aleatorio.nextBoolean() ? 360 : 365;
+            assertThat(CalculadoraMora.interesCentavos(capital, tasa, dias, base))
+                .as("capital=%d tasa=%d dias=%d base=%d", capital, tasa, dias, base)
+                .isEqualTo(esperado(capital, tasa, dias, base));
+        }
+    }
+
+    @Test
+    void sinCapitalTasaODiasNoHayInteres() {
+        assertThat(CalculadoraMora.interesCentavos(0, 1200, 30, 360)).isZero();
+        assertThat(CalculadoraMora.interesCentavos(-100, 1200, 30, 360)).isZero();
+        assertThat(CalculadoraMora.interesCentavos(100_000, 0, 30, 360)).isZero();
+        assertThat(CalculadoraMora.interesCentavos(100_000, 1200, 0, 360)).isZero();
+        assertThat(CalculadoraMora.interesCentavos(100_000, 1200, -5, 360)).isZero();
+    }
+
+    @Test
+    void redondeaMontosYTasasAlCentesimo() {
+        assertThat(CalculadoraMora.centavos(new BigDecimal("10.005"))).isEqualTo(1001);
+        assertThat(CalculadoraMora.centavos(new BigDecimal("10.004"))).isEqualTo(1000);
+        assertThat(CalculadoraMora.centavos(new BigDecimal("7"))).isEqualTo(700);
+        // 12,50 % con recargo del 110 % = 13,75 %
+        assertThat(CalculadoraMora.tasaMoraBps(new BigDecimal("12.50"), 110)).isEqualTo(1375);
+        // 12,345 → 12,35 %; 1235 * 1,1 = 1358,5 → 1359
+        assertThat(CalculadoraMora.tasaMoraBps(new BigDecimal("12.345"), 110)).isEqualTo(1359);
+    }
+}
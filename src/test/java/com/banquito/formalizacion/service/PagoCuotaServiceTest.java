@@ -0,0 +1,127 @@
+package com.banquito.formalizacion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.formalizacion.controller.dto.ResultadoCargaPagosDTO;
+import com.banquito.formalizacion.controller.mapper.PagoCuotaMapper;
+import com.banquito.formalizacion.repository.PagoCuotaRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PagoCuotaServiceTest {
+
+    @TempDir
+    Path directorio;
+
+    private static PagoCuotaService.Linea parsear(String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        return PagoCuotaService.Linea.parsear(ByteBuffer.wrap(bytes), 0, bytes.length, 1);
+    }
+
+    @Test
+    void parseaLineaCompleta() {
+        PagoCuotaService.Linea linea = parsear("1099511628032;3;125.50;2025-03-15;CAJA 01 ");
+
+        assertThat(linea.idContratoCredito()).isEqualTo(1099511628032L);
+        assertThat(linea.numeroCuota()).isEqualTo(3);
+        assertThat(linea.montoCentavos()).isEqualTo(12550);
+        assertThat(linea.fechaPago()).isEqualTo(LocalDate.of(2025, 3, 15));
+        assertThat(linea.referencia()).isEqualTo("CAJA 01");
+    }
+
+    @Test
+    void aceptaComaComoSeparadorYLineaSinReferencia() {
+        PagoCuotaService.Linea linea = parsear("7,1,80.00,2025-01-31");
+
+        assertThat(linea.idContratoCredito()).isEqualTo(7);
+        assertThat(linea.montoCentavos()).isEqualTo(8000);
+        assertThat(linea.referencia()).isNull();
+    }
+
+    @Test
+    void completaLosDecimalesFaltantes() {
+        assertThat(parsear("1;1;100;2025-01-15").montoCentavos()).isEqualTo(10000);
+        assertThat(parsear("1;1;100.5;2025-01-15").montoCentavos()).isEqualTo(10050);
+        assertThat(parsear("1;1;100.;2025-01-15").montoCentavos()).isEqualTo(10000);
+    }
+
+    @Test
+    void rechazaMontosMalFormados() {
+        assertThat(parsear("1;1;100.505;2025-01-15")).isNull();
+        assertThat(parsear("1;1;.50;2025-01-15")).isNull();
+        assertThat(parsear("1;1;1.2.3;2025-01-15")).isNull();
+        assertThat(parsear("1;1;-10.00;2025-01-15")).isNull();
+        assertThat(parsear("1;1;0.00;2025-01-15")).isNull();
+        assertThat(parsear("1;1;;2025-01-15")).isNull();
+        // Más de 13 dígitos enteros desbordaría el monto en centavos
+        assertThat(parsear("1;1;99999999999999;2025-01-15")).isNull();
+        assertThat(parsear("1;1;9999999999999.99;2025-01-15").montoCentavos()).isEqualTo(999999999999999L);
+    }
+
+    @Test
+    void rechazaFechasInvalidas() {
+        assertThat(parsear("1;1;10.00;2025-02-30")).isNull();
+        assertThat(parsear("1;1;10.00;2025-13-01")).isNull();
+        assertThat(parsear("1;1;10.00;2025/01/15")).isNull();
+        assertThat(parsear("1;1;10.00;25-01-15")).isNull();
+        assertThat(parsear("1;1;10.00;2025-1-15")).isNull();
+        assertThat(parsear("1;1;10.00;2025-0a-15")).isNull();
+        assertThat(parsear("1;1;10.00")).isNull();
+        assertThat(parsear("1;1;10.00;2024-02-29").fechaPago()).isEqualTo(LocalDate.of(2024, 2, 29));
+    }
+
+    @Test
+    void limitaLosEnterosA18Digitos() {
+        assertThat(parsear("999999999999999999;1;10.00;2025-01-15").idContratoCredito())
+            .isEqualTo(999_999_999_999_999_999L);
+        assertThat(parsear("9999999999999999999;1;10.00;2025-01-15")).isNull();
+        assertThat(parsear("1;0000000000000000001;10.00;2025-01-15")).isNull();
+    }
+
+    @Test
+    void rechazaIdentificadoresVaciosOCero() {
+        assertThat(parsear(";1;10.00;2025-01-15")).isNull();
+        assertThat(parsear("0;1;10.00;2025-01-15")).isNull();
+        assertThat(parsear("1;0;10.00;2025-01-15")).isNull();
+        assertThat(parsear("1x;1;10.00;2025-01-15")).isNull();
+    }
+
+    @Test
+    void omiteCabeceraLineasVaciasYRetornoDeCarro() throws IOException {
+        // Sin transacción real el lote no se aplica: solo quedan los rechazos de formato
+        PagoCuotaService servicio = new PagoCuotaService(mock(JdbcTemplate.class), mock(TransactionTemplate.class),
+            mock(TransicionEstadoService.class), mock(PagoCuotaRepository.class), mock(PagoCuotaMapper.class),
+            mock(ApplicationEventPublisher.class), new SimpleMeterRegistry(), 2, 10);
+        Path archivo = Files.writeString(directorio.resolve("pagos.txt"), """
+            idContratoCredito;numeroCuota;monto;fechaPago;referencia\r
+            1;1;10.00;2025-01-15\r
+            \r
+            1;2;10.00;2025-02-30\r
+            1;3;10.00;2025-03-15;REF\r
+
+            2;1;10.000;2025-01-15""");
+
+        ResultadoCargaPagosDTO resultado = servicio.procesar(archivo, "pagos.txt", true);
+
+        assertThat(resultado.getLineas()).isEqualTo(4);
+        assertThat(resultado.getRechazosPorMotivo()).containsExactly(Map.entry("FORMATO_INVALIDO", 2L));
+        assertThat(resultado.getDetalleRechazos())
+            .containsExactly("línea 4: FORMATO_INVALIDO", "línea 7: FORMATO_INVALIDO");
+        assertThat(resultado.getLotes()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.banquito.formalizacion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PrepagoServiceTest {
+
+    private static long esperado(long monto, long parte, long total) {
+        return BigDecimal.valueOf(monto).multiply(BigDecimal.valueOf(parte))
+            .divide(BigDecimal.valueOf(total), 0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    @Test
+    void prorrateaPorDias() {
+        // 10,00 de interés mensual, 15 de 30 días
+        assertThat(PrepagoService.prorratear(1000, 15, 30)).isEqualTo(500);
+        assertThat(PrepagoService.prorratear(1000, 30, 30)).isEqualTo(1000);
+        assertThat(PrepagoService.prorratear(1000, 10, 31)).isEqualTo(323);
+    }
+
+    @Test
+    void redondeaMitadHaciaArriba() {
+        // 1 * 1 / 2 = 0,5 sube; 1 * 1 / 3 = 0,33 baja; 2 * 1 / 3 = 0,67 sube
+        assertThat(PrepagoService.prorratear(1, 1, 2)).isEqualTo(1);
+        assertThat(PrepagoService.prorratear(1, 1, 3)).isZero();
+        assertThat(PrepagoService.prorratear(2, 1, 3)).isEqualTo(1);
+        // 999 * 7 / 30 = 233,1; 1001 * 15 / 30 = 500,5
+        assertThat(PrepagoService.prorratear(999, 7, 30)).isEqualTo(233);
+        assertThat(PrepagoService.prorratear(1001, 15, 30)).isEqualTo(501);
+    }
+
+    @Test
+    void lasDosPartesDeUnPeriodoSumanElTotalSalvoUnCentavo() {
+        for (long dias = 1; dias < 31; dias++) {
+            long suma = PrepagoService.prorratear(12_345, dias, 31) + PrepagoService.prorratear(12_345, 31 - dias, 31);
+            assertThat(suma).isBetween(12_344L, 12_346L);
+        }
+    }
+
+    @Test
+    void noDesbordaConMontosGrandes() {
+        long monto = Long.MAX_VALUE / 10;
+        assertThat(PrepagoService.prorratear(monto, 29, 31)).isEqualTo(esperado(monto, 29, 31));
+    }
+
+    @Test
+    void coincideConElCalculoDecimal() {
+        Random aleatorio = new Random(45);
+        for (int i = 0; i < 100_000; i++) {
+            long monto = aleatorio.nextInt(1_000_000_000);
+            long total = 1 + aleatorio.nextInt(366);
+            long parte = 1 + aleatorio.nextInt((int) total);
+            assertThat(PrepagoService.prorratear(monto, parte, total))
+                .as("monto=%d parte=%d total=%d", monto, parte, total)
+                .isEqualTo(esperado(monto, parte, total));
+        }
+    }
+
+    @Test
+    void sinPeriodoOSinDiasNoHayMonto() {
+        assertThat(PrepagoService.prorratear(1000, 0, 30)).isZero();
+        assertThat(PrepagoService.prorratear(1000, -3, 30)).isZero();
+        assertThat(PrepagoService.prorratear(1000, 5, 0)).isZero();
+    }
+}